@@ -11,6 +11,7 @@ public class ConsumerGroupOffsets {
     private long currentOffset;
     private long logEndOffset;
     private long lag;
+    private long timeLagMillis = -1; // -1 when unknown
     private String clientId;
     
     public ConsumerGroupOffsets() {}
@@ -50,6 +51,9 @@ public class ConsumerGroupOffsets {
     public long getLag() { return lag; }
     public void setLag(long lag) { this.lag = lag; }
     
+    public long getTimeLagMillis() { return timeLagMillis; }
+    public void setTimeLagMillis(long timeLagMillis) { this.timeLagMillis = timeLagMillis; }
+    
     public String getClientId() { return clientId; }
     public void setClientId(String clientId) { this.clientId = clientId; }
 }
\ No newline at end of file
@@ -1,6 +1,29 @@
 package com.kafkatool.service;
 
 import com.kafkatool.model.*;
+import com.kafkatool.util.backup.BackupManifest;
+import com.kafkatool.util.backup.BackupOptions;
+import com.kafkatool.util.compare.CompareOptions;
+import com.kafkatool.util.compare.TopicComparison;
+import com.kafkatool.util.export.ExportFormat;
+import com.kafkatool.util.export.ExportManifest;
+import com.kafkatool.util.export.ImportResult;
+import com.kafkatool.util.export.MessageExportImportUtil;
+import com.kafkatool.util.lag.LagMonitor;
+import com.kafkatool.util.lag.LagSnapshot;
+import com.kafkatool.util.metrics.ServiceMetrics;
+import com.kafkatool.util.mirror.MirrorOptions;
+import com.kafkatool.util.mirror.MirrorSession;
+import com.kafkatool.util.offsets.OffsetResetOptions;
+import com.kafkatool.util.offsets.OffsetResetPlan;
+import com.kafkatool.util.replay.ReplayOptions;
+import com.kafkatool.util.replay.ReplayProgress;
+import com.kafkatool.util.storage.DiskUsageSnapshot;
+import com.kafkatool.util.store.MessageSpillStore;
+import com.kafkatool.util.throughput.ThroughputMonitor;
+import com.kafkatool.util.timeseries.DataPoint;
+import com.kafkatool.util.timeseries.Resolution;
+import com.kafkatool.util.timeseries.TimeSeriesStore;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -50,11 +73,83 @@ public interface EnhancedKafkaService extends KafkaService {
      */
     CompletableFuture<List<MetricsInfo>> getConsumerGroupLagAsync(String brokerUrls, String groupId);
     
+    /**
+     * The cluster's background lag monitor, started on first use; it polls every group's lag
+     * at a fixed interval so callers read snapshots instead of querying the cluster
+     */
+    LagMonitor getLagMonitor(String brokerUrls);
+    
+    /**
+     * The latest lag snapshot of all consumer groups, waiting for the first poll if needed
+     */
+    CompletableFuture<LagSnapshot> getLagSnapshotAsync(String brokerUrls);
+    
+    /**
+     * The cluster's background throughput monitor, started on first use; it samples the end
+     * offsets of all partitions at a fixed interval and keeps smoothed produce rates
+     */
+    ThroughputMonitor getThroughputMonitor(String brokerUrls);
+    
+    /**
+     * Stop all lag and throughput monitors and release their admin clients
+     */
+    void closeLagMonitors();
+    
+    /**
+     * Stop one cluster's lag and throughput monitors, e.g. on disconnect; they restart on next use
+     */
+    void closeLagMonitors(String brokerUrls);
+    
+    /**
+     * Client-side measurements: per-operation timers and the metrics of the clients kept open
+     * for each cluster
+     */
+    ServiceMetrics getServiceMetrics();
+    
+    /**
+     * Compressed in-memory history of the cluster's lag and throughput, fed by its lag monitor
+     */
+    TimeSeriesStore getMetricsStore(String brokerUrls);
+    
+    /**
+     * Points of a metric series between two epoch-millisecond timestamps; a null resolution
+     * picks one that suits the range
+     */
+    CompletableFuture<List<DataPoint>> getMetricHistoryAsync(String brokerUrls, String series,
+                                                             long fromMillis, long toMillis, Resolution resolution);
+    
+    /**
+     * Also write collected metrics to an H2 database at the given path, so history from
+     * earlier runs can be queried; does nothing if persistence is already enabled
+     */
+    void enableMetricsPersistence(File databaseFile);
+    
+    /**
+     * Write any queued metrics and close the metrics database
+     */
+    void closeMetricsPersistence();
+    
     /**
      * Get broker metrics
      */
     CompletableFuture<List<MetricsInfo>> getBrokerMetricsAsync(String brokerUrls, int brokerId);
     
+    /**
+     * Replica sizes per partition, topic, broker and log dir from one describeLogDirs call, with
+     * growth since the previous collection; results are cached for a minute
+     */
+    CompletableFuture<DiskUsageSnapshot> getDiskUsageAsync(String brokerUrls);
+    
+    // ===== CONSUMER GROUP OFFSETS =====
+    
+    /**
+     * Reset the offsets of several consumer groups on several topics in one operation. Topics
+     * may be empty to reset every topic each group has committed offsets for. The returned plan
+     * lists the target offset of every partition and, unless it is a dry run, each group's outcome.
+     */
+    CompletableFuture<OffsetResetPlan> resetConsumerGroupOffsetsAsync(String brokerUrls, List<String> groupIds,
+                                                                      List<String> topics, OffsetResetOptions options);
+    
     // ===== ADVANCED MESSAGE OPERATIONS =====
     
     /**
@@ -63,12 +158,59 @@ public interface EnhancedKafkaService extends KafkaService {
     CompletableFuture<Void> exportMessagesToJsonAsync(String brokerUrls, String topicName, 
                                                       int partition, long fromOffset, long toOffset, File outputFile);
     
+    /**
+     * Export messages to newline-delimited JSON file
+     */
+    CompletableFuture<Long> exportMessagesToNdjsonAsync(String brokerUrls, String topicName,
+                                                        int partition, long fromOffset, long toOffset, File outputFile);
+    
     /**
      * Export messages to CSV file
      */
     CompletableFuture<Void> exportMessagesToCsvAsync(String brokerUrls, String topicName, 
                                                      int partition, long fromOffset, long toOffset, File outputFile);
     
+    /**
+     * Search one partition up to its current end, appending each match straight to an off-heap
+     * spill store so results never collect on the heap. A null or empty pattern matches every
+     * record, and a negative fromTimestamp disables the time range. Returns how many were stored.
+     */
+    CompletableFuture<Long> searchMessagesToSpillStoreAsync(String brokerUrls, String topicName, int partition,
+                                                            String searchPattern, boolean searchInKey,
+                                                            boolean searchInValue, boolean searchInHeaders,
+                                                            long fromTimestamp, long toTimestamp,
+                                                            int maxResults, MessageSpillStore store);
+    
+    /**
+     * Export messages to CSV file, optionally gzip-compressed, reporting progress after each batch
+     */
+    CompletableFuture<Long> exportMessagesToCsvAsync(String brokerUrls, String topicName,
+                                                     int partition, long fromOffset, long toOffset, File outputFile,
+                                                     boolean gzip, MessageExportImportUtil.ProgressCallback callback);
+    
+    /**
+     * Export messages to an Avro object container file with the given block codec and sync interval
+     */
+    CompletableFuture<Long> exportMessagesToAvroAsync(String brokerUrls, String topicName,
+                                                      int partition, long fromOffset, long toOffset, File outputFile,
+                                                      String codec, int syncInterval);
+    
+    /**
+     * Export every partition of a topic in parallel, one file per partition plus a manifest,
+     * using up to {@code workers} concurrent partition readers
+     */
+    CompletableFuture<ExportManifest> exportTopicAsync(String brokerUrls, String topicName, File outputDirectory,
+                                                       ExportFormat format, int workers);
+    
+    /**
+     * Like {@link #exportTopicAsync}, but periodically checkpoints each partition file. If the
+     * directory holds the checkpoint of an interrupted export of the same topic and format, the
+     * export resumes from it instead of starting over.
+     */
+    CompletableFuture<ExportManifest> exportTopicResumableAsync(String brokerUrls, String topicName,
+                                                                File outputDirectory, ExportFormat format,
+                                                                int workers);
+    
     /**
      * Import messages from JSON file
      */
@@ -85,12 +227,26 @@ public interface EnhancedKafkaService extends KafkaService {
     CompletableFuture<Integer> bulkProduceMessagesAsync(String brokerUrls, String topicName, 
                                                        List<KafkaMessage> messages);
     
+    /**
+     * Stream an import file of any supported format into a topic, reporting progress per batch
+     */
+    CompletableFuture<ImportResult> importMessagesAsync(String brokerUrls, String topicName, File inputFile,
+                                                        ExportFormat format,
+                                                        MessageExportImportUtil.ProgressCallback callback);
+    
     /**
      * Replay messages from one topic to another
      */
     CompletableFuture<Integer> replayMessagesAsync(String brokerUrls, String sourceTopic, String targetTopic,
                                                   int sourcePartition, long fromOffset, long toOffset);
     
+    /**
+     * Replay an offset range as raw bytes with optional partition mapping, rate limits and progress reporting
+     */
+    CompletableFuture<ReplayProgress> replayMessagesAsync(String brokerUrls, String sourceTopic, String targetTopic,
+                                                         int sourcePartition, long fromOffset, long toOffset,
+                                                         ReplayOptions options);
+    
     /**
      * Advanced search with regex patterns
      */
@@ -118,6 +274,30 @@ public interface EnhancedKafkaService extends KafkaService {
                                                                            long toTimestamp,
                                                                            int maxResults);
     
+    /**
+     * Read all partitions of a topic within a time window and stream the messages to the sink
+     * in timestamp order, returning how many were emitted. The sink may throw
+     * {@link java.util.concurrent.CancellationException} to stop the read early.
+     */
+    CompletableFuture<Long> streamTopicTimelineAsync(String brokerUrls, String topicName,
+                                                     long fromTimestamp, long toTimestamp, int limit,
+                                                     java.util.function.Consumer<KafkaMessage> sink);
+    
+    /**
+     * As above, also checking the cancelled flag between polls, so a read stops promptly even
+     * while it has nothing to hand to the sink
+     */
+    CompletableFuture<Long> streamTopicTimelineAsync(String brokerUrls, String topicName,
+                                                     long fromTimestamp, long toTimestamp, int limit,
+                                                     java.util.function.Consumer<KafkaMessage> sink,
+                                                     java.util.function.BooleanSupplier cancelled);
+    
+    /**
+     * Get a topic-wide timeline merged across partitions by timestamp
+     */
+    CompletableFuture<List<KafkaMessage>> getTopicTimelineAsync(String brokerUrls, String topicName,
+                                                                long fromTimestamp, long toTimestamp, int limit);
+    
     /**
      * Transform messages with custom logic
      */
@@ -148,11 +328,25 @@ public interface EnhancedKafkaService extends KafkaService {
     CompletableFuture<Void> mirrorTopicAsync(String sourceCluster, String targetCluster, 
                                            String topicName, Map<String, String> config);
     
+    /**
+     * Create the target topic if needed and start mirroring; the returned session reports
+     * per-partition lag and throughput and can be stopped and later resumed from its checkpoint
+     */
+    CompletableFuture<MirrorSession> startMirrorSessionAsync(String sourceCluster, String targetCluster,
+                                                             String topicName, MirrorOptions options);
+    
     /**
      * Compare topics between clusters
      */
     CompletableFuture<Map<String, Object>> compareTopicsAsync(String cluster1, String cluster2, String topicName);
     
+    /**
+     * Hash both copies of a topic into per-partition Merkle trees and report the chunk ranges
+     * that differ; record payloads are hashed as they are read and never stored
+     */
+    CompletableFuture<TopicComparison> compareTopicsAsync(String cluster1, String cluster2, String topicName,
+                                                          CompareOptions options);
+    
     // ===== BACKUP AND RESTORE =====
     
     /**
@@ -160,8 +354,22 @@ public interface EnhancedKafkaService extends KafkaService {
      */
     CompletableFuture<Void> backupTopicAsync(String brokerUrls, String topicName, File backupDirectory);
     
+    /**
+     * Back up a topic as compressed chunk files plus a manifest. Running it again on the same
+     * directory only reads offsets past the previous run.
+     */
+    CompletableFuture<BackupManifest> backupTopicAsync(String brokerUrls, String topicName, File backupDirectory,
+                                                       BackupOptions options);
+    
     /**
      * Restore topic from backup
      */
     CompletableFuture<Void> restoreTopicAsync(String brokerUrls, String topicName, File backupDirectory);
+    
+    /**
+     * Verify a backup's checksums, create the topic if needed and produce all partitions in
+     * parallel, keeping record order within each partition
+     */
+    CompletableFuture<ImportResult> restoreTopicAsync(String brokerUrls, String topicName, File backupDirectory,
+                                                      BackupOptions options);
 }
\ No newline at end of file
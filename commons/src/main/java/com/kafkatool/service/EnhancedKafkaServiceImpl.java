@@ -1,11 +1,109 @@
 package com.kafkatool.service;
 
 import com.kafkatool.model.*;
+import com.kafkatool.util.backup.BackupManifest;
+import com.kafkatool.util.backup.BackupOptions;
+import com.kafkatool.util.backup.PartitionBackupTask;
+import com.kafkatool.util.backup.PartitionRestoreTask;
+import com.kafkatool.util.compare.CompareOptions;
+import com.kafkatool.util.compare.PartitionHasher;
+import com.kafkatool.util.compare.TopicComparison;
+import com.kafkatool.util.compare.TopicHasher;
+import com.kafkatool.util.export.AvroMessageWriter;
+import com.kafkatool.util.export.CsvMessageWriter;
+import com.kafkatool.util.export.ExportCheckpoint;
+import com.kafkatool.util.export.ExportFormat;
+import com.kafkatool.util.export.ExportManifest;
+import com.kafkatool.util.export.ExportPipeline;
+import com.kafkatool.util.export.ImportResult;
+import com.kafkatool.util.export.JsonMessageWriter;
+import com.kafkatool.util.export.MessageExportImportUtil;
+import com.kafkatool.util.export.MessageImporter;
+import com.kafkatool.util.export.MessageReader;
+import com.kafkatool.util.export.MessageWriter;
+import com.kafkatool.util.export.PartitionFileWriter;
+import com.kafkatool.util.lag.ConsumerTimestampLookup;
+import com.kafkatool.util.lag.LagHistoryRecorder;
+import com.kafkatool.util.lag.LagMonitor;
+import com.kafkatool.util.lag.LagSnapshot;
+import com.kafkatool.util.metrics.ServiceMetrics;
+import com.kafkatool.util.mirror.MirrorCheckpointStore;
+import com.kafkatool.util.mirror.MirrorOptions;
+import com.kafkatool.util.mirror.MirrorSession;
+import com.kafkatool.util.offsets.BulkOffsetReset;
+import com.kafkatool.util.offsets.OffsetResetOptions;
+import com.kafkatool.util.offsets.OffsetResetPlan;
+import com.kafkatool.util.replay.ReplayEngine;
+import com.kafkatool.util.replay.ReplayOptions;
+import com.kafkatool.util.replay.ReplayProgress;
+import com.kafkatool.util.storage.DiskUsageCollector;
+import com.kafkatool.util.storage.DiskUsageSnapshot;
+import com.kafkatool.util.store.MessageSpillStore;
+import com.kafkatool.util.throughput.ThroughputHistoryRecorder;
+import com.kafkatool.util.throughput.ThroughputMonitor;
+import com.kafkatool.util.throughput.ThroughputSnapshot;
+import com.kafkatool.util.timeline.TimelineMerger;
+import com.kafkatool.util.timeseries.DataPoint;
+import com.kafkatool.util.timeseries.MetricsDatabase;
+import com.kafkatool.util.timeseries.MetricsSink;
+import com.kafkatool.util.timeseries.Resolution;
+import com.kafkatool.util.timeseries.TimeSeriesStore;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.kafka.KafkaClientMetrics;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 /**
  * Enhanced Kafka service implementation with advanced features
@@ -14,6 +112,31 @@ import java.io.File;
  */
 public class EnhancedKafkaServiceImpl extends KafkaServiceImpl implements EnhancedKafkaService {
     
+    private static final Logger logger = LoggerFactory.getLogger(EnhancedKafkaServiceImpl.class);
+    private static final int EXPORT_BATCH_SIZE = 1000;
+    private static final long CHECKPOINT_INTERVAL_MS = 10_000;
+    private static final long LAG_POLL_INTERVAL_MS = 10_000;
+    private static final long THROUGHPUT_POLL_INTERVAL_MS = 10_000;
+    private static final long DISK_USAGE_CACHE_MS = 60_000;
+    private static final double MB = 1024.0 * 1024.0;
+    
+    /**
+     * A service whose asynchronous operations are timed in its {@link ServiceMetrics}
+     */
+    public static EnhancedKafkaService createInstrumented() {
+        EnhancedKafkaServiceImpl service = new EnhancedKafkaServiceImpl();
+        return ServiceMetrics.instrument(EnhancedKafkaService.class, service, service.getServiceMetrics());
+    }
+    
+    private final Map<String, LagMonitor> lagMonitors = new ConcurrentHashMap<>();
+    private final Map<String, ThroughputMonitor> throughputMonitors = new ConcurrentHashMap<>();
+    private final Map<String, DiskUsageCollector> diskUsageCollectors = new ConcurrentHashMap<>();
+    private final Map<String, TimeSeriesStore> metricsStores = new ConcurrentHashMap<>();
+    private final Map<String, List<KafkaClientMetrics>> clientMetrics = new ConcurrentHashMap<>();
+    private final ServiceMetrics serviceMetrics = new ServiceMetrics();
+    private volatile MetricsDatabase metricsDatabase;
+    private final Map<String, MetricsSink> metricsSinks = new ConcurrentHashMap<>();
+    
     // ===== SECURITY AND ACL MANAGEMENT =====
     
     @Override
@@ -50,66 +173,408 @@ public class EnhancedKafkaServiceImpl extends KafkaServiceImpl implements Enhanc
     
     @Override
     public CompletableFuture<List<MetricsInfo>> getClusterMetricsAsync(String brokerUrls) {
+        LagMonitor monitor = getLagMonitor(brokerUrls);
+        ThroughputMonitor throughput = getThroughputMonitor(brokerUrls);
         return CompletableFuture.supplyAsync(() -> {
-            List<MetricsInfo> metrics = new ArrayList<>();
+            Properties props = new Properties();
+            props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+            props.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, "15000");
             
-            // Create some sample cluster metrics
-            metrics.add(createMetric("messages_per_sec", Math.random() * 1000, "messages/sec", "throughput"));
-            metrics.add(createMetric("avg_latency_ms", Math.random() * 100, "ms", "latency"));
-            metrics.add(createMetric("total_partitions", Math.random() * 500, "count", "cluster"));
-            metrics.add(createMetric("total_topics", Math.random() * 50, "count", "cluster"));
-            metrics.add(createMetric("active_consumers", Math.random() * 100, "count", "consumers"));
-            metrics.add(createMetric("bytes_per_sec", Math.random() * 1024 * 1024, "bytes/sec", "throughput"));
-            
-            return metrics;
+            try (AdminClient adminClient = AdminClient.create(props)) {
+                Collection<Node> nodes = adminClient.describeCluster().nodes().get();
+                Set<String> topicNames = adminClient.listTopics().names().get();
+                int partitions = adminClient.describeTopics(topicNames).allTopicNames().get().values().stream()
+                    .mapToInt(description -> description.partitions().size()).sum();
+                LagSnapshot snapshot = monitor.getSnapshot();
+                
+                List<MetricsInfo> metrics = new ArrayList<>();
+                ThroughputSnapshot rates = throughput.getSnapshot();
+                metrics.add(createMetric("messages_per_sec", 
+                    rates != null ? rates.getCluster().getSmoothed() : 0, "messages/sec", "throughput"));
+                metrics.add(createMetric("messages_last_interval_per_sec", 
+                    rates != null ? rates.getCluster().getCurrent() : 0, "messages/sec", "throughput"));
+                metrics.add(createMetric("avg_latency_ms", 
+                    serviceMetrics.clientMean("node.request.latency.avg", brokerUrls), "ms", "latency"));
+                metrics.add(createMetric("bytes_in_per_sec", 
+                    serviceMetrics.clientSum("incoming.byte.rate", brokerUrls), "bytes/sec", "client"));
+                metrics.add(createMetric("requests_per_sec", 
+                    serviceMetrics.clientSum("request.rate", brokerUrls), "requests/sec", "client"));
+                metrics.add(createMetric("total_brokers", nodes.size(), "count", "cluster"));
+                metrics.add(createMetric("total_topics", topicNames.size(), "count", "cluster"));
+                metrics.add(createMetric("total_partitions", partitions, "count", "cluster"));
+                metrics.add(createMetric("consumer_groups", snapshot != null ? snapshot.getGroups().size() : 0, "count", "consumers"));
+                metrics.add(createMetric("total_consumer_lag", snapshot != null ? snapshot.getTotalLag() : 0, "messages", "consumers"));
+                metrics.add(createMetric("avg_operation_ms", serviceMetrics.getMeanOperationMillis(), "ms", "service"));
+                metrics.add(createMetric("failed_operations", serviceMetrics.getErrorCount(), "count", "service"));
+                return metrics;
+            } catch (Exception e) {
+                logger.error("Failed to collect cluster metrics for {}: {}", brokerUrls, e.getMessage());
+                throw new RuntimeException("Failed to collect cluster metrics: " + e.getMessage(), e);
+            }
         });
     }
     
     @Override
     public CompletableFuture<List<MetricsInfo>> getTopicMetricsAsync(String brokerUrls, String topicName) {
+        LagMonitor monitor = getLagMonitor(brokerUrls);
+        ThroughputMonitor throughput = getThroughputMonitor(brokerUrls);
         return CompletableFuture.supplyAsync(() -> {
-            List<MetricsInfo> metrics = new ArrayList<>();
-            
-            // Create some sample topic metrics
-            metrics.add(createMetric("topic_messages_per_sec", Math.random() * 500, "messages/sec", "topic_throughput"));
-            metrics.add(createMetric("topic_size_mb", Math.random() * 1024, "MB", "topic_size"));
-            metrics.add(createMetric("topic_lag", Math.random() * 1000, "messages", "topic_lag"));
-            metrics.add(createMetric("topic_offset_increase_rate", Math.random() * 100, "offset/sec", "topic_rate"));
+            Properties props = new Properties();
+            props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+            props.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, "15000");
             
-            return metrics;
+            try (AdminClient adminClient = AdminClient.create(props)) {
+                TopicDescription description = adminClient.describeTopics(List.of(topicName))
+                    .allTopicNames().get().get(topicName);
+                Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+                Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+                description.partitions().forEach(info -> {
+                    earliest.put(new TopicPartition(topicName, info.partition()), OffsetSpec.earliest());
+                    latest.put(new TopicPartition(topicName, info.partition()), OffsetSpec.latest());
+                });
+                ListOffsetsResult earliestResult = adminClient.listOffsets(earliest);
+                ListOffsetsResult latestResult = adminClient.listOffsets(latest);
+                long messages = 0;
+                long endOffsets = 0;
+                for (TopicPartition partition : latest.keySet()) {
+                    long end = latestResult.partitionResult(partition).get().offset();
+                    messages += end - earliestResult.partitionResult(partition).get().offset();
+                    endOffsets += end;
+                }
+                
+                long lag = 0;
+                LagSnapshot snapshot = monitor.getSnapshot();
+                if (snapshot != null) {
+                    for (LagSnapshot.GroupLag group : snapshot.getGroups().values()) {
+                        lag += group.getTopicLag(topicName);
+                    }
+                }
+                
+                List<MetricsInfo> metrics = new ArrayList<>();
+                ThroughputSnapshot rates = throughput.getSnapshot();
+                ThroughputSnapshot.Rate rate = rates != null ? rates.getTopic(topicName) : ThroughputSnapshot.Rate.ZERO;
+                metrics.add(createMetric("topic_messages_per_sec", rate.getSmoothed(), "messages/sec", "topic_throughput"));
+                metrics.add(createMetric("topic_messages_last_interval_per_sec", rate.getCurrent(), "messages/sec", "topic_throughput"));
+                DiskUsageSnapshot.TopicUsage usage = collectDiskUsage(brokerUrls, adminClient).getTopic(topicName);
+                metrics.add(createMetric("topic_size_mb", usage != null ? usage.getSizeBytes() / MB : 0, "MB", "topic_size"));
+                metrics.add(createMetric("topic_disk_mb", usage != null ? usage.getTotalBytes() / MB : 0, "MB", "topic_size"));
+                metrics.add(createMetric("topic_growth_kb_per_sec", 
+                    usage != null ? usage.getGrowthBytesPerSec() / 1024 : 0, "KB/s", "topic_size"));
+                metrics.add(createMetric("topic_messages", messages, "messages", "topic_size"));
+                metrics.add(createMetric("topic_end_offset_total", endOffsets, "offset", "topic_rate"));
+                metrics.add(createMetric("topic_partitions", description.partitions().size(), "count", "topic"));
+                metrics.add(createMetric("topic_lag", lag, "messages", "topic_lag"));
+                return metrics;
+            } catch (Exception e) {
+                logger.error("Failed to collect metrics for topic {}: {}", topicName, e.getMessage());
+                throw new RuntimeException("Failed to collect topic metrics: " + e.getMessage(), e);
+            }
         });
     }
     
     @Override
     public CompletableFuture<List<MetricsInfo>> getConsumerGroupLagAsync(String brokerUrls, String groupId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return getLagSnapshotAsync(brokerUrls).thenApply(snapshot -> {
             List<MetricsInfo> metrics = new ArrayList<>();
+            LagSnapshot.GroupLag group = snapshot.getGroup(groupId);
+            if (group == null) {
+                return metrics;
+            }
             
-            // Create some sample consumer group lag metrics
-            metrics.add(createMetric("consumer_lag", Math.random() * 5000, "messages", "consumer_lag"));
-            metrics.add(createMetric("partition_0_lag", Math.random() * 1000, "messages", "partition_lag"));
-            metrics.add(createMetric("partition_1_lag", Math.random() * 1000, "messages", "partition_lag"));
-            metrics.add(createMetric("partition_2_lag", Math.random() * 1000, "messages", "partition_lag"));
-            metrics.add(createMetric("avg_processing_time", Math.random() * 50, "ms", "processing"));
-            
+            metrics.add(createMetric("consumer_lag", group.getTotalLag(), "messages", "consumer_lag"));
+            metrics.add(createMetric("max_partition_lag", group.getMaxLag(), "messages", "consumer_lag"));
+            // Time lag is -1 until it can be estimated; leave it out rather than report -0.001 s
+            if (group.getMaxTimeLagMillis() >= 0) {
+                metrics.add(createMetric("consumer_time_lag", group.getMaxTimeLagMillis() / 1000.0, "seconds",
+                    "consumer_time_lag"));
+            }
+            for (LagSnapshot.PartitionLag partition : group.getPartitions()) {
+                String prefix = partition.getTopic() + "_partition_" + partition.getPartition();
+                metrics.add(createMetric(prefix + "_lag", partition.getLag(), "messages", "partition_lag"));
+                if (partition.getTimeLagMillis() >= 0) {
+                    metrics.add(createMetric(prefix + "_time_lag", partition.getTimeLagMillis() / 1000.0, "seconds",
+                        "partition_time_lag"));
+                }
+            }
             return metrics;
         });
     }
     
     @Override
-    public CompletableFuture<List<MetricsInfo>> getBrokerMetricsAsync(String brokerUrls, int brokerId) {
+    public LagMonitor getLagMonitor(String brokerUrls) {
+        return lagMonitors.computeIfAbsent(brokerUrls, urls -> {
+            Properties props = new Properties();
+            props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, urls);
+            props.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, "15000");
+            logger.info("Starting lag monitor for {} polling every {} ms", urls, LAG_POLL_INTERVAL_MS);
+            // Reads single records to date committed offsets older than the sampled history
+            Properties lookupProps = createByteConsumerProperties(urls, "lag");
+            lookupProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "1");
+            lookupProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, "1");
+            lookupProps.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, String.valueOf(64 * 1024));
+            AdminClient adminClient = AdminClient.create(props);
+            KafkaConsumer<byte[], byte[]> lookupConsumer = new KafkaConsumer<>(lookupProps);
+            // These clients live as long as the monitor, so their own metrics are worth keeping
+            List<KafkaClientMetrics> bindings = clientMetrics.computeIfAbsent(urls, key -> new CopyOnWriteArrayList<>());
+            bindings.add(serviceMetrics.bindClient(adminClient, urls));
+            bindings.add(serviceMetrics.bindClient(lookupConsumer, urls));
+            LagMonitor monitor = new LagMonitor(urls, adminClient, LAG_POLL_INTERVAL_MS,
+                new ConsumerTimestampLookup(lookupConsumer));
+            monitor.addListener(new LagHistoryRecorder(getMetricsStore(urls)));
+            return monitor.start();
+        });
+    }
+    
+    @Override
+    public ThroughputMonitor getThroughputMonitor(String brokerUrls) {
+        return throughputMonitors.computeIfAbsent(brokerUrls, urls -> {
+            Properties props = new Properties();
+            props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, urls);
+            props.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, "15000");
+            logger.info("Starting throughput monitor for {} sampling every {} ms", urls, THROUGHPUT_POLL_INTERVAL_MS);
+            AdminClient adminClient = AdminClient.create(props);
+            clientMetrics.computeIfAbsent(urls, key -> new CopyOnWriteArrayList<>())
+                .add(serviceMetrics.bindClient(adminClient, urls));
+            ThroughputMonitor monitor = new ThroughputMonitor(urls, adminClient, THROUGHPUT_POLL_INTERVAL_MS);
+            monitor.addListener(new ThroughputHistoryRecorder(getMetricsStore(urls)));
+            return monitor.start();
+        });
+    }
+    
+    @Override
+    public ServiceMetrics getServiceMetrics() {
+        return serviceMetrics;
+    }
+    
+    @Override
+    public TimeSeriesStore getMetricsStore(String brokerUrls) {
+        return metricsStores.computeIfAbsent(brokerUrls, urls -> {
+            TimeSeriesStore store = new TimeSeriesStore();
+            attachMetricsSink(urls, store);
+            return store;
+        });
+    }
+    
+    /**
+     * Persist the store's samples while a metrics database is open, keeping the sink so it can be removed
+     */
+    private synchronized void attachMetricsSink(String brokerUrls, TimeSeriesStore store) {
+        if (metricsDatabase != null && !metricsSinks.containsKey(brokerUrls)) {
+            MetricsSink sink = metricsDatabase.sinkFor(brokerUrls);
+            metricsSinks.put(brokerUrls, sink);
+            store.addSink(sink);
+        }
+    }
+    
+    @Override
+    public CompletableFuture<List<DataPoint>> getMetricHistoryAsync(String brokerUrls, String series,
+                                                                    long fromMillis, long toMillis,
+                                                                    Resolution resolution) {
+        // History is only collected while the cluster's monitors run
+        getLagMonitor(brokerUrls);
+        getThroughputMonitor(brokerUrls);
         return CompletableFuture.supplyAsync(() -> {
+            TimeSeriesStore store = getMetricsStore(brokerUrls);
+            Resolution effective = resolution != null ? resolution : Resolution.forRange(toMillis - fromMillis);
+            MetricsDatabase database = metricsDatabase;
+            if (database == null || fromMillis >= store.getCreatedAt()) {
+                return store.query(series, fromMillis, toMillis, effective);
+            }
+            // Anything before this process started collecting comes from the database
+            List<DataPoint> points = new ArrayList<>(database.query(brokerUrls, series, fromMillis,
+                Math.min(toMillis, store.getCreatedAt() - 1), effective));
+            if (toMillis >= store.getCreatedAt()) {
+                points.addAll(store.query(series, store.getCreatedAt(), toMillis, effective));
+            }
+            return points;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<LagSnapshot> getLagSnapshotAsync(String brokerUrls) {
+        return getLagMonitor(brokerUrls).awaitSnapshot();
+    }
+    
+    @Override
+    public void closeLagMonitors() {
+        Set<String> clusters = new HashSet<>(lagMonitors.keySet());
+        clusters.addAll(throughputMonitors.keySet());
+        clusters.addAll(clientMetrics.keySet());
+        clusters.forEach(this::closeLagMonitors);
+    }
+    
+    @Override
+    public void closeLagMonitors(String brokerUrls) {
+        LagMonitor lagMonitor = lagMonitors.remove(brokerUrls);
+        if (lagMonitor != null) {
+            lagMonitor.close();
+        }
+        ThroughputMonitor throughputMonitor = throughputMonitors.remove(brokerUrls);
+        if (throughputMonitor != null) {
+            throughputMonitor.close();
+        }
+        List<KafkaClientMetrics> bindings = clientMetrics.remove(brokerUrls);
+        if (bindings != null) {
+            bindings.forEach(KafkaClientMetrics::close);
+        }
+    }
+    
+    @Override
+    public synchronized void enableMetricsPersistence(File databaseFile) {
+        if (metricsDatabase != null) {
+            return;
+        }
+        try {
+            metricsDatabase = new MetricsDatabase(databaseFile, null);
+        } catch (Exception e) {
+            logger.error("Failed to open metrics database {}: {}", databaseFile, e.getMessage());
+            throw new RuntimeException("Failed to open metrics database: " + e.getMessage(), e);
+        }
+        metricsStores.forEach(this::attachMetricsSink);
+    }
+    
+    @Override
+    public synchronized void closeMetricsPersistence() {
+        if (metricsDatabase != null) {
+            metricsSinks.forEach((urls, sink) -> {
+                TimeSeriesStore store = metricsStores.get(urls);
+                if (store != null) {
+                    store.removeSink(sink);
+                }
+            });
+            metricsSinks.clear();
+            metricsDatabase.close();
+            metricsDatabase = null;
+        }
+    }
+    
+    @Override
+    public CompletableFuture<List<ConsumerGroupInfo>> getConsumerGroupsAsync(String brokerUrls) {
+        LagMonitor monitor = getLagMonitor(brokerUrls);
+        return super.getConsumerGroupsAsync(brokerUrls).thenApply(groups -> {
+            // Fill in lag from the latest snapshot without waiting for a poll
+            LagSnapshot snapshot = monitor.getSnapshot();
+            if (snapshot != null) {
+                for (ConsumerGroupInfo group : groups) {
+                    LagSnapshot.GroupLag lag = snapshot.getGroup(group.getGroupId());
+                    if (lag != null) {
+                        group.setLag(lag.getTotalLag());
+                    }
+                }
+            }
+            return groups;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<List<ConsumerGroupOffsets>> getConsumerGroupOffsetsAsync(String brokerUrls, String groupId) {
+        // One group is read fresh, so it shows resets and commit metadata the last poll has not seen
+        LagMonitor monitor = getLagMonitor(brokerUrls);
+        return super.getConsumerGroupOffsetsAsync(brokerUrls, groupId).thenApply(offsets -> {
+            LagSnapshot snapshot = monitor.getSnapshot();
+            LagSnapshot.GroupLag group = snapshot != null ? snapshot.getGroup(groupId) : null;
+            if (group == null) {
+                return offsets;
+            }
+            Map<TopicPartition, LagSnapshot.PartitionLag> polled = new HashMap<>();
+            for (LagSnapshot.PartitionLag partition : group.getPartitions()) {
+                polled.put(new TopicPartition(partition.getTopic(), partition.getPartition()), partition);
+            }
+            for (ConsumerGroupOffsets groupOffsets : offsets) {
+                // Time lag only carries over while the polled position is still the committed one
+                LagSnapshot.PartitionLag partition = polled.get(
+                    new TopicPartition(groupOffsets.getTopicName(), groupOffsets.getPartition()));
+                if (partition != null && partition.getCommittedOffset() == groupOffsets.getCurrentOffset()) {
+                    groupOffsets.setTimeLagMillis(partition.getTimeLagMillis());
+                }
+            }
+            return offsets;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<List<MetricsInfo>> getBrokerMetricsAsync(String brokerUrls, int brokerId) {
+        // Only client-side measurements are available without JMX: what this tool's own
+        // long-lived clients observe when talking to the broker
+        getLagMonitor(brokerUrls);
+        CompletableFuture<List<MetricsInfo>> observed = CompletableFuture.supplyAsync(() -> {
+            Tag node = Tag.of("node.id", "node-" + brokerId);
             List<MetricsInfo> metrics = new ArrayList<>();
-            
-            // Create some sample broker metrics
-            metrics.add(createMetric("cpu_usage_percent", Math.random() * 100, "%", "system"));
-            metrics.add(createMetric("memory_usage_mb", Math.random() * 2048, "MB", "system"));
-            metrics.add(createMetric("network_io_rate", Math.random() * 1024, "KB/s", "network"));
-            metrics.add(createMetric("disk_usage_percent", Math.random() * 80, "%", "storage"));
-            metrics.add(createMetric("request_rate", Math.random() * 1000, "requests/sec", "requests"));
-            
+            metrics.add(createMetric("request_latency_avg_ms", 
+                serviceMetrics.clientMean("node.request.latency.avg", brokerUrls, node), "ms", "latency"));
+            metrics.add(createMetric("request_latency_max_ms", 
+                serviceMetrics.clientMean("node.request.latency.max", brokerUrls, node), "ms", "latency"));
+            metrics.add(createMetric("request_rate", 
+                serviceMetrics.clientSum("node.request.rate", brokerUrls, node), "requests/sec", "requests"));
+            metrics.add(createMetric("incoming_kb_per_sec", 
+                serviceMetrics.clientSum("node.incoming.byte.rate", brokerUrls, node) / 1024, "KB/s", "network"));
+            metrics.add(createMetric("outgoing_kb_per_sec", 
+                serviceMetrics.clientSum("node.outgoing.byte.rate", brokerUrls, node) / 1024, "KB/s", "network"));
             return metrics;
         });
+        // Disk usage is reported by the broker itself through describeLogDirs
+        CompletableFuture<DiskUsageSnapshot> diskUsage = getDiskUsageAsync(brokerUrls).exceptionally(e -> {
+            logger.warn("Failed to collect disk usage of broker {}: {}", brokerId, e.getMessage());
+            return null;
+        });
+        return observed.thenCombine(diskUsage, (metrics, snapshot) -> {
+            DiskUsageSnapshot.BrokerUsage usage = snapshot != null ? snapshot.getBroker(brokerId) : null;
+            if (usage != null) {
+                // The used share is -1 when the broker does not report its volume capacity
+                if (usage.getUsedPercent() >= 0) {
+                    metrics.add(createMetric("disk_usage_percent", usage.getUsedPercent(), "%", "storage"));
+                }
+                metrics.add(createMetric("disk_used_mb", usage.getReplicaBytes() / MB, "MB", "storage"));
+                metrics.add(createMetric("disk_growth_kb_per_sec", usage.getGrowthBytesPerSec() / 1024, "KB/s", "storage"));
+                metrics.add(createMetric("replica_count", usage.getReplicaCount(), "count", "storage"));
+                metrics.add(createMetric("offline_log_dirs", usage.getOfflineLogDirs(), "count", "storage"));
+            }
+            return metrics;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<DiskUsageSnapshot> getDiskUsageAsync(String brokerUrls) {
+        DiskUsageSnapshot cached = diskUsageCollector(brokerUrls).getIfFresh(System.currentTimeMillis());
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            Properties props = new Properties();
+            props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+            props.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, "30000");
+            
+            try (AdminClient adminClient = AdminClient.create(props)) {
+                return collectDiskUsage(brokerUrls, adminClient);
+            } catch (Exception e) {
+                logger.error("Failed to collect disk usage for {}: {}", brokerUrls, e.getMessage());
+                throw new RuntimeException("Failed to collect disk usage: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    private DiskUsageCollector diskUsageCollector(String brokerUrls) {
+        return diskUsageCollectors.computeIfAbsent(brokerUrls, urls -> new DiskUsageCollector(urls, DISK_USAGE_CACHE_MS));
+    }
+    
+    /**
+     * The cached disk usage, or a new collection recorded into the metrics history
+     */
+    private DiskUsageSnapshot collectDiskUsage(String brokerUrls, AdminClient adminClient) throws Exception {
+        DiskUsageCollector collector = diskUsageCollector(brokerUrls);
+        DiskUsageSnapshot previous = collector.getSnapshot();
+        DiskUsageSnapshot snapshot = collector.collect(adminClient);
+        if (snapshot != previous) {
+            TimeSeriesStore store = getMetricsStore(brokerUrls);
+            for (DiskUsageSnapshot.TopicUsage topic : snapshot.getTopics().values()) {
+                store.record(DiskUsageCollector.topicSizeSeries(topic.getTopic()), snapshot.getTimestamp(), topic.getTotalBytes());
+            }
+            for (DiskUsageSnapshot.BrokerUsage broker : snapshot.getBrokers().values()) {
+                store.record(DiskUsageCollector.brokerDiskSeries(broker.getBrokerId()), snapshot.getTimestamp(), 
+                    broker.getReplicaBytes());
+            }
+        }
+        return snapshot;
     }
     
     private MetricsInfo createMetric(String name, double value, String unit, String category) {
@@ -121,44 +586,509 @@ public class EnhancedKafkaServiceImpl extends KafkaServiceImpl implements Enhanc
         return metric;
     }
     
+    // ===== CONSUMER GROUP OFFSETS =====
+    
+    @Override
+    public CompletableFuture<OffsetResetPlan> resetConsumerGroupOffsetsAsync(String brokerUrls, List<String> groupIds,
+                                                                             List<String> topics, OffsetResetOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            Properties props = new Properties();
+            props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+            
+            try (AdminClient adminClient = AdminClient.create(props)) {
+                OffsetResetPlan plan = new BulkOffsetReset(adminClient).reset(groupIds, topics, options);
+                LagMonitor monitor = lagMonitors.get(brokerUrls);
+                if (!options.isDryRun() && monitor != null) {
+                    monitor.invalidate();
+                }
+                logger.info("{} offset reset to {} for {} consumer groups ({} failed)", 
+                    options.isDryRun() ? "Planned" : "Applied", options.getStrategy(), groupIds.size(), plan.getFailedGroups());
+                return plan;
+            } catch (Exception e) {
+                logger.error("Failed to reset offsets for consumer groups {}: {}", groupIds, e.getMessage());
+                throw new RuntimeException("Failed to reset offsets: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> resetConsumerGroupOffsetsToEarliestAsync(String brokerUrls, String groupId, String topicName) {
+        return resetSingleGroup(brokerUrls, groupId, topicName, OffsetResetOptions.of(OffsetResetOptions.Strategy.EARLIEST, false));
+    }
+    
+    @Override
+    public CompletableFuture<Void> resetConsumerGroupOffsetsToLatestAsync(String brokerUrls, String groupId, String topicName) {
+        return resetSingleGroup(brokerUrls, groupId, topicName, OffsetResetOptions.of(OffsetResetOptions.Strategy.LATEST, false));
+    }
+    
+    @Override
+    public CompletableFuture<Void> resetConsumerGroupOffsetsToTimestampAsync(String brokerUrls, String groupId, 
+                                                                            String topicName, long timestamp) {
+        OffsetResetOptions options = OffsetResetOptions.of(OffsetResetOptions.Strategy.TIMESTAMP, false);
+        options.setTimestamp(timestamp);
+        return resetSingleGroup(brokerUrls, groupId, topicName, options);
+    }
+    
+    /**
+     * One group through the bulk path, which needs no consumer and accepts a null topic for all committed topics
+     */
+    private CompletableFuture<Void> resetSingleGroup(String brokerUrls, String groupId, String topicName,
+                                                     OffsetResetOptions options) {
+        List<String> topics = topicName != null ? List.of(topicName) : List.of();
+        return resetConsumerGroupOffsetsAsync(brokerUrls, List.of(groupId), topics, options)
+            .thenAccept(plan -> {
+                OffsetResetPlan.GroupReset group = plan.getGroup(groupId);
+                if (group.getStatus() == OffsetResetPlan.Status.FAILED) {
+                    throw new RuntimeException("Failed to reset offsets: " + group.getError());
+                }
+            });
+    }
+    
     // ===== ADVANCED MESSAGE OPERATIONS =====
     
     @Override
     public CompletableFuture<Void> exportMessagesToJsonAsync(String brokerUrls, String topicName, 
                                                             int partition, long fromOffset, long toOffset, File outputFile) {
         return CompletableFuture.runAsync(() -> {
-            // Stub implementation
+            try (MessageWriter writer = JsonMessageWriter.array(MessageExportImportUtil.openOutputStream(outputFile))) {
+                try {
+                    consumeRange(brokerUrls, topicName, partition, fromOffset, toOffset,
+                        record -> writer.write(convertToKafkaMessage(record)));
+                } catch (Exception e) {
+                    writer.abort();
+                    throw e;
+                }
+                logger.info("Exported {} messages from {}:{} to JSON file: {}", 
+                    writer.getMessageCount(), topicName, partition, outputFile.getAbsolutePath());
+            } catch (Exception e) {
+                deletePartialExport(outputFile);
+                logger.error("Failed to export messages to JSON: {}", e.getMessage());
+                throw new RuntimeException("Failed to export messages to JSON: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Long> exportMessagesToNdjsonAsync(String brokerUrls, String topicName,
+                                                              int partition, long fromOffset, long toOffset, File outputFile) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (MessageWriter writer = JsonMessageWriter.ndjson(MessageExportImportUtil.openOutputStream(outputFile))) {
+                consumeRange(brokerUrls, topicName, partition, fromOffset, toOffset,
+                    record -> writer.write(convertToKafkaMessage(record)));
+                logger.info("Exported {} messages from {}:{} to NDJSON file: {}", 
+                    writer.getMessageCount(), topicName, partition, outputFile.getAbsolutePath());
+                return writer.getMessageCount();
+            } catch (Exception e) {
+                deletePartialExport(outputFile);
+                logger.error("Failed to export messages to NDJSON: {}", e.getMessage());
+                throw new RuntimeException("Failed to export messages to NDJSON: " + e.getMessage(), e);
+            }
         });
     }
     
     @Override
     public CompletableFuture<Void> exportMessagesToCsvAsync(String brokerUrls, String topicName, 
                                                            int partition, long fromOffset, long toOffset, File outputFile) {
-        return CompletableFuture.runAsync(() -> {
-            // Stub implementation
+        boolean gzip = outputFile.getName().endsWith(".gz");
+        return exportMessagesToCsvAsync(brokerUrls, topicName, partition, fromOffset, toOffset, outputFile, gzip, null)
+            .thenAccept(count -> { });
+    }
+    
+    @Override
+    public CompletableFuture<Long> exportMessagesToCsvAsync(String brokerUrls, String topicName,
+                                                           int partition, long fromOffset, long toOffset, File outputFile,
+                                                           boolean gzip, MessageExportImportUtil.ProgressCallback callback) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (MessageWriter writer = new CsvMessageWriter(MessageExportImportUtil.openOutputStream(outputFile, gzip))) {
+                PartitionOffsets offsets = getPartitionOffsetsAsync(brokerUrls, topicName, partition).get();
+                long expected = Math.max(0, Math.min(toOffset, offsets.getHighWatermark() - 1)
+                    - Math.max(fromOffset, offsets.getLowWatermark()) + 1);
+                
+                // This thread fetches; the pipeline's writer thread formats and writes
+                ExportPipeline pipeline = new ExportPipeline(writer, expected, callback).start();
+                long written;
+                try {
+                    List<KafkaMessage> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+                    consumeRange(brokerUrls, topicName, partition, fromOffset, toOffset, record -> {
+                        batch.add(convertToKafkaMessage(record));
+                        if (batch.size() >= EXPORT_BATCH_SIZE) {
+                            pipeline.submit(new ArrayList<>(batch));
+                            batch.clear();
+                        }
+                    });
+                    pipeline.submit(batch);
+                    written = pipeline.finish();
+                } catch (Exception e) {
+                    // Stop the writer thread and drop the trailer before the writer is closed
+                    pipeline.abort();
+                    writer.abort();
+                    throw e;
+                }
+                
+                logger.info("Exported {} messages from {}:{} to CSV file: {}", 
+                    written, topicName, partition, outputFile.getAbsolutePath());
+                return written;
+            } catch (Exception e) {
+                deletePartialExport(outputFile);
+                logger.error("Failed to export messages to CSV: {}", e.getMessage());
+                throw new RuntimeException("Failed to export messages to CSV: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Long> exportMessagesToAvroAsync(String brokerUrls, String topicName,
+                                                            int partition, long fromOffset, long toOffset, File outputFile,
+                                                            String codec, int syncInterval) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (MessageWriter writer = new AvroMessageWriter(
+                    MessageExportImportUtil.openOutputStream(outputFile), codec, syncInterval)) {
+                // Block compression runs on the pipeline's writer thread while this thread keeps fetching
+                ExportPipeline pipeline = new ExportPipeline(writer, 0, null).start();
+                long written;
+                try {
+                    List<KafkaMessage> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+                    consumeRange(brokerUrls, topicName, partition, fromOffset, toOffset, record -> {
+                        batch.add(convertToKafkaMessage(record));
+                        if (batch.size() >= EXPORT_BATCH_SIZE) {
+                            pipeline.submit(new ArrayList<>(batch));
+                            batch.clear();
+                        }
+                    });
+                    pipeline.submit(batch);
+                    written = pipeline.finish();
+                } catch (Exception e) {
+                    // Stop the writer thread and drop the trailer before the writer is closed
+                    pipeline.abort();
+                    writer.abort();
+                    throw e;
+                }
+                
+                logger.info("Exported {} messages from {}:{} to Avro file {} using codec {}", 
+                    written, topicName, partition, outputFile.getAbsolutePath(), codec);
+                return written;
+            } catch (Exception e) {
+                deletePartialExport(outputFile);
+                logger.error("Failed to export messages to Avro: {}", e.getMessage());
+                throw new RuntimeException("Failed to export messages to Avro: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<ExportManifest> exportTopicAsync(String brokerUrls, String topicName, File outputDirectory,
+                                                              ExportFormat format, int workers) {
+        return CompletableFuture.supplyAsync(() -> exportTopic(brokerUrls, topicName, outputDirectory, format, workers, false));
+    }
+    
+    @Override
+    public CompletableFuture<ExportManifest> exportTopicResumableAsync(String brokerUrls, String topicName,
+                                                                       File outputDirectory, ExportFormat format,
+                                                                       int workers) {
+        return CompletableFuture.supplyAsync(() -> exportTopic(brokerUrls, topicName, outputDirectory, format, workers, true));
+    }
+    
+    /**
+     * Remove the output of a failed single-partition export so a partial file is never mistaken for a complete one
+     */
+    private void deletePartialExport(File outputFile) {
+        try {
+            Files.deleteIfExists(outputFile.toPath());
+        } catch (IOException e) {
+            logger.warn("Failed to delete partial export {}: {}", outputFile.getAbsolutePath(), e.getMessage());
+        }
+    }
+    
+    private ExportManifest exportTopic(String brokerUrls, String topicName, File outputDirectory,
+                                       ExportFormat format, int workers, boolean resumable) {
+        ExecutorService executor = null;
+        try {
+            if (resumable && !format.isResumable()) {
+                throw new IllegalArgumentException(format + " exports cannot be resumed, use NDJSON, CSV or AVRO");
+            }
+            List<Integer> partitions = getPartitionsAsync(brokerUrls, topicName).get();
+            if (partitions.isEmpty()) {
+                throw new IllegalArgumentException("Topic " + topicName + " has no partitions");
+            }
+            if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+                throw new IOException("Cannot create export directory " + outputDirectory.getAbsolutePath());
+            }
+            
+            File checkpointFile = new File(outputDirectory, ExportCheckpoint.FILE_NAME);
+            ExportCheckpoint checkpoint = null;
+            if (resumable) {
+                checkpoint = loadCheckpoint(checkpointFile, topicName, format);
+            }
+            ExportCheckpoint activeCheckpoint = checkpoint;
+            
+            ExportManifest manifest = new ExportManifest(topicName, format,
+                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            int threads = Math.max(1, Math.min(workers, partitions.size()));
+            executor = Executors.newFixedThreadPool(threads);
+            
+            // Each worker owns its own consumer and output file, so partitions never contend
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int partition : partitions) {
+                if (activeCheckpoint != null && activeCheckpoint.isCompleted(partition)) {
+                    manifest.addPartition(activeCheckpoint.get(partition));
+                    continue;
+                }
+                tasks.add(executor.submit(() -> {
+                    exportPartition(brokerUrls, topicName, partition, outputDirectory, format,
+                        manifest, activeCheckpoint, checkpointFile);
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            manifest.write(new File(outputDirectory, ExportManifest.FILE_NAME));
+            if (resumable) {
+                Files.deleteIfExists(checkpointFile.toPath());
+            }
+            
+            logger.info("Exported {} messages from {} partitions of {} to {} using {} workers", 
+                manifest.getTotalRecords(), partitions.size(), topicName, outputDirectory.getAbsolutePath(), threads);
+            return manifest;
+        } catch (Exception e) {
+            logger.error("Failed to export topic {}: {}", topicName, e.getMessage());
+            throw new RuntimeException("Failed to export topic: " + e.getMessage(), e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+    
+    private ExportCheckpoint loadCheckpoint(File checkpointFile, String topicName, ExportFormat format) throws IOException {
+        if (!checkpointFile.isFile()) {
+            return new ExportCheckpoint(topicName, format);
+        }
+        ExportCheckpoint checkpoint = ExportCheckpoint.read(checkpointFile);
+        if (!checkpoint.matches(topicName, format)) {
+            throw new IllegalStateException("Directory holds an unfinished " + checkpoint.getFormat() 
+                + " export of topic " + checkpoint.getTopic());
+        }
+        logger.info("Resuming export of {} from checkpoint written at {}", topicName, checkpoint.getUpdatedAt());
+        return checkpoint;
+    }
+    
+    private void exportPartition(String brokerUrls, String topicName, int partition, File outputDirectory,
+                                 ExportFormat format, ExportManifest manifest,
+                                 ExportCheckpoint checkpoint, File checkpointFile) throws Exception {
+        ExportManifest.PartitionEntry saved = checkpoint != null ? checkpoint.get(partition) : null;
+        // Fix the target up front so records produced during the export do not move it
+        long endOffset = getPartitionOffsetsAsync(brokerUrls, topicName, partition).get().getHighWatermark();
+        try (PartitionFileWriter writer = new PartitionFileWriter(outputDirectory, topicName, partition, format, saved)) {
+            long[] lastCheckpoint = {System.currentTimeMillis()};
+            long reached;
+            try {
+                RangeRead read = readRange(brokerUrls, topicName, partition, writer.getNextOffset(), endOffset - 1, record -> {
+                    writer.write(convertToKafkaMessage(record));
+                    if (checkpoint != null && System.currentTimeMillis() - lastCheckpoint[0] >= CHECKPOINT_INTERVAL_MS) {
+                        checkpoint.update(writer.checkpoint());
+                        checkpoint.write(checkpointFile);
+                        lastCheckpoint[0] = System.currentTimeMillis();
+                    }
+                });
+                // Transaction markers carry no record, so the consumer position can run ahead of the writer
+                reached = Math.max(writer.getNextOffset(), read.position());
+            } catch (IllegalStateException e) {
+                // The read timed out; keep what was written so a resumed export continues from here
+                reached = writer.getNextOffset();
+            }
+            if (reached < endOffset) {
+                if (checkpoint != null) {
+                    checkpoint.update(writer.checkpoint());
+                    checkpoint.write(checkpointFile);
+                }
+                throw new IllegalStateException("Export of " + topicName + "-" + partition 
+                    + " stopped at offset " + reached + " of " + endOffset);
+            }
+            writer.close();
+            if (checkpoint != null) {
+                checkpoint.complete(writer.getEntry());
+                checkpoint.write(checkpointFile);
+            }
+            manifest.addPartition(writer.getEntry());
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Long> searchMessagesToSpillStoreAsync(String brokerUrls, String topicName, int partition,
+                                                                   String searchPattern, boolean searchInKey,
+                                                                   boolean searchInValue, boolean searchInHeaders,
+                                                                   long fromTimestamp, long toTimestamp,
+                                                                   int maxResults, MessageSpillStore store) {
+        return CompletableFuture.supplyAsync(() -> {
+            Properties props = new Properties();
+            props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+            props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, CONSUMER_GROUP_ID + "-search-" + UUID.randomUUID());
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+            props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "2000");
+            
+            String pattern = searchPattern != null ? searchPattern.toLowerCase() : "";
+            boolean timeRange = fromTimestamp >= 0;
+            try (Consumer<String, String> consumer = new KafkaConsumer<>(props)) {
+                TopicPartition topicPartition = new TopicPartition(topicName, partition);
+                consumer.assign(Collections.singleton(topicPartition));
+                long endOffset = consumer.endOffsets(Collections.singleton(topicPartition)).get(topicPartition);
+                OffsetAndTimestamp start = timeRange 
+                    ? consumer.offsetsForTimes(Map.of(topicPartition, fromTimestamp)).get(topicPartition) : null;
+                if (start != null) {
+                    consumer.seek(topicPartition, start.offset());
+                } else if (timeRange) {
+                    // Nothing at or after the start of the range
+                    return 0L;
+                } else {
+                    consumer.seekToBeginning(Collections.singleton(topicPartition));
+                }
+                
+                // Matches go from each poll batch into the store, so only one batch is ever on heap
+                long stored = 0;
+                int emptyPolls = 0;
+                while (stored < maxResults && consumer.position(topicPartition) < endOffset && emptyPolls < 50) {
+                    ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(200));
+                    emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+                    for (ConsumerRecord<String, String> record : records) {
+                        if (record.offset() >= endOffset || (timeRange && record.timestamp() > toTimestamp)) {
+                            endOffset = record.offset();
+                            break;
+                        }
+                        if (matchesPattern(record, pattern, searchInKey, searchInValue, searchInHeaders)) {
+                            store.append(convertToKafkaMessage(record));
+                            if (++stored >= maxResults) {
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (emptyPolls >= 50) {
+                    logger.warn("Search of {}:{} timed out at offset {}, returning partial results", 
+                        topicName, partition, consumer.position(topicPartition));
+                }
+                logger.info("Stored {} matching messages from {}:{} in {}", 
+                    stored, topicName, partition, store.getDirectory());
+                return stored;
+            } catch (Exception e) {
+                logger.error("Failed to search {}:{} into spill store: {}", topicName, partition, e.getMessage());
+                throw new RuntimeException("Failed to search messages: " + e.getMessage(), e);
+            }
         });
     }
     
+    private static boolean matchesPattern(ConsumerRecord<String, String> record, String pattern,
+                                          boolean searchInKey, boolean searchInValue, boolean searchInHeaders) {
+        if (pattern.isEmpty()) {
+            return true;
+        }
+        if (searchInKey && record.key() != null && record.key().toLowerCase().contains(pattern)) {
+            return true;
+        }
+        if (searchInValue && record.value() != null && record.value().toLowerCase().contains(pattern)) {
+            return true;
+        }
+        if (searchInHeaders) {
+            for (Header header : record.headers()) {
+                String headerValue = header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : "";
+                if (header.key().toLowerCase().contains(pattern) || headerValue.toLowerCase().contains(pattern)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
     @Override
     public CompletableFuture<Integer> importMessagesFromJsonAsync(String brokerUrls, String topicName, File inputFile) {
-        return CompletableFuture.supplyAsync(() -> 0);
+        return importMessagesAsync(brokerUrls, topicName, inputFile, ExportFormat.JSON, null)
+            .thenApply(result -> (int) result.getSucceeded());
     }
     
     @Override
     public CompletableFuture<Integer> importMessagesFromCsvAsync(String brokerUrls, String topicName, File inputFile) {
-        return CompletableFuture.supplyAsync(() -> 0);
+        return importMessagesAsync(brokerUrls, topicName, inputFile, ExportFormat.CSV, null)
+            .thenApply(result -> (int) result.getSucceeded());
     }
     
     @Override
     public CompletableFuture<Integer> bulkProduceMessagesAsync(String brokerUrls, String topicName, 
                                                              List<KafkaMessage> messages) {
-        return CompletableFuture.supplyAsync(() -> 0);
+        return CompletableFuture.supplyAsync(() -> {
+            try (Producer<String, String> producer = new KafkaProducer<>(createBulkProducerProperties(brokerUrls))) {
+                ImportResult result = new MessageImporter(producer).importAll(topicName, messages.iterator(), null);
+                if (result.getFailed() > 0) {
+                    logger.warn("Bulk produce to {} had {} failures, first: {}", 
+                        topicName, result.getFailed(), result.getFirstError());
+                }
+                return (int) result.getSucceeded();
+            } catch (Exception e) {
+                logger.error("Failed to bulk produce messages to {}: {}", topicName, e.getMessage());
+                throw new RuntimeException("Failed to bulk produce messages: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<ImportResult> importMessagesAsync(String brokerUrls, String topicName, File inputFile,
+                                                               ExportFormat format,
+                                                               MessageExportImportUtil.ProgressCallback callback) {
+        return CompletableFuture.supplyAsync(() -> {
+            // The reader parses one record at a time; the importer caps how many wait for acks
+            try (MessageReader reader = format.createReader(inputFile);
+                 Producer<String, String> producer = new KafkaProducer<>(createBulkProducerProperties(brokerUrls))) {
+                ImportResult result = new MessageImporter(producer).importAll(topicName, reader, callback);
+                logger.info("Imported {} messages from {} into {} ({} failed)", 
+                    result.getSucceeded(), inputFile.getAbsolutePath(), topicName, result.getFailed());
+                return result;
+            } catch (Exception e) {
+                logger.error("Failed to import messages from {}: {}", inputFile.getAbsolutePath(), e.getMessage());
+                throw new RuntimeException("Failed to import messages: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    /**
+     * Producer settings tuned for throughput: larger batches, a short linger and compression
+     */
+    private Properties createBulkProducerProperties(String brokerUrls) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, "20");
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(256 * 1024));
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, String.valueOf(64L * 1024 * 1024));
+        return props;
     }
     
     @Override
     public CompletableFuture<Integer> replayMessagesAsync(String brokerUrls, String sourceTopic, String targetTopic,
                                                         int sourcePartition, long fromOffset, long toOffset) {
-        return CompletableFuture.supplyAsync(() -> 0);
+        return replayMessagesAsync(brokerUrls, sourceTopic, targetTopic, sourcePartition, fromOffset, toOffset, null)
+            .thenApply(progress -> (int) progress.getReplayed());
+    }
+    
+    @Override
+    public CompletableFuture<ReplayProgress> replayMessagesAsync(String brokerUrls, String sourceTopic, String targetTopic,
+                                                                int sourcePartition, long fromOffset, long toOffset,
+                                                                ReplayOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Consumer<byte[], byte[]> consumer = new KafkaConsumer<>(createByteConsumerProperties(brokerUrls, "replay"));
+                 Producer<byte[], byte[]> producer = new KafkaProducer<>(createByteProducerProperties(brokerUrls))) {
+                ReplayProgress progress = new ReplayEngine(consumer, producer, options)
+                    .replay(sourceTopic, sourcePartition, fromOffset, toOffset, targetTopic);
+                logger.info("Replay {}:{} -> {} finished: {}", sourceTopic, sourcePartition, targetTopic, progress);
+                return progress;
+            } catch (Exception e) {
+                logger.error("Failed to replay messages from {} to {}: {}", sourceTopic, targetTopic, e.getMessage());
+                throw new RuntimeException("Failed to replay messages: " + e.getMessage(), e);
+            }
+        });
     }
     
     @Override
@@ -169,6 +1099,117 @@ public class EnhancedKafkaServiceImpl extends KafkaServiceImpl implements Enhanc
         return CompletableFuture.supplyAsync(() -> new ArrayList<>());
     }
     
+    @Override
+    public CompletableFuture<Long> streamTopicTimelineAsync(String brokerUrls, String topicName,
+                                                           long fromTimestamp, long toTimestamp, int limit,
+                                                           java.util.function.Consumer<KafkaMessage> sink) {
+        return streamTopicTimelineAsync(brokerUrls, topicName, fromTimestamp, toTimestamp, limit, sink, () -> false);
+    }
+    
+    @Override
+    public CompletableFuture<Long> streamTopicTimelineAsync(String brokerUrls, String topicName,
+                                                           long fromTimestamp, long toTimestamp, int limit,
+                                                           java.util.function.Consumer<KafkaMessage> sink,
+                                                           java.util.function.BooleanSupplier cancelled) {
+        return CompletableFuture.supplyAsync(() -> {
+            Properties props = new Properties();
+            props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+            props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, CONSUMER_GROUP_ID + "-" + UUID.randomUUID());
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+            
+            try (Consumer<String, String> consumer = new KafkaConsumer<>(props)) {
+                List<TopicPartition> partitions = new ArrayList<>();
+                for (PartitionInfo info : consumer.partitionsFor(topicName)) {
+                    partitions.add(new TopicPartition(topicName, info.partition()));
+                }
+                consumer.assign(partitions);
+                
+                Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+                Map<TopicPartition, Long> timestampQuery = new HashMap<>();
+                partitions.forEach(tp -> timestampQuery.put(tp, fromTimestamp));
+                Map<TopicPartition, OffsetAndTimestamp> startOffsets = consumer.offsetsForTimes(timestampQuery);
+                
+                TimelineMerger merger = new TimelineMerger();
+                for (TopicPartition tp : partitions) {
+                    merger.register(tp.partition());
+                    OffsetAndTimestamp start = startOffsets.get(tp);
+                    if (start == null || start.offset() >= endOffsets.get(tp)) {
+                        merger.finish(tp.partition());
+                    } else {
+                        consumer.seek(tp, start.offset());
+                    }
+                }
+                
+                long emitted = 0;
+                int idlePolls = 0;
+                while (!merger.isDone() && emitted < limit && idlePolls < 50) {
+                    if (cancelled.getAsBoolean()) {
+                        throw new CancellationException("Timeline read cancelled");
+                    }
+                    ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(200));
+                    for (ConsumerRecord<String, String> record : records) {
+                        int partition = record.partition();
+                        if (merger.isFinished(partition) || record.timestamp() < fromTimestamp) {
+                            continue;
+                        }
+                        if (record.timestamp() > toTimestamp) {
+                            merger.finish(partition);
+                            continue;
+                        }
+                        merger.offer(convertToKafkaMessage(record));
+                    }
+                    
+                    // Fetch only partitions that still have room; a full buffer waits for the merge to catch up
+                    List<TopicPartition> toPause = new ArrayList<>();
+                    List<TopicPartition> toResume = new ArrayList<>();
+                    for (TopicPartition tp : partitions) {
+                        if (!merger.isFinished(tp.partition()) && consumer.position(tp) >= endOffsets.get(tp)) {
+                            merger.finish(tp.partition());
+                        }
+                        if (merger.isFinished(tp.partition()) || merger.isFull(tp.partition())) {
+                            toPause.add(tp);
+                        } else {
+                            toResume.add(tp);
+                        }
+                    }
+                    consumer.pause(toPause);
+                    consumer.resume(toResume);
+                    
+                    int drained = merger.drain(sink, (int) Math.min(Integer.MAX_VALUE, limit - emitted));
+                    emitted += drained;
+                    idlePolls = records.isEmpty() && drained == 0 ? idlePolls + 1 : 0;
+                }
+                
+                // Partitions that stopped responding are treated as complete so buffered records still flush
+                if (emitted < limit && !merger.isDone()) {
+                    logger.warn("Timeline read for {} timed out waiting for data, flushing buffered records", topicName);
+                    partitions.forEach(tp -> merger.finish(tp.partition()));
+                    emitted += merger.drain(sink, (int) Math.min(Integer.MAX_VALUE, limit - emitted));
+                }
+                
+                logger.info("Streamed {} messages from {} partitions of {} in timestamp order", 
+                    emitted, partitions.size(), topicName);
+                return emitted;
+            } catch (CancellationException e) {
+                logger.info("Timeline read for {} cancelled", topicName);
+                throw e;
+            } catch (Exception e) {
+                logger.error("Failed to read timeline for topic {}: {}", topicName, e.getMessage());
+                throw new RuntimeException("Failed to read topic timeline: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<List<KafkaMessage>> getTopicTimelineAsync(String brokerUrls, String topicName,
+                                                                      long fromTimestamp, long toTimestamp, int limit) {
+        List<KafkaMessage> timeline = Collections.synchronizedList(new ArrayList<>());
+        return streamTopicTimelineAsync(brokerUrls, topicName, fromTimestamp, toTimestamp, limit, timeline::add)
+            .thenApply(count -> new ArrayList<>(timeline));
+    }
+    
     @Override
     public CompletableFuture<List<KafkaMessage>> transformMessagesAsync(String brokerUrls, String topicName,
                                                                       int partition, long fromOffset, long toOffset,
@@ -196,32 +1237,377 @@ public class EnhancedKafkaServiceImpl extends KafkaServiceImpl implements Enhanc
     @Override
     public CompletableFuture<Void> mirrorTopicAsync(String sourceCluster, String targetCluster, 
                                                    String topicName, Map<String, String> config) {
-        return CompletableFuture.runAsync(() -> {
-            // Stub implementation
+        return startMirrorSessionAsync(sourceCluster, targetCluster, topicName, MirrorOptions.fromConfig(config))
+            .thenCompose(session -> session.getCompletion().thenRun(() -> 
+                logger.info("Mirrored {} from {} to {}: {}", topicName, sourceCluster, targetCluster, session.getStats())));
+    }
+    
+    @Override
+    public CompletableFuture<MirrorSession> startMirrorSessionAsync(String sourceCluster, String targetCluster,
+                                                                    String topicName, MirrorOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                List<Integer> partitions = getPartitionsAsync(sourceCluster, topicName).get();
+                if (partitions.isEmpty()) {
+                    throw new IllegalArgumentException("Topic " + topicName + " not found on " + sourceCluster);
+                }
+                prepareMirrorTarget(sourceCluster, targetCluster, topicName, partitions.size(), options.isCreateTopic());
+                
+                MirrorCheckpointStore checkpoints = new MirrorCheckpointStore(MirrorCheckpointStore.fileFor(
+                    options.getCheckpointDirectory(), sourceCluster, targetCluster, topicName));
+                MirrorSession session = new MirrorSession(topicName, topicName, partitions, options, checkpoints,
+                    () -> new KafkaConsumer<>(createByteConsumerProperties(sourceCluster, "mirror")),
+                    () -> new KafkaProducer<>(createByteProducerProperties(targetCluster)));
+                logger.info("Mirroring {} from {} to {} ({} mode, {} partitions)", topicName, sourceCluster, 
+                    targetCluster, options.isContinuous() ? "continuous" : "bounded", partitions.size());
+                return session.start();
+            } catch (Exception e) {
+                logger.error("Failed to start mirroring {}: {}", topicName, e.getMessage());
+                throw new RuntimeException("Failed to start mirroring: " + e.getMessage(), e);
+            }
         });
     }
     
+    /**
+     * Make sure the target topic exists with at least as many partitions as the source, creating it
+     * with the source's partition count, replication factor and topic configs when missing
+     */
+    private void prepareMirrorTarget(String sourceCluster, String targetCluster, String topicName,
+                                     int partitionCount, boolean createTopic) throws Exception {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, targetCluster);
+        
+        try (AdminClient adminClient = AdminClient.create(props)) {
+            if (adminClient.listTopics().names().get().contains(topicName)) {
+                int targetPartitions = adminClient.describeTopics(Collections.singleton(topicName))
+                    .allTopicNames().get().get(topicName).partitions().size();
+                if (targetPartitions < partitionCount) {
+                    throw new IllegalStateException("Target topic " + topicName + " has " + targetPartitions 
+                        + " partitions but the source has " + partitionCount);
+                }
+                return;
+            }
+            if (!createTopic) {
+                throw new IllegalStateException("Target topic " + topicName + " does not exist on " + targetCluster);
+            }
+            
+            short replicationFactor;
+            Map<String, String> topicConfigs = new HashMap<>();
+            Properties sourceProps = new Properties();
+            sourceProps.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, sourceCluster);
+            try (AdminClient sourceAdmin = AdminClient.create(sourceProps)) {
+                TopicDescription source = sourceAdmin.describeTopics(Collections.singleton(topicName))
+                    .allTopicNames().get().get(topicName);
+                replicationFactor = (short) source.partitions().get(0).replicas().size();
+                
+                // Only overrides set on the topic itself; broker-level settings belong to the source cluster
+                ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, topicName);
+                Config config = sourceAdmin.describeConfigs(Collections.singleton(resource)).all().get().get(resource);
+                for (ConfigEntry entry : config.entries()) {
+                    if (entry.source() == ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG) {
+                        topicConfigs.put(entry.name(), entry.value());
+                    }
+                }
+            }
+            // The target may be a smaller cluster than the source
+            int targetBrokers = adminClient.describeCluster().nodes().get().size();
+            replicationFactor = (short) Math.max(1, Math.min(replicationFactor, targetBrokers));
+            
+            NewTopic newTopic = new NewTopic(topicName, partitionCount, replicationFactor)
+                .configs(topicConfigs);
+            adminClient.createTopics(Collections.singleton(newTopic)).all().get();
+            logger.info("Created mirror target topic {} on {} with {} partitions", topicName, targetCluster, partitionCount);
+        }
+    }
+    
+    /**
+     * Consumer for byte-level passthrough with large fetches, used by replay and mirroring
+     */
+    private Properties createByteConsumerProperties(String brokerUrls, String purpose) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, CONSUMER_GROUP_ID + "-" + purpose + "-" + UUID.randomUUID());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "5000");
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(1024 * 1024));
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, "100");
+        props.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, String.valueOf(8 * 1024 * 1024));
+        return props;
+    }
+    
+    /**
+     * Batched, compressed, idempotent producer for byte-level passthrough
+     */
+    private Properties createByteProducerProperties(String brokerUrls) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, "20");
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(512 * 1024));
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, String.valueOf(64L * 1024 * 1024));
+        return props;
+    }
+    
     @Override
     public CompletableFuture<Map<String, Object>> compareTopicsAsync(String cluster1, String cluster2, String topicName) {
-        return CompletableFuture.supplyAsync(() -> Map.of());
+        return compareTopicsAsync(cluster1, cluster2, topicName, new CompareOptions())
+            .thenApply(TopicComparison::toMap);
+    }
+    
+    @Override
+    public CompletableFuture<TopicComparison> compareTopicsAsync(String cluster1, String cluster2, String topicName,
+                                                                 CompareOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            ExecutorService executor = null;
+            try {
+                List<Integer> leftPartitions = getPartitionsAsync(cluster1, topicName).get();
+                List<Integer> rightPartitions = getPartitionsAsync(cluster2, topicName).get();
+                if (leftPartitions.isEmpty() && rightPartitions.isEmpty()) {
+                    throw new IllegalArgumentException("Topic " + topicName + " not found on either cluster");
+                }
+                
+                // Both clusters are read at the same time, each by its own group of consumers
+                int workers = Math.max(1, options.getWorkers());
+                executor = Executors.newFixedThreadPool(2 * workers);
+                List<CompletableFuture<Map<Integer, PartitionHasher>>> left = 
+                    hashPartitions(cluster1, topicName, leftPartitions, options, executor);
+                List<CompletableFuture<Map<Integer, PartitionHasher>>> right = 
+                    hashPartitions(cluster2, topicName, rightPartitions, options, executor);
+                Map<Integer, PartitionHasher> leftHashes = new TreeMap<>();
+                Map<Integer, PartitionHasher> rightHashes = new TreeMap<>();
+                for (CompletableFuture<Map<Integer, PartitionHasher>> group : left) {
+                    leftHashes.putAll(group.get());
+                }
+                for (CompletableFuture<Map<Integer, PartitionHasher>> group : right) {
+                    rightHashes.putAll(group.get());
+                }
+                
+                TopicComparison comparison = new TopicComparison(topicName, options);
+                TreeSet<Integer> partitions = new TreeSet<>(leftHashes.keySet());
+                partitions.addAll(rightHashes.keySet());
+                for (int partition : partitions) {
+                    comparison.addPartition(partition, leftHashes.get(partition), rightHashes.get(partition));
+                }
+                logger.info("Compared {} between {} and {}: {}", topicName, cluster1, cluster2, comparison);
+                return comparison;
+            } catch (Exception e) {
+                logger.error("Failed to compare topic {}: {}", topicName, e.getMessage());
+                throw new RuntimeException("Failed to compare topics: " + e.getMessage(), e);
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Spread partitions round-robin over up to {@code options.getWorkers()} consumers and hash each group
+     */
+    private List<CompletableFuture<Map<Integer, PartitionHasher>>> hashPartitions(String brokerUrls, String topicName,
+                                                                                  List<Integer> partitions,
+                                                                                  CompareOptions options,
+                                                                                  ExecutorService executor) {
+        int workerCount = Math.max(1, Math.min(options.getWorkers(), partitions.size()));
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            groups.get(i % workerCount).add(partitions.get(i));
+        }
+        
+        List<CompletableFuture<Map<Integer, PartitionHasher>>> futures = new ArrayList<>();
+        for (List<Integer> group : groups) {
+            if (group.isEmpty()) {
+                continue;
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try (KafkaConsumer<byte[], byte[]> consumer = 
+                         new KafkaConsumer<>(createByteConsumerProperties(brokerUrls, "compare"))) {
+                    return new TopicHasher(consumer, options).hash(topicName, group);
+                }
+            }, executor));
+        }
+        return futures;
     }
     
     // ===== BACKUP AND RESTORE =====
     
     @Override
     public CompletableFuture<Void> backupTopicAsync(String brokerUrls, String topicName, File backupDirectory) {
-        return CompletableFuture.runAsync(() -> {
-            // Stub implementation
+        return backupTopicAsync(brokerUrls, topicName, backupDirectory, new BackupOptions()).thenAccept(manifest -> {});
+    }
+    
+    @Override
+    public CompletableFuture<BackupManifest> backupTopicAsync(String brokerUrls, String topicName, File backupDirectory,
+                                                              BackupOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            ExecutorService executor = null;
+            try {
+                List<Integer> partitions = getPartitionsAsync(brokerUrls, topicName).get();
+                if (partitions.isEmpty()) {
+                    throw new IllegalArgumentException("Topic " + topicName + " has no partitions");
+                }
+                if (!backupDirectory.isDirectory() && !backupDirectory.mkdirs()) {
+                    throw new IOException("Cannot create backup directory " + backupDirectory.getAbsolutePath());
+                }
+                
+                String now = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                File manifestFile = new File(backupDirectory, BackupManifest.FILE_NAME);
+                BackupManifest manifest;
+                if (manifestFile.isFile()) {
+                    manifest = BackupManifest.read(manifestFile);
+                    if (!topicName.equals(manifest.getTopic())) {
+                        throw new IllegalStateException("Directory holds a backup of topic " + manifest.getTopic());
+                    }
+                    logger.info("Continuing backup of {} last updated at {}", topicName, manifest.getUpdatedAt());
+                } else {
+                    manifest = new BackupManifest(topicName, now);
+                }
+                manifest.setPartitionCount(partitions.size());
+                manifest.setReplicationFactor(getReplicationFactor(brokerUrls, topicName));
+                manifest.setConfigs(getTopicConfigAsync(brokerUrls, topicName).get());
+                long recordsBefore = manifest.getTotalRecords();
+                
+                // Every partition is read by its own consumer; only offsets past the last backup are fetched
+                executor = Executors.newFixedThreadPool(Math.max(1, Math.min(options.getWorkers(), partitions.size())));
+                List<Future<BackupManifest.PartitionEntry>> tasks = new ArrayList<>();
+                for (int partition : partitions) {
+                    BackupManifest.PartitionEntry previous = manifest.get(partition);
+                    tasks.add(executor.submit(() -> {
+                        // Aborted transactions are skipped and the end offset stops at the last stable offset
+                        Properties props = createByteConsumerProperties(brokerUrls, "backup");
+                        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+                        try (Consumer<byte[], byte[]> consumer = new KafkaConsumer<>(props)) {
+                            return new PartitionBackupTask(consumer, backupDirectory, topicName, partition, 
+                                previous, options).call();
+                        }
+                    }));
+                }
+                for (Future<BackupManifest.PartitionEntry> task : tasks) {
+                    manifest.put(task.get());
+                }
+                manifest.setUpdatedAt(now);
+                manifest.write(manifestFile);
+                
+                logger.info("Backed up {} new messages of {} to {} ({} messages, {} bytes in total)", 
+                    manifest.getTotalRecords() - recordsBefore, topicName, backupDirectory.getAbsolutePath(),
+                    manifest.getTotalRecords(), manifest.getTotalBytes());
+                return manifest;
+            } catch (Exception e) {
+                logger.error("Failed to back up topic {}: {}", topicName, e.getMessage());
+                throw new RuntimeException("Failed to back up topic: " + e.getMessage(), e);
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+            }
         });
     }
     
     @Override
     public CompletableFuture<Void> restoreTopicAsync(String brokerUrls, String topicName, File backupDirectory) {
-        return CompletableFuture.runAsync(() -> {
-            // Stub implementation
+        return restoreTopicAsync(brokerUrls, topicName, backupDirectory, new BackupOptions()).thenAccept(result -> {
+            if (result.getFailed() > 0) {
+                throw new RuntimeException("Failed to restore " + result.getFailed() + " messages: " 
+                    + result.getFirstError());
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<ImportResult> restoreTopicAsync(String brokerUrls, String topicName, File backupDirectory,
+                                                             BackupOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            ExecutorService executor = null;
+            try {
+                BackupManifest manifest = BackupManifest.read(new File(backupDirectory, BackupManifest.FILE_NAME));
+                List<String> corrupt = manifest.verify(backupDirectory);
+                if (!corrupt.isEmpty()) {
+                    throw new IOException("Backup chunks are missing or do not match their checksums: " + corrupt);
+                }
+                prepareRestoreTarget(brokerUrls, topicName, manifest);
+                
+                // One idempotent producer is shared by all partitions; it keeps each partition's send order
+                executor = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(options.getWorkers(), manifest.getPartitions().size())));
+                long succeeded = 0;
+                long failed = 0;
+                String firstError = null;
+                try (Producer<byte[], byte[]> producer = new KafkaProducer<>(createByteProducerProperties(brokerUrls))) {
+                    List<Future<ImportResult>> tasks = new ArrayList<>();
+                    for (BackupManifest.PartitionEntry entry : manifest.getPartitions()) {
+                        tasks.add(executor.submit(new PartitionRestoreTask(producer, backupDirectory, entry, topicName)));
+                    }
+                    for (Future<ImportResult> task : tasks) {
+                        ImportResult result = task.get();
+                        succeeded += result.getSucceeded();
+                        failed += result.getFailed();
+                        if (firstError == null) {
+                            firstError = result.getFirstError();
+                        }
+                    }
+                }
+                
+                logger.info("Restored {} messages of backup {} into {} ({} failed)", 
+                    succeeded, manifest.getTopic(), topicName, failed);
+                return new ImportResult(succeeded, failed, firstError);
+            } catch (Exception e) {
+                logger.error("Failed to restore topic {}: {}", topicName, e.getMessage());
+                throw new RuntimeException("Failed to restore topic: " + e.getMessage(), e);
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+            }
         });
     }
     
+    private short getReplicationFactor(String brokerUrls, String topicName) throws Exception {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+        
+        try (AdminClient adminClient = AdminClient.create(props)) {
+            TopicDescription description = adminClient.describeTopics(Collections.singleton(topicName))
+                .allTopicNames().get().get(topicName);
+            return (short) description.partitions().get(0).replicas().size();
+        }
+    }
+    
+    /**
+     * Create the restore target with the backed-up partition count, replication factor and configs,
+     * or check that an existing topic has enough partitions
+     */
+    private void prepareRestoreTarget(String brokerUrls, String topicName, BackupManifest manifest) throws Exception {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+        
+        try (AdminClient adminClient = AdminClient.create(props)) {
+            if (adminClient.listTopics().names().get().contains(topicName)) {
+                int partitions = adminClient.describeTopics(Collections.singleton(topicName))
+                    .allTopicNames().get().get(topicName).partitions().size();
+                if (partitions < manifest.getPartitionCount()) {
+                    throw new IllegalStateException("Topic " + topicName + " has " + partitions 
+                        + " partitions but the backup has " + manifest.getPartitionCount());
+                }
+                return;
+            }
+            int brokers = adminClient.describeCluster().nodes().get().size();
+            short replicationFactor = (short) Math.max(1, Math.min(manifest.getReplicationFactor(), brokers));
+            NewTopic newTopic = new NewTopic(topicName, manifest.getPartitionCount(), replicationFactor)
+                .configs(manifest.getConfigs());
+            adminClient.createTopics(Collections.singleton(newTopic)).all().get();
+            logger.info("Created topic {} with {} partitions for restore", topicName, manifest.getPartitionCount());
+        }
+    }
+    
     @Override
     public CompletableFuture<List<KafkaMessage>> searchMessagesRegexWithTimestampAsync(String brokerUrls, String topicName,
                                                                                       int partition, String regexPattern,
@@ -250,4 +1636,68 @@ public class EnhancedKafkaServiceImpl extends KafkaServiceImpl implements Enhanc
         // Delegate to the timestamp search method implemented in parent class
         return searchMessagesByTimestampAsync(brokerUrls, topicName, partition, fromTimestamp, toTimestamp, maxResults);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Receives records read by {@link #consumeRange}
+     */
+    @FunctionalInterface
+    protected interface RecordHandler {
+        void handle(ConsumerRecord<String, String> record) throws Exception;
+    }
+    
+    /**
+     * Outcome of {@link #readRange}: records handed to the handler and the consumer position reached
+     */
+    private record RangeRead(long handled, long position) {}
+    
+    /**
+     * Read an inclusive offset range of one partition, handing each record to the handler as it
+     * is polled. Stops at the end of the range or the partition's current end, whichever is first,
+     * and throws if polls run dry before getting there so a partial read is never reported as complete.
+     */
+    protected long consumeRange(String brokerUrls, String topicName, int partition,
+                                long fromOffset, long toOffset, RecordHandler handler) throws Exception {
+        return readRange(brokerUrls, topicName, partition, fromOffset, toOffset, handler).handled();
+    }
+    
+    private RangeRead readRange(String brokerUrls, String topicName, int partition,
+                                long fromOffset, long toOffset, RecordHandler handler) throws Exception {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, CONSUMER_GROUP_ID + "-" + UUID.randomUUID());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "2000");
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, "65536");
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, "100");
+        
+        try (Consumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            TopicPartition topicPartition = new TopicPartition(topicName, partition);
+            consumer.assign(Collections.singleton(topicPartition));
+            long beginningOffset = consumer.beginningOffsets(Collections.singleton(topicPartition)).get(topicPartition);
+            long endOffset = consumer.endOffsets(Collections.singleton(topicPartition)).get(topicPartition);
+            long lastOffset = Math.min(toOffset, endOffset - 1);
+            consumer.seek(topicPartition, Math.max(fromOffset, beginningOffset));
+            
+            long handled = 0;
+            int emptyPolls = 0;
+            while (consumer.position(topicPartition) <= lastOffset) {
+                if (emptyPolls >= 50) {
+                    throw new IllegalStateException("Timed out reading " + topicPartition + " at offset " 
+                        + consumer.position(topicPartition) + " of " + (lastOffset + 1));
+                }
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(200));
+                emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+                for (ConsumerRecord<String, String> record : records) {
+                    if (record.offset() > lastOffset) {
+                        break;
+                    }
+                    handler.handle(record);
+                    handled++;
+                }
+            }
+            return new RangeRead(handled, consumer.position(topicPartition));
+        }
+    }
+}
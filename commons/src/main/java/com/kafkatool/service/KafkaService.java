@@ -2,6 +2,7 @@ package com.kafkatool.service;
 
 import com.kafkatool.model.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -85,7 +86,12 @@ public interface KafkaService {
     CompletableFuture<List<KafkaMessage>> getLatestMessagesAsync(String brokerUrls, 
                                                                 String topicName, 
                                                                 int partition, int count);
-    
+
+    /**
+     * Create a live tail session for a partition; the caller starts and stops it
+     */
+    LiveTailSession createLiveTailSession(String brokerUrls, String topicName, int partition);
+
     /**
      * Get messages between specific offsets
      */
@@ -183,6 +189,23 @@ public interface KafkaService {
     CompletableFuture<Void> resetConsumerGroupOffsetsToOffsetAsync(String brokerUrls, String groupId, 
                                                                   String topicName, int partition, long offset);
     
+    /**
+     * Reset consumer group offsets to the first record at or after a timestamp (epoch millis),
+     * or to the end of partitions with no such record. A null topic resets every topic the
+     * group has committed offsets for.
+     */
+    CompletableFuture<Void> resetConsumerGroupOffsetsToTimestampAsync(String brokerUrls, String groupId, 
+                                                                     String topicName, long timestamp);
+    
+    /**
+     * Reset consumer group offsets to where they were the given duration ago, e.g. to replay the last hour
+     */
+    default CompletableFuture<Void> resetConsumerGroupOffsetsByDurationAsync(String brokerUrls, String groupId, 
+                                                                            String topicName, Duration duration) {
+        return resetConsumerGroupOffsetsToTimestampAsync(brokerUrls, groupId, topicName, 
+            System.currentTimeMillis() - duration.toMillis());
+    }
+    
     /**
      * Delete a consumer group
      */
@@ -2,6 +2,10 @@ package com.kafkatool.service;
 
 import com.kafkatool.model.*;
 import com.kafkatool.util.KafkaAuthenticationUtil;
+import com.kafkatool.util.cache.MessageTailCache;
+import com.kafkatool.util.offsets.BulkOffsetReset;
+import com.kafkatool.util.offsets.OffsetResetOptions;
+import com.kafkatool.util.offsets.OffsetResetPlan;
 import org.apache.kafka.clients.admin.*;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -39,7 +43,9 @@ public class KafkaServiceImpl implements KafkaService {
     
     private static final Logger logger = LoggerFactory.getLogger(KafkaServiceImpl.class);
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
-    private static final String CONSUMER_GROUP_ID = "kafka-ui-tool-consumer";
+    protected static final String CONSUMER_GROUP_ID = "kafka-ui-tool-consumer";
+    
+    private final MessageTailCache tailCache = new MessageTailCache();
     
     @Override
     public CompletableFuture<Boolean> testConnectionAsync(String brokerUrls) {
@@ -212,6 +218,7 @@ public class KafkaServiceImpl implements KafkaService {
             try (AdminClient adminClient = AdminClient.create(props)) {
                 DeleteTopicsResult result = adminClient.deleteTopics(Collections.singleton(topicName));
                 result.all().get();
+                tailCache.invalidateTopic(brokerUrls, topicName);
                 logger.info("Successfully deleted topic: {}", topicName);
             } catch (Exception e) {
                 logger.error("Failed to delete topic {}: {}", topicName, e.getMessage());
@@ -361,25 +368,34 @@ public class KafkaServiceImpl implements KafkaService {
                 TopicPartition topicPartition = new TopicPartition(topicName, partition);
                 consumer.assign(Collections.singleton(topicPartition));
                 
-                // Get end offset and seek to count messages before it
+                long beginningOffset = consumer.beginningOffsets(Collections.singleton(topicPartition)).get(topicPartition);
                 long endOffset = consumer.endOffsets(Collections.singleton(topicPartition)).get(topicPartition);
-                long startOffset = Math.max(0, endOffset - count);
-                consumer.seek(topicPartition, startOffset);
+                long startOffset = Math.max(beginningOffset, endOffset - count);
                 
-                List<KafkaMessage> messages = new ArrayList<>();
-                long deadline = System.currentTimeMillis() + 5000; // 5 second timeout
+                // Only fetch what lies beyond the cached tail; a cold or stale cache starts over
+                long fetchOffset = tailCache.getResumeOffset(brokerUrls, topicName, partition, startOffset);
+                if (fetchOffset < 0 || fetchOffset > endOffset) {
+                    tailCache.reset(brokerUrls, topicName, partition, startOffset, count);
+                    fetchOffset = startOffset;
+                }
                 
-                while (messages.size() < count && System.currentTimeMillis() < deadline) {
-                    var records = consumer.poll(Duration.ofMillis(100));
-                    for (ConsumerRecord<String, String> record : records) {
-                        if (record.partition() == partition) {
-                            messages.add(convertToKafkaMessage(record));
-                            if (messages.size() >= count) break;
+                if (fetchOffset < endOffset) {
+                    consumer.seek(topicPartition, fetchOffset);
+                    long deadline = System.currentTimeMillis() + 5000; // 5 second timeout
+                    
+                    while (consumer.position(topicPartition) < endOffset && System.currentTimeMillis() < deadline) {
+                        var records = consumer.poll(Duration.ofMillis(100));
+                        List<KafkaMessage> fetched = new ArrayList<>(records.count());
+                        for (ConsumerRecord<String, String> record : records) {
+                            if (record.partition() == partition) {
+                                fetched.add(convertToKafkaMessage(record));
+                            }
                         }
+                        tailCache.append(brokerUrls, topicName, partition, fetched, consumer.position(topicPartition));
                     }
                 }
                 
-                return messages;
+                return tailCache.getTail(brokerUrls, topicName, partition, startOffset, count);
             } catch (Exception e) {
                 logger.error("Failed to get latest messages for {}:{}: {}", 
                     topicName, partition, e.getMessage());
@@ -387,7 +403,12 @@ public class KafkaServiceImpl implements KafkaService {
             }
         });
     }
-    
+
+    @Override
+    public LiveTailSession createLiveTailSession(String brokerUrls, String topicName, int partition) {
+        return new LiveTailSession(brokerUrls, topicName, partition, LiveTailSession.DEFAULT_BUFFER_CAPACITY);
+    }
+
     @Override
     public CompletableFuture<List<KafkaMessage>> getMessagesBetweenOffsetsAsync(String brokerUrls,
                                                                                String topicName,
@@ -534,7 +555,7 @@ public class KafkaServiceImpl implements KafkaService {
         });
     }
     
-    private KafkaMessage convertToKafkaMessage(ConsumerRecord<String, String> record) {
+    protected KafkaMessage convertToKafkaMessage(ConsumerRecord<String, String> record) {
         Map<String, String> headers = new HashMap<>();
         for (Header header : record.headers()) {
             headers.put(header.key(), new String(header.value()));
@@ -672,6 +693,7 @@ public class KafkaServiceImpl implements KafkaService {
                         cgOffsets.setPartition(partition.partition());
                         cgOffsets.setCurrentOffset(offsetMetadata.offset());
                         cgOffsets.setLogEndOffset(endOffset);
+                        cgOffsets.setLag(Math.max(0, endOffset - offsetMetadata.offset()));
                         cgOffsets.setClientId(offsetMetadata.metadata());
                         
                         groupOffsets.add(cgOffsets);
@@ -799,6 +821,32 @@ public class KafkaServiceImpl implements KafkaService {
         });
     }
     
+    @Override
+    public CompletableFuture<Void> resetConsumerGroupOffsetsToTimestampAsync(String brokerUrls, String groupId, 
+                                                                            String topicName, long timestamp) {
+        return CompletableFuture.runAsync(() -> {
+            Properties props = new Properties();
+            props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+            
+            try (AdminClient adminClient = AdminClient.create(props)) {
+                // The bulk reset resolves the timestamp for every partition and moves past-the-end ones to their end
+                OffsetResetOptions options = OffsetResetOptions.of(OffsetResetOptions.Strategy.TIMESTAMP, false);
+                options.setTimestamp(timestamp);
+                List<String> topics = topicName != null ? List.of(topicName) : List.of();
+                OffsetResetPlan.GroupReset group = new BulkOffsetReset(adminClient)
+                    .reset(List.of(groupId), topics, options).getGroup(groupId);
+                if (group.getStatus() == OffsetResetPlan.Status.FAILED) {
+                    throw new IllegalStateException(group.getError());
+                }
+                logger.info("Successfully reset offsets of {} partitions to timestamp {} for consumer group {}", 
+                    group.getPartitions().size(), Instant.ofEpochMilli(timestamp), groupId);
+            } catch (Exception e) {
+                logger.error("Failed to reset consumer group offsets for {}:{}: {}", groupId, topicName, e.getMessage());
+                throw new RuntimeException("Failed to reset offsets: " + e.getMessage(), e);
+            }
+        });
+    }
+    
     @Override
     public CompletableFuture<Void> deleteConsumerGroupAsync(String brokerUrls, String groupId) {
         return CompletableFuture.runAsync(() -> {
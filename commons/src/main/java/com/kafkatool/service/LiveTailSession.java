@@ -0,0 +1,210 @@
+package com.kafkatool.service;
+
+import com.kafkatool.model.KafkaMessage;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Long-running tail of a single partition backed by one assigned consumer.
+ * Records are handed over through a bounded queue; when the reader falls behind
+ * the oldest queued records are dropped and counted instead of growing memory.
+ */
+public class LiveTailSession implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveTailSession.class);
+    private static final String CONSUMER_GROUP_ID = "kafka-ui-tool-live-tail";
+
+    public static final int DEFAULT_BUFFER_CAPACITY = 10_000;
+
+    private final String brokerUrls;
+    private final TopicPartition topicPartition;
+    private final BlockingQueue<KafkaMessage> buffer;
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean paused;
+    private volatile long position = -1;
+    private Consumer<String, String> consumer;
+    private Thread pollThread;
+
+    public LiveTailSession(String brokerUrls, String topicName, int partition, int bufferCapacity) {
+        this.brokerUrls = brokerUrls;
+        this.topicPartition = new TopicPartition(topicName, partition);
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    }
+
+    /**
+     * Start tailing, beginning {@code initialBacklog} records before the current end of the partition
+     */
+    public synchronized void start(int initialBacklog) {
+        if (running) {
+            return;
+        }
+
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrls);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, CONSUMER_GROUP_ID + "-" + UUID.randomUUID());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "1000");
+
+        consumer = new KafkaConsumer<>(props);
+        running = true;
+        pollThread = new Thread(() -> pollLoop(initialBacklog),
+            "live-tail-" + topicPartition.topic() + "-" + topicPartition.partition());
+        pollThread.setDaemon(true);
+        pollThread.start();
+    }
+
+    private void pollLoop(int initialBacklog) {
+        Collection<TopicPartition> assignment = Collections.singleton(topicPartition);
+        boolean consumerPaused = false;
+
+        try {
+            consumer.assign(assignment);
+            long beginningOffset = consumer.beginningOffsets(assignment).get(topicPartition);
+            long endOffset = consumer.endOffsets(assignment).get(topicPartition);
+            consumer.seek(topicPartition, Math.max(beginningOffset, endOffset - initialBacklog));
+            logger.info("Started live tail on {} at offset {}", topicPartition, consumer.position(topicPartition));
+
+            while (running) {
+                // Pausing keeps the fetch position, so resume continues where it left off
+                if (paused != consumerPaused) {
+                    if (paused) {
+                        consumer.pause(assignment);
+                    } else {
+                        consumer.resume(assignment);
+                    }
+                    consumerPaused = paused;
+                }
+
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(200));
+                for (ConsumerRecord<String, String> record : records) {
+                    enqueue(convertToKafkaMessage(record));
+                }
+                position = consumer.position(topicPartition);
+            }
+        } catch (WakeupException e) {
+            // Expected on stop()
+        } catch (Exception e) {
+            logger.error("Live tail on {} failed: {}", topicPartition, e.getMessage());
+        } finally {
+            running = false;
+            consumer.close(Duration.ofSeconds(2));
+            logger.info("Stopped live tail on {}", topicPartition);
+        }
+    }
+
+    private void enqueue(KafkaMessage message) {
+        receivedCount.incrementAndGet();
+        while (!buffer.offer(message)) {
+            if (buffer.poll() != null) {
+                droppedCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Move up to {@code maxMessages} buffered records into {@code sink}, returning how many were moved
+     */
+    public int drainTo(Collection<? super KafkaMessage> sink, int maxMessages) {
+        return buffer.drainTo(sink, maxMessages);
+    }
+
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public String getTopicName() {
+        return topicPartition.topic();
+    }
+
+    public int getPartition() {
+        return topicPartition.partition();
+    }
+
+    public synchronized void stop() {
+        if (consumer == null) {
+            return;
+        }
+        running = false;
+        consumer.wakeup();
+        if (pollThread != null && pollThread != Thread.currentThread()) {
+            try {
+                pollThread.join(3000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private static KafkaMessage convertToKafkaMessage(ConsumerRecord<String, String> record) {
+        Map<String, String> headers = new HashMap<>();
+        for (Header header : record.headers()) {
+            headers.put(header.key(), header.value() != null ? new String(header.value()) : null);
+        }
+
+        LocalDateTime timestamp = null;
+        if (record.timestamp() > 0) {
+            timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault());
+        }
+
+        return new KafkaMessage(record.topic(), record.offset(), record.partition(),
+            record.key(), record.value(), timestamp, headers);
+    }
+}
@@ -145,6 +145,7 @@ public class SettingsManager {
         private int searchTimeout = 30;
         private boolean enableAutoRefresh = false;
         private int autoRefreshInterval = 30;
+        private boolean persistMetrics = false;
         
         // Getters and setters
         public String getTheme() {
@@ -194,5 +195,16 @@ public class SettingsManager {
         public void setAutoRefreshInterval(int autoRefreshInterval) {
             this.autoRefreshInterval = autoRefreshInterval;
         }
+        
+        /**
+         * Keep collected lag and throughput history in a local database across restarts
+         */
+        public boolean isPersistMetrics() {
+            return persistMetrics;
+        }
+        
+        public void setPersistMetrics(boolean persistMetrics) {
+            this.persistMetrics = persistMetrics;
+        }
     }
 }
\ No newline at end of file
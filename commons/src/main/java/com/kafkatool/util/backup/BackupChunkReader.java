@@ -0,0 +1,45 @@
+package com.kafkatool.util.backup;
+
+import org.apache.kafka.common.record.FileLogInputStream;
+import org.apache.kafka.common.record.FileRecords;
+import org.apache.kafka.common.record.Record;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Reads the record batches of a chunk file one at a time, validating each batch's CRC
+ * before its records are handed on
+ */
+public class BackupChunkReader {
+
+    /**
+     * Receives each record of a chunk in offset order
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(Record record) throws Exception;
+    }
+
+    /**
+     * Pass every record of the chunk to the handler and return how many there were
+     */
+    public static long read(File chunkFile, RecordHandler handler) throws Exception {
+        long count = 0;
+        try (FileRecords records = FileRecords.open(chunkFile, false)) {
+            for (FileLogInputStream.FileChannelRecordBatch batch : records.batches()) {
+                try {
+                    batch.ensureValid();
+                } catch (RuntimeException e) {
+                    throw new IOException("Corrupt batch at offset " + batch.baseOffset() + " in " 
+                        + chunkFile.getName() + ": " + e.getMessage(), e);
+                }
+                for (Record record : batch) {
+                    handler.handle(record);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,160 @@
+package com.kafkatool.util.backup;
+
+import com.kafkatool.util.export.ExportManifest;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.MemoryRecordsBuilder;
+import org.apache.kafka.common.record.TimestampType;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Writes one partition's records as Kafka record batches, compressed and CRC-checked the same
+ * way brokers store them, into chunk files named after their first offset. Each chunk is written
+ * under a temporary name and renamed once complete, so a directory never holds a partial chunk
+ * under its final name: the last chunk is only renamed by {@link #finish()}, and closing a writer
+ * that was not finished, e.g. because the read failed, deletes it instead.
+ */
+public class BackupChunkWriter implements Closeable {
+
+    public static final String CHUNK_EXTENSION = ".records";
+
+    private final File directory;
+    private final String topic;
+    private final int partition;
+    private final CompressionType compression;
+    private final long maxChunkBytes;
+    private final int batchBytes;
+    private final List<BackupManifest.ChunkEntry> chunks = new ArrayList<>();
+
+    private MemoryRecordsBuilder batch;
+    private OutputStream out;
+    private MessageDigest digest;
+    private File chunkFile;
+    private long chunkBytes;
+    private long chunkRecords;
+    private long chunkFirstOffset;
+    private long lastOffset = -1;
+
+    public BackupChunkWriter(File directory, String topic, int partition, BackupOptions options) {
+        this.directory = directory;
+        this.topic = topic;
+        this.partition = partition;
+        this.compression = options.getCompressionType();
+        this.maxChunkBytes = options.getMaxChunkBytes();
+        this.batchBytes = options.getBatchBytes();
+    }
+
+    public void append(long offset, long timestamp, byte[] key, byte[] value, Header[] headers) throws IOException {
+        if (offset <= lastOffset) {
+            throw new IllegalArgumentException("Offset " + offset + " is not after " + lastOffset);
+        }
+        if (batch != null && !batch.hasRoomFor(timestamp, key, value, headers)) {
+            flushBatch();
+        }
+        if (batch == null) {
+            if (out == null) {
+                openChunk(offset);
+            }
+            batch = MemoryRecords.builder(ByteBuffer.allocate(batchBytes), compression, TimestampType.CREATE_TIME, offset);
+        }
+        batch.appendWithOffset(offset, timestamp, key, value, headers);
+        chunkRecords++;
+        lastOffset = offset;
+    }
+
+    /**
+     * Chunks completed so far, in offset order
+     */
+    public List<BackupManifest.ChunkEntry> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Offset of the last record appended, or -1 if none was
+     */
+    public long getLastOffset() {
+        return lastOffset;
+    }
+
+    /**
+     * Write out the pending batch and complete the open chunk
+     */
+    public void finish() throws IOException {
+        if (batch != null) {
+            flushBatch();
+        }
+        closeChunk();
+    }
+
+    /**
+     * Discard whatever was not completed by {@link #finish()}; chunks already completed are kept
+     */
+    @Override
+    public void close() throws IOException {
+        batch = null;
+        if (out != null) {
+            try {
+                out.close();
+            } finally {
+                out = null;
+                Files.deleteIfExists(tempFile(chunkFile).toPath());
+            }
+        }
+    }
+
+    private void openChunk(long firstOffset) throws IOException {
+        chunkFirstOffset = firstOffset;
+        chunkFile = new File(directory, String.format("%s-%d-%020d%s", topic, partition, firstOffset, CHUNK_EXTENSION));
+        try {
+            digest = MessageDigest.getInstance(ExportManifest.CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ExportManifest.CHECKSUM_ALGORITHM + " is not available", e);
+        }
+        out = new DigestOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(tempFile(chunkFile).toPath()), 256 * 1024), digest);
+        chunkBytes = 0;
+        chunkRecords = 0;
+    }
+
+    private void flushBatch() throws IOException {
+        ByteBuffer buffer = batch.build().buffer();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        out.write(bytes);
+        chunkBytes += bytes.length;
+        batch = null;
+        if (chunkBytes >= maxChunkBytes) {
+            closeChunk();
+        }
+    }
+
+    private void closeChunk() throws IOException {
+        if (out == null) {
+            return;
+        }
+        out.close();
+        out = null;
+        Files.move(tempFile(chunkFile).toPath(), chunkFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        chunks.add(new BackupManifest.ChunkEntry(chunkFile.getName(), chunkFirstOffset, lastOffset, chunkRecords,
+            chunkBytes, HexFormat.of().formatHex(digest.digest())));
+    }
+
+    private static File tempFile(File file) {
+        return new File(file.getPath() + ".tmp");
+    }
+}
@@ -0,0 +1,196 @@
+package com.kafkatool.util.backup;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kafkatool.util.export.ExportManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of a topic backup directory: the topic's partition count, replication factor and
+ * configs, and for each partition the chunk files in offset order with their checksums and
+ * the next offset to read. Each incremental run appends chunks and moves the next offsets on.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BackupManifest {
+
+    public static final String FILE_NAME = "backup-manifest.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private String topic;
+    private int partitionCount;
+    private short replicationFactor;
+    private Map<String, String> configs = new HashMap<>();
+    private String createdAt;
+    private String updatedAt;
+    private String checksumAlgorithm = ExportManifest.CHECKSUM_ALGORITHM;
+    private List<PartitionEntry> partitions = new ArrayList<>();
+
+    public BackupManifest() {}
+
+    public BackupManifest(String topic, String createdAt) {
+        this.topic = topic;
+        this.createdAt = createdAt;
+    }
+
+    public String getTopic() { return topic; }
+    public void setTopic(String topic) { this.topic = topic; }
+
+    public int getPartitionCount() { return partitionCount; }
+    public void setPartitionCount(int partitionCount) { this.partitionCount = partitionCount; }
+
+    public short getReplicationFactor() { return replicationFactor; }
+    public void setReplicationFactor(short replicationFactor) { this.replicationFactor = replicationFactor; }
+
+    public Map<String, String> getConfigs() { return configs; }
+    public void setConfigs(Map<String, String> configs) { this.configs = configs; }
+
+    public String getCreatedAt() { return createdAt; }
+    public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
+
+    public String getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(String updatedAt) { this.updatedAt = updatedAt; }
+
+    public String getChecksumAlgorithm() { return checksumAlgorithm; }
+    public void setChecksumAlgorithm(String checksumAlgorithm) { this.checksumAlgorithm = checksumAlgorithm; }
+
+    public List<PartitionEntry> getPartitions() { return partitions; }
+    public void setPartitions(List<PartitionEntry> partitions) { this.partitions = partitions; }
+
+    /**
+     * The partition's entry, or null if it has never been backed up
+     */
+    public synchronized PartitionEntry get(int partition) {
+        for (PartitionEntry entry : partitions) {
+            if (entry.getPartition() == partition) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replace the partition's entry, keeping entries ordered by partition
+     */
+    public synchronized void put(PartitionEntry entry) {
+        partitions.removeIf(existing -> existing.getPartition() == entry.getPartition());
+        partitions.add(entry);
+        partitions.sort(Comparator.comparingInt(PartitionEntry::getPartition));
+    }
+
+    public long getTotalRecords() {
+        return partitions.stream().flatMap(entry -> entry.getChunks().stream()).mapToLong(ChunkEntry::getRecordCount).sum();
+    }
+
+    public long getTotalBytes() {
+        return partitions.stream().flatMap(entry -> entry.getChunks().stream()).mapToLong(ChunkEntry::getByteSize).sum();
+    }
+
+    /**
+     * Write through a temporary file so an interrupted backup never leaves a truncated manifest
+     */
+    public void write(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        MAPPER.writeValue(temp, this);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static BackupManifest read(File file) throws IOException {
+        return MAPPER.readValue(file, BackupManifest.class);
+    }
+
+    /**
+     * Recompute every chunk checksum and return the chunk files that are missing or do not match
+     */
+    public List<String> verify(File directory) throws IOException {
+        List<String> mismatched = new ArrayList<>();
+        for (PartitionEntry entry : partitions) {
+            for (ChunkEntry chunk : entry.getChunks()) {
+                File file = new File(directory, chunk.getFile());
+                if (!file.isFile() || file.length() != chunk.getByteSize()
+                        || !ExportManifest.checksum(file).equals(chunk.getChecksum())) {
+                    mismatched.add(chunk.getFile());
+                }
+            }
+        }
+        return mismatched;
+    }
+
+    /**
+     * Chunks of one partition and the offset the next incremental backup starts from
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PartitionEntry {
+        private int partition;
+        private long nextOffset;
+        private List<ChunkEntry> chunks = new ArrayList<>();
+
+        public PartitionEntry() {}
+
+        public PartitionEntry(int partition) {
+            this.partition = partition;
+        }
+
+        public int getPartition() { return partition; }
+        public void setPartition(int partition) { this.partition = partition; }
+
+        public long getNextOffset() { return nextOffset; }
+        public void setNextOffset(long nextOffset) { this.nextOffset = nextOffset; }
+
+        public List<ChunkEntry> getChunks() { return chunks; }
+        public void setChunks(List<ChunkEntry> chunks) { this.chunks = chunks; }
+    }
+
+    /**
+     * One chunk file of compressed record batches
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ChunkEntry {
+        private String file;
+        private long firstOffset;
+        private long lastOffset;
+        private long recordCount;
+        private long byteSize;
+        private String checksum;
+
+        public ChunkEntry() {}
+
+        public ChunkEntry(String file, long firstOffset, long lastOffset, long recordCount,
+                          long byteSize, String checksum) {
+            this.file = file;
+            this.firstOffset = firstOffset;
+            this.lastOffset = lastOffset;
+            this.recordCount = recordCount;
+            this.byteSize = byteSize;
+            this.checksum = checksum;
+        }
+
+        public String getFile() { return file; }
+        public void setFile(String file) { this.file = file; }
+
+        public long getFirstOffset() { return firstOffset; }
+        public void setFirstOffset(long firstOffset) { this.firstOffset = firstOffset; }
+
+        public long getLastOffset() { return lastOffset; }
+        public void setLastOffset(long lastOffset) { this.lastOffset = lastOffset; }
+
+        public long getRecordCount() { return recordCount; }
+        public void setRecordCount(long recordCount) { this.recordCount = recordCount; }
+
+        public long getByteSize() { return byteSize; }
+        public void setByteSize(long byteSize) { this.byteSize = byteSize; }
+
+        public String getChecksum() { return checksum; }
+        public void setChecksum(String checksum) { this.checksum = checksum; }
+    }
+}
@@ -0,0 +1,34 @@
+package com.kafkatool.util.backup;
+
+import org.apache.kafka.common.record.CompressionType;
+
+/**
+ * Settings for backing up and restoring a topic
+ */
+public class BackupOptions {
+
+    private String compression = "zstd";
+    private int workers = 4;
+    private long maxChunkBytes = 64L * 1024 * 1024;
+    private int batchBytes = 1024 * 1024;
+
+    /** Record batch compression: zstd, lz4, gzip, snappy or none */
+    public String getCompression() { return compression; }
+    public void setCompression(String compression) { this.compression = compression; }
+
+    /** Partitions read or restored at the same time */
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    /** A new chunk file is started once the current one reaches this size */
+    public long getMaxChunkBytes() { return maxChunkBytes; }
+    public void setMaxChunkBytes(long maxChunkBytes) { this.maxChunkBytes = maxChunkBytes; }
+
+    /** Uncompressed size at which a record batch is closed and compressed */
+    public int getBatchBytes() { return batchBytes; }
+    public void setBatchBytes(int batchBytes) { this.batchBytes = batchBytes; }
+
+    public CompressionType getCompressionType() {
+        return CompressionType.forName(compression.trim().toLowerCase());
+    }
+}
@@ -0,0 +1,89 @@
+package com.kafkatool.util.backup;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+/**
+ * Backs up one partition from where the previous backup stopped up to the end offset seen
+ * at start, appending new chunk files to the partition's manifest entry. Records removed by
+ * retention since the previous backup are logged as a gap rather than failing the run.
+ */
+public class PartitionBackupTask implements Callable<BackupManifest.PartitionEntry> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionBackupTask.class);
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final int MAX_EMPTY_POLLS = 50;
+
+    private final Consumer<byte[], byte[]> consumer;
+    private final File directory;
+    private final String topic;
+    private final int partition;
+    private final BackupManifest.PartitionEntry previous;
+    private final BackupOptions options;
+
+    public PartitionBackupTask(Consumer<byte[], byte[]> consumer, File directory, String topic, int partition,
+                               BackupManifest.PartitionEntry previous, BackupOptions options) {
+        this.consumer = consumer;
+        this.directory = directory;
+        this.topic = topic;
+        this.partition = partition;
+        this.previous = previous;
+        this.options = options;
+    }
+
+    @Override
+    public BackupManifest.PartitionEntry call() throws Exception {
+        TopicPartition topicPartition = new TopicPartition(topic, partition);
+        consumer.assign(Collections.singleton(topicPartition));
+        long beginningOffset = consumer.beginningOffsets(Collections.singleton(topicPartition)).get(topicPartition);
+        long endOffset = consumer.endOffsets(Collections.singleton(topicPartition)).get(topicPartition);
+
+        BackupManifest.PartitionEntry entry = new BackupManifest.PartitionEntry(partition);
+        long startOffset = beginningOffset;
+        if (previous != null) {
+            entry.getChunks().addAll(previous.getChunks());
+            startOffset = Math.max(previous.getNextOffset(), beginningOffset);
+            if (beginningOffset > previous.getNextOffset()) {
+                logger.warn("Offsets {}-{} of {}-{} were deleted before they could be backed up",
+                    previous.getNextOffset(), beginningOffset - 1, topic, partition);
+            }
+        }
+        entry.setNextOffset(Math.max(startOffset, endOffset));
+        if (startOffset >= endOffset) {
+            return entry;
+        }
+
+        consumer.seek(topicPartition, startOffset);
+        try (BackupChunkWriter writer = new BackupChunkWriter(directory, topic, partition, options)) {
+            int emptyPolls = 0;
+            while (consumer.position(topicPartition) < endOffset) {
+                if (emptyPolls >= MAX_EMPTY_POLLS) {
+                    throw new IllegalStateException("Timed out reading " + topicPartition + " at offset " 
+                        + consumer.position(topicPartition) + " of " + endOffset);
+                }
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+                emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    if (record.offset() >= endOffset) {
+                        break;
+                    }
+                    writer.append(record.offset(), record.timestamp(), record.key(), record.value(),
+                        record.headers().toArray());
+                }
+            }
+            writer.finish();
+            entry.getChunks().addAll(writer.getChunks());
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,249 @@
+package com.kafkatool.util.cache;
+
+import com.kafkatool.model.KafkaMessage;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-process cache of the most recent messages per (cluster, topic, partition).
+ * Each partition keeps a fixed-capacity ring buffer of contiguous records so a refresh
+ * only needs to fetch offsets beyond the cached high offset. The cache as a whole is
+ * bounded by an estimated byte size and evicts least recently used partitions first.
+ */
+public class MessageTailCache {
+
+    public static final int DEFAULT_PARTITION_CAPACITY = 1000;
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final int MESSAGE_OVERHEAD_BYTES = 96;
+
+    private final int partitionCapacity;
+    private final long maxBytes;
+    private final LinkedHashMap<PartitionKey, TailBuffer> buffers = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public MessageTailCache() {
+        this(DEFAULT_PARTITION_CAPACITY, DEFAULT_MAX_BYTES);
+    }
+
+    public MessageTailCache(int partitionCapacity, long maxBytes) {
+        if (partitionCapacity <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache capacity and byte limit must be positive");
+        }
+        this.partitionCapacity = partitionCapacity;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Offset the next fetch should start from, or -1 if the partition is not cached
+     * or the cached tail does not reach back to {@code requiredStartOffset}.
+     */
+    public synchronized long getResumeOffset(String cluster, String topic, int partition, long requiredStartOffset) {
+        TailBuffer buffer = buffers.get(new PartitionKey(cluster, topic, partition));
+        if (buffer == null || buffer.coveredFrom > requiredStartOffset || buffer.nextOffset < requiredStartOffset) {
+            return -1;
+        }
+        return buffer.nextOffset;
+    }
+
+    /**
+     * Start a fresh contiguous tail at {@code fromOffset}, discarding anything cached before.
+     */
+    public synchronized void reset(String cluster, String topic, int partition, long fromOffset, int minCapacity) {
+        PartitionKey key = new PartitionKey(cluster, topic, partition);
+        TailBuffer previous = buffers.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.bytes;
+        }
+        buffers.put(key, new TailBuffer(Math.max(partitionCapacity, minCapacity), fromOffset));
+    }
+
+    /**
+     * Append records fetched after the cached high offset. Records at or below the
+     * cached high offset are ignored, so re-delivered batches are harmless.
+     */
+    public synchronized void append(String cluster, String topic, int partition, List<KafkaMessage> messages, long nextOffset) {
+        PartitionKey key = new PartitionKey(cluster, topic, partition);
+        TailBuffer buffer = buffers.get(key);
+        if (buffer == null) {
+            return;
+        }
+
+        for (KafkaMessage message : messages) {
+            if (message.getOffset() >= buffer.nextOffset) {
+                totalBytes += buffer.add(message, estimateSize(message));
+            }
+        }
+        buffer.nextOffset = Math.max(buffer.nextOffset, nextOffset);
+
+        evictIfNeeded(key);
+    }
+
+    /**
+     * Last {@code count} cached messages at or after {@code fromOffset}, oldest first.
+     */
+    public synchronized List<KafkaMessage> getTail(String cluster, String topic, int partition, long fromOffset, int count) {
+        TailBuffer buffer = buffers.get(new PartitionKey(cluster, topic, partition));
+        if (buffer == null) {
+            return new ArrayList<>();
+        }
+        return buffer.tail(fromOffset, count);
+    }
+
+    public synchronized void invalidate(String cluster, String topic, int partition) {
+        TailBuffer removed = buffers.remove(new PartitionKey(cluster, topic, partition));
+        if (removed != null) {
+            totalBytes -= removed.bytes;
+        }
+    }
+
+    public synchronized void invalidateTopic(String cluster, String topic) {
+        Iterator<Map.Entry<PartitionKey, TailBuffer>> iterator = buffers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<PartitionKey, TailBuffer> entry = iterator.next();
+            if (entry.getKey().cluster.equals(cluster) && entry.getKey().topic.equals(topic)) {
+                totalBytes -= entry.getValue().bytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        buffers.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getCachedPartitionCount() {
+        return buffers.size();
+    }
+
+    private void evictIfNeeded(PartitionKey current) {
+        Iterator<Map.Entry<PartitionKey, TailBuffer>> iterator = buffers.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<PartitionKey, TailBuffer> eldest = iterator.next();
+            if (!eldest.getKey().equals(current)) {
+                totalBytes -= eldest.getValue().bytes;
+                iterator.remove();
+            }
+        }
+
+        // A single partition larger than the whole budget gives up its oldest records
+        TailBuffer buffer = buffers.get(current);
+        while (totalBytes > maxBytes && buffer != null && buffer.size > 1) {
+            totalBytes -= buffer.removeOldest();
+        }
+    }
+
+    static long estimateSize(KafkaMessage message) {
+        long size = MESSAGE_OVERHEAD_BYTES;
+        if (message.getKey() != null) {
+            size += 2L * message.getKey().length();
+        }
+        if (message.getValue() != null) {
+            size += 2L * message.getValue().length();
+        }
+        if (message.getHeaders() != null) {
+            for (Map.Entry<String, String> header : message.getHeaders().entrySet()) {
+                size += 2L * header.getKey().length() + 32;
+                if (header.getValue() != null) {
+                    size += 2L * header.getValue().length();
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Fixed-capacity ring of contiguous records for one partition
+     */
+    private static final class TailBuffer {
+        private KafkaMessage[] ring;
+        private long[] sizes;
+        private int head;
+        private int size;
+        private long bytes;
+        private long coveredFrom;
+        private long nextOffset;
+
+        TailBuffer(int capacity, long fromOffset) {
+            this.ring = new KafkaMessage[capacity];
+            this.sizes = new long[capacity];
+            this.coveredFrom = fromOffset;
+            this.nextOffset = fromOffset;
+        }
+
+        /**
+         * Returns the net change in cached bytes
+         */
+        long add(KafkaMessage message, long messageBytes) {
+            long delta = messageBytes;
+            if (size == ring.length) {
+                delta -= removeOldest();
+            }
+            int index = (head + size) % ring.length;
+            ring[index] = message;
+            sizes[index] = messageBytes;
+            size++;
+            bytes += messageBytes;
+            nextOffset = message.getOffset() + 1;
+            return delta;
+        }
+
+        long removeOldest() {
+            long removed = sizes[head];
+            ring[head] = null;
+            sizes[head] = 0;
+            head = (head + 1) % ring.length;
+            size--;
+            bytes -= removed;
+            coveredFrom = size > 0 ? ring[head].getOffset() : nextOffset;
+            return removed;
+        }
+
+        List<KafkaMessage> tail(long fromOffset, int count) {
+            List<KafkaMessage> result = new ArrayList<>(Math.min(count, size));
+            int start = Math.max(0, size - count);
+            for (int i = start; i < size; i++) {
+                KafkaMessage message = ring[(head + i) % ring.length];
+                if (message.getOffset() >= fromOffset) {
+                    result.add(message);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class PartitionKey {
+        private final String cluster;
+        private final String topic;
+        private final int partition;
+
+        PartitionKey(String cluster, String topic, int partition) {
+            this.cluster = cluster;
+            this.topic = topic;
+            this.partition = partition;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PartitionKey)) return false;
+            PartitionKey other = (PartitionKey) o;
+            return partition == other.partition && cluster.equals(other.cluster) && topic.equals(other.topic);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cluster, topic, partition);
+        }
+    }
+}
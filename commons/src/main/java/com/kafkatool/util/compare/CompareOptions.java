@@ -0,0 +1,75 @@
+package com.kafkatool.util.compare;
+
+import java.util.Map;
+
+/**
+ * Settings for comparing a topic across two clusters. Can be built from a string map
+ * using the keys listed on {@link #fromConfig}.
+ */
+public class CompareOptions {
+
+    /**
+     * How records are grouped into the chunks that form the leaves of each partition's hash tree
+     */
+    public enum Alignment {
+        /** Fixed offset ranges; for copies that preserved offsets, such as restores of a full backup */
+        OFFSET,
+        /** Fixed timestamp windows; for mirrors and replays where offsets differ but timestamps were kept */
+        TIMESTAMP
+    }
+
+    private Alignment alignment = Alignment.OFFSET;
+    private long chunkSize = 10_000;
+    private long chunkMillis = 60_000;
+    private int workers = 2;
+
+    public Alignment getAlignment() { return alignment; }
+    public void setAlignment(Alignment alignment) { this.alignment = alignment; }
+
+    /** Offsets per chunk when aligning by offset */
+    public long getChunkSize() { return chunkSize; }
+    public void setChunkSize(long chunkSize) { this.chunkSize = chunkSize; }
+
+    /** Milliseconds per chunk when aligning by timestamp */
+    public long getChunkMillis() { return chunkMillis; }
+    public void setChunkMillis(long chunkMillis) { this.chunkMillis = chunkMillis; }
+
+    /** Consumers per cluster; partitions are spread across them */
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    /**
+     * Width of one chunk in offsets or milliseconds, depending on the alignment
+     */
+    public long getChunkWidth() {
+        long width = alignment == Alignment.TIMESTAMP ? chunkMillis : chunkSize;
+        if (width <= 0) {
+            throw new IllegalArgumentException("Chunk width must be positive");
+        }
+        return width;
+    }
+
+    /**
+     * Read options from a config map with the keys "align" (offset or timestamp), "chunk.size",
+     * "chunk.ms" and "workers"
+     */
+    public static CompareOptions fromConfig(Map<String, String> config) {
+        CompareOptions options = new CompareOptions();
+        if (config == null) {
+            return options;
+        }
+        if (config.containsKey("align")) {
+            options.setAlignment(Alignment.valueOf(config.get("align").trim().toUpperCase()));
+        }
+        if (config.containsKey("chunk.size")) {
+            options.setChunkSize(Long.parseLong(config.get("chunk.size")));
+        }
+        if (config.containsKey("chunk.ms")) {
+            options.setChunkMillis(Long.parseLong(config.get("chunk.ms")));
+        }
+        if (config.containsKey("workers")) {
+            options.setWorkers(Integer.parseInt(config.get("workers")));
+        }
+        return options;
+    }
+}
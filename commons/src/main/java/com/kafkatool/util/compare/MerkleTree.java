@@ -0,0 +1,101 @@
+package com.kafkatool.util.compare;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * Binary hash tree over a sorted set of chunk indexes, normally the union of the non-empty
+ * chunks on both sides. Each leaf hashes a chunk's record count and digest, and a chunk with
+ * no records on this side gets an all-zero leaf, so two trees built over the same indexes can
+ * be compared top-down: matching subtrees are skipped after a single hash comparison and only
+ * the differing leaves are visited. Leaves are only allocated for listed indexes, so a sparse
+ * range, such as one stray record with a zero timestamp, costs nothing for the gap.
+ */
+public class MerkleTree {
+
+    private static final byte[] EMPTY_LEAF = new byte[32];
+
+    private final long[] chunkIndexes;
+    private final List<byte[][]> levels = new ArrayList<>();
+
+    public MerkleTree(SortedMap<Long, PartitionHasher.Chunk> chunks, SortedSet<Long> chunkIndexes) {
+        if (chunkIndexes.isEmpty()) {
+            throw new IllegalArgumentException("A tree needs at least one chunk");
+        }
+        this.chunkIndexes = chunkIndexes.stream().mapToLong(Long::longValue).toArray();
+        byte[][] leaves = new byte[this.chunkIndexes.length][];
+        for (int i = 0; i < leaves.length; i++) {
+            PartitionHasher.Chunk chunk = chunks.get(this.chunkIndexes[i]);
+            leaves[i] = chunk != null ? leafHash(chunk) : EMPTY_LEAF;
+        }
+        levels.add(leaves);
+
+        byte[][] level = leaves;
+        while (level.length > 1) {
+            byte[][] parents = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parents.length; i++) {
+                int left = 2 * i;
+                // An unpaired node is carried up unchanged
+                parents[i] = left + 1 < level.length ? nodeHash(level[left], level[left + 1]) : level[left];
+            }
+            levels.add(parents);
+            level = parents;
+        }
+    }
+
+    public byte[] getRoot() {
+        return levels.get(levels.size() - 1)[0];
+    }
+
+    public int getLeafCount() {
+        return levels.get(0).length;
+    }
+
+    /**
+     * Chunk indexes whose leaves differ, found by descending only into differing subtrees
+     */
+    public List<Long> diff(MerkleTree other) {
+        if (!Arrays.equals(other.chunkIndexes, chunkIndexes)) {
+            throw new IllegalArgumentException("Trees cover different chunks");
+        }
+        List<Long> differing = new ArrayList<>();
+        diff(other, levels.size() - 1, 0, differing);
+        return differing;
+    }
+
+    private void diff(MerkleTree other, int level, int index, List<Long> differing) {
+        if (Arrays.equals(levels.get(level)[index], other.levels.get(level)[index])) {
+            return;
+        }
+        if (level == 0) {
+            differing.add(chunkIndexes[index]);
+            return;
+        }
+        int child = 2 * index;
+        diff(other, level - 1, child, differing);
+        if (child + 1 < levels.get(level - 1).length) {
+            diff(other, level - 1, child + 1, differing);
+        }
+    }
+
+    private static byte[] leafHash(PartitionHasher.Chunk chunk) {
+        MessageDigest digest = PartitionHasher.newDigest();
+        digest.update((byte) 0);
+        digest.update(ByteBuffer.allocate(8).putLong(chunk.getCount()).array());
+        digest.update(chunk.getDigest());
+        return digest.digest();
+    }
+
+    private static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest digest = PartitionHasher.newDigest();
+        digest.update((byte) 1);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+}
@@ -0,0 +1,120 @@
+package com.kafkatool.util.compare;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Folds the records of one partition into per-chunk SHA-256 digests of their keys, values and
+ * headers. Only the digests and a few counters are kept, so memory grows with the number of
+ * chunks rather than the number or size of records.
+ */
+public class PartitionHasher {
+
+    private final int partition;
+    private final CompareOptions.Alignment alignment;
+    private final long chunkWidth;
+    private final Map<Long, MessageDigest> openDigests = new HashMap<>();
+    private final SortedMap<Long, Chunk> chunks = new TreeMap<>();
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+    private long records;
+
+    public PartitionHasher(int partition, CompareOptions options) {
+        this.partition = partition;
+        this.alignment = options.getAlignment();
+        this.chunkWidth = options.getChunkWidth();
+    }
+
+    public void add(long offset, long timestamp, byte[] key, byte[] value, Headers headers) {
+        long position = alignment == CompareOptions.Alignment.TIMESTAMP ? timestamp : offset;
+        long index = Math.floorDiv(position, chunkWidth);
+        MessageDigest digest = openDigests.computeIfAbsent(index, ignored -> newDigest());
+        Chunk chunk = chunks.computeIfAbsent(index, ignored -> new Chunk(offset));
+
+        // Length prefixes keep (key "ab", value "c") distinct from (key "a", value "bc")
+        update(digest, key);
+        update(digest, value);
+        if (headers != null) {
+            for (Header header : headers) {
+                update(digest, header.key().getBytes(StandardCharsets.UTF_8));
+                update(digest, header.value());
+            }
+        }
+        update(digest, null);
+        chunk.add(offset);
+        records++;
+    }
+
+    public int getPartition() { return partition; }
+    public long getRecords() { return records; }
+
+    /**
+     * Finished chunks keyed by chunk index; a chunk covers positions [index * width, (index + 1) * width).
+     * Call once every record has been added.
+     */
+    public SortedMap<Long, Chunk> getChunks() {
+        for (Map.Entry<Long, MessageDigest> open : openDigests.entrySet()) {
+            chunks.get(open.getKey()).digest = open.getValue().digest();
+        }
+        openDigests.clear();
+        return Collections.unmodifiableSortedMap(chunks);
+    }
+
+    private void update(MessageDigest digest, byte[] bytes) {
+        lengthBuffer.clear();
+        digest.update(lengthBuffer.putInt(bytes != null ? bytes.length : -1).array());
+        if (bytes != null) {
+            digest.update(bytes);
+        }
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Digest and offset span of the records that fell into one chunk
+     */
+    public static class Chunk {
+        private byte[] digest;
+        private long count;
+        private long firstOffset;
+        private long lastOffset;
+
+        Chunk(long offset) {
+            this.firstOffset = offset;
+            this.lastOffset = offset;
+        }
+
+        public Chunk(byte[] digest, long count, long firstOffset, long lastOffset) {
+            this.digest = digest;
+            this.count = count;
+            this.firstOffset = firstOffset;
+            this.lastOffset = lastOffset;
+        }
+
+        private void add(long offset) {
+            count++;
+            firstOffset = Math.min(firstOffset, offset);
+            lastOffset = Math.max(lastOffset, offset);
+        }
+
+        public byte[] getDigest() { return digest; }
+        public long getCount() { return count; }
+        public long getFirstOffset() { return firstOffset; }
+        public long getLastOffset() { return lastOffset; }
+    }
+}
@@ -0,0 +1,201 @@
+package com.kafkatool.util.compare;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Result of comparing one topic on two clusters: per-partition record counts and the chunk
+ * ranges whose hashes differ. Adjacent differing chunks are merged into a single range.
+ */
+public class TopicComparison {
+
+    private final String topicName;
+    private final CompareOptions.Alignment alignment;
+    private final long chunkWidth;
+    private final List<PartitionComparison> partitions = new ArrayList<>();
+
+    public TopicComparison(String topicName, CompareOptions options) {
+        this.topicName = topicName;
+        this.alignment = options.getAlignment();
+        this.chunkWidth = options.getChunkWidth();
+    }
+
+    /**
+     * Compare two partitions' chunk hashes with Merkle trees built over the union of their non-empty chunks.
+     * Either side may be null when the partition only exists on one cluster.
+     */
+    public PartitionComparison addPartition(int partition, PartitionHasher left, PartitionHasher right) {
+        SortedMap<Long, PartitionHasher.Chunk> leftChunks = left != null ? left.getChunks() : new TreeMap<>();
+        SortedMap<Long, PartitionHasher.Chunk> rightChunks = right != null ? right.getChunks() : new TreeMap<>();
+        PartitionComparison result = new PartitionComparison(partition,
+            left != null ? left.getRecords() : 0, right != null ? right.getRecords() : 0);
+        if (leftChunks.isEmpty() && rightChunks.isEmpty()) {
+            partitions.add(result);
+            return result;
+        }
+
+        SortedSet<Long> chunkIndexes = new TreeSet<>(leftChunks.keySet());
+        chunkIndexes.addAll(rightChunks.keySet());
+        MerkleTree leftTree = new MerkleTree(leftChunks, chunkIndexes);
+        MerkleTree rightTree = new MerkleTree(rightChunks, chunkIndexes);
+        result.chunks = leftTree.getLeafCount();
+
+        DivergentRange current = null;
+        for (long index : leftTree.diff(rightTree)) {
+            if (current == null || index != current.lastChunk + 1) {
+                current = new DivergentRange(index * chunkWidth);
+                result.divergent.add(current);
+            }
+            current.lastChunk = index;
+            current.end = (index + 1) * chunkWidth - 1;
+            current.left.add(leftChunks.get(index));
+            current.right.add(rightChunks.get(index));
+        }
+        partitions.add(result);
+        return result;
+    }
+
+    public String getTopicName() { return topicName; }
+    public CompareOptions.Alignment getAlignment() { return alignment; }
+    public List<PartitionComparison> getPartitions() { return partitions; }
+
+    public boolean isMatching() {
+        return partitions.stream().allMatch(PartitionComparison::isMatching);
+    }
+
+    /**
+     * Summary in the map form returned by {@code compareTopicsAsync}
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("topic", topicName);
+        map.put("alignment", alignment.name());
+        map.put("chunkWidth", chunkWidth);
+        map.put("matching", isMatching());
+        map.put("leftRecords", partitions.stream().mapToLong(PartitionComparison::getLeftRecords).sum());
+        map.put("rightRecords", partitions.stream().mapToLong(PartitionComparison::getRightRecords).sum());
+        List<Map<String, Object>> partitionMaps = new ArrayList<>();
+        for (PartitionComparison partition : partitions) {
+            Map<String, Object> partitionMap = new LinkedHashMap<>();
+            partitionMap.put("partition", partition.getPartition());
+            partitionMap.put("leftRecords", partition.getLeftRecords());
+            partitionMap.put("rightRecords", partition.getRightRecords());
+            partitionMap.put("matching", partition.isMatching());
+            List<Map<String, Object>> ranges = new ArrayList<>();
+            for (DivergentRange range : partition.getDivergentRanges()) {
+                ranges.add(range.toMap());
+            }
+            partitionMap.put("divergentRanges", ranges);
+            partitionMaps.add(partitionMap);
+        }
+        map.put("partitions", partitionMaps);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        long ranges = partitions.stream().mapToLong(partition -> partition.getDivergentRanges().size()).sum();
+        return isMatching()
+            ? String.format("%s matches across %d partitions", topicName, partitions.size())
+            : String.format("%s differs: %d divergent ranges", topicName, ranges);
+    }
+
+    public static class PartitionComparison {
+        private final int partition;
+        private final long leftRecords;
+        private final long rightRecords;
+        private final List<DivergentRange> divergent = new ArrayList<>();
+        private int chunks;
+
+        PartitionComparison(int partition, long leftRecords, long rightRecords) {
+            this.partition = partition;
+            this.leftRecords = leftRecords;
+            this.rightRecords = rightRecords;
+        }
+
+        public int getPartition() { return partition; }
+        public long getLeftRecords() { return leftRecords; }
+        public long getRightRecords() { return rightRecords; }
+        /** Chunks holding records on either side */
+        public int getChunks() { return chunks; }
+        public List<DivergentRange> getDivergentRanges() { return divergent; }
+
+        public boolean isMatching() {
+            return divergent.isEmpty();
+        }
+    }
+
+    /**
+     * A run of differing chunks. Start and end are offsets or timestamps depending on the alignment;
+     * each side reports how many records it holds in the range and their offset span.
+     */
+    public static class DivergentRange {
+        private final long start;
+        private long end;
+        private long lastChunk;
+        private final Side left = new Side();
+        private final Side right = new Side();
+
+        DivergentRange(long start) {
+            this.start = start;
+        }
+
+        public long getStart() { return start; }
+        public long getEnd() { return end; }
+        public Side getLeft() { return left; }
+        public Side getRight() { return right; }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("start", start);
+            map.put("end", end);
+            map.put("left", left.toMap());
+            map.put("right", right.toMap());
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%d-%d] left %s, right %s", start, end, left, right);
+        }
+    }
+
+    public static class Side {
+        private long records;
+        private long firstOffset = -1;
+        private long lastOffset = -1;
+
+        private void add(PartitionHasher.Chunk chunk) {
+            if (chunk == null) {
+                return;
+            }
+            firstOffset = records == 0 ? chunk.getFirstOffset() : Math.min(firstOffset, chunk.getFirstOffset());
+            lastOffset = Math.max(lastOffset, chunk.getLastOffset());
+            records += chunk.getCount();
+        }
+
+        public long getRecords() { return records; }
+        /** First offset of the side's records in the range, or -1 when it has none */
+        public long getFirstOffset() { return firstOffset; }
+        public long getLastOffset() { return lastOffset; }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("records", records);
+            map.put("firstOffset", firstOffset);
+            map.put("lastOffset", lastOffset);
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return records == 0 ? "no records" : records + " records at offsets " + firstOffset + "-" + lastOffset;
+        }
+    }
+}
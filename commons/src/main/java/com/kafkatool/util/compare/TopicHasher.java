@@ -0,0 +1,73 @@
+package com.kafkatool.util.compare;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads a group of partitions from the beginning up to the end offsets seen at start and
+ * hashes every record into a {@link PartitionHasher}. Payloads are dropped as soon as they
+ * are hashed.
+ */
+public class TopicHasher {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final int MAX_EMPTY_POLLS = 50;
+
+    private final Consumer<byte[], byte[]> consumer;
+    private final CompareOptions options;
+
+    public TopicHasher(Consumer<byte[], byte[]> consumer, CompareOptions options) {
+        this.consumer = consumer;
+        this.options = options;
+    }
+
+    public Map<Integer, PartitionHasher> hash(String topicName, List<Integer> partitions) {
+        Map<Integer, PartitionHasher> hashers = new TreeMap<>();
+        List<TopicPartition> active = new ArrayList<>();
+        for (int partition : partitions) {
+            hashers.put(partition, new PartitionHasher(partition, options));
+            active.add(new TopicPartition(topicName, partition));
+        }
+        consumer.assign(active);
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(active);
+        consumer.seekToBeginning(active);
+
+        int emptyPolls = 0;
+        while (true) {
+            List<TopicPartition> done = new ArrayList<>();
+            for (TopicPartition partition : active) {
+                if (consumer.position(partition) >= endOffsets.get(partition)) {
+                    done.add(partition);
+                }
+            }
+            consumer.pause(done);
+            active.removeAll(done);
+            if (active.isEmpty()) {
+                break;
+            }
+            if (emptyPolls >= MAX_EMPTY_POLLS) {
+                // A partial read would be reported as divergence, so fail instead
+                throw new IllegalStateException("Timed out reading " + active + " before their end offsets");
+            }
+
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+            emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+            for (ConsumerRecord<byte[], byte[]> record : records) {
+                TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                if (record.offset() < endOffsets.get(partition)) {
+                    hashers.get(record.partition()).add(record.offset(), record.timestamp(),
+                        record.key(), record.value(), record.headers());
+                }
+            }
+        }
+        return hashers;
+    }
+}
@@ -0,0 +1,33 @@
+package com.kafkatool.util.diff;
+
+import com.kafkatool.model.ConsumerGroupInfo;
+import com.kafkatool.model.TopicInfo;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Snapshot diffs for the cluster listings shown in the UI. The models only compare by id
+ * (or not at all), so the content checks here decide which rows need redrawing.
+ */
+public final class ListingDiffs {
+
+    private ListingDiffs() {}
+
+    public static SnapshotDiff<TopicInfo, String> topics(Collection<TopicInfo> previous, Collection<TopicInfo> next) {
+        return SnapshotDiff.compute(previous, next, TopicInfo::getName, (a, b) ->
+            a.getPartitions() == b.getPartitions()
+                && a.getReplicationFactor() == b.getReplicationFactor()
+                && Objects.equals(a.getConfigs(), b.getConfigs()));
+    }
+
+    public static SnapshotDiff<ConsumerGroupInfo, String> consumerGroups(Collection<ConsumerGroupInfo> previous,
+                                                                         Collection<ConsumerGroupInfo> next) {
+        return SnapshotDiff.compute(previous, next, ConsumerGroupInfo::getGroupId, (a, b) ->
+            Objects.equals(a.getState(), b.getState())
+                && a.getMemberCount() == b.getMemberCount()
+                && a.getLag() == b.getLag()
+                && Objects.equals(a.getCoordinator(), b.getCoordinator())
+                && Objects.equals(a.getProtocol(), b.getProtocol()));
+    }
+}
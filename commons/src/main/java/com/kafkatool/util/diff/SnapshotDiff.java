@@ -0,0 +1,141 @@
+package com.kafkatool.util.diff;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * The difference between two listings of the same kind of entity, matched by id: entries that
+ * were added, removed, or are still present with different content. Applying the diff to the
+ * list that holds the previous listing changes only those entries, so a bound table keeps its
+ * selection and scroll position and receives a handful of change events instead of a full
+ * replacement.
+ *
+ * @param <T> listed entity
+ * @param <K> id the entities are matched by
+ */
+public class SnapshotDiff<T, K> {
+
+    private final Function<T, K> key;
+    private final List<T> next;
+    private final List<T> added;
+    private final List<T> removed;
+    private final List<T> changed;
+
+    private SnapshotDiff(Function<T, K> key, List<T> next, List<T> added, List<T> removed, List<T> changed) {
+        this.key = key;
+        this.next = next;
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    /**
+     * Compare a new listing with the previous one
+     *
+     * @param sameContent whether two entries with the same id need no update
+     */
+    public static <T, K> SnapshotDiff<T, K> compute(Collection<T> previous, Collection<T> next,
+                                                    Function<T, K> key, BiPredicate<T, T> sameContent) {
+        Map<K, T> before = new HashMap<>();
+        for (T item : previous) {
+            before.put(key.apply(item), item);
+        }
+        Map<K, T> after = new LinkedHashMap<>();
+        for (T item : next) {
+            after.put(key.apply(item), item);
+        }
+
+        List<T> added = new ArrayList<>();
+        List<T> changed = new ArrayList<>();
+        for (Map.Entry<K, T> entry : after.entrySet()) {
+            T old = before.get(entry.getKey());
+            if (old == null) {
+                added.add(entry.getValue());
+            } else if (!sameContent.test(old, entry.getValue())) {
+                changed.add(entry.getValue());
+            }
+        }
+        List<T> removed = new ArrayList<>();
+        for (T item : previous) {
+            if (!after.containsKey(key.apply(item))) {
+                removed.add(item);
+            }
+        }
+        return new SnapshotDiff<>(key, new ArrayList<>(after.values()), added, removed, changed);
+    }
+
+    /**
+     * Compare listings whose entries implement equals over their content
+     */
+    public static <T, K> SnapshotDiff<T, K> compute(Collection<T> previous, Collection<T> next, Function<T, K> key) {
+        return compute(previous, next, key, Objects::equals);
+    }
+
+    public List<T> getAdded() { return Collections.unmodifiableList(added); }
+    /** Entries of the previous listing that are gone */
+    public List<T> getRemoved() { return Collections.unmodifiableList(removed); }
+    /** New versions of entries whose content changed */
+    public List<T> getChanged() { return Collections.unmodifiableList(changed); }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * Turn the list holding the previous listing into the new one with the fewest mutations:
+     * removed entries are dropped in one call, changed entries are replaced in place, and new
+     * entries are inserted where they appear in the new listing
+     */
+    public void applyTo(List<T> target) {
+        if (isEmpty()) {
+            return;
+        }
+        if (!removed.isEmpty()) {
+            // The removed entries are the target's own instances, so this is one batched removal
+            target.removeAll(removed);
+        }
+        if (!changed.isEmpty()) {
+            Map<K, Integer> positions = positions(target);
+            for (T item : changed) {
+                Integer index = positions.get(key.apply(item));
+                if (index != null) {
+                    target.set(index, item);
+                }
+            }
+        }
+        if (!added.isEmpty()) {
+            Map<K, T> newEntries = new HashMap<>();
+            for (T item : added) {
+                newEntries.put(key.apply(item), item);
+            }
+            if (newEntries.size() == next.size()) {
+                target.addAll(added);
+                return;
+            }
+            // Insert each entry after the entries that precede it in the new listing
+            int index = 0;
+            for (T item : next) {
+                if (newEntries.containsKey(key.apply(item))) {
+                    target.add(Math.min(index, target.size()), item);
+                }
+                index++;
+            }
+        }
+    }
+
+    private Map<K, Integer> positions(List<T> target) {
+        Map<K, Integer> positions = new HashMap<>();
+        for (int i = 0; i < target.size(); i++) {
+            positions.put(key.apply(target.get(i)), i);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,111 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableFileInput;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads Avro export files written by {@link AvroMessageWriter}. A reader can cover the
+ * whole file or a byte range: it starts at the first sync marker after the range start
+ * and stops once it passes the range end, so adjacent splits read every block exactly once.
+ */
+public class AvroMessageReader implements MessageReader {
+
+    private final DataFileReader<GenericRecord> fileReader;
+    private final long splitEnd;
+    private GenericRecord reuse;
+
+    public AvroMessageReader(File file) throws IOException {
+        this(file, 0, file.length());
+    }
+
+    public AvroMessageReader(File file, long splitStart, long splitEnd) throws IOException {
+        this.fileReader = new DataFileReader<>(new SeekableFileInput(file), new GenericDatumReader<>());
+        this.splitEnd = splitEnd;
+        if (splitStart > 0) {
+            fileReader.sync(splitStart);
+        }
+    }
+
+    /**
+     * Divide a file into roughly equal byte ranges for parallel readers
+     */
+    public static List<long[]> computeSplits(File file, int splitCount) {
+        long length = file.length();
+        int count = Math.max(1, splitCount);
+        long splitSize = Math.max(1, (length + count - 1) / count);
+        List<long[]> splits = new ArrayList<>();
+        for (long start = 0; start < length; start += splitSize) {
+            splits.add(new long[]{start, Math.min(length, start + splitSize)});
+        }
+        return splits;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return fileReader.hasNext() && !fileReader.pastSync(splitEnd);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read Avro export: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public KafkaMessage next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            reuse = fileReader.next(reuse);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read Avro export: " + e.getMessage(), e);
+        }
+        return toMessage(reuse);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileReader.close();
+    }
+
+    private static KafkaMessage toMessage(GenericRecord record) {
+        Map<String, String> headers = new HashMap<>();
+        Object headerMap = record.get("headers");
+        if (headerMap instanceof Map) {
+            for (Map.Entry<?, ?> header : ((Map<?, ?>) headerMap).entrySet()) {
+                headers.put(header.getKey().toString(), fromBytes(header.getValue()));
+            }
+        }
+
+        return new KafkaMessage(
+            record.get("topic").toString(),
+            (Long) record.get("offset"),
+            (Integer) record.get("partition"),
+            fromBytes(record.get("key")),
+            fromBytes(record.get("value")),
+            AvroMessageWriter.toLocalDateTime((Long) record.get("timestamp")),
+            headers);
+    }
+
+    private static String fromBytes(Object value) {
+        if (value == null) {
+            return null;
+        }
+        ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,150 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableFileInput;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes messages as an Avro object container file using {@link #SCHEMA}.
+ * Records are grouped into compressed blocks separated by sync markers, which keeps
+ * files compact and lets {@link AvroMessageReader} split them for parallel reading.
+ */
+public class AvroMessageWriter implements MessageWriter {
+
+    public static final Schema SCHEMA = new Schema.Parser().parse("{"
+        + "\"type\":\"record\",\"name\":\"KafkaMessageRecord\",\"namespace\":\"com.kafkatool.export\","
+        + "\"fields\":["
+        + "{\"name\":\"topic\",\"type\":\"string\"},"
+        + "{\"name\":\"partition\",\"type\":\"int\"},"
+        + "{\"name\":\"offset\",\"type\":\"long\"},"
+        + "{\"name\":\"timestamp\",\"type\":[\"null\",{\"type\":\"long\",\"logicalType\":\"timestamp-millis\"}],\"default\":null},"
+        + "{\"name\":\"key\",\"type\":[\"null\",\"bytes\"],\"default\":null},"
+        + "{\"name\":\"value\",\"type\":[\"null\",\"bytes\"],\"default\":null},"
+        + "{\"name\":\"headers\",\"type\":{\"type\":\"map\",\"values\":[\"null\",\"bytes\"]},\"default\":{}}"
+        + "]}");
+
+    public static final String DEFAULT_CODEC = "deflate";
+    public static final int DEFAULT_SYNC_INTERVAL = 256 * 1024;
+
+    private final DataFileWriter<GenericRecord> fileWriter;
+    private final GenericRecord record = new GenericData.Record(SCHEMA);
+    private long messageCount;
+
+    public AvroMessageWriter(OutputStream out) throws IOException {
+        this(out, DEFAULT_CODEC, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * @param codec one of null, deflate, snappy, zstd (or zstandard), bzip2, xz
+     * @param syncInterval approximate uncompressed bytes per block
+     */
+    public AvroMessageWriter(OutputStream out, String codec, int syncInterval) throws IOException {
+        this.fileWriter = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(SCHEMA));
+        fileWriter.setCodec(codecFor(codec));
+        fileWriter.setSyncInterval(syncInterval);
+        fileWriter.setMeta("kafka.export.version", "1.0");
+        fileWriter.create(SCHEMA, out);
+    }
+
+    private AvroMessageWriter(DataFileWriter<GenericRecord> fileWriter) {
+        this.fileWriter = fileWriter;
+    }
+
+    /**
+     * Continue an existing container file: the header, codec and sync marker are read from
+     * {@code existingFile}, and new blocks are written to {@code out}, which must be positioned
+     * at the end of that file
+     */
+    public static AvroMessageWriter appendTo(File existingFile, OutputStream out) throws IOException {
+        DataFileWriter<GenericRecord> fileWriter = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(SCHEMA));
+        try (SeekableFileInput in = new SeekableFileInput(existingFile)) {
+            fileWriter.appendTo(in, out);
+        }
+        return new AvroMessageWriter(fileWriter);
+    }
+
+    /**
+     * Resolve a codec name, accepting "zstd" as an alias for Avro's "zstandard"
+     */
+    public static CodecFactory codecFor(String codec) {
+        if (codec == null || codec.isBlank()) {
+            return CodecFactory.fromString(DEFAULT_CODEC);
+        }
+        String name = codec.trim().toLowerCase(Locale.ROOT);
+        if (name.equals("zstd")) {
+            name = DataFileConstants.ZSTANDARD_CODEC;
+        }
+        return CodecFactory.fromString(name);
+    }
+
+    @Override
+    public void write(KafkaMessage message) throws IOException {
+        record.put("topic", message.getTopic() != null ? message.getTopic() : "");
+        record.put("partition", message.getPartition());
+        record.put("offset", message.getOffset());
+        record.put("timestamp", message.getTimestamp() != null
+            ? message.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null);
+        record.put("key", toBytes(message.getKey()));
+        record.put("value", toBytes(message.getValue()));
+
+        Map<String, ByteBuffer> headers = new HashMap<>();
+        if (message.getHeaders() != null) {
+            for (Map.Entry<String, String> header : message.getHeaders().entrySet()) {
+                headers.put(header.getKey(), toBytes(header.getValue()));
+            }
+        }
+        record.put("headers", headers);
+
+        fileWriter.append(record);
+        messageCount++;
+    }
+
+    /**
+     * Close the current block and return the file position of the following sync marker
+     */
+    public long sync() throws IOException {
+        return fileWriter.sync();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        fileWriter.flush();
+    }
+
+    @Override
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileWriter.close();
+    }
+
+    private static ByteBuffer toBytes(String value) {
+        return value != null ? ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8)) : null;
+    }
+
+    static LocalDateTime toLocalDateTime(Long millis) {
+        return millis != null
+            ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()) : null;
+    }
+}
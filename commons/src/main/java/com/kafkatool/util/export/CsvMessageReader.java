@@ -0,0 +1,58 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+/**
+ * Parses CSV rows with the columns written by {@link CsvMessageWriter}, one record at a time
+ */
+public class CsvMessageReader implements MessageReader {
+
+    private final CSVParser parser;
+    private final Iterator<CSVRecord> records;
+
+    public CsvMessageReader(InputStream in) throws IOException {
+        this.parser = new CSVParser(new InputStreamReader(in, StandardCharsets.UTF_8),
+            CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build());
+        this.records = parser.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return records.hasNext();
+    }
+
+    @Override
+    public KafkaMessage next() {
+        CSVRecord record = records.next();
+        KafkaMessage message = new KafkaMessage();
+        message.setTopic(record.get("Topic"));
+        message.setPartition(Integer.parseInt(record.get("Partition")));
+        message.setOffset(Long.parseLong(record.get("Offset")));
+
+        String timestampStr = record.get("Timestamp");
+        if (timestampStr != null && !timestampStr.isEmpty()) {
+            message.setTimestamp(LocalDateTime.parse(timestampStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+
+        message.setKey(record.get("Key"));
+        message.setValue(record.get("Value"));
+        message.setHeaders(MessageExportImportUtil.parseHeadersFromString(record.get("Headers")));
+        return message;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,63 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streams messages as CSV rows using the same columns as {@link MessageExportImportUtil#exportToCsv}
+ */
+public class CsvMessageWriter implements MessageWriter {
+
+    private final CSVPrinter printer;
+    private long messageCount;
+
+    public CsvMessageWriter(OutputStream out) throws IOException {
+        this(out, true);
+    }
+
+    /**
+     * @param writeHeader false when appending rows to a file that already has its header
+     */
+    public CsvMessageWriter(OutputStream out, boolean writeHeader) throws IOException {
+        this.printer = new CSVPrinter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSVFormat.DEFAULT);
+        if (writeHeader) {
+            printer.printRecord("Topic", "Partition", "Offset", "Timestamp", "Key", "Value", "Headers");
+        }
+    }
+
+    @Override
+    public void write(KafkaMessage message) throws IOException {
+        printer.printRecord(
+            message.getTopic(),
+            message.getPartition(),
+            message.getOffset(),
+            message.getTimestamp() != null ? message.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "",
+            message.getKey(),
+            message.getValue(),
+            MessageExportImportUtil.headersToString(message.getHeaders())
+        );
+        messageCount++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        printer.flush();
+    }
+
+    @Override
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.close();
+    }
+}
@@ -0,0 +1,105 @@
+package com.kafkatool.util.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Progress of a topic export that is still running or was interrupted. For each partition it
+ * holds the last durable state of its file: last offset written, file length and checksum at
+ * that length. Resuming truncates each file back to that length and continues after the offset.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExportCheckpoint {
+
+    public static final String FILE_NAME = "export-checkpoint.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private String topic;
+    private String format;
+    private String updatedAt;
+    private Map<Integer, ExportManifest.PartitionEntry> partitions = new TreeMap<>();
+    private List<Integer> completedPartitions = new ArrayList<>();
+
+    public ExportCheckpoint() {}
+
+    public ExportCheckpoint(String topic, ExportFormat format) {
+        this.topic = topic;
+        this.format = format.name();
+    }
+
+    public String getTopic() { return topic; }
+    public void setTopic(String topic) { this.topic = topic; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(String updatedAt) { this.updatedAt = updatedAt; }
+
+    public Map<Integer, ExportManifest.PartitionEntry> getPartitions() { return partitions; }
+    public void setPartitions(Map<Integer, ExportManifest.PartitionEntry> partitions) { this.partitions = new TreeMap<>(partitions); }
+
+    public List<Integer> getCompletedPartitions() { return completedPartitions; }
+    public void setCompletedPartitions(List<Integer> completedPartitions) { this.completedPartitions = completedPartitions; }
+
+    /**
+     * Last checkpointed state of a partition, or null if it has not been started
+     */
+    public synchronized ExportManifest.PartitionEntry get(int partition) {
+        return partitions.get(partition);
+    }
+
+    public synchronized boolean isCompleted(int partition) {
+        return completedPartitions.contains(partition);
+    }
+
+    public synchronized void update(ExportManifest.PartitionEntry entry) {
+        partitions.put(entry.getPartition(), entry);
+    }
+
+    /**
+     * Record the final state of a partition whose file is closed
+     */
+    public synchronized void complete(ExportManifest.PartitionEntry entry) {
+        partitions.put(entry.getPartition(), entry);
+        if (!completedPartitions.contains(entry.getPartition())) {
+            completedPartitions.add(entry.getPartition());
+        }
+    }
+
+    /**
+     * Whether this checkpoint belongs to an export of the given topic and format
+     */
+    public boolean matches(String topicName, ExportFormat exportFormat) {
+        return topicName.equals(topic) && exportFormat.name().equals(format);
+    }
+
+    /**
+     * Write the checkpoint through a temporary file and an atomic rename, so a crash
+     * mid-write leaves the previous checkpoint intact
+     */
+    public synchronized void write(File file) throws IOException {
+        updatedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        MAPPER.writeValue(temp.toFile(), this);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static ExportCheckpoint read(File file) throws IOException {
+        return MAPPER.readValue(file, ExportCheckpoint.class);
+    }
+}
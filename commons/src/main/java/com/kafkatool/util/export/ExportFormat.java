@@ -0,0 +1,117 @@
+package com.kafkatool.util.export;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * File formats supported by streaming exports
+ */
+public enum ExportFormat {
+    JSON("json"),
+    NDJSON("ndjson"),
+    CSV("csv"),
+    AVRO("avro");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Open a streaming writer for this format
+     */
+    public MessageWriter createWriter(OutputStream out) throws IOException {
+        switch (this) {
+            case JSON:
+                return JsonMessageWriter.array(out);
+            case NDJSON:
+                return JsonMessageWriter.ndjson(out);
+            case CSV:
+                return new CsvMessageWriter(out);
+            case AVRO:
+                return new AvroMessageWriter(out);
+            default:
+                throw new IllegalStateException("Unsupported export format: " + this);
+        }
+    }
+
+    /**
+     * Whether an interrupted export in this format can be truncated and appended to.
+     * A JSON array document cannot, since its closing brackets are only written at the end.
+     */
+    public boolean isResumable() {
+        return this != JSON;
+    }
+
+    /**
+     * Open a writer that appends to an existing export file; {@code out} must be positioned
+     * at the end of {@code existingFile}
+     */
+    public MessageWriter createAppendingWriter(File existingFile, OutputStream out) throws IOException {
+        switch (this) {
+            case NDJSON:
+                return JsonMessageWriter.ndjson(out);
+            case CSV:
+                return new CsvMessageWriter(out, false);
+            case AVRO:
+                return AvroMessageWriter.appendTo(existingFile, out);
+            default:
+                throw new IllegalStateException(this + " exports cannot be appended to");
+        }
+    }
+
+    /**
+     * Open a streaming reader for a file in this format. JSON and NDJSON share a parser that
+     * accepts either layout; text formats are gunzipped when the name ends in .gz.
+     */
+    public MessageReader createReader(File file) throws IOException {
+        switch (this) {
+            case JSON:
+            case NDJSON:
+                return new JsonMessageReader(MessageExportImportUtil.openInputStream(file));
+            case CSV:
+                return new CsvMessageReader(MessageExportImportUtil.openInputStream(file));
+            case AVRO:
+                return new AvroMessageReader(file);
+            default:
+                throw new IllegalStateException("Unsupported import format: " + this);
+        }
+    }
+
+    /**
+     * Detect the format from a file name such as "orders-0.ndjson.gz"
+     */
+    public static ExportFormat fromFile(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if (name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        for (ExportFormat format : values()) {
+            if (name.endsWith("." + format.extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Cannot detect the format of " + file.getName());
+    }
+
+    /**
+     * Parse a format name such as "ndjson", ignoring case
+     */
+    public static ExportFormat fromString(String format) {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.kafkatool.util.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Describes a topic export split into one file per partition: which offsets each file
+ * covers, how many records and bytes it holds and its checksum, so the export can be
+ * verified or re-imported partition by partition.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExportManifest {
+
+    public static final String FILE_NAME = "manifest.json";
+    public static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private String topic;
+    private String format;
+    private String exportTimestamp;
+    private String checksumAlgorithm = CHECKSUM_ALGORITHM;
+    private List<PartitionEntry> partitions = new ArrayList<>();
+
+    public ExportManifest() {}
+
+    public ExportManifest(String topic, ExportFormat format, String exportTimestamp) {
+        this.topic = topic;
+        this.format = format.name();
+        this.exportTimestamp = exportTimestamp;
+    }
+
+    public String getTopic() { return topic; }
+    public void setTopic(String topic) { this.topic = topic; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getExportTimestamp() { return exportTimestamp; }
+    public void setExportTimestamp(String exportTimestamp) { this.exportTimestamp = exportTimestamp; }
+
+    public String getChecksumAlgorithm() { return checksumAlgorithm; }
+    public void setChecksumAlgorithm(String checksumAlgorithm) { this.checksumAlgorithm = checksumAlgorithm; }
+
+    public List<PartitionEntry> getPartitions() { return partitions; }
+    public void setPartitions(List<PartitionEntry> partitions) { this.partitions = partitions; }
+
+    public long getTotalRecords() {
+        return partitions.stream().mapToLong(PartitionEntry::getRecordCount).sum();
+    }
+
+    public long getTotalBytes() {
+        return partitions.stream().mapToLong(PartitionEntry::getByteSize).sum();
+    }
+
+    /**
+     * Add a partition entry, keeping entries ordered by partition
+     */
+    public synchronized void addPartition(PartitionEntry entry) {
+        partitions.add(entry);
+        partitions.sort(Comparator.comparingInt(PartitionEntry::getPartition));
+    }
+
+    public void write(File file) throws IOException {
+        MAPPER.writeValue(file, this);
+    }
+
+    public static ExportManifest read(File file) throws IOException {
+        return MAPPER.readValue(file, ExportManifest.class);
+    }
+
+    /**
+     * Recompute the checksum of every partition file in the directory and return the
+     * partitions whose file is missing or does not match the manifest
+     */
+    public List<Integer> verify(File directory) throws IOException {
+        List<Integer> mismatched = new ArrayList<>();
+        for (PartitionEntry entry : partitions) {
+            File file = new File(directory, entry.getFile());
+            if (!file.isFile() || file.length() != entry.getByteSize()
+                    || !checksum(file).equals(entry.getChecksum())) {
+                mismatched.add(entry.getPartition());
+            }
+        }
+        return mismatched;
+    }
+
+    /**
+     * Hex-encoded checksum of a file's contents
+     */
+    public static String checksum(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CHECKSUM_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Export details for a single partition file
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PartitionEntry {
+        private int partition;
+        private String file;
+        private long firstOffset = -1;
+        private long lastOffset = -1;
+        private long recordCount;
+        private long byteSize;
+        private String checksum;
+
+        public PartitionEntry() {}
+
+        public PartitionEntry(int partition, String file, long firstOffset, long lastOffset,
+                              long recordCount, long byteSize, String checksum) {
+            this.partition = partition;
+            this.file = file;
+            this.firstOffset = firstOffset;
+            this.lastOffset = lastOffset;
+            this.recordCount = recordCount;
+            this.byteSize = byteSize;
+            this.checksum = checksum;
+        }
+
+        public int getPartition() { return partition; }
+        public void setPartition(int partition) { this.partition = partition; }
+
+        public String getFile() { return file; }
+        public void setFile(String file) { this.file = file; }
+
+        public long getFirstOffset() { return firstOffset; }
+        public void setFirstOffset(long firstOffset) { this.firstOffset = firstOffset; }
+
+        public long getLastOffset() { return lastOffset; }
+        public void setLastOffset(long lastOffset) { this.lastOffset = lastOffset; }
+
+        public long getRecordCount() { return recordCount; }
+        public void setRecordCount(long recordCount) { this.recordCount = recordCount; }
+
+        public long getByteSize() { return byteSize; }
+        public void setByteSize(long byteSize) { this.byteSize = byteSize; }
+
+        public String getChecksum() { return checksum; }
+        public void setChecksum(String checksum) { this.checksum = checksum; }
+    }
+}
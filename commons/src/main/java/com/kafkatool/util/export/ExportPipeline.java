@@ -0,0 +1,126 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Decouples fetching from writing: the fetch side submits batches into a bounded queue
+ * and a dedicated writer thread drains them into a {@link MessageWriter}. A slow disk
+ * blocks the fetcher once the queue is full instead of growing memory, and progress is
+ * reported after every written batch.
+ */
+public class ExportPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportPipeline.class);
+    private static final List<KafkaMessage> END_OF_STREAM = new ArrayList<>();
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    private final MessageWriter writer;
+    private final BlockingQueue<List<KafkaMessage>> queue;
+    private final long expectedTotal;
+    private final MessageExportImportUtil.ProgressCallback callback;
+    private final Thread writerThread;
+    private volatile Exception failure;
+
+    public ExportPipeline(MessageWriter writer, long expectedTotal, MessageExportImportUtil.ProgressCallback callback) {
+        this(writer, DEFAULT_QUEUE_CAPACITY, expectedTotal, callback);
+    }
+
+    public ExportPipeline(MessageWriter writer, int queueCapacity, long expectedTotal,
+                          MessageExportImportUtil.ProgressCallback callback) {
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.expectedTotal = expectedTotal;
+        this.callback = callback;
+        this.writerThread = new Thread(this::writeLoop, "export-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    public ExportPipeline start() {
+        writerThread.start();
+        return this;
+    }
+
+    /**
+     * Hand a batch to the writer, blocking while the queue is full
+     */
+    public void submit(List<KafkaMessage> batch) throws IOException, InterruptedException {
+        checkFailure();
+        if (!batch.isEmpty()) {
+            queue.put(batch);
+        }
+    }
+
+    /**
+     * Wait for all submitted batches to be written and return the number of messages written
+     */
+    public long finish() throws IOException, InterruptedException {
+        if (writerThread.isAlive()) {
+            queue.put(END_OF_STREAM);
+        }
+        writerThread.join();
+        checkFailure();
+        writer.flush();
+        return writer.getMessageCount();
+    }
+
+    /**
+     * Stop the writer without writing queued batches, and wait for it to let go of the
+     * {@link MessageWriter} so the caller can close it
+     */
+    public void abort() {
+        queue.clear();
+        writerThread.interrupt();
+        try {
+            writerThread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                List<KafkaMessage> batch = queue.take();
+                if (batch == END_OF_STREAM) {
+                    break;
+                }
+                for (KafkaMessage message : batch) {
+                    writer.write(message);
+                }
+                if (callback != null) {
+                    long written = writer.getMessageCount();
+                    callback.onProgress((int) Math.min(Integer.MAX_VALUE, written),
+                        (int) Math.min(Integer.MAX_VALUE, Math.max(expectedTotal, written)),
+                        "Exported " + written + " messages");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new IOException("Export writer interrupted");
+        } catch (Exception e) {
+            logger.error("Export writer failed: {}", e.getMessage());
+            failure = e;
+            // Unblock a fetcher waiting on a full queue
+            queue.clear();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        Exception error = failure;
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        }
+        if (error != null) {
+            throw new IOException("Export writer failed: " + error.getMessage(), error);
+        }
+    }
+}
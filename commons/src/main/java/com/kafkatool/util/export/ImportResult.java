@@ -0,0 +1,29 @@
+package com.kafkatool.util.export;
+
+/**
+ * Outcome of producing an import file: how many records were acknowledged by the
+ * broker, how many failed, and the first failure seen
+ */
+public class ImportResult {
+
+    private final long succeeded;
+    private final long failed;
+    private final String firstError;
+
+    public ImportResult(long succeeded, long failed, String firstError) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.firstError = firstError;
+    }
+
+    public long getSucceeded() { return succeeded; }
+    public long getFailed() { return failed; }
+    public long getTotal() { return succeeded + failed; }
+    public String getFirstError() { return firstError; }
+
+    @Override
+    public String toString() {
+        return "ImportResult{succeeded=" + succeeded + ", failed=" + failed
+            + (firstError != null ? ", firstError='" + firstError + "'" : "") + "}";
+    }
+}
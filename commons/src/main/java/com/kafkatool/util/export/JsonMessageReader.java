@@ -0,0 +1,183 @@
+package com.kafkatool.util.export;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingJsonFactory;
+import com.kafkatool.model.KafkaMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Parses messages incrementally with a {@link JsonParser}, holding only the current message.
+ * Accepts the export document written by {@link JsonMessageWriter#array}, newline-delimited
+ * message objects, and a bare top-level array of message objects.
+ */
+public class JsonMessageReader implements MessageReader {
+
+    private static final MappingJsonFactory JSON_FACTORY = new MappingJsonFactory();
+    private static final Set<String> DOCUMENT_FIELDS = Set.of("exportTimestamp", "exportVersion", "messages", "totalMessages");
+
+    private final JsonParser parser;
+    private boolean inDocument;
+    private boolean inArray;
+    private KafkaMessage next;
+
+    public JsonMessageReader(InputStream in) throws IOException {
+        this.parser = JSON_FACTORY.createParser(in);
+        this.next = readNext();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public KafkaMessage next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        KafkaMessage current = next;
+        try {
+            next = readNext();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read JSON import: " + e.getMessage(), e);
+        }
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private KafkaMessage readNext() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (inArray) {
+                if (token == JsonToken.START_OBJECT) {
+                    return readMessage(parser.nextToken());
+                }
+                if (token == JsonToken.END_ARRAY) {
+                    inArray = false;
+                    continue;
+                }
+                throw new IOException("Expected a message object but found " + token);
+            }
+            if (inDocument) {
+                if (token == JsonToken.FIELD_NAME) {
+                    readDocumentField();
+                } else if (token == JsonToken.END_OBJECT) {
+                    inDocument = false;
+                }
+                continue;
+            }
+            if (token == JsonToken.START_ARRAY) {
+                inArray = true;
+            } else if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+                if (token == JsonToken.FIELD_NAME && DOCUMENT_FIELDS.contains(parser.getCurrentName())) {
+                    inDocument = true;
+                    readDocumentField();
+                } else {
+                    return readMessage(token);
+                }
+            } else {
+                throw new IOException("Unexpected " + token + " at top level of JSON import");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Enter the "messages" array of an export document, skipping any other field
+     */
+    private void readDocumentField() throws IOException {
+        String name = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if ("messages".equals(name) && value == JsonToken.START_ARRAY) {
+            inArray = true;
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Read the fields of a message object, starting at its first field name
+     */
+    private KafkaMessage readMessage(JsonToken token) throws IOException {
+        KafkaMessage message = new KafkaMessage();
+        message.setHeaders(new HashMap<>());
+        while (token == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "topic":
+                    message.setTopic(readText(value));
+                    break;
+                case "partition":
+                    message.setPartition(value == JsonToken.VALUE_NULL ? 0 : parser.getValueAsInt());
+                    break;
+                case "offset":
+                    message.setOffset(value == JsonToken.VALUE_NULL ? 0 : parser.getValueAsLong());
+                    break;
+                case "timestamp":
+                    String timestamp = readText(value);
+                    if (timestamp != null && !timestamp.isEmpty()) {
+                        message.setTimestamp(LocalDateTime.parse(timestamp, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                    }
+                    break;
+                case "key":
+                    message.setKey(readText(value));
+                    break;
+                case "value":
+                    message.setValue(readText(value));
+                    break;
+                case "headers":
+                    if (value == JsonToken.START_OBJECT) {
+                        message.setHeaders(readHeaders());
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new IOException("Malformed message object near " + parser.getCurrentLocation());
+        }
+        return message;
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            headers.put(name, readText(parser.nextToken()));
+        }
+        return headers;
+    }
+
+    /**
+     * Text of a scalar, or the raw JSON of a nested value, which is how hand-written
+     * imports usually embed structured payloads
+     */
+    private String readText(JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+            return parser.readValueAsTree().toString();
+        }
+        return parser.getText();
+    }
+}
@@ -0,0 +1,105 @@
+package com.kafkatool.util.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.kafkatool.model.KafkaMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Streams messages as JSON through a {@link JsonGenerator}. The array variant produces the
+ * same document layout as {@link MessageExportImportUtil#exportToJson}, with the message count
+ * written after the array; the NDJSON variant writes one message object per line.
+ */
+public class JsonMessageWriter implements MessageWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+    private final boolean newlineDelimited;
+    private long messageCount;
+    private boolean aborted;
+
+    private JsonMessageWriter(OutputStream out, boolean newlineDelimited) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        this.newlineDelimited = newlineDelimited;
+        if (newlineDelimited) {
+            generator.setRootValueSeparator(null);
+        } else {
+            generator.writeStartObject();
+            generator.writeStringField("exportTimestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            generator.writeStringField("exportVersion", "1.0");
+            generator.writeArrayFieldStart("messages");
+        }
+    }
+
+    /**
+     * Writer for a single JSON document holding a "messages" array
+     */
+    public static JsonMessageWriter array(OutputStream out) throws IOException {
+        return new JsonMessageWriter(out, false);
+    }
+
+    /**
+     * Writer for newline-delimited JSON, one message per line
+     */
+    public static JsonMessageWriter ndjson(OutputStream out) throws IOException {
+        return new JsonMessageWriter(out, true);
+    }
+
+    @Override
+    public void write(KafkaMessage message) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("topic", message.getTopic());
+        generator.writeNumberField("partition", message.getPartition());
+        generator.writeNumberField("offset", message.getOffset());
+        generator.writeStringField("timestamp", message.getTimestamp() != null
+            ? message.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
+        generator.writeStringField("key", message.getKey());
+        generator.writeStringField("value", message.getValue());
+        generator.writeObjectFieldStart("headers");
+        if (message.getHeaders() != null) {
+            for (Map.Entry<String, String> header : message.getHeaders().entrySet()) {
+                generator.writeStringField(header.getKey(), header.getValue());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        if (newlineDelimited) {
+            generator.writeRaw('\n');
+        }
+        messageCount++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    @Override
+    public void abort() {
+        aborted = true;
+        // Otherwise the generator closes the open array and object itself
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!newlineDelimited && !aborted && !generator.isClosed()) {
+            generator.writeEndArray();
+            generator.writeNumberField("totalMessages", messageCount);
+            generator.writeEndObject();
+        }
+        generator.close();
+    }
+}
@@ -1,21 +1,14 @@
 package com.kafkatool.util.export;
 
 import com.kafkatool.model.KafkaMessage;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class for exporting and importing Kafka messages in various formats
@@ -23,129 +16,116 @@ import java.util.stream.Collectors;
 public class MessageExportImportUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(MessageExportImportUtil.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
     
-    static {
-        objectMapper.registerModule(new JavaTimeModule());
-    }
+    public static final int WRITE_BUFFER_SIZE = 1 << 20;
     
     /**
      * Export messages to JSON format
      */
-    public static void exportToJson(List<KafkaMessage> messages, File outputFile) throws IOException {
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            // Create export metadata
-            Map<String, Object> exportData = new HashMap<>();
-            exportData.put("exportTimestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            exportData.put("totalMessages", messages.size());
-            exportData.put("exportVersion", "1.0");
-            
-            // Convert messages to exportable format
-            List<Map<String, Object>> exportMessages = messages.stream()
-                .map(MessageExportImportUtil::messageToMap)
-                .collect(Collectors.toList());
-            
-            exportData.put("messages", exportMessages);
-            
-            // Write to file
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(writer, exportData);
-            
-            logger.info("Exported {} messages to JSON file: {}", messages.size(), outputFile.getAbsolutePath());
+    public static void exportToJson(Iterable<KafkaMessage> messages, File outputFile) throws IOException {
+        try (MessageWriter writer = JsonMessageWriter.array(openOutputStream(outputFile))) {
+            writeAll(messages, writer);
+            logger.info("Exported {} messages to JSON file: {}", writer.getMessageCount(), outputFile.getAbsolutePath());
+        }
+    }
+    
+    /**
+     * Export messages to newline-delimited JSON, one message per line
+     */
+    public static void exportToNdjson(Iterable<KafkaMessage> messages, File outputFile) throws IOException {
+        try (MessageWriter writer = JsonMessageWriter.ndjson(openOutputStream(outputFile))) {
+            writeAll(messages, writer);
+            logger.info("Exported {} messages to NDJSON file: {}", writer.getMessageCount(), outputFile.getAbsolutePath());
+        }
+    }
+    
+    /**
+     * Buffered output stream sized for sequential export writes
+     */
+    public static OutputStream openOutputStream(File outputFile) throws IOException {
+        return openOutputStream(outputFile, false);
+    }
+    
+    /**
+     * Buffered output stream, optionally gzip-compressed
+     */
+    public static OutputStream openOutputStream(File outputFile, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile), WRITE_BUFFER_SIZE);
+        if (gzip) {
+            out = new BufferedOutputStream(new GZIPOutputStream(out, 64 * 1024), WRITE_BUFFER_SIZE);
+        }
+        return out;
+    }
+    
+    /**
+     * Buffered input stream for sequential import reads, gunzipped when the file name ends in .gz
+     */
+    public static InputStream openInputStream(File inputFile) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(inputFile), WRITE_BUFFER_SIZE);
+        if (inputFile.getName().endsWith(".gz")) {
+            in = new BufferedInputStream(new GZIPInputStream(in, 64 * 1024), WRITE_BUFFER_SIZE);
+        }
+        return in;
+    }
+    
+    private static void writeAll(Iterable<KafkaMessage> messages, MessageWriter writer) throws IOException {
+        for (KafkaMessage message : messages) {
+            writer.write(message);
         }
     }
     
     /**
      * Export messages to CSV format
      */
-    public static void exportToCsv(List<KafkaMessage> messages, File outputFile) throws IOException {
-        try (FileWriter writer = new FileWriter(outputFile);
-             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
-            
-            // Write CSV header
-            csvPrinter.printRecord("Topic", "Partition", "Offset", "Timestamp", "Key", "Value", "Headers");
-            
-            // Write message data
-            for (KafkaMessage message : messages) {
-                csvPrinter.printRecord(
-                    message.getTopic(),
-                    message.getPartition(),
-                    message.getOffset(),
-                    message.getTimestamp() != null ? message.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "",
-                    message.getKey(),
-                    message.getValue(),
-                    headersToString(message.getHeaders())
-                );
-            }
-            
-            logger.info("Exported {} messages to CSV file: {}", messages.size(), outputFile.getAbsolutePath());
+    public static void exportToCsv(Iterable<KafkaMessage> messages, File outputFile) throws IOException {
+        try (MessageWriter writer = new CsvMessageWriter(openOutputStream(outputFile))) {
+            writeAll(messages, writer);
+            logger.info("Exported {} messages to CSV file: {}", writer.getMessageCount(), outputFile.getAbsolutePath());
         }
     }
     
     /**
-     * Export messages to Avro format (simplified JSON representation)
+     * Export messages to an Avro object container file with the default block codec
      */
-    public static void exportToAvro(List<KafkaMessage> messages, File outputFile) throws IOException {
-        // For now, export as JSON with Avro-like structure
-        // In a full implementation, this would use actual Avro serialization
-        
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            Map<String, Object> avroExport = new HashMap<>();
-            avroExport.put("namespace", "com.kafkatool.avro");
-            avroExport.put("type", "record");
-            avroExport.put("name", "KafkaMessageExport");
-            avroExport.put("fields", Arrays.asList(
-                Map.of("name", "topic", "type", "string"),
-                Map.of("name", "partition", "type", "int"),
-                Map.of("name", "offset", "type", "long"),
-                Map.of("name", "timestamp", "type", Arrays.asList("null", "string")),
-                Map.of("name", "key", "type", Arrays.asList("null", "string")),
-                Map.of("name", "value", "type", Arrays.asList("null", "string")),
-                Map.of("name", "headers", "type", Arrays.asList("null", "string"))
-            ));
-            
-            List<Map<String, Object>> records = messages.stream()
-                .map(message -> {
-                    Map<String, Object> record = new HashMap<>();
-                    record.put("topic", message.getTopic());
-                    record.put("partition", message.getPartition());
-                    record.put("offset", message.getOffset());
-                    record.put("timestamp", message.getTimestamp() != null ? 
-                        message.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
-                    record.put("key", message.getKey());
-                    record.put("value", message.getValue());
-                    record.put("headers", headersToString(message.getHeaders()));
-                    return record;
-                })
-                .collect(Collectors.toList());
-            
-            avroExport.put("records", records);
-            
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(writer, avroExport);
-            
-            logger.info("Exported {} messages to Avro-JSON file: {}", messages.size(), outputFile.getAbsolutePath());
+    public static void exportToAvro(Iterable<KafkaMessage> messages, File outputFile) throws IOException {
+        exportToAvro(messages, outputFile, AvroMessageWriter.DEFAULT_CODEC, AvroMessageWriter.DEFAULT_SYNC_INTERVAL);
+    }
+    
+    /**
+     * Export messages to an Avro object container file
+     */
+    public static void exportToAvro(Iterable<KafkaMessage> messages, File outputFile,
+                                    String codec, int syncInterval) throws IOException {
+        try (MessageWriter writer = new AvroMessageWriter(openOutputStream(outputFile), codec, syncInterval)) {
+            writeAll(messages, writer);
+            logger.info("Exported {} messages to Avro file: {}", writer.getMessageCount(), outputFile.getAbsolutePath());
         }
     }
     
     /**
-     * Import messages from JSON format
+     * Import messages from JSON format, either an export document or newline-delimited messages
      */
     public static List<KafkaMessage> importFromJson(File inputFile) throws IOException {
-        try (FileReader reader = new FileReader(inputFile)) {
-            JsonNode rootNode = objectMapper.readTree(reader);
-            JsonNode messagesNode = rootNode.get("messages");
-            
-            List<KafkaMessage> messages = new ArrayList<>();
-            
-            if (messagesNode != null && messagesNode.isArray()) {
-                for (JsonNode messageNode : messagesNode) {
-                    KafkaMessage message = mapToMessage(objectMapper.convertValue(messageNode, Map.class));
-                    messages.add(message);
-                }
-            }
-            
-            logger.info("Imported {} messages from JSON file: {}", messages.size(), inputFile.getAbsolutePath());
-            return messages;
+        List<KafkaMessage> messages = new ArrayList<>();
+        try (MessageReader reader = new JsonMessageReader(openInputStream(inputFile))) {
+            reader.forEachRemaining(messages::add);
+        }
+        
+        logger.info("Imported {} messages from JSON file: {}", messages.size(), inputFile.getAbsolutePath());
+        return messages;
+    }
+    
+    /**
+     * Import messages from an Avro object container file
+     */
+    public static List<KafkaMessage> importFromAvro(File inputFile) throws IOException {
+        List<KafkaMessage> messages = new ArrayList<>();
+        try (AvroMessageReader reader = new AvroMessageReader(inputFile)) {
+            reader.forEachRemaining(messages::add);
         }
+        
+        logger.info("Imported {} messages from Avro file: {}", messages.size(), inputFile.getAbsolutePath());
+        return messages;
     }
     
     /**
@@ -153,27 +133,8 @@ public class MessageExportImportUtil {
      */
     public static List<KafkaMessage> importFromCsv(File inputFile) throws IOException {
         List<KafkaMessage> messages = new ArrayList<>();
-        
-        try (FileReader reader = new FileReader(inputFile);
-             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
-            
-            for (CSVRecord record : csvParser) {
-                KafkaMessage message = new KafkaMessage();
-                message.setTopic(record.get("Topic"));
-                message.setPartition(Integer.parseInt(record.get("Partition")));
-                message.setOffset(Long.parseLong(record.get("Offset")));
-                
-                String timestampStr = record.get("Timestamp");
-                if (timestampStr != null && !timestampStr.isEmpty()) {
-                    message.setTimestamp(LocalDateTime.parse(timestampStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                }
-                
-                message.setKey(record.get("Key"));
-                message.setValue(record.get("Value"));
-                message.setHeaders(parseHeadersFromString(record.get("Headers")));
-                
-                messages.add(message);
-            }
+        try (MessageReader reader = new CsvMessageReader(openInputStream(inputFile))) {
+            reader.forEachRemaining(messages::add);
         }
         
         logger.info("Imported {} messages from CSV file: {}", messages.size(), inputFile.getAbsolutePath());
@@ -191,20 +152,34 @@ public class MessageExportImportUtil {
         
         callback.onProgress(0, totalMessages, "Starting export");
         
+        MessageWriter writer;
         switch (format.toLowerCase()) {
             case "json":
-                exportToJson(messages, outputFile);
+                writer = JsonMessageWriter.array(openOutputStream(outputFile));
+                break;
+            case "ndjson":
+                writer = JsonMessageWriter.ndjson(openOutputStream(outputFile));
                 break;
             case "csv":
-                exportToCsv(messages, outputFile);
+                writer = new CsvMessageWriter(openOutputStream(outputFile));
                 break;
             case "avro":
-                exportToAvro(messages, outputFile);
+                writer = new AvroMessageWriter(openOutputStream(outputFile));
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported export format: " + format);
         }
         
+        try (writer) {
+            for (KafkaMessage message : messages) {
+                writer.write(message);
+                processedMessages++;
+                if (processedMessages % batchSize == 0 && processedMessages < totalMessages) {
+                    callback.onProgress(processedMessages, totalMessages, "Exported " + processedMessages + " messages");
+                }
+            }
+        }
+        
         callback.onProgress(totalMessages, totalMessages, "Export completed successfully");
     }
     
@@ -224,6 +199,9 @@ public class MessageExportImportUtil {
             case "csv":
                 messages = importFromCsv(inputFile);
                 break;
+            case "avro":
+                messages = importFromAvro(inputFile);
+                break;
             default:
                 throw new IllegalArgumentException("Unsupported import format: " + format);
         }
@@ -252,38 +230,7 @@ public class MessageExportImportUtil {
     
     // Helper methods
     
-    private static Map<String, Object> messageToMap(KafkaMessage message) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("topic", message.getTopic());
-        map.put("partition", message.getPartition());
-        map.put("offset", message.getOffset());
-        map.put("timestamp", message.getTimestamp() != null ? 
-            message.getTimestamp().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
-        map.put("key", message.getKey());
-        map.put("value", message.getValue());
-        map.put("headers", message.getHeaders());
-        return map;
-    }
-    
-    private static KafkaMessage mapToMessage(Map<String, Object> map) {
-        KafkaMessage message = new KafkaMessage();
-        message.setTopic((String) map.get("topic"));
-        message.setPartition((Integer) map.get("partition"));
-        message.setOffset(((Number) map.get("offset")).longValue());
-        
-        String timestampStr = (String) map.get("timestamp");
-        if (timestampStr != null) {
-            message.setTimestamp(LocalDateTime.parse(timestampStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        }
-        
-        message.setKey((String) map.get("key"));
-        message.setValue((String) map.get("value"));
-        message.setHeaders((Map<String, String>) map.get("headers"));
-        
-        return message;
-    }
-    
-    private static String headersToString(Map<String, String> headers) {
+    static String headersToString(Map<String, String> headers) {
         if (headers == null || headers.isEmpty()) {
             return "";
         }
@@ -292,7 +239,7 @@ public class MessageExportImportUtil {
             .collect(Collectors.joining(";"));
     }
     
-    private static Map<String, String> parseHeadersFromString(String headersStr) {
+    static Map<String, String> parseHeadersFromString(String headersStr) {
         if (headersStr == null || headersStr.isEmpty()) {
             return new HashMap<>();
         }
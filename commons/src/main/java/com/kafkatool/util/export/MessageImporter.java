@@ -0,0 +1,109 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Feeds messages from a reader into a single shared producer with many sends in flight.
+ * A semaphore bounds the number of unacknowledged records, so a fast reader blocks once
+ * the producer falls behind instead of queueing the whole file in memory. Success and
+ * failure are counted from the send callbacks, so the totals reflect broker acknowledgements.
+ */
+public class MessageImporter {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final Producer<String, String> producer;
+    private final int maxInFlight;
+    private final int batchSize;
+
+    public MessageImporter(Producer<String, String> producer) {
+        this(producer, DEFAULT_MAX_IN_FLIGHT, DEFAULT_BATCH_SIZE);
+    }
+
+    public MessageImporter(Producer<String, String> producer, int maxInFlight, int batchSize) {
+        if (maxInFlight <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("In-flight limit and batch size must be positive");
+        }
+        this.producer = producer;
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Send every message to the topic and wait until all of them are acknowledged or failed.
+     * Progress is reported after each batch of submitted records and once at the end.
+     */
+    public ImportResult importAll(String topicName, Iterator<KafkaMessage> messages,
+                                  MessageExportImportUtil.ProgressCallback callback) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        long submitted = 0;
+
+        while (messages.hasNext()) {
+            KafkaMessage message = messages.next();
+            inFlight.acquire();
+            try {
+                producer.send(toRecord(topicName, message), (metadata, exception) -> {
+                    if (exception == null) {
+                        succeeded.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                        firstError.compareAndSet(null, exception.getMessage());
+                    }
+                    inFlight.release();
+                });
+            } catch (RuntimeException e) {
+                // Serialization and size errors are thrown before the record is queued
+                failed.incrementAndGet();
+                firstError.compareAndSet(null, e.getMessage());
+                inFlight.release();
+            }
+            submitted++;
+
+            if (callback != null && submitted % batchSize == 0) {
+                report(callback, succeeded.get(), failed.get(), submitted);
+            }
+        }
+
+        producer.flush();
+        // flush() returns once every callback has run, so all permits are back
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        if (callback != null) {
+            report(callback, succeeded.get(), failed.get(), submitted);
+        }
+        return new ImportResult(succeeded.get(), failed.get(), firstError.get());
+    }
+
+    private static void report(MessageExportImportUtil.ProgressCallback callback,
+                               long succeeded, long failed, long submitted) {
+        long done = succeeded + failed;
+        callback.onProgress((int) Math.min(Integer.MAX_VALUE, done), (int) Math.min(Integer.MAX_VALUE, submitted),
+            "Imported " + succeeded + " messages" + (failed > 0 ? ", " + failed + " failed" : ""));
+    }
+
+    private static ProducerRecord<String, String> toRecord(String topicName, KafkaMessage message) {
+        RecordHeaders headers = new RecordHeaders();
+        if (message.getHeaders() != null) {
+            for (Map.Entry<String, String> header : message.getHeaders().entrySet()) {
+                headers.add(header.getKey(),
+                    header.getValue() != null ? header.getValue().getBytes(StandardCharsets.UTF_8) : null);
+            }
+        }
+        return new ProducerRecord<>(topicName, null, null, message.getKey(), message.getValue(), headers);
+    }
+}
@@ -0,0 +1,12 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Source that parses messages from an import file one at a time, without loading the file into memory
+ */
+public interface MessageReader extends Iterator<KafkaMessage>, Closeable {
+}
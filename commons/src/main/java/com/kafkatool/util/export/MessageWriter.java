@@ -0,0 +1,34 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sink that writes messages to an export file one at a time, without holding them in memory
+ */
+public interface MessageWriter extends Closeable {
+
+    /**
+     * Write a single message
+     */
+    void write(KafkaMessage message) throws IOException;
+
+    /**
+     * Push buffered output down to the underlying stream
+     */
+    void flush() throws IOException;
+
+    /**
+     * Number of messages written so far
+     */
+    long getMessageCount();
+
+    /**
+     * Mark the output as failed, so {@link #close()} releases resources without writing
+     * a trailer that would make a partial file look complete
+     */
+    default void abort() {
+    }
+}
@@ -0,0 +1,171 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Writes one partition of a topic export to its own file, tracking the offset range
+ * and computing the file checksum as bytes go to disk so no second read pass is needed.
+ * A writer can also continue a file from an {@link ExportCheckpoint} entry, after
+ * truncating whatever was written past that checkpoint.
+ */
+public class PartitionFileWriter implements MessageWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionFileWriter.class);
+
+    private final int partition;
+    private final File file;
+    private final MessageDigest digest;
+    private final FileOutputStream fileOut;
+    private final MessageWriter delegate;
+    private long baseCount;
+    private long firstOffset = -1;
+    private long lastOffset = -1;
+    private ExportManifest.PartitionEntry entry;
+
+    public PartitionFileWriter(File directory, String topicName, int partition, ExportFormat format) throws IOException {
+        this(directory, topicName, partition, format, null);
+    }
+
+    /**
+     * @param checkpoint last checkpointed state of this partition's file, or null to start a new file
+     */
+    public PartitionFileWriter(File directory, String topicName, int partition, ExportFormat format,
+                               ExportManifest.PartitionEntry checkpoint) throws IOException {
+        this.partition = partition;
+        this.file = new File(directory, fileName(topicName, partition, format));
+        this.digest = ExportManifest.newDigest();
+
+        boolean resume = checkpoint != null && checkpoint.getByteSize() > 0 && restore(checkpoint);
+        this.fileOut = new FileOutputStream(file, resume);
+        BufferedOutputStream out = new BufferedOutputStream(
+            new DigestOutputStream(fileOut, digest), MessageExportImportUtil.WRITE_BUFFER_SIZE);
+        this.delegate = resume ? format.createAppendingWriter(file, out) : format.createWriter(out);
+        if (resume) {
+            baseCount = checkpoint.getRecordCount();
+            firstOffset = checkpoint.getFirstOffset();
+            lastOffset = checkpoint.getLastOffset();
+        }
+    }
+
+    /**
+     * Cut the file back to its checkpointed length and replay that prefix into the digest.
+     * Returns false, so the partition starts over, when the prefix is missing or altered.
+     */
+    private boolean restore(ExportManifest.PartitionEntry checkpoint) throws IOException {
+        if (!file.isFile() || file.length() < checkpoint.getByteSize()) {
+            logger.warn("Export file {} is shorter than its checkpoint, restarting partition {}", file, partition);
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(checkpoint.getByteSize());
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        String checksum = HexFormat.of().formatHex(cloneDigest().digest());
+        if (!checksum.equals(checkpoint.getChecksum())) {
+            logger.warn("Export file {} does not match its checkpoint, restarting partition {}", file, partition);
+            digest.reset();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * File name used for a partition, e.g. "orders-3.ndjson"
+     */
+    public static String fileName(String topicName, int partition, ExportFormat format) {
+        return topicName + "-" + partition + "." + format.getExtension();
+    }
+
+    @Override
+    public void write(KafkaMessage message) throws IOException {
+        delegate.write(message);
+        if (firstOffset < 0) {
+            firstOffset = message.getOffset();
+        }
+        lastOffset = message.getOffset();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    @Override
+    public void abort() {
+        delegate.abort();
+    }
+
+    @Override
+    public long getMessageCount() {
+        return baseCount + delegate.getMessageCount();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * First offset still to be exported: just past the last written record, or 0 for a new file
+     */
+    public long getNextOffset() {
+        return lastOffset + 1;
+    }
+
+    /**
+     * Make everything written so far durable and describe the file at this point.
+     * Everything up to the returned byte size is complete, so it is safe to resume from.
+     */
+    public ExportManifest.PartitionEntry checkpoint() throws IOException {
+        delegate.flush();
+        fileOut.getFD().sync();
+        return new ExportManifest.PartitionEntry(partition, file.getName(), firstOffset, lastOffset,
+            getMessageCount(), fileOut.getChannel().size(), HexFormat.of().formatHex(cloneDigest().digest()));
+    }
+
+    /**
+     * Manifest entry for this file; only available once the writer is closed
+     */
+    public ExportManifest.PartitionEntry getEntry() {
+        if (entry == null) {
+            throw new IllegalStateException("Partition file " + file.getName() + " is not closed");
+        }
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (entry == null) {
+            delegate.close();
+            entry = new ExportManifest.PartitionEntry(partition, file.getName(), firstOffset, lastOffset,
+                getMessageCount(), file.length(), HexFormat.of().formatHex(digest.digest()));
+        }
+    }
+
+    private MessageDigest cloneDigest() {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Checksum digest cannot be cloned", e);
+        }
+    }
+}
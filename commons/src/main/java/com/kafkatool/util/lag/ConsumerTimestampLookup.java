@@ -0,0 +1,47 @@
+package com.kafkatool.util.lag;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Looks up record timestamps with a single consumer that seeks to the offset and reads one
+ * record. Meant to be configured with {@code max.poll.records=1} and small fetches.
+ */
+public class ConsumerTimestampLookup implements RecordTimestampLookup, AutoCloseable {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+    private static final int MAX_EMPTY_POLLS = 10;
+
+    private final Consumer<byte[], byte[]> consumer;
+
+    public ConsumerTimestampLookup(Consumer<byte[], byte[]> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public synchronized long timestampAt(TopicPartition partition, long offset) {
+        consumer.assign(Collections.singleton(partition));
+        consumer.seek(partition, offset);
+        int emptyPolls = 0;
+        while (emptyPolls < MAX_EMPTY_POLLS) {
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+            emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+            for (ConsumerRecord<byte[], byte[]> record : records) {
+                if (record.offset() >= offset) {
+                    return record.timestamp();
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized void close() {
+        consumer.close();
+    }
+}
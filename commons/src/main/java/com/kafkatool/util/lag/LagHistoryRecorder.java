@@ -0,0 +1,50 @@
+package com.kafkatool.util.lag;
+
+import com.kafkatool.util.timeseries.TimeSeriesStore;
+
+import java.util.function.Consumer;
+
+/**
+ * Writes each {@link LagSnapshot} into a {@link TimeSeriesStore}: total and time lag per
+ * group and lag per group partition. Produce rates are recorded by
+ * {@link com.kafkatool.util.throughput.ThroughputHistoryRecorder}, which sees every topic
+ * rather than only the consumed ones.
+ */
+public class LagHistoryRecorder implements Consumer<LagSnapshot> {
+
+    private final TimeSeriesStore store;
+
+    public LagHistoryRecorder(TimeSeriesStore store) {
+        this.store = store;
+    }
+
+    public static String groupLagSeries(String groupId) {
+        return "group." + groupId + ".lag";
+    }
+
+    public static String groupTimeLagSeries(String groupId) {
+        return "group." + groupId + ".time-lag-ms";
+    }
+
+    public static String partitionLagSeries(String groupId, String topic, int partition) {
+        return "group." + groupId + "." + topic + "-" + partition + ".lag";
+    }
+
+    @Override
+    public void accept(LagSnapshot snapshot) {
+        long timestamp = snapshot.getTimestamp();
+        for (LagSnapshot.GroupLag group : snapshot.getGroups().values()) {
+            store.record(groupLagSeries(group.getGroupId()), timestamp, group.getTotalLag());
+            long timeLag = group.getMaxTimeLagMillis();
+            if (timeLag >= 0) {
+                store.record(groupTimeLagSeries(group.getGroupId()), timestamp, timeLag);
+            }
+            for (LagSnapshot.PartitionLag partition : group.getPartitions()) {
+                if (partition.getLag() >= 0) {
+                    store.record(partitionLagSeries(group.getGroupId(), partition.getTopic(), partition.getPartition()),
+                        timestamp, partition.getLag());
+                }
+            }
+        }
+    }
+}
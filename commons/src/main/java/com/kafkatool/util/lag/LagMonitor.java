@@ -0,0 +1,215 @@
+package com.kafkatool.util.lag;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsSpec;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Polls the lag of every consumer group on one cluster at a fixed interval and keeps the latest
+ * {@link LagSnapshot} in memory. Each poll costs three batched admin calls however many groups
+ * there are: list the groups, fetch all their committed offsets in one request per group
+ * coordinator, and fetch the end offsets of every involved partition in one request per leader.
+ * The sampled end offsets also feed a {@link TimeLagEstimator}, so snapshots carry time lag.
+ * A poll publishes its snapshot as soon as offset lag is known; time lag that needs record
+ * fetches is filled in afterwards within a per-poll budget, and listeners receive the result.
+ */
+public class LagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LagMonitor.class);
+    private static final long LOOKUP_BUDGET_MS = 2_000;
+
+    private final String name;
+    private final Admin admin;
+    private final long intervalMillis;
+    private final RecordTimestampLookup timestampLookup;
+    private final TimeLagEstimator timeLagEstimator;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<LagSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private volatile LagSnapshot snapshot;
+    private volatile CompletableFuture<LagSnapshot> pending = new CompletableFuture<>();
+
+    public LagMonitor(String name, Admin admin, long intervalMillis) {
+        this(name, admin, intervalMillis, null);
+    }
+
+    /**
+     * @param timestampLookup fetches record timestamps for time lag beyond the sampled history;
+     *                        closed with the monitor if it is {@link AutoCloseable}
+     */
+    public LagMonitor(String name, Admin admin, long intervalMillis, RecordTimestampLookup timestampLookup) {
+        this.name = name;
+        this.admin = admin;
+        this.intervalMillis = intervalMillis;
+        this.timestampLookup = timestampLookup;
+        this.timeLagEstimator = new TimeLagEstimator(TimeLagEstimator.DEFAULT_HISTORY_SAMPLES, timestampLookup);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lag-monitor-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public LagMonitor start() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                logger.warn("Lag poll for {} failed: {}", name, e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * The most recent snapshot, or null before the first poll has finished
+     */
+    public LagSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The most recent snapshot, or a future completing with the first one
+     */
+    public CompletableFuture<LagSnapshot> awaitSnapshot() {
+        LagSnapshot current = snapshot;
+        return current != null ? CompletableFuture.completedFuture(current) : pending;
+    }
+
+    /**
+     * Drop the current snapshot after offsets were changed outside the poll, e.g. by a reset, and
+     * poll again now; until that poll finishes {@link #awaitSnapshot()} waits for it
+     */
+    public void invalidate() {
+        snapshot = null;
+        try {
+            scheduler.execute(() -> {
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    logger.warn("Lag poll for {} failed: {}", name, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed meanwhile; nobody polls this monitor any more
+        }
+    }
+
+    /**
+     * Called on the monitor thread with every new snapshot
+     */
+    public void addListener(Consumer<LagSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<LagSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Poll now and publish the result
+     */
+    public synchronized LagSnapshot refresh() throws Exception {
+        LagSnapshot next;
+        try {
+            next = poll();
+        } catch (Exception e) {
+            CompletableFuture<LagSnapshot> failed = pending;
+            pending = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            throw e;
+        }
+        // Callers waiting for lag get offset lag now rather than after the record fetches
+        snapshot = next;
+        pending.complete(next);
+        if (timeLagEstimator.fetchPending(LOOKUP_BUDGET_MS) > 0) {
+            next = timeLagEstimator.applyTimeLag(next);
+            snapshot = next;
+        }
+        for (Consumer<LagSnapshot> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                logger.warn("Lag listener for {} failed: {}", name, e.getMessage());
+            }
+        }
+        return next;
+    }
+
+    private LagSnapshot poll() throws Exception {
+        Map<String, ListConsumerGroupOffsetsSpec> specs = new HashMap<>();
+        for (ConsumerGroupListing listing : admin.listConsumerGroups().valid().get()) {
+            specs.put(listing.groupId(), new ListConsumerGroupOffsetsSpec());
+        }
+        long timestamp = System.currentTimeMillis();
+        if (specs.isEmpty()) {
+            return new LagSnapshot(timestamp, Map.of());
+        }
+
+        Map<String, Map<TopicPartition, Long>> committed = new HashMap<>();
+        Set<TopicPartition> involved = new HashSet<>();
+        Map<String, Map<TopicPartition, OffsetAndMetadata>> groupOffsets = admin.listConsumerGroupOffsets(specs).all().get();
+        for (Map.Entry<String, Map<TopicPartition, OffsetAndMetadata>> group : groupOffsets.entrySet()) {
+            Map<TopicPartition, Long> offsets = new HashMap<>();
+            group.getValue().forEach((partition, offset) -> {
+                if (offset != null) {
+                    offsets.put(partition, offset.offset());
+                }
+            });
+            if (!offsets.isEmpty()) {
+                committed.put(group.getKey(), offsets);
+                involved.addAll(offsets.keySet());
+            }
+        }
+
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        involved.forEach(partition -> latest.put(partition, OffsetSpec.latest()));
+        ListOffsetsResult result = admin.listOffsets(latest);
+        Map<TopicPartition, Long> endOffsets = new HashMap<>();
+        for (TopicPartition partition : involved) {
+            try {
+                endOffsets.put(partition, result.partitionResult(partition).get().offset());
+            } catch (ExecutionException e) {
+                // Groups keep offsets for deleted topics; those partitions are reported with unknown lag
+                logger.debug("No end offset for {} on {}: {}", partition, name, e.getCause().getMessage());
+            }
+        }
+        return timeLagEstimator.estimate(LagSnapshot.compute(timestamp, committed, endOffsets));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        // Wait for an in-flight poll so the lookup is not closed while it is being used
+        synchronized (this) {
+            admin.close(Duration.ofSeconds(5));
+            if (timestampLookup instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) timestampLookup).close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close timestamp lookup for {}: {}", name, e.getMessage());
+                }
+            }
+        }
+    }
+}
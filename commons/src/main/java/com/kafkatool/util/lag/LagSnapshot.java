@@ -0,0 +1,139 @@
+package com.kafkatool.util.lag;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Committed offsets, end offsets and lag of every consumer group on a cluster at one point
+ * in time. Snapshots are immutable, so readers can share one without copying.
+ */
+public class LagSnapshot {
+
+    private final long timestamp;
+    private final Map<String, GroupLag> groups;
+
+    public LagSnapshot(long timestamp, Map<String, GroupLag> groups) {
+        this.timestamp = timestamp;
+        this.groups = Collections.unmodifiableMap(new TreeMap<>(groups));
+    }
+
+    /**
+     * Build a snapshot from each group's committed offsets and the end offsets of the partitions
+     * they read. Partitions without a known end offset (for example a deleted topic) get a lag of -1.
+     */
+    public static LagSnapshot compute(long timestamp, Map<String, Map<TopicPartition, Long>> committedOffsets,
+                                      Map<TopicPartition, Long> endOffsets) {
+        Map<String, GroupLag> groups = new TreeMap<>();
+        for (Map.Entry<String, Map<TopicPartition, Long>> group : committedOffsets.entrySet()) {
+            List<PartitionLag> partitions = new ArrayList<>();
+            for (Map.Entry<TopicPartition, Long> committed : group.getValue().entrySet()) {
+                TopicPartition partition = committed.getKey();
+                Long endOffset = endOffsets.get(partition);
+                partitions.add(new PartitionLag(partition.topic(), partition.partition(), committed.getValue(),
+                    endOffset != null ? endOffset : -1));
+            }
+            partitions.sort(Comparator.comparing(PartitionLag::getTopic).thenComparingInt(PartitionLag::getPartition));
+            groups.put(group.getKey(), new GroupLag(group.getKey(), partitions));
+        }
+        return new LagSnapshot(timestamp, groups);
+    }
+
+    /** When the offsets were fetched, in epoch milliseconds */
+    public long getTimestamp() { return timestamp; }
+    public Map<String, GroupLag> getGroups() { return groups; }
+
+    /**
+     * The group's lag, or null if it had no committed offsets when the snapshot was taken
+     */
+    public GroupLag getGroup(String groupId) {
+        return groups.get(groupId);
+    }
+
+    public long getTotalLag() {
+        return groups.values().stream().mapToLong(GroupLag::getTotalLag).sum();
+    }
+
+    /**
+     * Lag of one consumer group across all partitions it has committed offsets for
+     */
+    public static class GroupLag {
+        private final String groupId;
+        private final List<PartitionLag> partitions;
+
+        public GroupLag(String groupId, List<PartitionLag> partitions) {
+            this.groupId = groupId;
+            this.partitions = Collections.unmodifiableList(partitions);
+        }
+
+        public String getGroupId() { return groupId; }
+        public List<PartitionLag> getPartitions() { return partitions; }
+
+        /** Sum of the known partition lags */
+        public long getTotalLag() {
+            return partitions.stream().mapToLong(PartitionLag::getLag).filter(lag -> lag > 0).sum();
+        }
+
+        public long getMaxLag() {
+            return partitions.stream().mapToLong(PartitionLag::getLag).max().orElse(0);
+        }
+
+        /**
+         * Largest known partition time lag in milliseconds, or -1 if none is known
+         */
+        public long getMaxTimeLagMillis() {
+            return partitions.stream().mapToLong(PartitionLag::getTimeLagMillis).max().orElse(-1);
+        }
+
+        public long getTopicLag(String topic) {
+            return partitions.stream().filter(partition -> partition.getTopic().equals(topic))
+                .mapToLong(PartitionLag::getLag).filter(lag -> lag > 0).sum();
+        }
+    }
+
+    public static class PartitionLag {
+        private final String topic;
+        private final int partition;
+        private final long committedOffset;
+        private final long endOffset;
+        private final long timeLagMillis;
+
+        public PartitionLag(String topic, int partition, long committedOffset, long endOffset) {
+            this(topic, partition, committedOffset, endOffset, -1);
+        }
+
+        public PartitionLag(String topic, int partition, long committedOffset, long endOffset, long timeLagMillis) {
+            this.topic = topic;
+            this.partition = partition;
+            this.committedOffset = committedOffset;
+            this.endOffset = endOffset;
+            this.timeLagMillis = timeLagMillis;
+        }
+
+        public PartitionLag withTimeLag(long timeLagMillis) {
+            return new PartitionLag(topic, partition, committedOffset, endOffset, timeLagMillis);
+        }
+
+        public String getTopic() { return topic; }
+        public int getPartition() { return partition; }
+        public long getCommittedOffset() { return committedOffset; }
+        /** Log end offset, or -1 if it could not be fetched */
+        public long getEndOffset() { return endOffset; }
+
+        /** Records between the committed offset and the end of the log, or -1 if the end is unknown */
+        public long getLag() {
+            return endOffset < 0 ? -1 : Math.max(0, endOffset - committedOffset);
+        }
+
+        /**
+         * How long ago the record at the committed offset was written, 0 when caught up,
+         * or -1 if it could not be estimated
+         */
+        public long getTimeLagMillis() { return timeLagMillis; }
+    }
+}
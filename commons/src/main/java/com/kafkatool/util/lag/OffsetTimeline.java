@@ -0,0 +1,89 @@
+package com.kafkatool.util.lag;
+
+/**
+ * Bounded history of a partition's end offset over time, sampled by the lag monitor. The time
+ * a given offset was written is estimated by interpolating between the two samples around it.
+ */
+public class OffsetTimeline {
+
+    private final long[] offsets;
+    private final long[] timestamps;
+    private int start;
+    private int size;
+
+    public OffsetTimeline(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Timeline needs room for at least two samples");
+        }
+        this.offsets = new long[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Record that the end offset was {@code offset} at {@code timestamp}. Only samples where the
+     * end offset moved forward are kept, so each sample marks when an offset range was written.
+     */
+    public synchronized void record(long offset, long timestamp) {
+        if (size > 0) {
+            int last = index(size - 1);
+            if (offset <= offsets[last]) {
+                if (offset < offsets[last]) {
+                    // The log was truncated or recreated; older samples no longer apply
+                    size = 0;
+                } else {
+                    return;
+                }
+            }
+        }
+        if (size == offsets.length) {
+            start = (start + 1) % offsets.length;
+            size--;
+        }
+        int next = index(size);
+        offsets[next] = offset;
+        timestamps[next] = timestamp;
+        size++;
+    }
+
+    /**
+     * Estimated time the record at {@code offset} was appended, or -1 if the offset is older
+     * than the history or newer than the last sample
+     */
+    public synchronized long estimateTimestamp(long offset) {
+        if (size < 2 || offset < offsets[index(0)] || offset >= offsets[index(size - 1)]) {
+            return -1;
+        }
+        // Find the last sample at or before the offset; the end offset passed it before the next sample
+        int low = 0;
+        int high = size - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (offsets[index(mid)] <= offset) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        long fromOffset = offsets[index(low)];
+        long toOffset = offsets[index(high)];
+        long fromTime = timestamps[index(low)];
+        long toTime = timestamps[index(high)];
+        double fraction = (double) (offset - fromOffset + 1) / (toOffset - fromOffset);
+        return fromTime + Math.round(fraction * (toTime - fromTime));
+    }
+
+    /**
+     * The oldest sample as {offset, timestamp}, or null when there is none
+     */
+    public synchronized long[] oldest() {
+        return size > 0 ? new long[] {offsets[index(0)], timestamps[index(0)]} : null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int index(int position) {
+        return (start + position) % offsets.length;
+    }
+}
@@ -0,0 +1,17 @@
+package com.kafkatool.util.lag;
+
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Fetches the timestamp of the record at an offset, used when the sampled offset history
+ * does not reach back far enough to estimate it
+ */
+@FunctionalInterface
+public interface RecordTimestampLookup {
+
+    /**
+     * Timestamp of the record at the offset (or the next one after it, in a compacted topic),
+     * or -1 if there is none
+     */
+    long timestampAt(TopicPartition partition, long offset) throws Exception;
+}
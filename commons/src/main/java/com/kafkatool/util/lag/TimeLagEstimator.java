@@ -0,0 +1,183 @@
+package com.kafkatool.util.lag;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns offset lag into time lag: how long ago the record at a group's committed offset was
+ * written. Each snapshot's end offsets are added to a per-partition {@link OffsetTimeline}, and
+ * the committed offset's write time is interpolated from it. Offsets older than the history are
+ * dated from fetched record timestamps, cached per offset so groups at different positions on one
+ * partition do not evict each other; the nearest fetched offset below also serves a group that has
+ * advanced since, by interpolating towards the oldest sample. Estimating never fetches; offsets
+ * that still need a record are queued for {@link #fetchPending(long)}, so a caller can publish
+ * offset lag first and spend a bounded time on fetches afterwards.
+ */
+public class TimeLagEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeLagEstimator.class);
+
+    public static final int DEFAULT_HISTORY_SAMPLES = 720;
+    private static final int LOOKUP_CACHE_SIZE = 10_000;
+    private static final int FETCHED_PER_PARTITION = 8;
+
+    private final int historySamples;
+    private final RecordTimestampLookup lookup;
+    private final Map<TopicPartition, OffsetTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, NavigableMap<Long, Long>> fetched = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TopicPartition, NavigableMap<Long, Long>> eldest) {
+            return size() > LOOKUP_CACHE_SIZE;
+        }
+    };
+    private final Set<PartitionOffset> pending = new LinkedHashSet<>();
+
+    /**
+     * @param lookup fallback for offsets older than the sampled history, or null to leave them unknown
+     */
+    public TimeLagEstimator(int historySamples, RecordTimestampLookup lookup) {
+        this.historySamples = historySamples;
+        this.lookup = lookup;
+    }
+
+    /**
+     * Sample the snapshot's end offsets and return a copy with time lag filled in wherever it
+     * can be estimated without fetching a record
+     */
+    public LagSnapshot estimate(LagSnapshot snapshot) {
+        long now = snapshot.getTimestamp();
+        for (LagSnapshot.GroupLag group : snapshot.getGroups().values()) {
+            for (LagSnapshot.PartitionLag partition : group.getPartitions()) {
+                if (partition.getEndOffset() >= 0) {
+                    timelines.computeIfAbsent(new TopicPartition(partition.getTopic(), partition.getPartition()),
+                        ignored -> new OffsetTimeline(historySamples)).record(partition.getEndOffset(), now);
+                }
+            }
+        }
+        return applyTimeLag(snapshot);
+    }
+
+    /**
+     * Recompute the time lag of a snapshot that was already sampled, e.g. after {@link #fetchPending}
+     */
+    public LagSnapshot applyTimeLag(LagSnapshot snapshot) {
+        long now = snapshot.getTimestamp();
+        Set<PartitionOffset> requested = new HashSet<>();
+        Map<String, LagSnapshot.GroupLag> groups = new LinkedHashMap<>();
+        for (LagSnapshot.GroupLag group : snapshot.getGroups().values()) {
+            List<LagSnapshot.PartitionLag> partitions = new ArrayList<>();
+            for (LagSnapshot.PartitionLag partition : group.getPartitions()) {
+                partitions.add(partition.withTimeLag(timeLag(partition, now, requested)));
+            }
+            groups.put(group.getGroupId(), new LagSnapshot.GroupLag(group.getGroupId(), partitions));
+        }
+        synchronized (this) {
+            // Offsets no group sits at any more are not worth a fetch; the rest keep their place
+            pending.retainAll(requested);
+        }
+        return new LagSnapshot(now, groups);
+    }
+
+    /**
+     * Fetch record timestamps for the offsets the last estimate could not date, oldest request
+     * first, until the budget is spent. Offsets left over are retried after the next estimate.
+     * Returns how many timestamps were fetched.
+     */
+    public int fetchPending(long budgetMillis) {
+        if (lookup == null) {
+            return 0;
+        }
+        long deadline = System.currentTimeMillis() + budgetMillis;
+        int done = 0;
+        while (System.currentTimeMillis() < deadline) {
+            PartitionOffset next;
+            synchronized (this) {
+                Iterator<PartitionOffset> iterator = pending.iterator();
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                next = iterator.next();
+                iterator.remove();
+            }
+            try {
+                long timestamp = lookup.timestampAt(next.partition(), next.offset());
+                synchronized (this) {
+                    NavigableMap<Long, Long> known = fetched.computeIfAbsent(next.partition(), ignored -> new TreeMap<>());
+                    known.put(next.offset(), timestamp);
+                    if (known.size() > FETCHED_PER_PARTITION) {
+                        // Groups move forward and retention removes the lowest offsets first
+                        known.pollFirstEntry();
+                    }
+                }
+                done++;
+            } catch (Exception e) {
+                logger.debug("Could not fetch timestamp of {} at offset {}: {}", 
+                    next.partition(), next.offset(), e.getMessage());
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Offsets waiting for {@link #fetchPending}
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    private long timeLag(LagSnapshot.PartitionLag partition, long now, Set<PartitionOffset> requested) {
+        long lag = partition.getLag();
+        if (lag <= 0) {
+            return lag;
+        }
+        TopicPartition topicPartition = new TopicPartition(partition.getTopic(), partition.getPartition());
+        OffsetTimeline timeline = timelines.get(topicPartition);
+        long written = timeline != null ? timeline.estimateTimestamp(partition.getCommittedOffset()) : -1;
+        if (written < 0) {
+            written = fromFetched(topicPartition, partition.getCommittedOffset(), timeline, requested);
+        }
+        return written < 0 ? -1 : Math.max(0, now - written);
+    }
+
+    /**
+     * Date an offset from the records fetched for its partition: exactly when that offset was
+     * fetched, interpolated from the nearest fetched offset below up to the oldest sample when a
+     * group has moved on from it. Otherwise queue a fetch.
+     */
+    private synchronized long fromFetched(TopicPartition partition, long offset, OffsetTimeline timeline,
+                                          Set<PartitionOffset> requested) {
+        NavigableMap<Long, Long> known = fetched.get(partition);
+        if (known != null && known.containsKey(offset)) {
+            return known.get(offset);
+        }
+        Map.Entry<Long, Long> below = known != null ? known.lowerEntry(offset) : null;
+        long[] oldest = timeline != null ? timeline.oldest() : null;
+        if (below != null && below.getValue() >= 0 && oldest != null 
+                && offset < oldest[0] && below.getValue() <= oldest[1]) {
+            double fraction = (double) (offset - below.getKey()) / (oldest[0] - below.getKey());
+            return below.getValue() + Math.round(fraction * (oldest[1] - below.getValue()));
+        }
+        if (lookup != null) {
+            PartitionOffset request = new PartitionOffset(partition, offset);
+            pending.add(request);
+            requested.add(request);
+        }
+        return -1;
+    }
+
+    private record PartitionOffset(TopicPartition partition, long offset) {
+    }
+}
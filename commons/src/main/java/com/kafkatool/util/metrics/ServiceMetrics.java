@@ -0,0 +1,189 @@
+package com.kafkatool.util.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.kafka.KafkaClientMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.Producer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Client-side measurements of the service layer in one Micrometer registry: a timer and an
+ * error counter per service operation, and the built-in metrics of long-lived Kafka clients
+ * tagged with the cluster they talk to. Metrics shown in the UI are read back from here.
+ */
+public class ServiceMetrics {
+
+    public static final String OPERATION_TIMER = "kafkatool.operation";
+    public static final String OPERATION_ERRORS = "kafkatool.operation.errors";
+    public static final String CLUSTER_TAG = "cluster";
+
+    /** Metric group prefixes of the client types, as Micrometer names them */
+    private static final List<String> CLIENT_GROUPS = List.of("admin.client", "consumer", "producer");
+
+    private final MeterRegistry registry;
+
+    public ServiceMetrics() {
+        this(new SimpleMeterRegistry());
+    }
+
+    public ServiceMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Time an asynchronous operation until its future completes, tagged with its outcome
+     */
+    public <T> CompletableFuture<T> time(String operation, Supplier<CompletableFuture<T>> call) {
+        Timer.Sample sample = Timer.start(registry);
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            stop(sample, operation, e);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> stop(sample, operation, error));
+    }
+
+    private void stop(Timer.Sample sample, String operation, Throwable error) {
+        sample.stop(Timer.builder(OPERATION_TIMER)
+            .tags("operation", operation, "outcome", error == null ? "success" : "error")
+            .register(registry));
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            Counter.builder(OPERATION_ERRORS)
+                .tags("operation", operation, "exception", cause.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+        }
+    }
+
+    /**
+     * Bind a client's own metrics until the returned binding is closed
+     */
+    public KafkaClientMetrics bindClient(AdminClient client, String cluster) {
+        return bind(new KafkaClientMetrics(client, clusterTags(cluster)));
+    }
+
+    public KafkaClientMetrics bindClient(Consumer<?, ?> client, String cluster) {
+        return bind(new KafkaClientMetrics(client, clusterTags(cluster)));
+    }
+
+    public KafkaClientMetrics bindClient(Producer<?, ?> client, String cluster) {
+        return bind(new KafkaClientMetrics(client, clusterTags(cluster)));
+    }
+
+    private KafkaClientMetrics bind(KafkaClientMetrics metrics) {
+        metrics.bindTo(registry);
+        return metrics;
+    }
+
+    private static Tags clusterTags(String cluster) {
+        return Tags.of(CLUSTER_TAG, cluster);
+    }
+
+    /**
+     * Sum of a client metric over every client bound for a cluster, e.g. "incoming.byte.rate"
+     * or, with a node.id tag, "node.request.rate" for one broker; idle clients report NaN and
+     * are skipped
+     */
+    public double clientSum(String metric, String cluster, Tag... tags) {
+        return clientValues(metric, cluster, tags).sum();
+    }
+
+    /**
+     * Mean of a client metric over the clients bound for a cluster that have a reading
+     */
+    public double clientMean(String metric, String cluster, Tag... tags) {
+        return clientValues(metric, cluster, tags).average().orElse(0);
+    }
+
+    private DoubleStream clientValues(String metric, String cluster, Tag... tags) {
+        List<String> names = new ArrayList<>();
+        for (String client : CLIENT_GROUPS) {
+            names.add("kafka." + client + "." + metric);
+        }
+        Tags required = Tags.of(tags).and(CLUSTER_TAG, cluster);
+        return registry.getMeters().stream()
+            .filter(meter -> names.contains(meter.getId().getName()))
+            .filter(meter -> required.stream().allMatch(tag -> tag.getValue().equals(meter.getId().getTag(tag.getKey()))))
+            .flatMap(meter -> StreamSupport.stream(meter.measure().spliterator(), false).limit(1))
+            .mapToDouble(Measurement::getValue)
+            .filter(value -> !Double.isNaN(value) && !Double.isInfinite(value));
+    }
+
+    /**
+     * Mean duration of the service operations completed so far, in milliseconds
+     */
+    public double getMeanOperationMillis() {
+        long count = 0;
+        double totalMillis = 0;
+        for (Timer timer : registry.find(OPERATION_TIMER).timers()) {
+            count += timer.count();
+            totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    public long getOperationCount() {
+        return registry.find(OPERATION_TIMER).timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    public long getErrorCount() {
+        return (long) registry.find(OPERATION_ERRORS).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    /**
+     * Wrap a service so that every method returning a CompletableFuture is timed under its
+     * method name; other methods are passed through
+     */
+    @SuppressWarnings("unchecked")
+    public static <S> S instrument(Class<S> type, S target, ServiceMetrics metrics) {
+        return (S) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+                return metrics.time(method.getName(), () -> (CompletableFuture<Object>) invoke(method, target, args));
+            }
+            return invokeUnwrapped(method, target, args);
+        });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) {
+        try {
+            return invokeUnwrapped(method, target, args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static Object invokeUnwrapped(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
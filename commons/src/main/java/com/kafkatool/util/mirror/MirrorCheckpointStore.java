@@ -0,0 +1,68 @@
+package com.kafkatool.util.mirror;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Source offsets a mirror has safely copied, per partition, kept in a small JSON file.
+ * Offsets are only stored after the target acknowledged every record before them, so a
+ * restarted mirror may re-send a few records but never skips any.
+ */
+public class MirrorCheckpointStore {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final File file;
+    private final Map<Integer, Long> offsets = new TreeMap<>();
+
+    public MirrorCheckpointStore(File file) throws IOException {
+        this.file = file;
+        if (file.isFile()) {
+            offsets.putAll(MAPPER.readValue(file, new TypeReference<Map<Integer, Long>>() {}));
+        }
+    }
+
+    /**
+     * Checkpoint file for mirroring a topic between two clusters
+     */
+    public static File fileFor(File directory, String sourceCluster, String targetCluster, String topicName) {
+        return new File(directory, sanitize(sourceCluster) + "__" + sanitize(topicName) + "__" + sanitize(targetCluster) + ".json");
+    }
+
+    /**
+     * Next source offset to copy for a partition, or null if it has never been checkpointed
+     */
+    public synchronized Long get(int partition) {
+        return offsets.get(partition);
+    }
+
+    /**
+     * Merge new positions and rewrite the file through an atomic rename
+     */
+    public synchronized void commit(Map<Integer, Long> positions) throws IOException {
+        offsets.putAll(positions);
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create checkpoint directory " + directory);
+        }
+        Path temp = file.toPath().resolveSibling(file.getName() + ".tmp");
+        MAPPER.writeValue(temp.toFile(), offsets);
+        Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public synchronized Map<Integer, Long> getOffsets() {
+        return new TreeMap<>(offsets);
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
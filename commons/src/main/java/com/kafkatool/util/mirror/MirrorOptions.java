@@ -0,0 +1,69 @@
+package com.kafkatool.util.mirror;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Settings for a mirroring session. Can be built from the string map accepted by
+ * {@code mirrorTopicAsync}, using the keys listed on {@link #fromConfig}.
+ */
+public class MirrorOptions {
+
+    public static final File DEFAULT_CHECKPOINT_DIR = new File(System.getProperty("user.home")
+        + File.separator + ".kafka-ui-tool" + File.separator + "mirror");
+
+    private boolean continuous;
+    private int workers = 4;
+    private boolean startFromLatest;
+    private boolean createTopic = true;
+    private File checkpointDirectory = DEFAULT_CHECKPOINT_DIR;
+    private long checkpointIntervalMillis = 5000;
+
+    /** Keep mirroring new records until stopped, instead of stopping at the end offsets seen at start */
+    public boolean isContinuous() { return continuous; }
+    public void setContinuous(boolean continuous) { this.continuous = continuous; }
+
+    /** Number of consumer/producer pipelines; partitions are spread across them */
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    /** Where partitions without a checkpoint start: the latest offset instead of the earliest */
+    public boolean isStartFromLatest() { return startFromLatest; }
+    public void setStartFromLatest(boolean startFromLatest) { this.startFromLatest = startFromLatest; }
+
+    /** Create the target topic with the source partition count and configs if it does not exist */
+    public boolean isCreateTopic() { return createTopic; }
+    public void setCreateTopic(boolean createTopic) { this.createTopic = createTopic; }
+
+    public File getCheckpointDirectory() { return checkpointDirectory; }
+    public void setCheckpointDirectory(File checkpointDirectory) { this.checkpointDirectory = checkpointDirectory; }
+
+    public long getCheckpointIntervalMillis() { return checkpointIntervalMillis; }
+    public void setCheckpointIntervalMillis(long checkpointIntervalMillis) { this.checkpointIntervalMillis = checkpointIntervalMillis; }
+
+    /**
+     * Read options from a config map with the keys "mode" (bounded or continuous), "workers",
+     * "start" (earliest or latest), "create.topic", "checkpoint.dir" and "checkpoint.interval.ms"
+     */
+    public static MirrorOptions fromConfig(Map<String, String> config) {
+        MirrorOptions options = new MirrorOptions();
+        if (config == null) {
+            return options;
+        }
+        options.setContinuous("continuous".equalsIgnoreCase(config.get("mode")));
+        options.setStartFromLatest("latest".equalsIgnoreCase(config.get("start")));
+        if (config.containsKey("workers")) {
+            options.setWorkers(Integer.parseInt(config.get("workers")));
+        }
+        if (config.containsKey("create.topic")) {
+            options.setCreateTopic(Boolean.parseBoolean(config.get("create.topic")));
+        }
+        if (config.containsKey("checkpoint.dir")) {
+            options.setCheckpointDirectory(new File(config.get("checkpoint.dir")));
+        }
+        if (config.containsKey("checkpoint.interval.ms")) {
+            options.setCheckpointIntervalMillis(Long.parseLong(config.get("checkpoint.interval.ms")));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,149 @@
+package com.kafkatool.util.mirror;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.Producer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * A running mirror of one topic: partitions are spread round-robin over a fixed number of
+ * {@link MirrorWorker}s, each with its own consumer and producer. Per-partition lag and
+ * throughput can be read while it runs; a failing worker stops the others.
+ */
+public class MirrorSession implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MirrorSession.class);
+
+    private final String sourceTopic;
+    private final Map<Integer, PartitionMirrorStats> stats = new TreeMap<>();
+    private final List<MirrorWorker> workers = new ArrayList<>();
+    private final ExecutorService executor;
+    private CompletableFuture<Void> completion;
+
+    public MirrorSession(String sourceTopic, String targetTopic, List<Integer> partitions, MirrorOptions options,
+                         MirrorCheckpointStore checkpoints,
+                         Supplier<Consumer<byte[], byte[]>> consumerFactory,
+                         Supplier<Producer<byte[], byte[]>> producerFactory) {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("Topic " + sourceTopic + " has no partitions to mirror");
+        }
+        this.sourceTopic = sourceTopic;
+        for (int partition : partitions) {
+            stats.put(partition, new PartitionMirrorStats(partition));
+        }
+
+        int workerCount = Math.max(1, Math.min(options.getWorkers(), partitions.size()));
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            groups.get(i % workerCount).add(partitions.get(i));
+        }
+        try {
+            for (List<Integer> group : groups) {
+                Consumer<byte[], byte[]> consumer = consumerFactory.get();
+                Producer<byte[], byte[]> producer;
+                try {
+                    producer = producerFactory.get();
+                } catch (RuntimeException e) {
+                    consumer.close();
+                    throw e;
+                }
+                workers.add(new MirrorWorker(consumer, producer, sourceTopic, targetTopic,
+                    group, Collections.unmodifiableMap(stats), checkpoints, options));
+            }
+        } catch (RuntimeException e) {
+            // Workers close their clients when they finish running, and these never will
+            closeWorkerClients();
+            throw e;
+        }
+        this.executor = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "mirror-" + sourceTopic);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized MirrorSession start() {
+        if (completion == null) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (MirrorWorker worker : workers) {
+                futures.add(CompletableFuture.runAsync(worker, executor).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        logger.error("Mirror worker for {} failed: {}", sourceTopic, error.getMessage());
+                        stop();
+                    }
+                }));
+            }
+            completion = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, error) -> executor.shutdown());
+        }
+        return this;
+    }
+
+    /**
+     * Completes when every worker has stopped: at the end offsets in bounded mode, or after {@link #stop()}
+     */
+    public synchronized CompletableFuture<Void> getCompletion() {
+        if (completion == null) {
+            throw new IllegalStateException("Mirror session has not been started");
+        }
+        return completion;
+    }
+
+    /**
+     * Stop all workers; each checkpoints its positions before exiting
+     */
+    public void stop() {
+        for (MirrorWorker worker : workers) {
+            worker.stop();
+        }
+    }
+
+    public List<PartitionMirrorStats> getStats() {
+        return new ArrayList<>(stats.values());
+    }
+
+    /**
+     * Sum of the known per-partition lags
+     */
+    public long getTotalLag() {
+        return stats.values().stream().mapToLong(PartitionMirrorStats::getLag).filter(lag -> lag > 0).sum();
+    }
+
+    public double getMessagesPerSecond() {
+        return stats.values().stream().mapToDouble(PartitionMirrorStats::getMessagesPerSecond).sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        stop();
+        if (completion != null) {
+            completion.exceptionally(error -> null).join();
+        } else {
+            closeWorkerClients();
+        }
+        executor.shutdownNow();
+    }
+
+    private void closeWorkerClients() {
+        for (MirrorWorker worker : workers) {
+            try {
+                worker.closeClients();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to close mirror clients for {}: {}", sourceTopic, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.kafkatool.util.mirror;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One consumer/producer pipeline that copies a group of partitions byte for byte into the
+ * same partition numbers of the target topic. Source positions are checkpointed after a
+ * producer flush, so everything before a checkpoint is known to be on the target.
+ */
+public class MirrorWorker implements Runnable {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final Consumer<byte[], byte[]> consumer;
+    private final Producer<byte[], byte[]> producer;
+    private final String sourceTopic;
+    private final String targetTopic;
+    private final List<TopicPartition> partitions = new ArrayList<>();
+    private final Map<Integer, PartitionMirrorStats> stats;
+    private final MirrorCheckpointStore checkpoints;
+    private final MirrorOptions options;
+    private final AtomicReference<Exception> sendFailure = new AtomicReference<>();
+    private volatile boolean running = true;
+
+    public MirrorWorker(Consumer<byte[], byte[]> consumer, Producer<byte[], byte[]> producer,
+                        String sourceTopic, String targetTopic, List<Integer> partitions,
+                        Map<Integer, PartitionMirrorStats> stats, MirrorCheckpointStore checkpoints,
+                        MirrorOptions options) {
+        this.consumer = consumer;
+        this.producer = producer;
+        this.sourceTopic = sourceTopic;
+        this.targetTopic = targetTopic;
+        for (int partition : partitions) {
+            this.partitions.add(new TopicPartition(sourceTopic, partition));
+        }
+        this.stats = stats;
+        this.checkpoints = checkpoints;
+        this.options = options;
+    }
+
+    /**
+     * Ask the worker to checkpoint and exit after its current poll
+     */
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        try {
+            mirror();
+        } catch (Exception e) {
+            throw new RuntimeException("Mirroring " + sourceTopic + " failed: " + e.getMessage(), e);
+        } finally {
+            closeClients();
+        }
+    }
+
+    /**
+     * Release the consumer and producer; {@link #run()} does this itself when it exits
+     */
+    void closeClients() {
+        try {
+            consumer.close();
+        } finally {
+            producer.close();
+        }
+    }
+
+    private void mirror() throws IOException {
+        consumer.assign(partitions);
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+        seekToStart();
+
+        List<TopicPartition> active = new ArrayList<>(partitions);
+        long lastCheckpoint = System.currentTimeMillis();
+        while (running && !active.isEmpty()) {
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+            for (TopicPartition partition : records.partitions()) {
+                PartitionMirrorStats partitionStats = stats.get(partition.partition());
+                for (ConsumerRecord<byte[], byte[]> record : records.records(partition)) {
+                    long bytes = Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+                    producer.send(new ProducerRecord<>(targetTopic, record.partition(), record.timestamp(),
+                        record.key(), record.value(), record.headers()), (metadata, exception) -> {
+                            if (exception != null) {
+                                sendFailure.compareAndSet(null, exception);
+                            } else {
+                                partitionStats.recordMirrored(1, bytes);
+                            }
+                        });
+                }
+            }
+            checkSendFailure();
+
+            if (!options.isContinuous()) {
+                // Bounded mode stops each partition at the end offset seen when mirroring started
+                List<TopicPartition> done = new ArrayList<>();
+                for (TopicPartition partition : active) {
+                    if (consumer.position(partition) >= endOffsets.get(partition)) {
+                        done.add(partition);
+                    }
+                }
+                consumer.pause(done);
+                active.removeAll(done);
+            }
+            updateStats();
+
+            if (System.currentTimeMillis() - lastCheckpoint >= options.getCheckpointIntervalMillis()) {
+                checkpoint();
+                lastCheckpoint = System.currentTimeMillis();
+            }
+        }
+        checkpoint();
+        for (TopicPartition partition : partitions) {
+            if (!active.contains(partition)) {
+                stats.get(partition.partition()).markFinished();
+            }
+        }
+    }
+
+    private void seekToStart() {
+        List<TopicPartition> unseen = new ArrayList<>();
+        for (TopicPartition partition : partitions) {
+            Long saved = checkpoints.get(partition.partition());
+            if (saved != null) {
+                consumer.seek(partition, saved);
+            } else {
+                unseen.add(partition);
+            }
+        }
+        if (!unseen.isEmpty()) {
+            if (options.isStartFromLatest()) {
+                consumer.seekToEnd(unseen);
+            } else {
+                consumer.seekToBeginning(unseen);
+            }
+        }
+    }
+
+    private void updateStats() {
+        for (TopicPartition partition : partitions) {
+            OptionalLong lag = consumer.currentLag(partition);
+            stats.get(partition.partition()).update(consumer.position(partition), lag.isPresent() ? lag.getAsLong() : -1);
+        }
+    }
+
+    /**
+     * Wait for every in-flight record to be acknowledged, then store the consumer positions
+     */
+    private void checkpoint() throws IOException {
+        producer.flush();
+        checkSendFailure();
+        Map<Integer, Long> positions = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            positions.put(partition.partition(), consumer.position(partition));
+        }
+        checkpoints.commit(positions);
+    }
+
+    private void checkSendFailure() throws IOException {
+        Exception failure = sendFailure.get();
+        if (failure != null) {
+            // Stop rather than checkpoint past a record that never reached the target
+            throw new IOException("Failed to write to " + targetTopic + ": " + failure.getMessage(), failure);
+        }
+    }
+}
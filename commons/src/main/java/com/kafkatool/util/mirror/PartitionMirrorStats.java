@@ -0,0 +1,55 @@
+package com.kafkatool.util.mirror;
+
+/**
+ * Live counters for one mirrored partition. Written by the worker that owns the
+ * partition, the mirrored counts from its producer's callbacks, and safe to read from any thread.
+ */
+public class PartitionMirrorStats {
+
+    private final int partition;
+    private final long startTimeMillis = System.currentTimeMillis();
+    private volatile long mirrored;
+    private volatile long bytes;
+    private volatile long position = -1;
+    private volatile long lag = -1;
+    private volatile boolean finished;
+
+    public PartitionMirrorStats(int partition) {
+        this.partition = partition;
+    }
+
+    void recordMirrored(long count, long byteCount) {
+        mirrored += count;
+        bytes += byteCount;
+    }
+
+    void update(long position, long lag) {
+        this.position = position;
+        this.lag = lag;
+    }
+
+    void markFinished() {
+        finished = true;
+    }
+
+    public int getPartition() { return partition; }
+    /** Records acknowledged by the target cluster */
+    public long getMirrored() { return mirrored; }
+    /** Key and value bytes of the acknowledged records */
+    public long getBytes() { return bytes; }
+    /** Next source offset to be read */
+    public long getPosition() { return position; }
+    /** Records behind the source log end, or -1 when unknown */
+    public long getLag() { return lag; }
+    public boolean isFinished() { return finished; }
+
+    public double getMessagesPerSecond() {
+        long elapsed = System.currentTimeMillis() - startTimeMillis;
+        return elapsed > 0 ? mirrored * 1000.0 / elapsed : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("partition %d: %d mirrored, lag %d, %.0f msg/s", partition, mirrored, lag, getMessagesPerSecond());
+    }
+}
@@ -0,0 +1,156 @@
+package com.kafkatool.util.offsets;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsSpec;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Resets the offsets of many consumer groups on many topics in one operation. The plan is
+ * built from a fixed number of batched admin calls however many groups are involved: one
+ * describe for the topics, one committed-offset lookup for all groups and one listOffsets
+ * per offset kind. Applying it sends every group's alterConsumerGroupOffsets at once and
+ * records the outcome per group, so one busy group does not stop the others.
+ */
+public class BulkOffsetReset {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOffsetReset.class);
+
+    private final Admin admin;
+
+    public BulkOffsetReset(Admin admin) {
+        this.admin = admin;
+    }
+
+    /**
+     * Plan the reset and, unless it is a dry run, apply it
+     *
+     * @param topics topics to reset; when empty each group resets the topics it has committed offsets for
+     */
+    public OffsetResetPlan reset(List<String> groupIds, List<String> topics, OffsetResetOptions options) throws Exception {
+        OffsetResetPlan plan = plan(groupIds, topics, options);
+        if (!options.isDryRun()) {
+            apply(plan);
+        }
+        return plan;
+    }
+
+    public OffsetResetPlan plan(List<String> groupIds, List<String> topics, OffsetResetOptions options) throws Exception {
+        if (groupIds == null || groupIds.isEmpty()) {
+            throw new IllegalArgumentException("No consumer groups to reset");
+        }
+        if (options.getStrategy() == OffsetResetOptions.Strategy.TIMESTAMP && options.getTimestamp() < 0) {
+            throw new IllegalArgumentException("A timestamp is required to reset offsets by time");
+        }
+
+        List<TopicPartition> partitions = new ArrayList<>();
+        if (topics != null && !topics.isEmpty()) {
+            Map<String, TopicDescription> descriptions = admin.describeTopics(topics).allTopicNames().get();
+            for (TopicDescription description : descriptions.values()) {
+                for (TopicPartitionInfo info : description.partitions()) {
+                    partitions.add(new TopicPartition(description.name(), info.partition()));
+                }
+            }
+        }
+
+        Map<String, ListConsumerGroupOffsetsSpec> specs = new LinkedHashMap<>();
+        for (String groupId : groupIds) {
+            specs.put(groupId, new ListConsumerGroupOffsetsSpec());
+        }
+        Map<String, Map<TopicPartition, Long>> committed = new HashMap<>();
+        Set<TopicPartition> involved = new HashSet<>(partitions);
+        admin.listConsumerGroupOffsets(specs).all().get().forEach((groupId, offsets) -> {
+            Map<TopicPartition, Long> groupOffsets = new HashMap<>();
+            offsets.forEach((partition, offset) -> {
+                if (offset != null) {
+                    groupOffsets.put(partition, offset.offset());
+                }
+            });
+            committed.put(groupId, groupOffsets);
+            if (partitions.isEmpty()) {
+                involved.addAll(groupOffsets.keySet());
+            }
+        });
+
+        Map<TopicPartition, Long> earliest = listOffsets(involved, OffsetSpec::earliest);
+        Map<TopicPartition, Long> latest = listOffsets(involved, OffsetSpec::latest);
+        Map<TopicPartition, Long> byTimestamp = options.getStrategy() == OffsetResetOptions.Strategy.TIMESTAMP
+            ? listOffsets(involved, () -> OffsetSpec.forTimestamp(options.getTimestamp())) : Map.of();
+
+        return OffsetResetPlan.build(groupIds, partitions, options, committed, earliest, latest, byTimestamp);
+    }
+
+    /**
+     * Commit the planned offsets of every group concurrently; groups with nothing to reset
+     * are marked applied without a call
+     */
+    public void apply(OffsetResetPlan plan) {
+        Map<OffsetResetPlan.GroupReset, KafkaFuture<Void>> pending = new LinkedHashMap<>();
+        for (OffsetResetPlan.GroupReset group : plan.getGroups()) {
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            for (OffsetResetPlan.PartitionReset partition : group.getPartitions()) {
+                offsets.put(new TopicPartition(partition.getTopic(), partition.getPartition()),
+                    new OffsetAndMetadata(partition.getTargetOffset()));
+            }
+            if (offsets.isEmpty()) {
+                group.markApplied();
+            } else {
+                pending.put(group, admin.alterConsumerGroupOffsets(group.getGroupId(), offsets).all());
+            }
+        }
+        for (Map.Entry<OffsetResetPlan.GroupReset, KafkaFuture<Void>> entry : pending.entrySet()) {
+            OffsetResetPlan.GroupReset group = entry.getKey();
+            try {
+                entry.getValue().get();
+                group.markApplied();
+                logger.info("Reset {} partitions of consumer group {}", group.getPartitions().size(), group.getGroupId());
+            } catch (ExecutionException e) {
+                // Usually the group still has active members, which must stop before offsets can move
+                logger.error("Failed to reset offsets for consumer group {}: {}", group.getGroupId(), e.getCause().getMessage());
+                group.markFailed(e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.markFailed("Interrupted");
+            }
+        }
+    }
+
+    private Map<TopicPartition, Long> listOffsets(Set<TopicPartition> partitions,
+                                                  Supplier<OffsetSpec> spec) throws InterruptedException {
+        Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            request.put(partition, spec.get());
+        }
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        if (request.isEmpty()) {
+            return offsets;
+        }
+        ListOffsetsResult result = admin.listOffsets(request);
+        for (TopicPartition partition : partitions) {
+            try {
+                offsets.put(partition, result.partitionResult(partition).get().offset());
+            } catch (ExecutionException e) {
+                // Groups keep offsets for deleted topics; those partitions are left out of the plan
+                logger.debug("No offsets for {}: {}", partition, e.getCause().getMessage());
+            }
+        }
+        return offsets;
+    }
+}
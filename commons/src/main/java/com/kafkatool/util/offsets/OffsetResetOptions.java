@@ -0,0 +1,45 @@
+package com.kafkatool.util.offsets;
+
+/**
+ * How to move consumer group offsets in a bulk reset
+ */
+public class OffsetResetOptions {
+
+    public enum Strategy {
+        /** Oldest offset still in the log */
+        EARLIEST,
+        /** Log end offset, skipping everything not yet consumed */
+        LATEST,
+        /** First offset whose record timestamp is at or after {@link #getTimestamp()} */
+        TIMESTAMP,
+        /** Committed offset moved by {@link #getShiftBy()}, which may be negative */
+        SHIFT
+    }
+
+    private Strategy strategy = Strategy.EARLIEST;
+    private long timestamp = -1;
+    private long shiftBy;
+    private boolean dryRun = true;
+
+    public Strategy getStrategy() { return strategy; }
+    public void setStrategy(Strategy strategy) { this.strategy = strategy; }
+
+    /** Epoch milliseconds for {@link Strategy#TIMESTAMP} */
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+    /** Offsets to move each partition by for {@link Strategy#SHIFT} */
+    public long getShiftBy() { return shiftBy; }
+    public void setShiftBy(long shiftBy) { this.shiftBy = shiftBy; }
+
+    /** Only work out the target offsets; nothing is committed. On by default. */
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+
+    public static OffsetResetOptions of(Strategy strategy, boolean dryRun) {
+        OffsetResetOptions options = new OffsetResetOptions();
+        options.setStrategy(strategy);
+        options.setDryRun(dryRun);
+        return options;
+    }
+}
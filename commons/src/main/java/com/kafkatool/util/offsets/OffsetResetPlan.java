@@ -0,0 +1,159 @@
+package com.kafkatool.util.offsets;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Target offsets for every partition of every group in a bulk reset, and after it has been
+ * applied, the outcome for each group. Targets are always clamped to the offsets the log
+ * currently holds.
+ */
+public class OffsetResetPlan {
+
+    public enum Status { PLANNED, APPLIED, FAILED }
+
+    private final OffsetResetOptions.Strategy strategy;
+    private final boolean dryRun;
+    private final long createdAt;
+    private final List<GroupReset> groups;
+
+    public OffsetResetPlan(OffsetResetOptions.Strategy strategy, boolean dryRun, long createdAt, List<GroupReset> groups) {
+        this.strategy = strategy;
+        this.dryRun = dryRun;
+        this.createdAt = createdAt;
+        this.groups = groups;
+    }
+
+    /**
+     * Work out the target offsets from offsets already fetched from the cluster. Groups reset
+     * the given partitions, or the partitions they have committed offsets for when none are
+     * given; partitions without log offsets (deleted topics) are left out.
+     *
+     * @param timestampOffsets first offset at or after the requested timestamp, or -1 past the end of the log
+     */
+    public static OffsetResetPlan build(List<String> groupIds, Collection<TopicPartition> partitions,
+                                        OffsetResetOptions options,
+                                        Map<String, Map<TopicPartition, Long>> committed,
+                                        Map<TopicPartition, Long> earliest, Map<TopicPartition, Long> latest,
+                                        Map<TopicPartition, Long> timestampOffsets) {
+        List<GroupReset> groups = new ArrayList<>();
+        for (String groupId : groupIds) {
+            Map<TopicPartition, Long> groupCommitted = committed.getOrDefault(groupId, Collections.emptyMap());
+            Collection<TopicPartition> targets = partitions != null && !partitions.isEmpty()
+                ? partitions : groupCommitted.keySet();
+            List<PartitionReset> resets = new ArrayList<>();
+            for (TopicPartition partition : targets) {
+                Long start = earliest.get(partition);
+                Long end = latest.get(partition);
+                if (start == null || end == null) {
+                    continue;
+                }
+                Long current = groupCommitted.get(partition);
+                long target;
+                switch (options.getStrategy()) {
+                    case LATEST:
+                        target = end;
+                        break;
+                    case TIMESTAMP:
+                        Long found = timestampOffsets.get(partition);
+                        target = found != null && found >= 0 ? found : end;
+                        break;
+                    case SHIFT:
+                        if (current == null) {
+                            // Nothing to shift from
+                            continue;
+                        }
+                        target = current + options.getShiftBy();
+                        break;
+                    default:
+                        target = start;
+                        break;
+                }
+                target = Math.max(start, Math.min(end, target));
+                resets.add(new PartitionReset(partition.topic(), partition.partition(), current != null ? current : -1, target));
+            }
+            resets.sort(Comparator.comparing(PartitionReset::getTopic).thenComparingInt(PartitionReset::getPartition));
+            groups.add(new GroupReset(groupId, resets));
+        }
+        return new OffsetResetPlan(options.getStrategy(), options.isDryRun(), System.currentTimeMillis(), groups);
+    }
+
+    public OffsetResetOptions.Strategy getStrategy() { return strategy; }
+    public boolean isDryRun() { return dryRun; }
+    public long getCreatedAt() { return createdAt; }
+    public List<GroupReset> getGroups() { return groups; }
+
+    public GroupReset getGroup(String groupId) {
+        return groups.stream().filter(group -> group.getGroupId().equals(groupId)).findFirst().orElse(null);
+    }
+
+    public long getFailedGroups() {
+        return groups.stream().filter(group -> group.getStatus() == Status.FAILED).count();
+    }
+
+    /**
+     * New offsets for one consumer group
+     */
+    public static class GroupReset {
+        private final String groupId;
+        private final List<PartitionReset> partitions;
+        private volatile Status status = Status.PLANNED;
+        private volatile String error;
+
+        public GroupReset(String groupId, List<PartitionReset> partitions) {
+            this.groupId = groupId;
+            this.partitions = partitions;
+        }
+
+        public String getGroupId() { return groupId; }
+        public List<PartitionReset> getPartitions() { return partitions; }
+        public Status getStatus() { return status; }
+        /** Why the group could not be reset, for example because it still has active members */
+        public String getError() { return error; }
+
+        /** Sum of the offset changes; negative when the group is moved back to re-read records */
+        public long getTotalDelta() {
+            return partitions.stream().mapToLong(PartitionReset::getDelta).sum();
+        }
+
+        void markApplied() {
+            status = Status.APPLIED;
+        }
+
+        void markFailed(String error) {
+            this.status = Status.FAILED;
+            this.error = error;
+        }
+    }
+
+    public static class PartitionReset {
+        private final String topic;
+        private final int partition;
+        private final long currentOffset;
+        private final long targetOffset;
+
+        public PartitionReset(String topic, int partition, long currentOffset, long targetOffset) {
+            this.topic = topic;
+            this.partition = partition;
+            this.currentOffset = currentOffset;
+            this.targetOffset = targetOffset;
+        }
+
+        public String getTopic() { return topic; }
+        public int getPartition() { return partition; }
+        /** Committed offset before the reset, or -1 if the group had none */
+        public long getCurrentOffset() { return currentOffset; }
+        public long getTargetOffset() { return targetOffset; }
+
+        /** Change from the committed offset, or 0 if there was none */
+        public long getDelta() {
+            return currentOffset < 0 ? 0 : targetOffset - currentOffset;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.kafkatool.util.offsets;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the points in time an offset reset can target: epoch milliseconds, a datetime, or a
+ * duration before now such as "-15m", "1h30m" or "PT2H"
+ */
+public final class OffsetResetTime {
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)\\s*(ms|d|h|m|s)");
+    private static final DateTimeFormatter LOCAL_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private OffsetResetTime() {
+    }
+
+    /**
+     * Parse a duration. A leading minus sign is allowed and ignored: durations always
+     * mean that long before now.
+     */
+    public static Duration parseDuration(String value) {
+        String text = value == null ? "" : value.trim().toLowerCase();
+        if (text.startsWith("-")) {
+            text = text.substring(1).trim();
+        }
+        if (text.startsWith("p")) {
+            try {
+                return Duration.parse(text.toUpperCase());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid duration: " + value);
+            }
+        }
+        Matcher matcher = DURATION.matcher(text);
+        Duration duration = Duration.ZERO;
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            long amount = Long.parseLong(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "d":
+                    duration = duration.plusDays(amount);
+                    break;
+                case "h":
+                    duration = duration.plusHours(amount);
+                    break;
+                case "m":
+                    duration = duration.plusMinutes(amount);
+                    break;
+                case "s":
+                    duration = duration.plusSeconds(amount);
+                    break;
+                default:
+                    duration = duration.plusMillis(amount);
+                    break;
+            }
+            end = matcher.end();
+        }
+        if (end == 0 || end != text.length()) {
+            throw new IllegalArgumentException("Invalid duration: " + value + " (expected e.g. 15m, 1h30m or 2d)");
+        }
+        return duration;
+    }
+
+    /**
+     * Parse epoch milliseconds, an ISO-8601 instant or offset datetime, or a local datetime
+     * ("yyyy-MM-dd HH:mm:ss" or ISO) in the system time zone
+     */
+    public static long parseTimestamp(String value) {
+        String text = value == null ? "" : value.trim();
+        if (text.matches("\\d+")) {
+            return Long.parseLong(text);
+        }
+        try {
+            return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ignored) {
+            // Not an offset datetime; try the other forms
+        }
+        try {
+            return Instant.parse(text).toEpochMilli();
+        } catch (DateTimeParseException ignored) {
+            // Not an instant
+        }
+        try {
+            LocalDateTime local = text.contains("T") ? LocalDateTime.parse(text) : LocalDateTime.parse(text, LOCAL_DATETIME);
+            return local.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid timestamp: " + value + " (expected yyyy-MM-dd HH:mm:ss, ISO-8601 or epoch millis)");
+        }
+    }
+
+    /**
+     * The epoch millisecond timestamp a duration before the given time
+     */
+    public static long before(long now, String duration) {
+        return now - parseDuration(duration).toMillis();
+    }
+}
@@ -0,0 +1,109 @@
+package com.kafkatool.util.replay;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copies an offset range of one partition to a target topic as raw bytes. Keys, values and
+ * headers are passed through untouched, records are sent as soon as they are polled, and
+ * optional token buckets cap the message and byte rates so a replay can run alongside
+ * production traffic.
+ */
+public class ReplayEngine {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+    private static final int MAX_EMPTY_POLLS = 50;
+
+    private final Consumer<byte[], byte[]> consumer;
+    private final Producer<byte[], byte[]> producer;
+    private final ReplayOptions options;
+
+    public ReplayEngine(Consumer<byte[], byte[]> consumer, Producer<byte[], byte[]> producer, ReplayOptions options) {
+        this.consumer = consumer;
+        this.producer = producer;
+        this.options = options != null ? options : new ReplayOptions();
+    }
+
+    /**
+     * Replay the inclusive offset range, clamped to what the partition currently holds,
+     * and return the final progress once every record is acknowledged or failed
+     */
+    public ReplayProgress replay(String sourceTopic, int sourcePartition, long fromOffset, long toOffset,
+                                 String targetTopic) throws InterruptedException {
+        TopicPartition source = new TopicPartition(sourceTopic, sourcePartition);
+        consumer.assign(Collections.singleton(source));
+        long beginningOffset = consumer.beginningOffsets(Collections.singleton(source)).get(source);
+        long endOffset = consumer.endOffsets(Collections.singleton(source)).get(source);
+        long firstOffset = Math.max(fromOffset, beginningOffset);
+        long lastOffset = Math.min(toOffset, endOffset - 1);
+        long total = Math.max(0, lastOffset - firstOffset + 1);
+        consumer.seek(source, firstOffset);
+
+        Integer targetPartition = options.getPartitionMapping() != null
+            ? options.getPartitionMapping().get(sourcePartition) : null;
+        TokenBucket messageLimit = options.getMaxMessagesPerSecond() > 0
+            ? new TokenBucket(options.getMaxMessagesPerSecond()) : null;
+        TokenBucket byteLimit = options.getMaxBytesPerSecond() > 0
+            ? new TokenBucket(options.getMaxBytesPerSecond()) : null;
+
+        AtomicLong replayed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        long startTime = System.currentTimeMillis();
+        long lastReport = startTime;
+
+        int emptyPolls = 0;
+        while (total > 0 && consumer.position(source) <= lastOffset && emptyPolls < MAX_EMPTY_POLLS) {
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+            emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+            for (ConsumerRecord<byte[], byte[]> record : records) {
+                if (record.offset() > lastOffset) {
+                    break;
+                }
+                long size = Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+                if (messageLimit != null) {
+                    messageLimit.acquire(1);
+                }
+                if (byteLimit != null) {
+                    byteLimit.acquire(size);
+                }
+                ProducerRecord<byte[], byte[]> outgoing = new ProducerRecord<>(targetTopic, targetPartition,
+                    null, record.key(), record.value(), record.headers());
+                producer.send(outgoing, (metadata, exception) -> {
+                    if (exception == null) {
+                        replayed.incrementAndGet();
+                        bytes.addAndGet(size);
+                    } else {
+                        failed.incrementAndGet();
+                        firstError.compareAndSet(null, exception.getMessage());
+                    }
+                });
+            }
+
+            long now = System.currentTimeMillis();
+            if (options.getProgressListener() != null && now - lastReport >= options.getProgressIntervalMillis()) {
+                options.getProgressListener().accept(new ReplayProgress(replayed.get(), failed.get(), bytes.get(),
+                    total, now - startTime, firstError.get()));
+                lastReport = now;
+            }
+        }
+        producer.flush();
+
+        ReplayProgress result = new ReplayProgress(replayed.get(), failed.get(), bytes.get(), total,
+            System.currentTimeMillis() - startTime, firstError.get());
+        if (options.getProgressListener() != null) {
+            options.getProgressListener().accept(result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,38 @@
+package com.kafkatool.util.replay;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Optional settings for a replay: partition mapping, rate limits and a progress listener
+ */
+public class ReplayOptions {
+
+    private Map<Integer, Integer> partitionMapping = new HashMap<>();
+    private double maxMessagesPerSecond;
+    private double maxBytesPerSecond;
+    private long progressIntervalMillis = 1000;
+    private Consumer<ReplayProgress> progressListener;
+
+    /**
+     * Source partition to target partition; unmapped partitions are assigned by the
+     * producer's partitioner from the record key
+     */
+    public Map<Integer, Integer> getPartitionMapping() { return partitionMapping; }
+    public void setPartitionMapping(Map<Integer, Integer> partitionMapping) { this.partitionMapping = partitionMapping; }
+
+    /** Message rate limit; 0 or less means unlimited */
+    public double getMaxMessagesPerSecond() { return maxMessagesPerSecond; }
+    public void setMaxMessagesPerSecond(double maxMessagesPerSecond) { this.maxMessagesPerSecond = maxMessagesPerSecond; }
+
+    /** Key plus value byte rate limit; 0 or less means unlimited */
+    public double getMaxBytesPerSecond() { return maxBytesPerSecond; }
+    public void setMaxBytesPerSecond(double maxBytesPerSecond) { this.maxBytesPerSecond = maxBytesPerSecond; }
+
+    public long getProgressIntervalMillis() { return progressIntervalMillis; }
+    public void setProgressIntervalMillis(long progressIntervalMillis) { this.progressIntervalMillis = progressIntervalMillis; }
+
+    public Consumer<ReplayProgress> getProgressListener() { return progressListener; }
+    public void setProgressListener(Consumer<ReplayProgress> progressListener) { this.progressListener = progressListener; }
+}
@@ -0,0 +1,59 @@
+package com.kafkatool.util.replay;
+
+/**
+ * Snapshot of a running or finished replay, with throughput and estimated time remaining
+ */
+public class ReplayProgress {
+
+    private final long replayed;
+    private final long failed;
+    private final long bytes;
+    private final long total;
+    private final long elapsedMillis;
+    private final String firstError;
+
+    public ReplayProgress(long replayed, long failed, long bytes, long total, long elapsedMillis, String firstError) {
+        this.replayed = replayed;
+        this.failed = failed;
+        this.bytes = bytes;
+        this.total = total;
+        this.elapsedMillis = elapsedMillis;
+        this.firstError = firstError;
+    }
+
+    /** Records acknowledged by the target cluster */
+    public long getReplayed() { return replayed; }
+    public long getFailed() { return failed; }
+    /** Key and value bytes of acknowledged records */
+    public long getBytes() { return bytes; }
+    /** Records in the source range when the replay started */
+    public long getTotal() { return total; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public String getFirstError() { return firstError; }
+
+    public double getMessagesPerSecond() {
+        return elapsedMillis > 0 ? replayed * 1000.0 / elapsedMillis : 0;
+    }
+
+    public double getBytesPerSecond() {
+        return elapsedMillis > 0 ? bytes * 1000.0 / elapsedMillis : 0;
+    }
+
+    /**
+     * Seconds left at the current rate, or -1 while no rate is known yet
+     */
+    public long getEtaSeconds() {
+        double rate = getMessagesPerSecond();
+        if (rate <= 0) {
+            return -1;
+        }
+        long remaining = Math.max(0, total - replayed - failed);
+        return (long) Math.ceil(remaining / rate);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Replayed %d/%d messages (%d failed), %.0f msg/s, %.1f KB/s, ETA %ds",
+            replayed, total, failed, getMessagesPerSecond(), getBytesPerSecond() / 1024, getEtaSeconds());
+    }
+}
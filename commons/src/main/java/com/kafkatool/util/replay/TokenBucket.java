@@ -0,0 +1,58 @@
+package com.kafkatool.util.replay;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket rate limiter. Tokens refill continuously at the configured rate up to a burst
+ * capacity; taking more tokens than are available puts the bucket into debt and the caller
+ * waits until the debt is repaid, so oversized requests are still limited on average.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Bucket allowing bursts of up to one second's worth of permits
+     */
+    public TokenBucket(double permitsPerSecond) {
+        this(permitsPerSecond, permitsPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, double capacity, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Take permits without blocking and return how many nanoseconds the caller must wait
+     * before acting on them
+     */
+    public synchronized long reserve(long permits) {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+
+    /**
+     * Take permits, sleeping as long as needed to stay within the rate
+     */
+    public void acquire(long permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
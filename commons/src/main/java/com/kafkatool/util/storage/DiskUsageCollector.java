@@ -0,0 +1,82 @@
+package com.kafkatool.util.storage;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.LogDirDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Collects the disk usage of one cluster with a single describeLogDirs call covering every
+ * broker, and caches the result: replica sizes change slowly and the call makes every broker
+ * walk its log dirs, so callers within the cache interval share one snapshot. Consecutive
+ * collections give the growth rates.
+ */
+public class DiskUsageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskUsageCollector.class);
+
+    private final String name;
+    private final long cacheMillis;
+    private volatile DiskUsageSnapshot snapshot;
+
+    public DiskUsageCollector(String name, long cacheMillis) {
+        this.name = name;
+        this.cacheMillis = cacheMillis;
+    }
+
+    /**
+     * The cached snapshot if it is younger than the cache interval, otherwise null
+     */
+    public DiskUsageSnapshot getIfFresh(long now) {
+        DiskUsageSnapshot current = snapshot;
+        return current != null && now - current.getTimestamp() < cacheMillis ? current : null;
+    }
+
+    public DiskUsageSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public static String topicSizeSeries(String topic) {
+        return "topic." + topic + ".size-bytes";
+    }
+
+    public static String brokerDiskSeries(int brokerId) {
+        return "broker." + brokerId + ".disk-used-bytes";
+    }
+
+    /**
+     * Collect unless another caller did so within the cache interval. A broker that fails to
+     * answer is left out rather than failing the whole snapshot.
+     */
+    public synchronized DiskUsageSnapshot collect(Admin admin) throws Exception {
+        DiskUsageSnapshot fresh = getIfFresh(System.currentTimeMillis());
+        if (fresh != null) {
+            return fresh;
+        }
+        List<Integer> brokerIds = admin.describeCluster().nodes().get().stream().map(Node::id).toList();
+        Map<Integer, KafkaFuture<Map<String, LogDirDescription>>> futures =
+            admin.describeLogDirs(brokerIds).descriptions();
+        Map<Integer, Map<String, LogDirDescription>> descriptions = new HashMap<>();
+        for (Map.Entry<Integer, KafkaFuture<Map<String, LogDirDescription>>> entry : futures.entrySet()) {
+            try {
+                descriptions.put(entry.getKey(), entry.getValue().get());
+            } catch (ExecutionException e) {
+                logger.warn("Failed to describe log dirs of broker {} on {}: {}", entry.getKey(), name,
+                    e.getCause().getMessage());
+            }
+        }
+        if (descriptions.isEmpty() && !brokerIds.isEmpty()) {
+            throw new IllegalStateException("No broker of " + name + " described its log dirs");
+        }
+        DiskUsageSnapshot next = DiskUsageSnapshot.build(System.currentTimeMillis(), descriptions, snapshot);
+        snapshot = next;
+        return next;
+    }
+}
@@ -0,0 +1,272 @@
+package com.kafkatool.util.storage;
+
+import org.apache.kafka.clients.admin.LogDirDescription;
+import org.apache.kafka.clients.admin.ReplicaInfo;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Disk usage of one cluster at a point in time, aggregated from the replica sizes every broker
+ * reports for its log directories: per partition, topic, broker and log directory. Growth rates
+ * compare topic and broker sizes with the previous snapshot.
+ */
+public class DiskUsageSnapshot {
+
+    public enum SortOrder {
+        SIZE(Comparator.comparingLong(TopicUsage::getTotalBytes).reversed()),
+        GROWTH(Comparator.comparingDouble(TopicUsage::getGrowthBytesPerSec).reversed()),
+        NAME(Comparator.comparing(TopicUsage::getTopic));
+
+        private final Comparator<TopicUsage> comparator;
+
+        SortOrder(Comparator<TopicUsage> comparator) {
+            this.comparator = comparator;
+        }
+
+        public static SortOrder fromString(String value) {
+            return value == null || value.isBlank() ? SIZE : valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    private final long timestamp;
+    private final Map<TopicPartition, PartitionUsage> partitions;
+    private final Map<String, TopicUsage> topics;
+    private final Map<Integer, BrokerUsage> brokers;
+    private final List<LogDirUsage> logDirs;
+
+    private DiskUsageSnapshot(long timestamp, Map<TopicPartition, PartitionUsage> partitions,
+                              Map<String, TopicUsage> topics, Map<Integer, BrokerUsage> brokers,
+                              List<LogDirUsage> logDirs) {
+        this.timestamp = timestamp;
+        this.partitions = Collections.unmodifiableMap(partitions);
+        this.topics = Collections.unmodifiableMap(topics);
+        this.brokers = Collections.unmodifiableMap(brokers);
+        this.logDirs = Collections.unmodifiableList(logDirs);
+    }
+
+    /**
+     * Aggregate the log directory descriptions of every broker
+     *
+     * @param previous earlier snapshot of the same cluster to derive growth from, or null
+     */
+    public static DiskUsageSnapshot build(long timestamp, Map<Integer, Map<String, LogDirDescription>> descriptions,
+                                          DiskUsageSnapshot previous) {
+        Map<TopicPartition, PartitionUsage> partitions = new HashMap<>();
+        Map<Integer, BrokerUsage> brokers = new TreeMap<>();
+        List<LogDirUsage> logDirs = new ArrayList<>();
+
+        for (Map.Entry<Integer, Map<String, LogDirDescription>> broker : descriptions.entrySet()) {
+            BrokerUsage brokerUsage = new BrokerUsage(broker.getKey());
+            brokers.put(broker.getKey(), brokerUsage);
+            for (Map.Entry<String, LogDirDescription> dir : broker.getValue().entrySet()) {
+                LogDirDescription description = dir.getValue();
+                LogDirUsage dirUsage = new LogDirUsage(broker.getKey(), dir.getKey(),
+                    description.totalBytes().orElse(-1), description.usableBytes().orElse(-1),
+                    description.error() != null ? description.error().getMessage() : null);
+                logDirs.add(dirUsage);
+                for (Map.Entry<TopicPartition, ReplicaInfo> replica : description.replicaInfos().entrySet()) {
+                    long size = replica.getValue().size();
+                    dirUsage.replicaBytes += size;
+                    dirUsage.replicaCount++;
+                    partitions.computeIfAbsent(replica.getKey(), PartitionUsage::new)
+                        .addReplica(size, replica.getValue().isFuture());
+                }
+                brokerUsage.add(dirUsage);
+            }
+        }
+
+        Map<String, TopicUsage> topics = new HashMap<>();
+        for (PartitionUsage partition : partitions.values()) {
+            topics.computeIfAbsent(partition.getTopic(), TopicUsage::new).add(partition);
+        }
+
+        // Growth is only meaningful when the same brokers answered both times
+        if (previous != null && timestamp > previous.timestamp && brokers.keySet().equals(previous.brokers.keySet())) {
+            double seconds = (timestamp - previous.timestamp) / 1000.0;
+            for (TopicUsage topic : topics.values()) {
+                TopicUsage before = previous.topics.get(topic.topic);
+                if (before != null) {
+                    topic.growthBytesPerSec = (topic.totalBytes - before.totalBytes) / seconds;
+                }
+            }
+            for (BrokerUsage broker : brokers.values()) {
+                BrokerUsage before = previous.brokers.get(broker.brokerId);
+                if (before != null) {
+                    broker.growthBytesPerSec = (broker.replicaBytes - before.replicaBytes) / seconds;
+                }
+            }
+        }
+        return new DiskUsageSnapshot(timestamp, partitions, topics, brokers, logDirs);
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public Map<TopicPartition, PartitionUsage> getPartitions() { return partitions; }
+    public Map<String, TopicUsage> getTopics() { return topics; }
+    public Map<Integer, BrokerUsage> getBrokers() { return brokers; }
+    public List<LogDirUsage> getLogDirs() { return logDirs; }
+
+    public TopicUsage getTopic(String topic) {
+        return topics.get(topic);
+    }
+
+    public BrokerUsage getBroker(int brokerId) {
+        return brokers.get(brokerId);
+    }
+
+    /**
+     * Topics in the given order, at most limit of them when limit is positive
+     */
+    public List<TopicUsage> getTopics(SortOrder order, int limit) {
+        List<TopicUsage> sorted = new ArrayList<>(topics.values());
+        sorted.sort(order.comparator);
+        return limit > 0 && sorted.size() > limit ? new ArrayList<>(sorted.subList(0, limit)) : sorted;
+    }
+
+    /**
+     * Bytes of all replicas on all brokers
+     */
+    public long getTotalBytes() {
+        return brokers.values().stream().mapToLong(BrokerUsage::getReplicaBytes).sum();
+    }
+
+    public static class PartitionUsage {
+        private final TopicPartition partition;
+        private int replicaCount;
+        private long sizeBytes;
+        private long totalBytes;
+
+        PartitionUsage(TopicPartition partition) {
+            this.partition = partition;
+        }
+
+        void addReplica(long size, boolean future) {
+            replicaCount++;
+            totalBytes += size;
+            // A future replica is a copy being moved to another log dir, not a larger log
+            if (!future) {
+                sizeBytes = Math.max(sizeBytes, size);
+            }
+        }
+
+        public String getTopic() { return partition.topic(); }
+        public int getPartition() { return partition.partition(); }
+        public int getReplicaCount() { return replicaCount; }
+        /** Size of the largest replica, i.e. of the partition's log */
+        public long getSizeBytes() { return sizeBytes; }
+        /** Bytes of all its replicas together */
+        public long getTotalBytes() { return totalBytes; }
+    }
+
+    public static class TopicUsage {
+        private final String topic;
+        private int partitionCount;
+        private int replicaCount;
+        private long sizeBytes;
+        private long totalBytes;
+        private double growthBytesPerSec;
+
+        TopicUsage(String topic) {
+            this.topic = topic;
+        }
+
+        void add(PartitionUsage partition) {
+            partitionCount++;
+            replicaCount += partition.replicaCount;
+            sizeBytes += partition.sizeBytes;
+            totalBytes += partition.totalBytes;
+        }
+
+        public String getTopic() { return topic; }
+        public int getPartitionCount() { return partitionCount; }
+        public int getReplicaCount() { return replicaCount; }
+        /** Size of one copy of the topic's data */
+        public long getSizeBytes() { return sizeBytes; }
+        /** Disk used by the topic across all replicas */
+        public long getTotalBytes() { return totalBytes; }
+        /** Change of the disk used since the previous snapshot; zero for the first one */
+        public double getGrowthBytesPerSec() { return growthBytesPerSec; }
+    }
+
+    public static class BrokerUsage {
+        private final int brokerId;
+        private long replicaBytes;
+        private int replicaCount;
+        private long capacityBytes;
+        private long usableBytes;
+        private int offlineLogDirs;
+        private double growthBytesPerSec;
+
+        BrokerUsage(int brokerId) {
+            this.brokerId = brokerId;
+        }
+
+        void add(LogDirUsage dir) {
+            replicaBytes += dir.replicaBytes;
+            replicaCount += dir.replicaCount;
+            if (dir.error != null) {
+                offlineLogDirs++;
+            }
+            // Brokers before 3.3 do not report capacity; a single unknown dir makes the total unknown
+            if (capacityBytes >= 0 && dir.totalBytes >= 0 && dir.usableBytes >= 0) {
+                capacityBytes += dir.totalBytes;
+                usableBytes += dir.usableBytes;
+            } else {
+                capacityBytes = -1;
+                usableBytes = -1;
+            }
+        }
+
+        public int getBrokerId() { return brokerId; }
+        public long getReplicaBytes() { return replicaBytes; }
+        public int getReplicaCount() { return replicaCount; }
+        /** Total size of the broker's log dir volumes, or -1 if unknown */
+        public long getCapacityBytes() { return capacityBytes; }
+        public long getUsableBytes() { return usableBytes; }
+        public int getOfflineLogDirs() { return offlineLogDirs; }
+        public double getGrowthBytesPerSec() { return growthBytesPerSec; }
+
+        /**
+         * Used share of the log dir volumes, or -1 if the broker does not report capacity
+         */
+        public double getUsedPercent() {
+            if (capacityBytes <= 0) {
+                return -1;
+            }
+            return (capacityBytes - usableBytes) * 100.0 / capacityBytes;
+        }
+    }
+
+    public static class LogDirUsage {
+        private final int brokerId;
+        private final String path;
+        private final long totalBytes;
+        private final long usableBytes;
+        private final String error;
+        private long replicaBytes;
+        private int replicaCount;
+
+        LogDirUsage(int brokerId, String path, long totalBytes, long usableBytes, String error) {
+            this.brokerId = brokerId;
+            this.path = path;
+            this.totalBytes = totalBytes;
+            this.usableBytes = usableBytes;
+            this.error = error;
+        }
+
+        public int getBrokerId() { return brokerId; }
+        public String getPath() { return path; }
+        public long getTotalBytes() { return totalBytes; }
+        public long getUsableBytes() { return usableBytes; }
+        /** Why the dir is offline, or null */
+        public String getError() { return error; }
+        public long getReplicaBytes() { return replicaBytes; }
+        public int getReplicaCount() { return replicaCount; }
+    }
+}
@@ -0,0 +1,403 @@
+package com.kafkatool.util.store;
+
+import com.kafkatool.model.KafkaMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Append-only message store backed by memory-mapped files, so large browse and search
+ * sessions are bounded by disk space instead of heap. Records are written in a compact
+ * binary layout into fixed-size data segments, and a mapped index keeps the Kafka offset
+ * and data location of every record. Messages are decoded on access, so only the
+ * handles a caller is currently holding live on the heap.
+ *
+ * <p>The creator holds the first reference; readers that may outlive it, such as a background
+ * export, take their own with {@link #retain()}. Each {@link #close()} drops one reference and
+ * the files are only released when the last one goes.
+ *
+ * <p>Record layout: offset (8), timestamp millis (8), partition (4), topic length (4),
+ * key length (4, -1 for null), value length (4, -1 for null), header count (4), then the
+ * topic, key and value bytes followed by each header as key length, key, value length, value.
+ */
+public class MessageSpillStore implements Iterable<KafkaMessage>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageSpillStore.class);
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final int RECORD_HEADER_BYTES = 36;
+    private static final int INDEX_ENTRY_BYTES = 16;
+    private static final int INDEX_SEGMENT_ENTRIES = 1 << 20;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final boolean ownsDirectory;
+    private final int segmentBytes;
+    private final List<MappedByteBuffer> dataSegments = new CopyOnWriteArrayList<>();
+    private final List<MappedByteBuffer> indexSegments = new CopyOnWriteArrayList<>();
+    private final List<Path> files = new CopyOnWriteArrayList<>();
+
+    private int writePosition;
+    private long dataBytes;
+    private volatile long count;
+    private volatile boolean closed;
+    private int references = 1;
+
+    /**
+     * Create a store in a fresh temporary directory that is removed on close
+     */
+    public MessageSpillStore() throws IOException {
+        this(Files.createTempDirectory("kafka-ui-spill-"), DEFAULT_SEGMENT_BYTES, true);
+    }
+
+    public MessageSpillStore(Path directory, int segmentBytes) throws IOException {
+        this(directory, segmentBytes, false);
+    }
+
+    private MessageSpillStore(Path directory, int segmentBytes, boolean ownsDirectory) throws IOException {
+        if (segmentBytes < RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.ownsDirectory = ownsDirectory;
+    }
+
+    /**
+     * Append a message; records should arrive in offset order for {@link #indexOfOffset} to work
+     */
+    public synchronized void append(KafkaMessage message) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Spill store is closed");
+        }
+
+        byte[] topic = bytes(message.getTopic());
+        byte[] key = bytes(message.getKey());
+        byte[] value = bytes(message.getValue());
+        Map<String, String> headers = message.getHeaders();
+
+        int recordBytes = RECORD_HEADER_BYTES + length(topic) + length(key) + length(value);
+        byte[][] headerBytes = new byte[headers != null ? headers.size() * 2 : 0][];
+        if (headers != null) {
+            int i = 0;
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                headerBytes[i] = bytes(header.getKey());
+                headerBytes[i + 1] = bytes(header.getValue());
+                recordBytes += 8 + length(headerBytes[i]) + length(headerBytes[i + 1]);
+                i += 2;
+            }
+        }
+
+        if (dataSegments.isEmpty() || writePosition + recordBytes > dataSegments.get(dataSegments.size() - 1).capacity()) {
+            dataSegments.add(mapSegment("data-" + dataSegments.size() + ".seg", Math.max(segmentBytes, recordBytes)));
+            writePosition = 0;
+        }
+        int segment = dataSegments.size() - 1;
+        MappedByteBuffer data = dataSegments.get(segment);
+
+        int position = writePosition;
+        data.putLong(position, message.getOffset());
+        data.putLong(position + 8, toMillis(message.getTimestamp()));
+        data.putInt(position + 16, message.getPartition());
+        data.putInt(position + 20, topic != null ? topic.length : -1);
+        data.putInt(position + 24, key != null ? key.length : -1);
+        data.putInt(position + 28, value != null ? value.length : -1);
+        data.putInt(position + 32, headerBytes.length / 2);
+        position += RECORD_HEADER_BYTES;
+        position = putBytes(data, position, topic);
+        position = putBytes(data, position, key);
+        position = putBytes(data, position, value);
+        for (byte[] headerPart : headerBytes) {
+            data.putInt(position, headerPart != null ? headerPart.length : -1);
+            position = putBytes(data, position + 4, headerPart);
+        }
+        writePosition = position;
+        dataBytes += recordBytes;
+
+        long index = count;
+        int indexSegment = (int) (index / INDEX_SEGMENT_ENTRIES);
+        if (indexSegment == indexSegments.size()) {
+            indexSegments.add(mapSegment("index-" + indexSegment + ".seg", INDEX_SEGMENT_ENTRIES * INDEX_ENTRY_BYTES));
+        }
+        MappedByteBuffer indexBuffer = indexSegments.get(indexSegment);
+        int entry = (int) (index % INDEX_SEGMENT_ENTRIES) * INDEX_ENTRY_BYTES;
+        indexBuffer.putLong(entry, message.getOffset());
+        indexBuffer.putLong(entry + 8, ((long) segment << 32) | (position - recordBytes));
+
+        // Publishing the count makes the record visible to readers
+        count = index + 1;
+    }
+
+    public void appendAll(Collection<KafkaMessage> messages) throws IOException {
+        for (KafkaMessage message : messages) {
+            append(message);
+        }
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Bytes of record data written so far
+     */
+    public synchronized long getDataBytes() {
+        return dataBytes;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Decode the message at the given insertion index
+     */
+    public KafkaMessage get(long index) {
+        checkIndex(index);
+        long location = indexEntry(index).getLong(indexEntryPosition(index) + 8);
+        MappedByteBuffer data = dataSegments.get((int) (location >>> 32));
+        int position = (int) location;
+
+        long offset = data.getLong(position);
+        long timestamp = data.getLong(position + 8);
+        int partition = data.getInt(position + 16);
+        int topicLength = data.getInt(position + 20);
+        int keyLength = data.getInt(position + 24);
+        int valueLength = data.getInt(position + 28);
+        int headerCount = data.getInt(position + 32);
+        position += RECORD_HEADER_BYTES;
+
+        String topic = readString(data, position, topicLength);
+        position += Math.max(0, topicLength);
+        String key = readString(data, position, keyLength);
+        position += Math.max(0, keyLength);
+        String value = readString(data, position, valueLength);
+        position += Math.max(0, valueLength);
+
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            int headerKeyLength = data.getInt(position);
+            String headerKey = readString(data, position + 4, headerKeyLength);
+            position += 4 + Math.max(0, headerKeyLength);
+            int headerValueLength = data.getInt(position);
+            String headerValue = readString(data, position + 4, headerValueLength);
+            position += 4 + Math.max(0, headerValueLength);
+            headers.put(headerKey, headerValue);
+        }
+
+        return new KafkaMessage(topic, offset, partition, key, value, fromMillis(timestamp), headers);
+    }
+
+    /**
+     * Kafka offset of the record at the given insertion index, read from the index only
+     */
+    public long getOffset(long index) {
+        checkIndex(index);
+        return indexEntry(index).getLong(indexEntryPosition(index));
+    }
+
+    /**
+     * Insertion index of the record with the given Kafka offset, or {@code -(insertionPoint) - 1}
+     * if it is not present. Assumes records were appended in offset order.
+     */
+    public long indexOfOffset(long offset) {
+        long low = 0;
+        long high = count - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long midOffset = getOffset(mid);
+            if (midOffset < offset) {
+                low = mid + 1;
+            } else if (midOffset > offset) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Copy the matching records into a new temporary store, e.g. to search within results
+     */
+    public MessageSpillStore filter(Predicate<KafkaMessage> predicate) throws IOException {
+        MessageSpillStore result = new MessageSpillStore();
+        try {
+            for (KafkaMessage message : this) {
+                if (predicate.test(message)) {
+                    result.append(message);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            result.close();
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Read-only random access view; elements are decoded on each access
+     */
+    public List<KafkaMessage> asList() {
+        return new StoreListView();
+    }
+
+    @Override
+    public Iterator<KafkaMessage> iterator() {
+        long end = count;
+        return new Iterator<>() {
+            private long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public KafkaMessage next() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    /**
+     * Take another reference so the store stays open until it is closed once more.
+     * Returns false, taking nothing, if the store is already closed.
+     */
+    public synchronized boolean retain() {
+        if (closed) {
+            return false;
+        }
+        references++;
+        return true;
+    }
+
+    /**
+     * Drop one reference; the last one releases the mappings and deletes the backing files
+     */
+    @Override
+    public synchronized void close() {
+        if (closed || --references > 0) {
+            return;
+        }
+        closed = true;
+        count = 0;
+        dataSegments.clear();
+        indexSegments.clear();
+
+        for (Path file : files) {
+            deleteQuietly(file);
+        }
+        files.clear();
+        if (ownsDirectory) {
+            deleteQuietly(directory);
+        }
+    }
+
+    private MappedByteBuffer mapSegment(String name, int size) throws IOException {
+        Path file = directory.resolve(name);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            files.add(file);
+            return buffer;
+        }
+    }
+
+    private MappedByteBuffer indexEntry(long index) {
+        return indexSegments.get((int) (index / INDEX_SEGMENT_ENTRIES));
+    }
+
+    private static int indexEntryPosition(long index) {
+        return (int) (index % INDEX_SEGMENT_ENTRIES) * INDEX_ENTRY_BYTES;
+    }
+
+    private void checkIndex(long index) {
+        if (closed) {
+            throw new IllegalStateException("Spill store is closed");
+        }
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Some platforms keep mapped files locked until the mapping is collected
+            logger.debug("Deferring delete of {}: {}", path, e.getMessage());
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    private static int putBytes(MappedByteBuffer buffer, int position, byte[] bytes) {
+        if (bytes == null) {
+            return position;
+        }
+        buffer.put(position, bytes);
+        return position + bytes.length;
+    }
+
+    private static String readString(MappedByteBuffer buffer, int position, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : NO_TIMESTAMP;
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return millis != NO_TIMESTAMP ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()) : null;
+    }
+
+    private final class StoreListView extends AbstractList<KafkaMessage> implements RandomAccess {
+        @Override
+        public KafkaMessage get(int index) {
+            return MessageSpillStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, count);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.kafkatool.util.throughput;
+
+import com.kafkatool.util.timeseries.TimeSeriesStore;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes the smoothed produce rate of the cluster and of every topic from each
+ * {@link ThroughputSnapshot} into a {@link TimeSeriesStore}.
+ */
+public class ThroughputHistoryRecorder implements Consumer<ThroughputSnapshot> {
+
+    public static final String CLUSTER_RATE_SERIES = "cluster.messages-per-sec";
+
+    private final TimeSeriesStore store;
+
+    public ThroughputHistoryRecorder(TimeSeriesStore store) {
+        this.store = store;
+    }
+
+    public static String topicRateSeries(String topic) {
+        return "topic." + topic + ".messages-per-sec";
+    }
+
+    @Override
+    public void accept(ThroughputSnapshot snapshot) {
+        if (snapshot.getPartitions().isEmpty()) {
+            // The first poll only establishes the starting offsets
+            return;
+        }
+        long timestamp = snapshot.getTimestamp();
+        store.record(CLUSTER_RATE_SERIES, timestamp, snapshot.getCluster().getSmoothed());
+        for (Map.Entry<String, ThroughputSnapshot.Rate> topic : snapshot.getTopics().entrySet()) {
+            store.record(topicRateSeries(topic.getKey()), timestamp, topic.getValue().getSmoothed());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.kafkatool.util.throughput;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Samples the end offsets of every partition on one cluster at a fixed interval and derives
+ * produce rates from their growth, without JMX access to the brokers. A poll is one batched
+ * listOffsets, which the admin client sends as one request per partition leader; the partition
+ * list itself is only re-read every few polls, or sooner when a sampled partition disappears.
+ */
+public class ThroughputMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThroughputMonitor.class);
+    private static final int METADATA_REFRESH_POLLS = 6;
+
+    private final String name;
+    private final Admin admin;
+    private final long intervalMillis;
+    private final ThroughputTracker tracker;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<ThroughputSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private List<TopicPartition> partitions;
+    private int pollsSinceMetadata;
+    private volatile ThroughputSnapshot snapshot;
+
+    public ThroughputMonitor(String name, Admin admin, long intervalMillis) {
+        this(name, admin, intervalMillis, new ThroughputTracker());
+    }
+
+    public ThroughputMonitor(String name, Admin admin, long intervalMillis, ThroughputTracker tracker) {
+        this.name = name;
+        this.admin = admin;
+        this.intervalMillis = intervalMillis;
+        this.tracker = tracker;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "throughput-monitor-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ThroughputMonitor start() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                logger.warn("Throughput poll for {} failed: {}", name, e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * The most recent rates, or null before the first poll has finished; rates appear from the
+     * second poll on
+     */
+    public ThroughputSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Called on the monitor thread with every new snapshot
+     */
+    public void addListener(Consumer<ThroughputSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<ThroughputSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sample now and publish the result
+     */
+    public synchronized ThroughputSnapshot refresh() throws Exception {
+        ThroughputSnapshot next = tracker.update(System.currentTimeMillis(), sampleEndOffsets());
+        snapshot = next;
+        for (Consumer<ThroughputSnapshot> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                logger.warn("Throughput listener for {} failed: {}", name, e.getMessage());
+            }
+        }
+        return next;
+    }
+
+    private Map<TopicPartition, Long> sampleEndOffsets() throws Exception {
+        if (partitions == null || pollsSinceMetadata >= METADATA_REFRESH_POLLS) {
+            partitions = listPartitions();
+            pollsSinceMetadata = 0;
+        }
+        pollsSinceMetadata++;
+
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        partitions.forEach(partition -> latest.put(partition, OffsetSpec.latest()));
+        Map<TopicPartition, Long> endOffsets = new HashMap<>();
+        if (latest.isEmpty()) {
+            return endOffsets;
+        }
+        ListOffsetsResult result = admin.listOffsets(latest);
+        for (TopicPartition partition : partitions) {
+            try {
+                endOffsets.put(partition, result.partitionResult(partition).get().offset());
+            } catch (ExecutionException e) {
+                // Usually a deleted topic; pick up the new partition list on the next poll
+                logger.debug("No end offset for {} on {}: {}", partition, name, e.getCause().getMessage());
+                pollsSinceMetadata = METADATA_REFRESH_POLLS;
+            }
+        }
+        return endOffsets;
+    }
+
+    private List<TopicPartition> listPartitions() throws Exception {
+        Set<String> topics = admin.listTopics().names().get();
+        List<TopicPartition> result = new ArrayList<>();
+        if (topics.isEmpty()) {
+            return result;
+        }
+        for (TopicDescription description : admin.describeTopics(topics).allTopicNames().get().values()) {
+            for (TopicPartitionInfo info : description.partitions()) {
+                result.add(new TopicPartition(description.name(), info.partition()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        synchronized (this) {
+            admin.close(Duration.ofSeconds(5));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.kafkatool.util.throughput;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Produce rates of one cluster at a point in time, derived from how far the end offsets of its
+ * partitions moved since the previous sample. Topic and cluster rates are sums over partitions.
+ */
+public class ThroughputSnapshot {
+
+    private final long timestamp;
+    private final Map<TopicPartition, Rate> partitions;
+    private final Map<String, Rate> topics;
+    private final Rate cluster;
+
+    public ThroughputSnapshot(long timestamp, Map<TopicPartition, Rate> partitions) {
+        this.timestamp = timestamp;
+        this.partitions = Collections.unmodifiableMap(new HashMap<>(partitions));
+        Map<String, Rate> topics = new HashMap<>();
+        double current = 0;
+        double smoothed = 0;
+        for (Map.Entry<TopicPartition, Rate> entry : partitions.entrySet()) {
+            topics.merge(entry.getKey().topic(), entry.getValue(), Rate::plus);
+            current += entry.getValue().getCurrent();
+            smoothed += entry.getValue().getSmoothed();
+        }
+        this.topics = Collections.unmodifiableMap(topics);
+        this.cluster = new Rate(current, smoothed);
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public Map<TopicPartition, Rate> getPartitions() { return partitions; }
+    public Map<String, Rate> getTopics() { return topics; }
+    public Rate getCluster() { return cluster; }
+
+    /**
+     * Rate of a topic, zero if none of its partitions has been sampled twice yet
+     */
+    public Rate getTopic(String topic) {
+        return topics.getOrDefault(topic, Rate.ZERO);
+    }
+
+    /**
+     * Messages per second over the last interval, and its exponentially weighted moving average
+     */
+    public static class Rate {
+        public static final Rate ZERO = new Rate(0, 0);
+
+        private final double current;
+        private final double smoothed;
+
+        public Rate(double current, double smoothed) {
+            this.current = current;
+            this.smoothed = smoothed;
+        }
+
+        public double getCurrent() { return current; }
+        public double getSmoothed() { return smoothed; }
+
+        Rate plus(Rate other) {
+            return new Rate(current + other.current, smoothed + other.smoothed);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.2f/s (avg %.2f/s)", current, smoothed);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kafkatool.util.throughput;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns successive samples of partition end offsets into produce rates. Each partition keeps an
+ * exponentially weighted moving average whose weight depends on the time between samples, so
+ * irregular polling does not skew it; after one half-life an old rate counts for half.
+ */
+public class ThroughputTracker {
+
+    public static final long DEFAULT_HALF_LIFE_MILLIS = 30_000;
+
+    private final double tauMillis;
+    private final Map<TopicPartition, Long> lastOffsets = new HashMap<>();
+    private final Map<TopicPartition, Double> smoothed = new HashMap<>();
+    private long lastTimestamp = -1;
+
+    public ThroughputTracker() {
+        this(DEFAULT_HALF_LIFE_MILLIS);
+    }
+
+    public ThroughputTracker(long halfLifeMillis) {
+        if (halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("Half-life must be positive");
+        }
+        this.tauMillis = halfLifeMillis / Math.log(2);
+    }
+
+    /**
+     * Record a sample and return the rates since the previous one. Partitions seen for the first
+     * time, and partitions whose end offset went backwards because the topic was recreated, get
+     * a rate from the next sample on; partitions missing from the sample are forgotten.
+     */
+    public synchronized ThroughputSnapshot update(long timestamp, Map<TopicPartition, Long> endOffsets) {
+        Map<TopicPartition, ThroughputSnapshot.Rate> rates = new HashMap<>();
+        if (lastTimestamp >= 0 && timestamp > lastTimestamp) {
+            long elapsed = timestamp - lastTimestamp;
+            double alpha = 1 - Math.exp(-elapsed / tauMillis);
+            for (Map.Entry<TopicPartition, Long> entry : endOffsets.entrySet()) {
+                Long previous = lastOffsets.get(entry.getKey());
+                if (previous == null || entry.getValue() < previous) {
+                    smoothed.remove(entry.getKey());
+                    continue;
+                }
+                double current = (entry.getValue() - previous) * 1000.0 / elapsed;
+                Double average = smoothed.get(entry.getKey());
+                double next = average == null ? current : average + alpha * (current - average);
+                smoothed.put(entry.getKey(), next);
+                rates.put(entry.getKey(), new ThroughputSnapshot.Rate(current, next));
+            }
+        }
+        smoothed.keySet().retainAll(endOffsets.keySet());
+        lastOffsets.clear();
+        lastOffsets.putAll(endOffsets);
+        lastTimestamp = timestamp;
+        return new ThroughputSnapshot(timestamp, rates);
+    }
+}
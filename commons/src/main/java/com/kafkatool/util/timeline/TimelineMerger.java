@@ -0,0 +1,143 @@
+package com.kafkatool.util.timeline;
+
+import com.kafkatool.model.KafkaMessage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * K-way merge of per-partition message streams into timestamp order.
+ * Each partition has a bounded buffer; a priority queue orders the non-empty buffers
+ * by the timestamp of their head record. A record is only emitted while every partition
+ * that may still produce data has something buffered, so the output is in merged order
+ * as long as each partition is itself in timestamp order.
+ */
+public class TimelineMerger {
+
+    public static final int DEFAULT_PARTITION_CAPACITY = 500;
+
+    private static final Comparator<PartitionBuffer> HEAD_ORDER = Comparator
+        .comparing((PartitionBuffer buffer) -> buffer.head().getTimestamp(),
+            Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+        .thenComparingInt(buffer -> buffer.partition)
+        .thenComparingLong(buffer -> buffer.head().getOffset());
+
+    private final int partitionCapacity;
+    private final Map<Integer, PartitionBuffer> buffers = new HashMap<>();
+    private final PriorityQueue<PartitionBuffer> heads = new PriorityQueue<>(HEAD_ORDER);
+    private int starvedPartitions;
+
+    public TimelineMerger() {
+        this(DEFAULT_PARTITION_CAPACITY);
+    }
+
+    public TimelineMerger(int partitionCapacity) {
+        if (partitionCapacity <= 0) {
+            throw new IllegalArgumentException("Partition capacity must be positive");
+        }
+        this.partitionCapacity = partitionCapacity;
+    }
+
+    /**
+     * Register a partition that will produce records; merging waits for it until it is finished
+     */
+    public void register(int partition) {
+        if (!buffers.containsKey(partition)) {
+            buffers.put(partition, new PartitionBuffer(partition));
+            starvedPartitions++;
+        }
+    }
+
+    /**
+     * Buffer a record for its partition; callers should stop fetching a partition once it is full
+     */
+    public void offer(KafkaMessage message) {
+        PartitionBuffer buffer = buffers.get(message.getPartition());
+        if (buffer == null || buffer.finished) {
+            throw new IllegalStateException("Partition " + message.getPartition() + " is not active");
+        }
+        if (buffer.records.isEmpty()) {
+            starvedPartitions--;
+            buffer.records.addLast(message);
+            heads.add(buffer);
+        } else {
+            buffer.records.addLast(message);
+        }
+    }
+
+    public boolean isFull(int partition) {
+        PartitionBuffer buffer = buffers.get(partition);
+        return buffer != null && buffer.records.size() >= partitionCapacity;
+    }
+
+    /**
+     * Mark a partition as having no more records in range
+     */
+    public void finish(int partition) {
+        PartitionBuffer buffer = buffers.get(partition);
+        if (buffer != null && !buffer.finished) {
+            buffer.finished = true;
+            if (buffer.records.isEmpty()) {
+                starvedPartitions--;
+            }
+        }
+    }
+
+    public boolean isFinished(int partition) {
+        PartitionBuffer buffer = buffers.get(partition);
+        return buffer == null || buffer.finished;
+    }
+
+    /**
+     * Emit up to {@code maxMessages} records that are safe to release in merged order
+     */
+    public int drain(Consumer<KafkaMessage> sink, int maxMessages) {
+        int emitted = 0;
+        while (emitted < maxMessages && starvedPartitions == 0 && !heads.isEmpty()) {
+            PartitionBuffer buffer = heads.poll();
+            sink.accept(buffer.records.pollFirst());
+            emitted++;
+
+            if (!buffer.records.isEmpty()) {
+                heads.add(buffer);
+            } else if (!buffer.finished) {
+                starvedPartitions++;
+            }
+        }
+        return emitted;
+    }
+
+    /**
+     * True once every partition is finished and all buffered records were emitted
+     */
+    public boolean isDone() {
+        return heads.isEmpty() && buffers.values().stream().allMatch(buffer -> buffer.finished);
+    }
+
+    public int getBufferedCount() {
+        int total = 0;
+        for (PartitionBuffer buffer : buffers.values()) {
+            total += buffer.records.size();
+        }
+        return total;
+    }
+
+    private static final class PartitionBuffer {
+        private final int partition;
+        private final ArrayDeque<KafkaMessage> records = new ArrayDeque<>();
+        private boolean finished;
+
+        PartitionBuffer(int partition) {
+            this.partition = partition;
+        }
+
+        KafkaMessage head() {
+            return records.peekFirst();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.kafkatool.util.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Growable bit stream backed by a {@code long[]}, written and read most significant bit first
+ */
+class BitBuffer {
+
+    private long[] words;
+    private long length;
+
+    BitBuffer(int initialWords) {
+        this.words = new long[Math.max(1, initialWords)];
+    }
+
+    /**
+     * Append the low {@code bits} bits of the value
+     */
+    void write(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        int index = (int) (length >>> 6);
+        int free = 64 - (int) (length & 63);
+        if (index + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        if (bits <= free) {
+            words[index] |= value << (free - bits);
+        } else {
+            int spill = bits - free;
+            words[index] |= value >>> spill;
+            words[index + 1] |= value << (64 - spill);
+        }
+        length += bits;
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    long bitLength() {
+        return length;
+    }
+
+    /**
+     * Shrink the backing array to the written length once no more bits will be added
+     */
+    void trim() {
+        words = Arrays.copyOf(words, (int) ((length + 63) >>> 6) + 1);
+    }
+
+    long sizeInBytes() {
+        return 16 + words.length * 8L;
+    }
+
+    Reader reader() {
+        return new Reader();
+    }
+
+    class Reader {
+        private long position;
+
+        long read(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int index = (int) (position >>> 6);
+            int free = 64 - (int) (position & 63);
+            long result;
+            if (bits <= free) {
+                result = words[index] >>> (free - bits);
+            } else {
+                int spill = bits - free;
+                result = (words[index] << spill) | (words[index + 1] >>> (64 - spill));
+            }
+            position += bits;
+            return bits < 64 ? result & ((1L << bits) - 1) : result;
+        }
+
+        boolean readBit() {
+            return read(1) == 1;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.kafkatool.util.timeseries;
+
+/**
+ * One point of a query result. Raw points have the same value, min and max; rollup points
+ * carry the average, minimum and maximum of their bucket, which starts at the timestamp.
+ */
+public class DataPoint {
+
+    private final long timestamp;
+    private final double value;
+    private final double min;
+    private final double max;
+
+    public DataPoint(long timestamp, double value, double min, double max) {
+        this.timestamp = timestamp;
+        this.value = value;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public double getValue() { return value; }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+
+    @Override
+    public String toString() {
+        return timestamp + "=" + value;
+    }
+}
@@ -0,0 +1,165 @@
+package com.kafkatool.util.timeseries;
+
+/**
+ * A block of (timestamp, value) points compressed as in Facebook's Gorilla: timestamps as
+ * delta-of-delta in variable-width buckets, values as the XOR with the previous value,
+ * storing only its meaningful bits. Regular samples of slowly changing values take a few
+ * bits per point instead of sixteen bytes.
+ */
+class GorillaChunk {
+
+    /**
+     * Receives decoded points in time order
+     */
+    @FunctionalInterface
+    interface PointConsumer {
+        void accept(long timestamp, double value);
+    }
+
+    private final int capacity;
+    private final BitBuffer bits;
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeading = -1;
+    private int lastTrailing;
+
+    GorillaChunk(int capacity) {
+        this.capacity = capacity;
+        this.bits = new BitBuffer(8);
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    int getCount() { return count; }
+    long getFirstTimestamp() { return firstTimestamp; }
+    long getLastTimestamp() { return lastTimestamp; }
+
+    void append(long timestamp, double value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            bits.write(timestamp, 64);
+            bits.write(valueBits, 64);
+            firstTimestamp = timestamp;
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeDeltaOfDelta(delta - lastDelta);
+            writeValue(valueBits ^ lastValueBits);
+            lastDelta = delta;
+        }
+        lastTimestamp = timestamp;
+        lastValueBits = valueBits;
+        count++;
+    }
+
+    /**
+     * Release spare capacity once the chunk will not grow any more
+     */
+    void seal() {
+        bits.trim();
+    }
+
+    long sizeInBytes() {
+        return 64 + bits.sizeInBytes();
+    }
+
+    void forEach(PointConsumer consumer) {
+        if (count == 0) {
+            return;
+        }
+        BitBuffer.Reader reader = bits.reader();
+        long timestamp = reader.read(64);
+        long valueBits = reader.read(64);
+        consumer.accept(timestamp, Double.longBitsToDouble(valueBits));
+
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(reader);
+            timestamp += delta;
+
+            if (reader.readBit()) {
+                if (reader.readBit()) {
+                    leading = (int) reader.read(5);
+                    int length = (int) reader.read(6);
+                    trailing = 64 - leading - (length == 0 ? 64 : length);
+                }
+                int meaningful = 64 - leading - trailing;
+                valueBits ^= reader.read(meaningful) << trailing;
+            }
+            consumer.accept(timestamp, Double.longBitsToDouble(valueBits));
+        }
+    }
+
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            bits.write(0b0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta < 64) {
+            bits.write(0b10, 2);
+            bits.write(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta < 256) {
+            bits.write(0b110, 3);
+            bits.write(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta < 2048) {
+            bits.write(0b1110, 4);
+            bits.write(deltaOfDelta, 12);
+        } else if (deltaOfDelta >= Integer.MIN_VALUE && deltaOfDelta <= Integer.MAX_VALUE) {
+            bits.write(0b11110, 5);
+            bits.write(deltaOfDelta, 32);
+        } else {
+            bits.write(0b11111, 5);
+            bits.write(deltaOfDelta, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitBuffer.Reader reader) {
+        if (!reader.readBit()) {
+            return 0;
+        }
+        if (!reader.readBit()) {
+            return signExtend(reader.read(7), 7);
+        }
+        if (!reader.readBit()) {
+            return signExtend(reader.read(9), 9);
+        }
+        if (!reader.readBit()) {
+            return signExtend(reader.read(12), 12);
+        }
+        if (!reader.readBit()) {
+            return signExtend(reader.read(32), 32);
+        }
+        return reader.read(64);
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            bits.write(0b0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (lastLeading >= 0 && leading >= lastLeading && trailing >= lastTrailing) {
+            // The changed bits fit inside the previous window, so only they are written
+            bits.write(0b10, 2);
+            bits.write(xor >>> lastTrailing, 64 - lastLeading - lastTrailing);
+        } else {
+            int length = 64 - leading - trailing;
+            bits.write(0b11, 2);
+            bits.write(leading, 5);
+            bits.write(length == 64 ? 0 : length, 6);
+            bits.write(xor >>> trailing, length);
+            lastLeading = leading;
+            lastTrailing = trailing;
+        }
+    }
+
+    private static long signExtend(long value, int bits) {
+        int shift = 64 - bits;
+        return (value << shift) >> shift;
+    }
+}
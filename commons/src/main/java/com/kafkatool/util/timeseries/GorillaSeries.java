@@ -0,0 +1,77 @@
+package com.kafkatool.util.timeseries;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A time-ordered series kept as a ring of compressed {@link GorillaChunk}s: points go into
+ * the open chunk, full chunks are sealed, and sealed chunks older than the retention period
+ * are dropped whole
+ */
+class GorillaSeries {
+
+    static final int CHUNK_POINTS = 256;
+
+    private final long retentionMillis;
+    private final Deque<GorillaChunk> sealed = new ArrayDeque<>();
+    private GorillaChunk open = new GorillaChunk(CHUNK_POINTS);
+
+    GorillaSeries(long retentionMillis) {
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Append a point; points older than the latest one are ignored
+     */
+    boolean append(long timestamp, double value) {
+        if (open.getCount() > 0 ? timestamp < open.getLastTimestamp()
+                : !sealed.isEmpty() && timestamp < sealed.peekLast().getLastTimestamp()) {
+            return false;
+        }
+        if (open.isFull()) {
+            open.seal();
+            sealed.addLast(open);
+            open = new GorillaChunk(CHUNK_POINTS);
+        }
+        open.append(timestamp, value);
+
+        long cutoff = timestamp - retentionMillis;
+        while (!sealed.isEmpty() && sealed.peekFirst().getLastTimestamp() < cutoff) {
+            sealed.removeFirst();
+        }
+        return true;
+    }
+
+    /**
+     * Pass every point in [from, to] to the consumer, oldest first
+     */
+    void query(long from, long to, GorillaChunk.PointConsumer consumer) {
+        for (GorillaChunk chunk : sealed) {
+            scan(chunk, from, to, consumer);
+        }
+        scan(open, from, to, consumer);
+    }
+
+    long sizeInBytes() {
+        long size = open.sizeInBytes();
+        for (GorillaChunk chunk : sealed) {
+            size += chunk.sizeInBytes();
+        }
+        return size;
+    }
+
+    int getPointCount() {
+        return sealed.stream().mapToInt(GorillaChunk::getCount).sum() + open.getCount();
+    }
+
+    private static void scan(GorillaChunk chunk, long from, long to, GorillaChunk.PointConsumer consumer) {
+        if (chunk.getCount() == 0 || chunk.getLastTimestamp() < from || chunk.getFirstTimestamp() > to) {
+            return;
+        }
+        chunk.forEach((timestamp, value) -> {
+            if (timestamp >= from && timestamp <= to) {
+                consumer.accept(timestamp, value);
+            }
+        });
+    }
+}
@@ -0,0 +1,373 @@
+package com.kafkatool.util.timeseries;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists metric samples to an embedded H2 file database so history survives a restart.
+ * Samples are queued by the collectors and written in JDBC batches by a background thread,
+ * which also maintains one-minute and one-hour rollup tables and deletes rows past their
+ * retention. Series names live in a dictionary table, so sample rows are three fixed-width
+ * columns keyed by (series, timestamp) and range queries are primary key scans.
+ */
+public class MetricsDatabase implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsDatabase.class);
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 3600_000;
+    private static final long RETENTION_INTERVAL_MS = HOUR;
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS metric_series (id INT AUTO_INCREMENT PRIMARY KEY, "
+            + "cluster VARCHAR(1024) NOT NULL, name VARCHAR(1024) NOT NULL, CONSTRAINT uq_metric_series UNIQUE (cluster, name))",
+        "CREATE TABLE IF NOT EXISTS metric_sample (series_id INT NOT NULL, ts BIGINT NOT NULL, "
+            + "val DOUBLE PRECISION NOT NULL, PRIMARY KEY (series_id, ts))",
+        "CREATE INDEX IF NOT EXISTS idx_metric_sample_ts ON metric_sample (ts)",
+        rollupTable("metric_rollup_1m"),
+        "CREATE INDEX IF NOT EXISTS idx_metric_rollup_1m_bucket ON metric_rollup_1m (bucket)",
+        rollupTable("metric_rollup_1h"),
+        "CREATE INDEX IF NOT EXISTS idx_metric_rollup_1h_bucket ON metric_rollup_1h (bucket)"
+    };
+
+    private final MetricsDatabaseOptions options;
+    private final String url;
+    private final Connection writer;
+    private final BlockingQueue<Sample> queue;
+    private final Map<String, Integer> seriesIds = new HashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong dropped = new AtomicLong();
+    private long lastRetention;
+
+    /**
+     * Open or create the database at the given base path ("metrics" becomes metrics.mv.db)
+     */
+    public MetricsDatabase(File file, MetricsDatabaseOptions options) throws SQLException {
+        this.options = options != null ? options : new MetricsDatabaseOptions();
+        this.url = "jdbc:h2:file:" + file.getAbsolutePath();
+        this.writer = DriverManager.getConnection(url);
+        try (Statement statement = writer.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+        }
+        writer.setAutoCommit(false);
+        this.queue = new LinkedBlockingQueue<>(this.options.getQueueCapacity());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-db-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, this.options.getFlushIntervalMillis(),
+            this.options.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Persisting metrics to {}", url);
+    }
+
+    /**
+     * A sink that writes a store's samples under the given cluster name
+     */
+    public MetricsSink sinkFor(String cluster) {
+        return (series, timestamp, value) -> record(cluster, series, timestamp, value);
+    }
+
+    /**
+     * Queue a sample for the next batch; never blocks the caller
+     */
+    public void record(String cluster, String series, long timestamp, double value) {
+        if (Double.isFinite(value) && !queue.offer(new Sample(cluster, series, timestamp, value))) {
+            if (dropped.incrementAndGet() % 10_000 == 1) {
+                logger.warn("Metrics database writer is behind; {} samples dropped so far", dropped.get());
+            }
+        }
+    }
+
+    /**
+     * Write everything queued so far and wait for it to be committed
+     */
+    public void flush() {
+        try {
+            scheduler.submit(this::flushQuietly).get();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to flush metrics database: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Points of a series in [from, to]; rollup resolutions return the average, minimum and
+     * maximum of each bucket. A null resolution picks one that suits the range.
+     */
+    public List<DataPoint> query(String cluster, String series, long from, long to, Resolution resolution) {
+        Resolution effective = resolution != null ? resolution : Resolution.forRange(to - from);
+        String sql;
+        switch (effective) {
+            case RAW:
+                sql = "SELECT s.ts, s.val, s.val, s.val FROM metric_sample s";
+                break;
+            case ONE_MINUTE:
+                sql = "SELECT s.bucket, s.total / s.cnt, s.min_val, s.max_val FROM metric_rollup_1m s";
+                break;
+            case FIVE_MINUTES:
+                // Five-minute points are derived from the one-minute rollup
+                sql = "SELECT s.bucket - MOD(s.bucket, 300000) AS b, SUM(s.total) / SUM(s.cnt), MIN(s.min_val), MAX(s.max_val)"
+                    + " FROM metric_rollup_1m s";
+                break;
+            default:
+                sql = "SELECT s.bucket, s.total / s.cnt, s.min_val, s.max_val FROM metric_rollup_1h s";
+                break;
+        }
+        String column = effective == Resolution.RAW ? "s.ts" : "s.bucket";
+        sql += " JOIN metric_series m ON m.id = s.series_id WHERE m.cluster = ? AND m.name = ? AND "
+            + column + " BETWEEN ? AND ?";
+        sql += effective == Resolution.FIVE_MINUTES ? " GROUP BY b ORDER BY b" : " ORDER BY " + column;
+
+        List<DataPoint> points = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url);
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, cluster);
+            statement.setString(2, series);
+            statement.setLong(3, effective == Resolution.FIVE_MINUTES ? from - Math.floorMod(from, 300_000) : from);
+            statement.setLong(4, to);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    points.add(new DataPoint(rows.getLong(1), rows.getDouble(2), rows.getDouble(3), rows.getDouble(4)));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to query metric history for {}: {}", series, e.getMessage());
+            throw new RuntimeException("Failed to query metric history: " + e.getMessage(), e);
+        }
+        return points;
+    }
+
+    public long getDroppedSamples() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write remaining metrics: {}", e.getMessage());
+        }
+        scheduler.shutdownNow();
+        try {
+            writer.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close metrics database: {}", e.getMessage());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            List<Sample> batch = new ArrayList<>();
+            while (queue.drainTo(batch, options.getBatchSize()) > 0) {
+                write(batch);
+                batch.clear();
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastRetention >= RETENTION_INTERVAL_MS) {
+                applyRetention(now);
+                lastRetention = now;
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to write metrics batch: {}", e.getMessage());
+            try {
+                writer.rollback();
+            } catch (SQLException rollbackError) {
+                logger.warn("Failed to roll back metrics batch: {}", rollbackError.getMessage());
+            }
+        }
+    }
+
+    private void write(List<Sample> batch) throws SQLException {
+        resolveSeriesIds(batch);
+        Map<String, Rollup> minutes = new HashMap<>();
+        Map<String, Rollup> hours = new HashMap<>();
+        // A sample already stored under its (series, timestamp) is skipped, and so is its rollup
+        // contribution, so a replayed sample is never counted twice
+        try (PreparedStatement insert = writer.prepareStatement("MERGE INTO metric_sample m USING (VALUES ("
+                + "CAST(? AS INT), CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION))) AS s (series_id, ts, val) "
+                + "ON m.series_id = s.series_id AND m.ts = s.ts "
+                + "WHEN NOT MATCHED THEN INSERT (series_id, ts, val) VALUES (s.series_id, s.ts, s.val)")) {
+            for (Sample sample : batch) {
+                insert.setInt(1, seriesIds.get(seriesKey(sample.cluster, sample.series)));
+                insert.setLong(2, sample.timestamp);
+                insert.setDouble(3, sample.value);
+                insert.addBatch();
+            }
+            int[] inserted = insert.executeBatch();
+            for (int i = 0; i < batch.size(); i++) {
+                if (inserted[i] == 0) {
+                    continue;
+                }
+                Sample sample = batch.get(i);
+                int seriesId = seriesIds.get(seriesKey(sample.cluster, sample.series));
+                aggregate(minutes, seriesId, sample.timestamp - Math.floorMod(sample.timestamp, MINUTE), sample.value);
+                aggregate(hours, seriesId, sample.timestamp - Math.floorMod(sample.timestamp, HOUR), sample.value);
+            }
+        }
+        mergeRollups("metric_rollup_1m", minutes);
+        mergeRollups("metric_rollup_1h", hours);
+        writer.commit();
+    }
+
+    /**
+     * Fold the batch's per-bucket aggregates into the rollup table, so rollups never need
+     * to be recomputed from the raw samples
+     */
+    private void mergeRollups(String table, Map<String, Rollup> rollups) throws SQLException {
+        try (PreparedStatement merge = writer.prepareStatement("MERGE INTO " + table + " r USING (VALUES ("
+                + "CAST(? AS INT), CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION), CAST(? AS BIGINT), "
+                + "CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION))) AS s (series_id, bucket, total, cnt, min_val, max_val) "
+                + "ON r.series_id = s.series_id AND r.bucket = s.bucket "
+                + "WHEN MATCHED THEN UPDATE SET total = r.total + s.total, cnt = r.cnt + s.cnt, "
+                + "min_val = LEAST(r.min_val, s.min_val), max_val = GREATEST(r.max_val, s.max_val) "
+                + "WHEN NOT MATCHED THEN INSERT (series_id, bucket, total, cnt, min_val, max_val) "
+                + "VALUES (s.series_id, s.bucket, s.total, s.cnt, s.min_val, s.max_val)")) {
+            for (Rollup rollup : rollups.values()) {
+                merge.setInt(1, rollup.seriesId);
+                merge.setLong(2, rollup.bucket);
+                merge.setDouble(3, rollup.total);
+                merge.setLong(4, rollup.count);
+                merge.setDouble(5, rollup.min);
+                merge.setDouble(6, rollup.max);
+                merge.addBatch();
+            }
+            merge.executeBatch();
+        }
+    }
+
+    private void applyRetention(long now) throws SQLException {
+        int deleted = 0;
+        deleted += delete("DELETE FROM metric_sample WHERE ts < ?", now - options.getRawRetentionMillis());
+        deleted += delete("DELETE FROM metric_rollup_1m WHERE bucket < ?", now - options.getMinuteRetentionMillis());
+        deleted += delete("DELETE FROM metric_rollup_1h WHERE bucket < ?", now - options.getHourRetentionMillis());
+        writer.commit();
+        if (deleted > 0) {
+            logger.info("Deleted {} metric rows past retention", deleted);
+        }
+    }
+
+    private int delete(String sql, long cutoff) throws SQLException {
+        try (PreparedStatement statement = writer.prepareStatement(sql)) {
+            statement.setLong(1, cutoff);
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Make sure every series in the batch has a dictionary row. New rows are committed in their
+     * own transaction before any sample is written, and only cached once committed, so rolling
+     * back a failed sample batch can never leave the cache pointing at a row that does not exist.
+     */
+    private void resolveSeriesIds(List<Sample> batch) throws SQLException {
+        Map<String, Integer> resolved = new HashMap<>();
+        try {
+            for (Sample sample : batch) {
+                String key = seriesKey(sample.cluster, sample.series);
+                if (!seriesIds.containsKey(key) && !resolved.containsKey(key)) {
+                    resolved.put(key, seriesId(sample.cluster, sample.series));
+                }
+            }
+            writer.commit();
+        } catch (SQLException e) {
+            writer.rollback();
+            throw e;
+        }
+        seriesIds.putAll(resolved);
+    }
+
+    private int seriesId(String cluster, String series) throws SQLException {
+        Integer id = null;
+        try (PreparedStatement select = writer.prepareStatement(
+                "SELECT id FROM metric_series WHERE cluster = ? AND name = ?")) {
+            select.setString(1, cluster);
+            select.setString(2, series);
+            try (ResultSet rows = select.executeQuery()) {
+                if (rows.next()) {
+                    id = rows.getInt(1);
+                }
+            }
+        }
+        if (id == null) {
+            try (PreparedStatement insert = writer.prepareStatement(
+                    "INSERT INTO metric_series (cluster, name) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                insert.setString(1, cluster);
+                insert.setString(2, series);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    id = keys.getInt(1);
+                }
+            }
+        }
+        return id;
+    }
+
+    private static String seriesKey(String cluster, String series) {
+        return cluster + '\u0000' + series;
+    }
+
+    private static void aggregate(Map<String, Rollup> rollups, int seriesId, long bucket, double value) {
+        rollups.computeIfAbsent(seriesId + ":" + bucket, key -> new Rollup(seriesId, bucket)).add(value);
+    }
+
+    private static String rollupTable(String name) {
+        return "CREATE TABLE IF NOT EXISTS " + name + " (series_id INT NOT NULL, bucket BIGINT NOT NULL, "
+            + "total DOUBLE PRECISION NOT NULL, cnt BIGINT NOT NULL, min_val DOUBLE PRECISION NOT NULL, "
+            + "max_val DOUBLE PRECISION NOT NULL, PRIMARY KEY (series_id, bucket))";
+    }
+
+    private static class Sample {
+        private final String cluster;
+        private final String series;
+        private final long timestamp;
+        private final double value;
+
+        Sample(String cluster, String series, long timestamp, double value) {
+            this.cluster = cluster;
+            this.series = series;
+            this.timestamp = timestamp;
+            this.value = value;
+        }
+    }
+
+    private static class Rollup {
+        private final int seriesId;
+        private final long bucket;
+        private double total;
+        private long count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        Rollup(int seriesId, long bucket) {
+            this.seriesId = seriesId;
+            this.bucket = bucket;
+        }
+
+        void add(double value) {
+            total += value;
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+    }
+}
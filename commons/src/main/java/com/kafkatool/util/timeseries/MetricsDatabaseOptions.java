@@ -0,0 +1,38 @@
+package com.kafkatool.util.timeseries;
+
+/**
+ * Settings for the persistent metrics database
+ */
+public class MetricsDatabaseOptions {
+
+    private long rawRetentionMillis = 2L * 24 * 3600_000;
+    private long minuteRetentionMillis = 30L * 24 * 3600_000;
+    private long hourRetentionMillis = 365L * 24 * 3600_000;
+    private int batchSize = 5_000;
+    private long flushIntervalMillis = 5_000;
+    private int queueCapacity = 200_000;
+
+    /** How long individual samples are kept */
+    public long getRawRetentionMillis() { return rawRetentionMillis; }
+    public void setRawRetentionMillis(long rawRetentionMillis) { this.rawRetentionMillis = rawRetentionMillis; }
+
+    /** How long one-minute rollups are kept */
+    public long getMinuteRetentionMillis() { return minuteRetentionMillis; }
+    public void setMinuteRetentionMillis(long minuteRetentionMillis) { this.minuteRetentionMillis = minuteRetentionMillis; }
+
+    /** How long one-hour rollups are kept */
+    public long getHourRetentionMillis() { return hourRetentionMillis; }
+    public void setHourRetentionMillis(long hourRetentionMillis) { this.hourRetentionMillis = hourRetentionMillis; }
+
+    /** Rows sent to the database in one JDBC batch */
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    /** How often queued samples are written */
+    public long getFlushIntervalMillis() { return flushIntervalMillis; }
+    public void setFlushIntervalMillis(long flushIntervalMillis) { this.flushIntervalMillis = flushIntervalMillis; }
+
+    /** Samples that may wait for the writer; further samples are dropped until it catches up */
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+}
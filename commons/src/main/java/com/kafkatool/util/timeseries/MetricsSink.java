@@ -0,0 +1,10 @@
+package com.kafkatool.util.timeseries;
+
+/**
+ * Receives every sample accepted by a {@link TimeSeriesStore}, for example to persist it
+ */
+@FunctionalInterface
+public interface MetricsSink {
+
+    void record(String series, long timestamp, double value);
+}
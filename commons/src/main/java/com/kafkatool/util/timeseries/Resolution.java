@@ -0,0 +1,58 @@
+package com.kafkatool.util.timeseries;
+
+/**
+ * Granularity of a time-series query: raw samples or one of the rollups kept alongside them
+ */
+public enum Resolution {
+    RAW(0, 6L * 3600_000),
+    ONE_MINUTE(60_000, 48L * 3600_000),
+    FIVE_MINUTES(300_000, 7L * 24 * 3600_000),
+    ONE_HOUR(3600_000, 30L * 24 * 3600_000);
+
+    private final long intervalMillis;
+    private final long retentionMillis;
+
+    Resolution(long intervalMillis, long retentionMillis) {
+        this.intervalMillis = intervalMillis;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /** Bucket width, or 0 for raw samples */
+    public long getIntervalMillis() { return intervalMillis; }
+    /** How far back points of this resolution are kept */
+    public long getRetentionMillis() { return retentionMillis; }
+
+    /**
+     * The finest resolution that covers a time range without returning far more points than a chart can show
+     */
+    public static Resolution forRange(long rangeMillis) {
+        if (rangeMillis <= 3600_000) {
+            return RAW;
+        }
+        if (rangeMillis <= 12L * 3600_000) {
+            return ONE_MINUTE;
+        }
+        if (rangeMillis <= 3L * 24 * 3600_000) {
+            return FIVE_MINUTES;
+        }
+        return ONE_HOUR;
+    }
+
+    /**
+     * Parse a name such as "raw", "1m", "5m", "1h" or an enum constant
+     */
+    public static Resolution fromString(String value) {
+        switch (value.trim().toLowerCase()) {
+            case "raw":
+                return RAW;
+            case "1m":
+                return ONE_MINUTE;
+            case "5m":
+                return FIVE_MINUTES;
+            case "1h":
+                return ONE_HOUR;
+            default:
+                return valueOf(value.trim().toUpperCase());
+        }
+    }
+}
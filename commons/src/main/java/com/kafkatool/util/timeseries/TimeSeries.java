@@ -0,0 +1,132 @@
+package com.kafkatool.util.timeseries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Raw samples of one metric plus its one-minute, five-minute and one-hour rollups. Each
+ * rollup keeps the average, minimum and maximum of its buckets as compressed series of
+ * their own, so long ranges are answered without decoding every raw sample.
+ */
+public class TimeSeries {
+
+    private final GorillaSeries raw = new GorillaSeries(Resolution.RAW.getRetentionMillis());
+    private final Rollup[] rollups = {
+        new Rollup(Resolution.ONE_MINUTE), new Rollup(Resolution.FIVE_MINUTES), new Rollup(Resolution.ONE_HOUR)
+    };
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    /**
+     * Add a sample; returns false if it is older than the latest one and was ignored
+     */
+    public synchronized boolean record(long timestamp, double value) {
+        if (!raw.append(timestamp, value)) {
+            return false;
+        }
+        for (Rollup rollup : rollups) {
+            rollup.add(timestamp, value);
+        }
+        lastTimestamp = timestamp;
+        return true;
+    }
+
+    /**
+     * Time of the latest sample, or Long.MIN_VALUE if there is none
+     */
+    public synchronized long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public synchronized List<DataPoint> query(long from, long to, Resolution resolution) {
+        List<DataPoint> points = new ArrayList<>();
+        if (resolution == Resolution.RAW) {
+            raw.query(from, to, (timestamp, value) -> points.add(new DataPoint(timestamp, value, value, value)));
+        } else {
+            for (Rollup rollup : rollups) {
+                if (rollup.resolution == resolution) {
+                    rollup.query(from, to, points);
+                }
+            }
+        }
+        return points;
+    }
+
+    public synchronized long sizeInBytes() {
+        long size = raw.sizeInBytes();
+        for (Rollup rollup : rollups) {
+            size += rollup.sizeInBytes();
+        }
+        return size;
+    }
+
+    public synchronized int getRawPointCount() {
+        return raw.getPointCount();
+    }
+
+    /**
+     * Aggregates points into fixed buckets; the bucket being filled is kept as plain fields and
+     * written to the compressed series once a point for a later bucket arrives
+     */
+    private static class Rollup {
+        private final Resolution resolution;
+        private final GorillaSeries averages;
+        private final GorillaSeries minimums;
+        private final GorillaSeries maximums;
+        private long bucket = Long.MIN_VALUE;
+        private double sum;
+        private double min;
+        private double max;
+        private int count;
+
+        Rollup(Resolution resolution) {
+            this.resolution = resolution;
+            this.averages = new GorillaSeries(resolution.getRetentionMillis());
+            this.minimums = new GorillaSeries(resolution.getRetentionMillis());
+            this.maximums = new GorillaSeries(resolution.getRetentionMillis());
+        }
+
+        void add(long timestamp, double value) {
+            long start = timestamp - Math.floorMod(timestamp, resolution.getIntervalMillis());
+            if (start != bucket) {
+                flush();
+                bucket = start;
+                sum = 0;
+                min = Double.POSITIVE_INFINITY;
+                max = Double.NEGATIVE_INFINITY;
+                count = 0;
+            }
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            count++;
+        }
+
+        void query(long from, long to, List<DataPoint> points) {
+            // The three series always receive the same bucket timestamps, so they decode in step
+            List<Double> minimumValues = new ArrayList<>();
+            List<Double> maximumValues = new ArrayList<>();
+            minimums.query(from, to, (timestamp, value) -> minimumValues.add(value));
+            maximums.query(from, to, (timestamp, value) -> maximumValues.add(value));
+            int first = points.size();
+            averages.query(from, to, (timestamp, value) -> {
+                int index = points.size() - first;
+                points.add(new DataPoint(timestamp, value, minimumValues.get(index), maximumValues.get(index)));
+            });
+            if (count > 0 && bucket >= from && bucket <= to) {
+                points.add(new DataPoint(bucket, sum / count, min, max));
+            }
+        }
+
+        long sizeInBytes() {
+            return 64 + averages.sizeInBytes() + minimums.sizeInBytes() + maximums.sizeInBytes();
+        }
+
+        private void flush() {
+            if (count > 0) {
+                averages.append(bucket, sum / count);
+                minimums.append(bucket, min);
+                maximums.append(bucket, max);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.kafkatool.util.timeseries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory history for named metrics such as consumer lag and end-offset rates. Samples are
+ * kept compressed (see {@link TimeSeries}), so hours of per-partition history for a large
+ * cluster take a few megabytes and can be queried for charts and the REST API. Series that
+ * have had no sample for longer than the longest retention, such as those of deleted topics
+ * or departed groups, are dropped by a sweep that runs as samples arrive.
+ */
+public class TimeSeriesStore {
+
+    private static final long SWEEP_INTERVAL_MS = 600_000;
+    private static final long IDLE_MILLIS = Arrays.stream(Resolution.values())
+        .mapToLong(Resolution::getRetentionMillis).max().getAsLong();
+
+    private final Map<String, TimeSeries> series = new ConcurrentHashMap<>();
+    private final List<MetricsSink> sinks = new CopyOnWriteArrayList<>();
+    private final long createdAt = System.currentTimeMillis();
+    private final AtomicLong lastSweep = new AtomicLong(createdAt);
+
+    public void record(String name, long timestamp, double value) {
+        if (series.computeIfAbsent(name, key -> new TimeSeries()).record(timestamp, value)) {
+            for (MetricsSink sink : sinks) {
+                sink.record(name, timestamp, value);
+            }
+        }
+        long last = lastSweep.get();
+        if (timestamp - last >= SWEEP_INTERVAL_MS && lastSweep.compareAndSet(last, timestamp)) {
+            evictIdle(timestamp - IDLE_MILLIS);
+        }
+    }
+
+    /**
+     * Drop every series whose latest sample is older than the cutoff; returns how many were dropped
+     */
+    public int evictIdle(long cutoff) {
+        int evicted = 0;
+        for (String name : series.keySet()) {
+            boolean[] removed = new boolean[1];
+            series.computeIfPresent(name, (key, timeSeries) -> {
+                removed[0] = timeSeries.getLastTimestamp() < cutoff;
+                return removed[0] ? null : timeSeries;
+            });
+            if (removed[0]) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Also pass every accepted sample to the sink, e.g. to persist it
+     */
+    public void addSink(MetricsSink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeSink(MetricsSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * When this store started collecting; anything earlier can only come from a persistent sink
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Points of a series in [from, to]; an unknown series has no points
+     */
+    public List<DataPoint> query(String name, long from, long to, Resolution resolution) {
+        TimeSeries timeSeries = series.get(name);
+        if (timeSeries == null) {
+            return Collections.emptyList();
+        }
+        return timeSeries.query(from, to, resolution != null ? resolution : Resolution.forRange(to - from));
+    }
+
+    public List<String> getSeriesNames() {
+        return new ArrayList<>(new TreeSet<>(series.keySet()));
+    }
+
+    /**
+     * Names of the series starting with the given prefix, sorted
+     */
+    public List<String> getSeriesNames(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (String name : getSeriesNames()) {
+            if (name.startsWith(prefix)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Approximate heap used by the compressed samples
+     */
+    public long getMemoryBytes() {
+        long size = 0;
+        for (TimeSeries timeSeries : series.values()) {
+            size += timeSeries.sizeInBytes();
+        }
+        return size;
+    }
+}
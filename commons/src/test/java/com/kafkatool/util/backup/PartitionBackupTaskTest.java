@@ -0,0 +1,137 @@
+package com.kafkatool.util.backup;
+
+import com.kafkatool.util.export.ImportResult;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for chunked partition backups and their restore
+ */
+public class PartitionBackupTaskTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testBackupRollsChunksAndRestoresInOrder() throws Exception {
+        BackupOptions options = new BackupOptions();
+        options.setBatchBytes(2048);
+        options.setMaxChunkBytes(1024);
+        File directory = tempDir.toFile();
+
+        BackupManifest.PartitionEntry entry = new PartitionBackupTask(consumer(0, 200), directory, "orders", 0,
+            null, options).call();
+
+        assertEquals(200, entry.getNextOffset());
+        assertTrue(entry.getChunks().size() > 1, "small chunk limit should roll several files");
+        assertEquals(200, entry.getChunks().stream().mapToLong(BackupManifest.ChunkEntry::getRecordCount).sum());
+        assertEquals(0, entry.getChunks().get(0).getFirstOffset());
+        assertEquals(199, entry.getChunks().get(entry.getChunks().size() - 1).getLastOffset());
+
+        MockProducer<byte[], byte[]> producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+        ImportResult result = new PartitionRestoreTask(producer, directory, entry, "orders-restored").call();
+
+        assertEquals(200, result.getSucceeded());
+        List<ProducerRecord<byte[], byte[]>> sent = producer.history();
+        for (int i = 0; i < sent.size(); i++) {
+            ProducerRecord<byte[], byte[]> record = sent.get(i);
+            assertEquals("orders-restored", record.topic());
+            assertEquals(0, record.partition());
+            assertEquals("key-" + i, new String(record.key(), StandardCharsets.UTF_8));
+            assertEquals(1_000L + i, record.timestamp());
+            assertEquals("t" + i, new String(record.headers().lastHeader("trace").value(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testIncrementalBackupReadsOnlyNewOffsets() throws Exception {
+        BackupOptions options = new BackupOptions();
+        options.setCompression("lz4");
+        File directory = tempDir.toFile();
+        BackupManifest manifest = new BackupManifest("orders", "2024-01-01T00:00:00");
+        manifest.put(new PartitionBackupTask(consumer(0, 50), directory, "orders", 0, null, options).call());
+
+        // Retention removed offsets 0-19 since the first run; the topic now ends at 80
+        BackupManifest.PartitionEntry updated = new PartitionBackupTask(consumer(20, 80), directory, "orders", 0,
+            manifest.get(0), options).call();
+        manifest.put(updated);
+
+        assertEquals(80, updated.getNextOffset());
+        assertEquals(2, updated.getChunks().size());
+        assertEquals(50, updated.getChunks().get(1).getFirstOffset());
+        assertEquals(30, updated.getChunks().get(1).getRecordCount());
+        assertEquals(80, manifest.getTotalRecords());
+
+        File manifestFile = new File(directory, BackupManifest.FILE_NAME);
+        manifest.write(manifestFile);
+        assertTrue(BackupManifest.read(manifestFile).verify(directory).isEmpty());
+    }
+
+    @Test
+    public void testVerifyDetectsCorruptChunk() throws Exception {
+        File directory = tempDir.toFile();
+        BackupManifest manifest = new BackupManifest("orders", "2024-01-01T00:00:00");
+        manifest.put(new PartitionBackupTask(consumer(0, 10), directory, "orders", 0, null, new BackupOptions()).call());
+        String chunk = manifest.get(0).getChunks().get(0).getFile();
+
+        try (RandomAccessFile file = new RandomAccessFile(new File(directory, chunk), "rw")) {
+            file.seek(file.length() - 1);
+            file.write(0x7f);
+        }
+
+        assertEquals(List.of(chunk), manifest.verify(directory));
+        assertThrows(Exception.class, () -> BackupChunkReader.read(new File(directory, chunk), record -> {}));
+    }
+
+    @Test
+    public void testFailedBackupLeavesNoChunk() {
+        MockConsumer<byte[], byte[]> consumer = consumer(0, 10);
+        // The partition claims more records than the consumer will ever return
+        consumer.updateEndOffsets(Map.of(new TopicPartition("orders", 0), 20L));
+        File directory = tempDir.toFile();
+
+        assertThrows(IllegalStateException.class,
+            () -> new PartitionBackupTask(consumer, directory, "orders", 0, null, new BackupOptions()).call());
+        assertArrayEquals(new String[0], directory.list());
+    }
+
+    /**
+     * A consumer over offsets [begin, end) of orders-0 whose records are key-{offset}/value-{offset}
+     */
+    private static MockConsumer<byte[], byte[]> consumer(long begin, long end) {
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        TopicPartition partition = new TopicPartition("orders", 0);
+        consumer.updateBeginningOffsets(Map.of(partition, begin));
+        consumer.updateEndOffsets(Map.of(partition, end));
+        consumer.schedulePollTask(() -> {
+            for (long offset = consumer.position(partition); offset < end; offset++) {
+                RecordHeaders headers = new RecordHeaders();
+                headers.add("trace", ("t" + offset).getBytes(StandardCharsets.UTF_8));
+                byte[] key = ("key-" + offset).getBytes(StandardCharsets.UTF_8);
+                byte[] value = ("value-" + offset + "-" + "x".repeat(40)).getBytes(StandardCharsets.UTF_8);
+                consumer.addRecord(new ConsumerRecord<>("orders", 0, offset, 1_000L + offset, TimestampType.CREATE_TIME,
+                    key.length, value.length, key, value, headers, Optional.empty()));
+            }
+        });
+        return consumer;
+    }
+}
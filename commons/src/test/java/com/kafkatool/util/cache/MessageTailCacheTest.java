@@ -0,0 +1,105 @@
+package com.kafkatool.util.cache;
+
+import com.kafkatool.model.KafkaMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-partition ring buffer tail cache
+ */
+public class MessageTailCacheTest {
+
+    private static final String CLUSTER = "localhost:9092";
+
+    @Test
+    public void testColdPartitionHasNoResumeOffset() {
+        MessageTailCache cache = new MessageTailCache();
+
+        assertEquals(-1, cache.getResumeOffset(CLUSTER, "orders", 0, 0));
+        assertTrue(cache.getTail(CLUSTER, "orders", 0, 0, 10).isEmpty());
+    }
+
+    @Test
+    public void testRefreshResumesFromCachedHighOffset() {
+        MessageTailCache cache = new MessageTailCache();
+        cache.reset(CLUSTER, "orders", 0, 100, 10);
+        cache.append(CLUSTER, "orders", 0, messages("orders", 0, 100, 110), 110);
+
+        // Three new records arrived; the last 10 now start at offset 103
+        assertEquals(110, cache.getResumeOffset(CLUSTER, "orders", 0, 103));
+        cache.append(CLUSTER, "orders", 0, messages("orders", 0, 110, 113), 113);
+
+        List<KafkaMessage> tail = cache.getTail(CLUSTER, "orders", 0, 103, 10);
+        assertEquals(10, tail.size());
+        assertEquals(103, tail.get(0).getOffset());
+        assertEquals(112, tail.get(9).getOffset());
+    }
+
+    @Test
+    public void testDuplicateRecordsAreIgnored() {
+        MessageTailCache cache = new MessageTailCache();
+        cache.reset(CLUSTER, "orders", 0, 0, 10);
+        cache.append(CLUSTER, "orders", 0, messages("orders", 0, 0, 5), 5);
+        cache.append(CLUSTER, "orders", 0, messages("orders", 0, 3, 7), 7);
+
+        List<KafkaMessage> tail = cache.getTail(CLUSTER, "orders", 0, 0, 100);
+        assertEquals(7, tail.size());
+        for (int i = 0; i < tail.size(); i++) {
+            assertEquals(i, tail.get(i).getOffset());
+        }
+    }
+
+    @Test
+    public void testRingOverwritesOldestAndNarrowsCoverage() {
+        MessageTailCache cache = new MessageTailCache(5, MessageTailCache.DEFAULT_MAX_BYTES);
+        cache.reset(CLUSTER, "orders", 0, 0, 5);
+        cache.append(CLUSTER, "orders", 0, messages("orders", 0, 0, 8), 8);
+
+        assertEquals(5, cache.getTail(CLUSTER, "orders", 0, 0, 100).size());
+        // Offsets 0-2 were overwritten, so a request needing them cannot be served
+        assertEquals(-1, cache.getResumeOffset(CLUSTER, "orders", 0, 2));
+        assertEquals(8, cache.getResumeOffset(CLUSTER, "orders", 0, 3));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPartitionIsEvictedWhenOverBudget() {
+        long oneMessage = MessageTailCache.estimateSize(messages("t", 0, 0, 1).get(0));
+        MessageTailCache cache = new MessageTailCache(100, oneMessage * 15);
+
+        cache.reset(CLUSTER, "a", 0, 0, 10);
+        cache.append(CLUSTER, "a", 0, messages("a", 0, 0, 10), 10);
+        cache.reset(CLUSTER, "b", 0, 0, 10);
+        cache.append(CLUSTER, "b", 0, messages("b", 0, 0, 10), 10);
+
+        assertEquals(1, cache.getCachedPartitionCount());
+        assertEquals(-1, cache.getResumeOffset(CLUSTER, "a", 0, 0));
+        assertEquals(10, cache.getResumeOffset(CLUSTER, "b", 0, 0));
+        assertTrue(cache.getTotalBytes() <= oneMessage * 15);
+    }
+
+    @Test
+    public void testInvalidateTopicDropsAllPartitions() {
+        MessageTailCache cache = new MessageTailCache();
+        cache.reset(CLUSTER, "orders", 0, 0, 10);
+        cache.append(CLUSTER, "orders", 0, messages("orders", 0, 0, 3), 3);
+        cache.reset(CLUSTER, "orders", 1, 0, 10);
+        cache.append(CLUSTER, "orders", 1, messages("orders", 1, 0, 3), 3);
+
+        cache.invalidateTopic(CLUSTER, "orders");
+
+        assertEquals(0, cache.getCachedPartitionCount());
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    private static List<KafkaMessage> messages(String topic, int partition, long from, long to) {
+        List<KafkaMessage> result = new ArrayList<>();
+        for (long offset = from; offset < to; offset++) {
+            result.add(new KafkaMessage(topic, partition, offset, "key-" + offset, "value-" + offset));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+package com.kafkatool.util.compare;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Merkle-tree comparison of partition hashes
+ */
+public class TopicComparisonTest {
+
+    @Test
+    public void testIdenticalPartitionsMatch() {
+        CompareOptions options = offsetOptions(10);
+        TopicComparison comparison = new TopicComparison("orders", options);
+        comparison.addPartition(0, hash(options, 0, 100, -1, null), hash(options, 0, 100, -1, null));
+
+        assertTrue(comparison.isMatching());
+        assertEquals(10, comparison.getPartitions().get(0).getChunks());
+        assertEquals(100, comparison.getPartitions().get(0).getRightRecords());
+    }
+
+    @Test
+    public void testChangedRecordIsPinpointedToItsChunk() {
+        CompareOptions options = offsetOptions(10);
+        TopicComparison comparison = new TopicComparison("orders", options);
+        TopicComparison.PartitionComparison partition = comparison.addPartition(0,
+            hash(options, 0, 100, -1, null), hash(options, 0, 100, 42, "tampered"));
+
+        assertFalse(comparison.isMatching());
+        assertEquals(1, partition.getDivergentRanges().size());
+        TopicComparison.DivergentRange range = partition.getDivergentRanges().get(0);
+        assertEquals(40, range.getStart());
+        assertEquals(49, range.getEnd());
+        assertEquals(10, range.getLeft().getRecords());
+        assertEquals(10, range.getRight().getRecords());
+    }
+
+    @Test
+    public void testMissingTailIsMergedIntoOneRange() {
+        CompareOptions options = offsetOptions(10);
+        TopicComparison comparison = new TopicComparison("orders", options);
+        TopicComparison.PartitionComparison partition = comparison.addPartition(0,
+            hash(options, 0, 100, -1, null), hash(options, 0, 75, -1, null));
+
+        assertEquals(1, partition.getDivergentRanges().size());
+        TopicComparison.DivergentRange range = partition.getDivergentRanges().get(0);
+        assertEquals(70, range.getStart());
+        assertEquals(99, range.getEnd());
+        assertEquals(30, range.getLeft().getRecords());
+        assertEquals(5, range.getRight().getRecords());
+        assertEquals(74, range.getRight().getLastOffset());
+
+        // A partition that only exists on one side differs over its whole range
+        TopicComparison.PartitionComparison extra = comparison.addPartition(1, hash(options, 0, 5, -1, null), null);
+        assertEquals(0, extra.getDivergentRanges().get(0).getRight().getRecords());
+    }
+
+    @Test
+    public void testTimestampAlignmentIgnoresOffsetShift() {
+        CompareOptions options = new CompareOptions();
+        options.setAlignment(CompareOptions.Alignment.TIMESTAMP);
+        options.setChunkMillis(1000);
+        TopicComparison comparison = new TopicComparison("orders", options);
+        // The copy starts at offset 500 but keeps the original timestamps
+        comparison.addPartition(0, hash(options, 0, 50, -1, null), hash(options, 500, 50, -1, null));
+
+        assertTrue(comparison.isMatching());
+    }
+
+    @Test
+    public void testStrayTimestampDoesNotAllocateTheGap() {
+        CompareOptions options = new CompareOptions();
+        options.setAlignment(CompareOptions.Alignment.TIMESTAMP);
+        options.setChunkMillis(1000);
+        PartitionHasher left = hash(options, 0, 50, -1, null);
+        PartitionHasher right = hash(options, 0, 50, -1, null);
+        // A record with no real timestamp lands decades before the others
+        left.add(50, 0, null, "late".getBytes(StandardCharsets.UTF_8), new RecordHeaders());
+
+        TopicComparison comparison = new TopicComparison("orders", options);
+        TopicComparison.PartitionComparison partition = comparison.addPartition(0, left, right);
+
+        assertEquals(6, partition.getChunks());
+        assertEquals(1, partition.getDivergentRanges().size());
+        assertEquals(0, partition.getDivergentRanges().get(0).getStart());
+    }
+
+    @Test
+    public void testHasherReadsUpToEndOffsets() {
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        TopicPartition partition = new TopicPartition("orders", 0);
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+        consumer.updateEndOffsets(Map.of(partition, 3L));
+        consumer.schedulePollTask(() -> {
+            for (long offset = 0; offset < 3; offset++) {
+                byte[] value = ("v" + offset).getBytes(StandardCharsets.UTF_8);
+                consumer.addRecord(new ConsumerRecord<>("orders", 0, offset, offset * 100, TimestampType.CREATE_TIME,
+                    -1, value.length, null, value, new RecordHeaders(), Optional.empty()));
+            }
+        });
+
+        CompareOptions options = offsetOptions(2);
+        Map<Integer, PartitionHasher> hashes = new TopicHasher(consumer, options).hash("orders", List.of(0));
+
+        assertEquals(3, hashes.get(0).getRecords());
+        assertEquals(2, hashes.get(0).getChunks().size());
+    }
+
+    private static CompareOptions offsetOptions(long chunkSize) {
+        CompareOptions options = new CompareOptions();
+        options.setChunkSize(chunkSize);
+        return options;
+    }
+
+    /**
+     * Hash {@code count} records starting at {@code firstOffset}, with timestamps 100ms apart
+     * that do not depend on the offset, optionally replacing the value of record number {@code changed}
+     */
+    private static PartitionHasher hash(CompareOptions options, long firstOffset, int count, int changed, String value) {
+        PartitionHasher hasher = new PartitionHasher(0, options);
+        for (int i = 0; i < count; i++) {
+            RecordHeaders headers = new RecordHeaders();
+            headers.add("trace", ("t" + i).getBytes(StandardCharsets.UTF_8));
+            String recordValue = i == changed ? value : "value-" + i;
+            hasher.add(firstOffset + i, 1_000_000L + i * 100, ("key-" + i).getBytes(StandardCharsets.UTF_8),
+                recordValue.getBytes(StandardCharsets.UTF_8), headers);
+        }
+        return hasher;
+    }
+}
@@ -0,0 +1,91 @@
+package com.kafkatool.util.diff;
+
+import com.kafkatool.model.ConsumerGroupInfo;
+import com.kafkatool.model.TopicInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for diffing listings and applying the diff with minimal list mutations
+ */
+public class SnapshotDiffTest {
+
+    @Test
+    public void testDetectsAddedRemovedAndChangedTopics() {
+        List<TopicInfo> previous = List.of(topic("a", 3), topic("b", 3), topic("c", 3));
+        List<TopicInfo> next = List.of(topic("a", 3), topic("c", 6), topic("d", 1));
+
+        SnapshotDiff<TopicInfo, String> diff = ListingDiffs.topics(previous, next);
+
+        assertEquals(List.of("d"), names(diff.getAdded()));
+        assertEquals(List.of("b"), names(diff.getRemoved()));
+        assertEquals(List.of("c"), names(diff.getChanged()));
+        assertEquals(6, diff.getChanged().get(0).getPartitions());
+    }
+
+    @Test
+    public void testUnchangedListingIsEmptyAndLeavesListUntouched() {
+        TopicInfo a = topic("a", 3);
+        List<TopicInfo> target = new ArrayList<>(List.of(a));
+
+        SnapshotDiff<TopicInfo, String> diff = ListingDiffs.topics(target, List.of(topic("a", 3)));
+        diff.applyTo(target);
+
+        assertTrue(diff.isEmpty());
+        assertSame(a, target.get(0));
+    }
+
+    @Test
+    public void testApplyKeepsUnchangedInstancesAndFollowsNewOrder() {
+        TopicInfo a = topic("a", 1);
+        TopicInfo c = topic("c", 1);
+        List<TopicInfo> target = new ArrayList<>(List.of(a, topic("b", 1), c, topic("e", 1)));
+        List<TopicInfo> next = List.of(topic("a", 1), topic("c", 1), topic("d", 1), topic("e", 2), topic("f", 1));
+
+        ListingDiffs.topics(target, next).applyTo(target);
+
+        assertEquals(List.of("a", "c", "d", "e", "f"), names(target));
+        assertSame(a, target.get(0));
+        assertSame(c, target.get(1));
+        assertEquals(2, target.get(3).getPartitions());
+    }
+
+    @Test
+    public void testConsumerGroupsCompareByContent() {
+        ConsumerGroupInfo stable = group("g1", "Stable", 10);
+        List<ConsumerGroupInfo> target = new ArrayList<>(List.of(stable, group("g2", "Empty", 0)));
+
+        SnapshotDiff<ConsumerGroupInfo, String> diff = ListingDiffs.consumerGroups(target,
+            List.of(group("g1", "Stable", 10), group("g2", "Stable", 0)));
+        diff.applyTo(target);
+
+        assertEquals(1, diff.getChanged().size());
+        assertSame(stable, target.get(0));
+        assertEquals("Stable", target.get(1).getState());
+    }
+
+    @Test
+    public void testInitialLoadAppendsEverything() {
+        List<TopicInfo> target = new ArrayList<>();
+        ListingDiffs.topics(target, List.of(topic("x", 1), topic("y", 1))).applyTo(target);
+        assertEquals(List.of("x", "y"), names(target));
+    }
+
+    private static TopicInfo topic(String name, int partitions) {
+        return new TopicInfo(name, partitions, (short) 1);
+    }
+
+    private static ConsumerGroupInfo group(String id, String state, long lag) {
+        ConsumerGroupInfo group = new ConsumerGroupInfo(id, state);
+        group.setLag(lag);
+        return group;
+    }
+
+    private static List<String> names(List<TopicInfo> topics) {
+        return topics.stream().map(TopicInfo::getName).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Avro object container export
+ */
+public class AvroMessageWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRoundTripPreservesAllFields() throws Exception {
+        File file = tempDir.resolve("export.avro").toFile();
+        List<KafkaMessage> messages = messages(3);
+        KafkaMessage empty = new KafkaMessage("orders", 3, 1, null, null, null, Map.of());
+        messages.add(empty);
+        MessageExportImportUtil.exportToAvro(messages, file);
+
+        List<KafkaMessage> imported = MessageExportImportUtil.importFromAvro(file);
+        assertEquals(4, imported.size());
+        assertEquals("key-2", imported.get(2).getKey());
+        assertEquals("value-2", imported.get(2).getValue());
+        assertEquals(2, imported.get(2).getOffset());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 2), imported.get(2).getTimestamp());
+        assertEquals(Map.of("source", "test"), imported.get(0).getHeaders());
+
+        KafkaMessage restored = imported.get(3);
+        assertNull(restored.getKey());
+        assertNull(restored.getValue());
+        assertNull(restored.getTimestamp());
+        assertEquals(1, restored.getPartition());
+    }
+
+    @Test
+    public void testSupportedCodecs() throws Exception {
+        for (String codec : List.of("null", "deflate", "snappy", "zstd", "bzip2")) {
+            File file = tempDir.resolve("export-" + codec + ".avro").toFile();
+            MessageExportImportUtil.exportToAvro(messages(200), file, codec, 4096);
+
+            List<KafkaMessage> imported = MessageExportImportUtil.importFromAvro(file);
+            assertEquals(200, imported.size(), codec);
+            assertEquals("value-199", imported.get(199).getValue(), codec);
+        }
+        assertThrows(RuntimeException.class, () -> AvroMessageWriter.codecFor("lzma9"));
+    }
+
+    @Test
+    public void testSplitsReadEveryRecordExactlyOnce() throws Exception {
+        File file = tempDir.resolve("split.avro").toFile();
+        // A small sync interval produces many blocks so that split boundaries fall inside blocks
+        MessageExportImportUtil.exportToAvro(messages(5000), file, "deflate", 1024);
+
+        Set<Long> offsets = new HashSet<>();
+        int total = 0;
+        for (long[] split : AvroMessageReader.computeSplits(file, 7)) {
+            try (AvroMessageReader reader = new AvroMessageReader(file, split[0], split[1])) {
+                while (reader.hasNext()) {
+                    offsets.add(reader.next().getOffset());
+                    total++;
+                }
+            }
+        }
+        assertEquals(5000, total);
+        assertEquals(5000, offsets.size());
+    }
+
+    private static List<KafkaMessage> messages(int count) {
+        List<KafkaMessage> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new KafkaMessage("orders", i, 0, "key-" + i, "value-" + i,
+                LocalDateTime.of(2024, 1, 1, 10, 0, i % 60), Map.of("source", "test")));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+package com.kafkatool.util.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kafkatool.model.KafkaMessage;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for checkpointing and resuming partition export files
+ */
+public class ExportCheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testResumeNdjsonAfterInterruption() throws Exception {
+        File file = interruptAndResume(ExportFormat.NDJSON);
+
+        List<Long> offsets = new ArrayList<>();
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : Files.readAllLines(file.toPath())) {
+            offsets.add(mapper.readTree(line).get("offset").asLong());
+        }
+        assertEquals(expectedOffsets(), offsets);
+    }
+
+    @Test
+    public void testResumeCsvDoesNotRepeatHeader() throws Exception {
+        File file = interruptAndResume(ExportFormat.CSV);
+
+        List<Long> offsets = new ArrayList<>();
+        try (FileReader reader = new FileReader(file)) {
+            for (CSVRecord record : CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build().parse(reader)) {
+                offsets.add(Long.parseLong(record.get("Offset")));
+            }
+        }
+        assertEquals(expectedOffsets(), offsets);
+    }
+
+    @Test
+    public void testResumeAvroAppendsBlocks() throws Exception {
+        File file = interruptAndResume(ExportFormat.AVRO);
+
+        List<Long> offsets = new ArrayList<>();
+        for (KafkaMessage message : MessageExportImportUtil.importFromAvro(file)) {
+            offsets.add(message.getOffset());
+        }
+        assertEquals(expectedOffsets(), offsets);
+    }
+
+    @Test
+    public void testAlteredPrefixRestartsPartition() throws Exception {
+        File directory = tempDir.toFile();
+        ExportManifest.PartitionEntry saved;
+        try (PartitionFileWriter writer = new PartitionFileWriter(directory, "orders", 0, ExportFormat.NDJSON)) {
+            writeRange(writer, 0, 10);
+            saved = writer.checkpoint();
+        }
+        File file = new File(directory, saved.getFile());
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[5] = (byte) 'X';
+        Files.write(file.toPath(), bytes);
+
+        try (PartitionFileWriter writer = new PartitionFileWriter(directory, "orders", 0, ExportFormat.NDJSON, saved)) {
+            assertEquals(0, writer.getNextOffset());
+            assertEquals(0, writer.getMessageCount());
+        }
+        assertEquals(0, file.length());
+    }
+
+    @Test
+    public void testCheckpointFileRoundTrip() throws Exception {
+        ExportCheckpoint checkpoint = new ExportCheckpoint("orders", ExportFormat.AVRO);
+        checkpoint.update(new ExportManifest.PartitionEntry(1, "orders-1.avro", 0, 99, 100, 4096, "abc"));
+        checkpoint.complete(new ExportManifest.PartitionEntry(0, "orders-0.avro", 0, 9, 10, 512, "def"));
+        File file = tempDir.resolve(ExportCheckpoint.FILE_NAME).toFile();
+        checkpoint.write(file);
+
+        ExportCheckpoint restored = ExportCheckpoint.read(file);
+        assertTrue(restored.matches("orders", ExportFormat.AVRO));
+        assertFalse(restored.matches("orders", ExportFormat.CSV));
+        assertTrue(restored.isCompleted(0));
+        assertFalse(restored.isCompleted(1));
+        assertEquals(99, restored.get(1).getLastOffset());
+        assertEquals(4096, restored.get(1).getByteSize());
+        assertNotNull(restored.getUpdatedAt());
+    }
+
+    /**
+     * Write offsets 0-49 and checkpoint, keep writing to 79 without a checkpoint, tear the
+     * file tail, then resume from the checkpoint and finish with offsets 50-99
+     */
+    private File interruptAndResume(ExportFormat format) throws Exception {
+        File directory = tempDir.toFile();
+        ExportManifest.PartitionEntry saved;
+        try (PartitionFileWriter writer = new PartitionFileWriter(directory, "orders", 0, format)) {
+            writeRange(writer, 0, 50);
+            saved = writer.checkpoint();
+            writeRange(writer, 50, 80);
+        }
+        File file = new File(directory, saved.getFile());
+        Files.write(file.toPath(), "torn".getBytes(), StandardOpenOption.APPEND);
+
+        try (PartitionFileWriter writer = new PartitionFileWriter(directory, "orders", 0, format, saved)) {
+            assertEquals(50, writer.getNextOffset());
+            writeRange(writer, writer.getNextOffset(), 100);
+            writer.close();
+
+            ExportManifest.PartitionEntry entry = writer.getEntry();
+            assertEquals(100, entry.getRecordCount());
+            assertEquals(0, entry.getFirstOffset());
+            assertEquals(99, entry.getLastOffset());
+            assertEquals(ExportManifest.checksum(file), entry.getChecksum());
+        }
+        return file;
+    }
+
+    private static void writeRange(PartitionFileWriter writer, long from, long to) throws Exception {
+        for (long offset = from; offset < to; offset++) {
+            writer.write(new KafkaMessage("orders", 0, offset, "k" + offset, "v" + offset));
+        }
+    }
+
+    private static List<Long> expectedOffsets() {
+        List<Long> offsets = new ArrayList<>();
+        for (long offset = 0; offset < 100; offset++) {
+            offsets.add(offset);
+        }
+        return offsets;
+    }
+}
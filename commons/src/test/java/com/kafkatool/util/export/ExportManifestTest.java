@@ -0,0 +1,72 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for per-partition export files and the topic export manifest
+ */
+public class ExportManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPartitionFileWriterRecordsRangeAndChecksum() throws Exception {
+        PartitionFileWriter writer = new PartitionFileWriter(tempDir.toFile(), "orders", 2, ExportFormat.NDJSON);
+        for (long offset = 10; offset < 20; offset++) {
+            writer.write(new KafkaMessage("orders", 2, offset, "k" + offset, "v" + offset));
+        }
+        assertThrows(IllegalStateException.class, writer::getEntry);
+        writer.close();
+
+        ExportManifest.PartitionEntry entry = writer.getEntry();
+        File file = tempDir.resolve("orders-2.ndjson").toFile();
+        assertEquals(file.getName(), entry.getFile());
+        assertEquals(10, entry.getFirstOffset());
+        assertEquals(19, entry.getLastOffset());
+        assertEquals(10, entry.getRecordCount());
+        assertEquals(file.length(), entry.getByteSize());
+        assertEquals(ExportManifest.checksum(file), entry.getChecksum());
+    }
+
+    @Test
+    public void testManifestRoundTripAndVerify() throws Exception {
+        ExportManifest manifest = new ExportManifest("orders", ExportFormat.CSV, "2024-01-01T00:00:00");
+        for (int partition = 2; partition >= 0; partition--) {
+            try (PartitionFileWriter writer = new PartitionFileWriter(tempDir.toFile(), "orders", partition, ExportFormat.CSV)) {
+                writer.write(new KafkaMessage("orders", partition, 0, "k", "v"));
+                writer.close();
+                manifest.addPartition(writer.getEntry());
+            }
+        }
+        File manifestFile = tempDir.resolve(ExportManifest.FILE_NAME).toFile();
+        manifest.write(manifestFile);
+
+        ExportManifest restored = ExportManifest.read(manifestFile);
+        assertEquals("orders", restored.getTopic());
+        assertEquals("CSV", restored.getFormat());
+        assertEquals(3, restored.getTotalRecords());
+        assertEquals(0, restored.getPartitions().get(0).getPartition());
+        assertTrue(restored.verify(tempDir.toFile()).isEmpty());
+
+        Files.writeString(tempDir.resolve("orders-1.csv"), "tampered", StandardOpenOption.APPEND);
+        assertEquals(List.of(1), restored.verify(tempDir.toFile()));
+    }
+
+    @Test
+    public void testFormatParsing() {
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromString(" ndjson "));
+        assertEquals("avro", ExportFormat.AVRO.getExtension());
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromString("xml"));
+    }
+}
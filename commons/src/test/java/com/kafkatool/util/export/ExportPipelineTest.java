@@ -0,0 +1,90 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounded fetch-to-writer export pipeline
+ */
+public class ExportPipelineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWritesAllBatchesAndReportsProgressPerBatch() throws Exception {
+        File file = tempDir.resolve("export.csv.gz").toFile();
+        List<Integer> progress = new ArrayList<>();
+
+        try (MessageWriter writer = new CsvMessageWriter(MessageExportImportUtil.openOutputStream(file, true))) {
+            ExportPipeline pipeline = new ExportPipeline(writer, 2, 2500,
+                (processed, total, status) -> progress.add(processed)).start();
+            for (int batch = 0; batch < 5; batch++) {
+                pipeline.submit(messages(batch * 500, 500));
+            }
+            assertEquals(2500, pipeline.finish());
+        }
+
+        assertEquals(List.of(500, 1000, 1500, 2000, 2500), progress);
+
+        try (CSVParser parser = new CSVParser(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            List<CSVRecord> records = parser.getRecords();
+            assertEquals(2500, records.size());
+            assertEquals("value-2499", records.get(2499).get("Value"));
+        }
+    }
+
+    @Test
+    public void testWriterFailureSurfacesToFetcher() throws Exception {
+        MessageWriter failing = new MessageWriter() {
+            @Override
+            public void write(KafkaMessage message) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public long getMessageCount() {
+                return 0;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        ExportPipeline pipeline = new ExportPipeline(failing, 1, 10, null).start();
+        pipeline.submit(messages(0, 1));
+        IOException error = assertThrows(IOException.class, pipeline::finish);
+        assertEquals("disk full", error.getMessage());
+    }
+
+    private static List<KafkaMessage> messages(long from, int count) {
+        List<KafkaMessage> result = new ArrayList<>();
+        for (long offset = from; offset < from + count; offset++) {
+            result.add(new KafkaMessage("orders", 0, offset, "key-" + offset, "value-" + offset));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the incremental JSON import parser
+ */
+public class JsonMessageReaderTest {
+
+    @Test
+    public void testReadsExportDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MessageWriter writer = JsonMessageWriter.array(out)) {
+            writer.write(new KafkaMessage("orders", 5, 1, "k", "v",
+                LocalDateTime.of(2024, 1, 1, 10, 0), Map.of("h", "x")));
+            writer.write(new KafkaMessage("orders", 1, 6, null, null));
+        }
+
+        List<KafkaMessage> messages = read(out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, messages.size());
+        assertEquals(5, messages.get(0).getOffset());
+        assertEquals(1, messages.get(0).getPartition());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), messages.get(0).getTimestamp());
+        assertEquals(Map.of("h", "x"), messages.get(0).getHeaders());
+        assertNull(messages.get(1).getKey());
+        assertNull(messages.get(1).getValue());
+    }
+
+    @Test
+    public void testReadsNewlineDelimitedAndBareArrays() throws Exception {
+        List<KafkaMessage> ndjson = read("{\"offset\":1,\"value\":\"a\"}\n{\"offset\":2,\"value\":\"b\"}\n");
+        assertEquals(2, ndjson.size());
+        assertEquals("b", ndjson.get(1).getValue());
+
+        List<KafkaMessage> array = read("[{\"key\":\"k1\"},{\"key\":\"k2\"},{\"key\":\"k3\"}]");
+        assertEquals(3, array.size());
+        assertEquals("k3", array.get(2).getKey());
+    }
+
+    @Test
+    public void testNestedValueIsKeptAsRawJson() throws Exception {
+        List<KafkaMessage> messages = read("{\"value\":{\"id\":1,\"tags\":[\"a\"]},\"extra\":{\"ignored\":true}}");
+        assertEquals(1, messages.size());
+        assertEquals("{\"id\":1,\"tags\":[\"a\"]}", messages.get(0).getValue());
+    }
+
+    private static List<KafkaMessage> read(String json) throws Exception {
+        List<KafkaMessage> messages = new ArrayList<>();
+        try (MessageReader reader = new JsonMessageReader(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            reader.forEachRemaining(messages::add);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,91 @@
+package com.kafkatool.util.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kafkatool.model.KafkaMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming JSON and NDJSON message writers
+ */
+public class JsonMessageWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testJsonExportCanBeImported() throws Exception {
+        File file = tempDir.resolve("export.json").toFile();
+        MessageExportImportUtil.exportToJson(messages(3), file);
+
+        List<KafkaMessage> imported = MessageExportImportUtil.importFromJson(file);
+        assertEquals(3, imported.size());
+        assertEquals("key-2", imported.get(2).getKey());
+        assertEquals("value-2", imported.get(2).getValue());
+        assertEquals(Map.of("source", "test"), imported.get(0).getHeaders());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 1), imported.get(1).getTimestamp());
+
+        JsonNode root = new ObjectMapper().readTree(file);
+        assertEquals(3, root.get("totalMessages").asInt());
+    }
+
+    @Test
+    public void testNdjsonWritesOneMessagePerLine() throws Exception {
+        File file = tempDir.resolve("export.ndjson").toFile();
+        MessageExportImportUtil.exportToNdjson(messages(5), file);
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(5, lines.size());
+        JsonNode last = new ObjectMapper().readTree(lines.get(4));
+        assertEquals(4, last.get("offset").asLong());
+        assertEquals("orders", last.get("topic").asText());
+    }
+
+    @Test
+    public void testAbortedArrayHasNoTrailer() throws Exception {
+        File file = tempDir.resolve("partial.json").toFile();
+        try (MessageWriter writer = JsonMessageWriter.array(MessageExportImportUtil.openOutputStream(file))) {
+            for (KafkaMessage message : messages(2)) {
+                writer.write(message);
+            }
+            writer.abort();
+        }
+
+        String content = Files.readString(file.toPath());
+        assertFalse(content.contains("totalMessages"));
+        assertThrows(Exception.class, () -> new ObjectMapper().readTree(file));
+    }
+
+    @Test
+    public void testNullFieldsAreWrittenAsNull() throws Exception {
+        File file = tempDir.resolve("nulls.ndjson").toFile();
+        KafkaMessage message = new KafkaMessage("orders", 0, 7, null, null);
+        message.setHeaders(null);
+        MessageExportImportUtil.exportToNdjson(List.of(message), file);
+
+        JsonNode node = new ObjectMapper().readTree(Files.readAllLines(file.toPath()).get(0));
+        assertTrue(node.get("key").isNull());
+        assertTrue(node.get("value").isNull());
+        assertEquals(0, node.get("headers").size());
+    }
+
+    private static List<KafkaMessage> messages(int count) {
+        List<KafkaMessage> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new KafkaMessage("orders", i, 0, "key-" + i, "value-" + i,
+                LocalDateTime.of(2024, 1, 1, 10, 0, i), Map.of("source", "test")));
+        }
+        return result;
+    }
+}
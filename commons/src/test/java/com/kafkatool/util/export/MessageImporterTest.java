@@ -0,0 +1,82 @@
+package com.kafkatool.util.export;
+
+import com.kafkatool.model.KafkaMessage;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the pipelined bulk importer
+ */
+public class MessageImporterTest {
+
+    @Test
+    public void testSendsAllMessagesWithHeadersAndReportsProgress() throws Exception {
+        MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+        List<Integer> progress = new ArrayList<>();
+
+        ImportResult result = new MessageImporter(producer, 100, 10)
+            .importAll("target", messages(25).iterator(), (done, total, status) -> progress.add(total));
+
+        assertEquals(25, result.getSucceeded());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of(10, 20, 25), progress);
+
+        ProducerRecord<String, String> first = producer.history().get(0);
+        assertEquals("target", first.topic());
+        assertEquals("k0", first.key());
+        assertEquals("src", new String(first.headers().lastHeader("origin").value(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testBoundsInFlightRecordsAndCountsFailures() throws Exception {
+        MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        MessageImporter importer = new MessageImporter(producer, 5, 100);
+
+        Future<ImportResult> future = Executors.newSingleThreadExecutor()
+            .submit(() -> importer.importAll("target", messages(8).iterator(), null));
+
+        // Only five records may be awaiting acknowledgement at once
+        waitForHistory(producer, 5);
+        Thread.sleep(100);
+        assertEquals(5, producer.history().size());
+
+        producer.errorNext(new RuntimeException("broker down"));
+        while (!future.isDone()) {
+            producer.completeNext();
+        }
+
+        ImportResult result = future.get(5, TimeUnit.SECONDS);
+        assertEquals(7, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals("broker down", result.getFirstError());
+    }
+
+    private static void waitForHistory(MockProducer<String, String> producer, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (producer.history().size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<KafkaMessage> messages(int count) {
+        List<KafkaMessage> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            KafkaMessage message = new KafkaMessage("source", 0, i, "k" + i, "v" + i);
+            message.setHeaders(Map.of("origin", "src"));
+            result.add(message);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+package com.kafkatool.util.lag;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for computing consumer group lag snapshots
+ */
+public class LagSnapshotTest {
+
+    @Test
+    public void testComputesPerPartitionAndGroupLag() {
+        TopicPartition orders0 = new TopicPartition("orders", 0);
+        TopicPartition orders1 = new TopicPartition("orders", 1);
+        TopicPartition payments0 = new TopicPartition("payments", 0);
+        LagSnapshot snapshot = LagSnapshot.compute(1000L,
+            Map.of("billing", Map.of(orders0, 90L, orders1, 40L, payments0, 5L),
+                   "audit", Map.of(orders0, 100L)),
+            Map.of(orders0, 100L, orders1, 50L, payments0, 5L));
+
+        LagSnapshot.GroupLag billing = snapshot.getGroup("billing");
+        assertEquals(20, billing.getTotalLag());
+        assertEquals(10, billing.getMaxLag());
+        assertEquals(20, billing.getTopicLag("orders"));
+        assertEquals(0, billing.getTopicLag("payments"));
+        assertEquals("orders", billing.getPartitions().get(0).getTopic());
+        assertEquals(0, billing.getPartitions().get(0).getPartition());
+        assertEquals(0, snapshot.getGroup("audit").getTotalLag());
+        assertEquals(20, snapshot.getTotalLag());
+        assertNull(snapshot.getGroup("unknown"));
+    }
+
+    @Test
+    public void testUnknownEndOffsetIsReportedAndExcludedFromTotals() {
+        TopicPartition deleted = new TopicPartition("deleted-topic", 0);
+        TopicPartition orders0 = new TopicPartition("orders", 0);
+        LagSnapshot snapshot = LagSnapshot.compute(1000L,
+            Map.of("billing", Map.of(deleted, 10L, orders0, 3L)), Map.of(orders0, 8L));
+
+        LagSnapshot.GroupLag billing = snapshot.getGroup("billing");
+        LagSnapshot.PartitionLag unknown = billing.getPartitions().get(0);
+        assertEquals("deleted-topic", unknown.getTopic());
+        assertEquals(-1, unknown.getEndOffset());
+        assertEquals(-1, unknown.getLag());
+        assertEquals(5, billing.getTotalLag());
+    }
+
+    @Test
+    public void testCommittedBeyondEndOffsetHasNoNegativeLag() {
+        TopicPartition orders0 = new TopicPartition("orders", 0);
+        LagSnapshot snapshot = LagSnapshot.compute(1000L, Map.of("billing", Map.of(orders0, 12L)), Map.of(orders0, 10L));
+
+        assertEquals(0, snapshot.getGroup("billing").getPartitions().get(0).getLag());
+    }
+}
@@ -0,0 +1,132 @@
+package com.kafkatool.util.lag;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for estimating consumer time lag from sampled end offsets
+ */
+public class TimeLagEstimatorTest {
+
+    private static final TopicPartition ORDERS = new TopicPartition("orders", 0);
+
+    @Test
+    public void testTimelineInterpolatesBetweenSamples() {
+        OffsetTimeline timeline = new OffsetTimeline(4);
+        timeline.record(100, 10_000);
+        timeline.record(100, 15_000);
+        timeline.record(200, 20_000);
+
+        // Offsets 100-199 were written between 10s and 20s
+        assertEquals(10_100, timeline.estimateTimestamp(100));
+        assertEquals(15_000, timeline.estimateTimestamp(149));
+        assertEquals(-1, timeline.estimateTimestamp(99));
+        assertEquals(-1, timeline.estimateTimestamp(200));
+    }
+
+    @Test
+    public void testTimelineDropsOldestSamplesAndResetsOnTruncation() {
+        OffsetTimeline timeline = new OffsetTimeline(2);
+        timeline.record(0, 0);
+        timeline.record(10, 1000);
+        timeline.record(20, 2000);
+        assertEquals(2, timeline.size());
+        assertEquals(-1, timeline.estimateTimestamp(5));
+        assertEquals(1100, timeline.estimateTimestamp(10));
+
+        timeline.record(3, 3000);
+        assertEquals(1, timeline.size());
+    }
+
+    @Test
+    public void testEstimatesTimeLagFromHistory() {
+        TimeLagEstimator estimator = new TimeLagEstimator(100, null);
+        estimator.estimate(snapshot(0, 0, 0));
+        LagSnapshot first = estimator.estimate(snapshot(10_000, 0, 1000));
+        LagSnapshot.PartitionLag partition = first.getGroup("billing").getPartitions().get(0);
+        assertEquals(1000, partition.getLag());
+        // The committed record was the first one written after the previous sample
+        assertEquals(9990, partition.getTimeLagMillis());
+
+        LagSnapshot caughtUp = estimator.estimate(snapshot(20_000, 1000, 1000));
+        assertEquals(0, caughtUp.getGroup("billing").getPartitions().get(0).getTimeLagMillis());
+        assertEquals(0, caughtUp.getGroup("billing").getMaxTimeLagMillis());
+    }
+
+    @Test
+    public void testFallsBackToFetchedRecordOutsideEstimate() {
+        AtomicInteger lookups = new AtomicInteger();
+        TimeLagEstimator estimator = new TimeLagEstimator(100, (partition, offset) -> {
+            lookups.incrementAndGet();
+            assertEquals(ORDERS, partition);
+            return offset == 500 ? 4_000 : -1;
+        });
+
+        // No history yet; the estimate itself never fetches, it queues the committed offset
+        LagSnapshot first = estimator.estimate(snapshot(10_000, 500, 900));
+        assertEquals(-1, first.getGroup("billing").getPartitions().get(0).getTimeLagMillis());
+        assertEquals(0, lookups.get());
+        assertEquals(1, estimator.getPendingCount());
+
+        assertEquals(1, estimator.fetchPending(1_000));
+        LagSnapshot filled = estimator.applyTimeLag(first);
+        assertEquals(6_000, filled.getGroup("billing").getPartitions().get(0).getTimeLagMillis());
+
+        // A group stuck at the same offset is not fetched again
+        LagSnapshot second = estimator.estimate(snapshot(10_000, 500, 900));
+        assertEquals(6_000, second.getGroup("billing").getPartitions().get(0).getTimeLagMillis());
+        assertEquals(0, estimator.getPendingCount());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void testAdvancingGroupInterpolatesFromFetchedRecord() {
+        TimeLagEstimator estimator = new TimeLagEstimator(100, (partition, offset) -> 0L);
+        estimator.estimate(snapshot(10_000, 0, 1000));
+        estimator.fetchPending(1_000);
+
+        // Offsets 0 to 1000 span 0s to 10s, so offset 500 was written around 5s
+        LagSnapshot moved = estimator.estimate(snapshot(20_000, 500, 1000));
+        assertEquals(15_000, moved.getGroup("billing").getPartitions().get(0).getTimeLagMillis());
+        assertEquals(0, estimator.getPendingCount());
+    }
+
+    @Test
+    public void testGroupsAtDifferentOffsetsKeepTheirFetchedRecords() {
+        AtomicInteger lookups = new AtomicInteger();
+        TimeLagEstimator estimator = new TimeLagEstimator(100, (partition, offset) -> {
+            lookups.incrementAndGet();
+            return offset * 10;
+        });
+        LagSnapshot snapshot = LagSnapshot.compute(100_000,
+            Map.of("billing", Map.of(ORDERS, 100L), "audit", Map.of(ORDERS, 300L)), Map.of(ORDERS, 900L));
+
+        estimator.estimate(snapshot);
+        assertEquals(2, estimator.fetchPending(1_000));
+        LagSnapshot filled = estimator.applyTimeLag(snapshot);
+        assertEquals(99_000, filled.getGroup("billing").getPartitions().get(0).getTimeLagMillis());
+        assertEquals(97_000, filled.getGroup("audit").getPartitions().get(0).getTimeLagMillis());
+
+        // Neither group's record pushed out the other's
+        estimator.estimate(snapshot);
+        assertEquals(0, estimator.getPendingCount());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void testUnknownWithoutHistoryOrLookup() {
+        LagSnapshot snapshot = new TimeLagEstimator(100, null).estimate(snapshot(10_000, 5, 10));
+
+        assertEquals(-1, snapshot.getGroup("billing").getPartitions().get(0).getTimeLagMillis());
+        assertEquals(5, snapshot.getGroup("billing").getTotalLag());
+    }
+
+    private static LagSnapshot snapshot(long timestamp, long committed, long end) {
+        return LagSnapshot.compute(timestamp, Map.of("billing", Map.of(ORDERS, committed)), Map.of(ORDERS, end));
+    }
+}
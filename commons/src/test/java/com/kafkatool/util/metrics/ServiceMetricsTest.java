@@ -0,0 +1,111 @@
+package com.kafkatool.util.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.kafka.KafkaClientMetrics;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.stats.Value;
+import org.apache.kafka.common.utils.Time;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for operation timing and reading back bound client metrics
+ */
+public class ServiceMetricsTest {
+
+    interface Operations {
+        CompletableFuture<String> fetch(String name);
+        CompletableFuture<String> fail();
+        String name();
+    }
+
+    @Test
+    public void testInstrumentTimesFutureOperationsByOutcome() throws Exception {
+        ServiceMetrics metrics = new ServiceMetrics();
+        Operations target = new Operations() {
+            public CompletableFuture<String> fetch(String name) { return CompletableFuture.completedFuture("hello " + name); }
+            public CompletableFuture<String> fail() { return CompletableFuture.failedFuture(new IllegalStateException("down")); }
+            public String name() { return "ops"; }
+        };
+        Operations instrumented = ServiceMetrics.instrument(Operations.class, target, metrics);
+
+        assertEquals("hello a", instrumented.fetch("a").get());
+        instrumented.fetch("b").get();
+        ExecutionException error = assertThrows(ExecutionException.class, () -> instrumented.fail().get());
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals("ops", instrumented.name());
+
+        Timer fetches = metrics.getRegistry().find(ServiceMetrics.OPERATION_TIMER)
+            .tags("operation", "fetch", "outcome", "success").timer();
+        assertNotNull(fetches);
+        assertEquals(2, fetches.count());
+        assertEquals(3, metrics.getOperationCount());
+        assertEquals(1, metrics.getErrorCount());
+        assertNotNull(metrics.getRegistry().find(ServiceMetrics.OPERATION_ERRORS)
+            .tags("operation", "fail", "exception", "IllegalStateException").counter());
+        // Methods that do not return a future are not timed
+        assertNull(metrics.getRegistry().find(ServiceMetrics.OPERATION_TIMER).tag("operation", "name").timer());
+    }
+
+    @Test
+    public void testSynchronousFailureIsCountedAndRethrown() {
+        ServiceMetrics metrics = new ServiceMetrics();
+        assertThrows(IllegalArgumentException.class, () -> metrics.time("create", () -> {
+            throw new IllegalArgumentException("bad");
+        }));
+        assertEquals(1, metrics.getErrorCount());
+    }
+
+    @Test
+    public void testClientMetricsAreReadPerClusterAndNode() {
+        ServiceMetrics metrics = new ServiceMetrics();
+        MockConsumer<byte[], byte[]> first = consumerWithMetrics("c1", 10, 100);
+        MockConsumer<byte[], byte[]> second = consumerWithMetrics("c2", 30, 50);
+        MockConsumer<byte[], byte[]> other = consumerWithMetrics("c3", 1000, 1000);
+        KafkaClientMetrics binding = metrics.bindClient(first, "cluster-a");
+        metrics.bindClient(second, "cluster-a");
+        metrics.bindClient(other, "cluster-b");
+
+        Tag node = Tag.of("node.id", "node-1");
+        assertEquals(20, metrics.clientMean("node.request.latency.avg", "cluster-a", node), 0.001);
+        assertEquals(150, metrics.clientSum("incoming.byte.rate", "cluster-a"), 0.001);
+        assertEquals(0, metrics.clientSum("incoming.byte.rate", "cluster-c"), 0.001);
+
+        binding.close();
+        assertEquals(50, metrics.clientSum("incoming.byte.rate", "cluster-a"), 0.001);
+    }
+
+    private static MockConsumer<byte[], byte[]> consumerWithMetrics(String clientId, double latency, double bytesIn) {
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized Map<MetricName, ? extends org.apache.kafka.common.Metric> metrics() {
+                return Map.of(
+                    name("request-latency-avg", "consumer-node-metrics", Map.of("client-id", clientId, "node-id", "node-1")),
+                    metric(name("request-latency-avg", "consumer-node-metrics", Map.of("client-id", clientId, "node-id", "node-1")), latency),
+                    name("incoming-byte-rate", "consumer-metrics", Map.of("client-id", clientId)),
+                    metric(name("incoming-byte-rate", "consumer-metrics", Map.of("client-id", clientId)), bytesIn));
+            }
+        };
+        return consumer;
+    }
+
+    private static MetricName name(String name, String group, Map<String, String> tags) {
+        return new MetricName(name, group, "", tags);
+    }
+
+    private static KafkaMetric metric(MetricName name, double value) {
+        Value stat = new Value();
+        stat.record(new MetricConfig(), value, 0);
+        return new KafkaMetric(new Object(), name, stat, new MetricConfig(), Time.SYSTEM);
+    }
+}
@@ -0,0 +1,194 @@
+package com.kafkatool.util.mirror;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for partition mirroring with checkpointed source offsets
+ */
+public class MirrorWorkerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testBoundedMirrorCopiesToSamePartitionsAndCheckpoints() throws Exception {
+        MirrorCheckpointStore checkpoints = new MirrorCheckpointStore(tempDir.resolve("mirror.json").toFile());
+        MockConsumer<byte[], byte[]> consumer = consumer(Map.of(0, 0L, 1, 0L), Map.of(0, 3L, 1, 2L));
+        MockProducer<byte[], byte[]> producer = producer();
+        Map<Integer, PartitionMirrorStats> stats = stats(0, 1);
+
+        new MirrorWorker(consumer, producer, "orders", "orders-copy", List.of(0, 1), stats, checkpoints, new MirrorOptions()).run();
+
+        List<ProducerRecord<byte[], byte[]>> sent = producer.history();
+        assertEquals(5, sent.size());
+        for (ProducerRecord<byte[], byte[]> record : sent) {
+            assertEquals("orders-copy", record.topic());
+            assertEquals(Integer.parseInt(new String(record.key(), StandardCharsets.UTF_8).substring(1, 2)), record.partition());
+            assertEquals(1000L, record.timestamp());
+        }
+        assertEquals(3, stats.get(0).getMirrored());
+        assertEquals(2, stats.get(1).getMirrored());
+        assertTrue(stats.get(0).isFinished());
+        assertEquals(0, stats.get(1).getLag());
+
+        MirrorCheckpointStore reloaded = new MirrorCheckpointStore(tempDir.resolve("mirror.json").toFile());
+        assertEquals(Map.of(0, 3L, 1, 2L), reloaded.getOffsets());
+    }
+
+    @Test
+    public void testResumesFromCheckpointedOffsets() throws Exception {
+        File file = tempDir.resolve("mirror.json").toFile();
+        new MirrorCheckpointStore(file).commit(Map.of(0, 3L));
+
+        // Offsets 0-2 were copied by an earlier run; only 3 and 4 are new
+        MockConsumer<byte[], byte[]> consumer = consumer(Map.of(0, 0L), Map.of(0, 5L));
+        MockProducer<byte[], byte[]> producer = producer();
+        new MirrorWorker(consumer, producer, "orders", "orders", List.of(0), stats(0),
+            new MirrorCheckpointStore(file), new MirrorOptions()).run();
+
+        assertEquals(2, producer.history().size());
+        assertEquals("p0-3", new String(producer.history().get(0).key(), StandardCharsets.UTF_8));
+        assertEquals(5L, new MirrorCheckpointStore(file).get(0));
+    }
+
+    @Test
+    public void testFailedSendStopsWithoutAdvancingCheckpoint() throws Exception {
+        File file = tempDir.resolve("mirror.json").toFile();
+        MockConsumer<byte[], byte[]> consumer = consumer(Map.of(0, 0L), Map.of(0, 3L));
+        MockProducer<byte[], byte[]> producer = new MockProducer<>(false, new ByteArraySerializer(), new ByteArraySerializer()) {
+            @Override
+            public synchronized void flush() {
+                // The first in-flight record is rejected by the target before the rest complete
+                errorNext(new RuntimeException("not leader"));
+                super.flush();
+            }
+        };
+        Map<Integer, PartitionMirrorStats> stats = stats(0);
+        MirrorWorker worker = new MirrorWorker(consumer, producer, "orders", "orders", List.of(0), stats,
+            new MirrorCheckpointStore(file), new MirrorOptions());
+
+        RuntimeException error = assertThrows(RuntimeException.class, worker::run);
+        assertTrue(error.getMessage().contains("not leader"));
+
+        assertNull(new MirrorCheckpointStore(file).get(0));
+        // Only the acknowledged records count as mirrored
+        assertEquals(2, stats.get(0).getMirrored());
+    }
+
+    @Test
+    public void testSessionClosesClientsWhenConstructionFails() throws Exception {
+        MirrorOptions options = new MirrorOptions();
+        options.setWorkers(2);
+        MirrorCheckpointStore checkpoints = new MirrorCheckpointStore(tempDir.resolve("session.json").toFile());
+        List<MockConsumer<byte[], byte[]>> consumers = new ArrayList<>();
+        List<MockProducer<byte[], byte[]>> producers = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> new MirrorSession("orders", "orders", List.of(0, 1), options,
+            checkpoints,
+            () -> {
+                MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+                consumers.add(consumer);
+                return consumer;
+            },
+            () -> {
+                if (!producers.isEmpty()) {
+                    throw new IllegalStateException("target unreachable");
+                }
+                MockProducer<byte[], byte[]> producer = producer();
+                producers.add(producer);
+                return producer;
+            }));
+
+        assertEquals(2, consumers.size());
+        assertTrue(consumers.stream().allMatch(MockConsumer::closed));
+        assertTrue(producers.get(0).closed());
+    }
+
+    @Test
+    public void testSessionSpreadsPartitionsOverWorkers() throws Exception {
+        MirrorOptions options = new MirrorOptions();
+        options.setWorkers(2);
+        MirrorCheckpointStore checkpoints = new MirrorCheckpointStore(tempDir.resolve("session.json").toFile());
+        Map<Integer, Long> ends = Map.of(0, 2L, 1, 2L, 2, 2L);
+        Map<Integer, Long> begins = Map.of(0, 0L, 1, 0L, 2, 0L);
+        List<MockConsumer<byte[], byte[]>> consumers = new ArrayList<>();
+        MirrorSession session = new MirrorSession("orders", "orders", List.of(0, 1, 2), options, checkpoints,
+            () -> {
+                MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+                consumers.add(consumer);
+                return consumer;
+            },
+            MirrorWorkerTest::producer);
+        // Each worker only sees records for the partitions it was assigned
+        for (MockConsumer<byte[], byte[]> consumer : consumers) {
+            fill(consumer, begins, ends);
+        }
+        session.start().getCompletion().get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, consumers.size());
+        assertEquals(6, session.getStats().stream().mapToLong(PartitionMirrorStats::getMirrored).sum());
+        assertEquals(0, session.getTotalLag());
+        assertEquals(Map.of(0, 2L, 1, 2L, 2, 2L), checkpoints.getOffsets());
+    }
+
+    private static MockConsumer<byte[], byte[]> consumer(Map<Integer, Long> begins, Map<Integer, Long> ends) {
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        fill(consumer, begins, ends);
+        return consumer;
+    }
+
+    /**
+     * Register offsets and queue records p{partition}-{offset} for the partitions assigned at first poll
+     */
+    private static void fill(MockConsumer<byte[], byte[]> consumer, Map<Integer, Long> begins, Map<Integer, Long> ends) {
+        Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+        Map<TopicPartition, Long> endOffsets = new HashMap<>();
+        begins.forEach((partition, offset) -> beginningOffsets.put(new TopicPartition("orders", partition), offset));
+        ends.forEach((partition, offset) -> endOffsets.put(new TopicPartition("orders", partition), offset));
+        consumer.updateBeginningOffsets(beginningOffsets);
+        consumer.updateEndOffsets(endOffsets);
+        consumer.schedulePollTask(() -> {
+            for (TopicPartition partition : consumer.assignment()) {
+                for (long offset = begins.get(partition.partition()); offset < ends.get(partition.partition()); offset++) {
+                    byte[] key = ("p" + partition.partition() + "-" + offset).getBytes(StandardCharsets.UTF_8);
+                    consumer.addRecord(new ConsumerRecord<>("orders", partition.partition(), offset, 1000L,
+                        TimestampType.CREATE_TIME, key.length, 1, key, new byte[]{1}, new RecordHeaders(), Optional.empty()));
+                }
+            }
+        });
+    }
+
+    private static MockProducer<byte[], byte[]> producer() {
+        return new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+    }
+
+    private static Map<Integer, PartitionMirrorStats> stats(int... partitions) {
+        Map<Integer, PartitionMirrorStats> stats = new HashMap<>();
+        for (int partition : partitions) {
+            stats.put(partition, new PartitionMirrorStats(partition));
+        }
+        return stats;
+    }
+}
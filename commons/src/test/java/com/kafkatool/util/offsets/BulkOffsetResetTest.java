@@ -0,0 +1,70 @@
+package com.kafkatool.util.offsets;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.protocol.Errors;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for applying a bulk consumer group reset
+ */
+public class BulkOffsetResetTest {
+
+    private static final TopicPartition ORDERS_0 = new TopicPartition("orders", 0);
+
+    @Test
+    public void testFailingGroupDoesNotStopTheOthers() throws Exception {
+        Map<String, Map<TopicPartition, OffsetAndMetadata>> altered = new HashMap<>();
+        // The shipping group still has active members, so the coordinator rejects its commit
+        Admin admin = admin(altered, "shipping");
+        OffsetResetPlan plan = OffsetResetPlan.build(List.of("billing", "shipping"), List.of(ORDERS_0),
+            OffsetResetOptions.of(OffsetResetOptions.Strategy.EARLIEST, false),
+            Map.of("billing", Map.of(ORDERS_0, 40L), "shipping", Map.of(ORDERS_0, 20L)),
+            Map.of(ORDERS_0, 10L), Map.of(ORDERS_0, 100L), Map.of());
+
+        new BulkOffsetReset(admin).apply(plan);
+
+        assertEquals(OffsetResetPlan.Status.APPLIED, plan.getGroup("billing").getStatus());
+        assertEquals(OffsetResetPlan.Status.FAILED, plan.getGroup("shipping").getStatus());
+        assertNotNull(plan.getGroup("shipping").getError());
+        assertEquals(1, plan.getFailedGroups());
+        assertEquals(Map.of(ORDERS_0, new OffsetAndMetadata(10L)), altered.get("billing"));
+        assertEquals(Map.of(ORDERS_0, new OffsetAndMetadata(10L)), altered.get("shipping"));
+    }
+
+    /**
+     * An admin that only answers alterConsumerGroupOffsets, recording each call and failing
+     * every partition of the given group
+     */
+    @SuppressWarnings("unchecked")
+    private static Admin admin(Map<String, Map<TopicPartition, OffsetAndMetadata>> altered, String failingGroup) {
+        return (Admin) Proxy.newProxyInstance(Admin.class.getClassLoader(), new Class<?>[] {Admin.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("alterConsumerGroupOffsets")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                String groupId = (String) args[0];
+                Map<TopicPartition, OffsetAndMetadata> offsets = (Map<TopicPartition, OffsetAndMetadata>) args[1];
+                altered.put(groupId, offsets);
+                Map<TopicPartition, Errors> errors = new HashMap<>();
+                offsets.keySet().forEach(partition ->
+                    errors.put(partition, groupId.equals(failingGroup) ? Errors.UNKNOWN_MEMBER_ID : Errors.NONE));
+                // The result has no public constructor; the admin client builds it from per-partition errors
+                Constructor<AlterConsumerGroupOffsetsResult> constructor =
+                    AlterConsumerGroupOffsetsResult.class.getDeclaredConstructor(KafkaFuture.class);
+                constructor.setAccessible(true);
+                return constructor.newInstance(KafkaFuture.completedFuture(errors));
+            });
+    }
+}
@@ -0,0 +1,97 @@
+package com.kafkatool.util.offsets;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for working out the target offsets of a bulk consumer group reset
+ */
+public class OffsetResetPlanTest {
+
+    private static final TopicPartition ORDERS_0 = new TopicPartition("orders", 0);
+    private static final TopicPartition ORDERS_1 = new TopicPartition("orders", 1);
+    private static final TopicPartition PAYMENTS_0 = new TopicPartition("payments", 0);
+
+    private static final Map<TopicPartition, Long> EARLIEST = Map.of(ORDERS_0, 10L, ORDERS_1, 0L, PAYMENTS_0, 5L);
+    private static final Map<TopicPartition, Long> LATEST = Map.of(ORDERS_0, 100L, ORDERS_1, 50L, PAYMENTS_0, 8L);
+    private static final Map<String, Map<TopicPartition, Long>> COMMITTED = Map.of(
+        "billing", Map.of(ORDERS_0, 40L, PAYMENTS_0, 7L),
+        "shipping", Map.of(ORDERS_1, 20L));
+
+    @Test
+    public void testEarliestAndLatestCoverRequestedPartitionsForEveryGroup() {
+        OffsetResetPlan earliest = plan(List.of(ORDERS_0, ORDERS_1), OffsetResetOptions.of(OffsetResetOptions.Strategy.EARLIEST, true), Map.of());
+        assertEquals(2, earliest.getGroups().size());
+        OffsetResetPlan.GroupReset billing = earliest.getGroup("billing");
+        assertEquals(2, billing.getPartitions().size());
+        assertEquals(10L, billing.getPartitions().get(0).getTargetOffset());
+        assertEquals(40L, billing.getPartitions().get(0).getCurrentOffset());
+        // No committed offset on orders-1 yet, so it gets one without a delta
+        assertEquals(-1L, billing.getPartitions().get(1).getCurrentOffset());
+        assertEquals(0L, billing.getPartitions().get(1).getDelta());
+        assertEquals(-30L, billing.getTotalDelta());
+        assertEquals(OffsetResetPlan.Status.PLANNED, billing.getStatus());
+
+        OffsetResetPlan latest = plan(List.of(ORDERS_0, ORDERS_1), OffsetResetOptions.of(OffsetResetOptions.Strategy.LATEST, true), Map.of());
+        assertEquals(50L, latest.getGroup("shipping").getPartitions().get(1).getTargetOffset());
+        assertEquals(30L, latest.getGroup("shipping").getTotalDelta());
+    }
+
+    @Test
+    public void testEmptyTopicsUseEachGroupsCommittedPartitions() {
+        OffsetResetPlan plan = plan(List.of(), OffsetResetOptions.of(OffsetResetOptions.Strategy.LATEST, true), Map.of());
+        assertEquals(List.of("orders", "payments"),
+            plan.getGroup("billing").getPartitions().stream().map(OffsetResetPlan.PartitionReset::getTopic).toList());
+        assertEquals(1, plan.getGroup("shipping").getPartitions().size());
+    }
+
+    @Test
+    public void testTimestampFallsBackToLogEndPastTheLastRecord() {
+        OffsetResetOptions options = OffsetResetOptions.of(OffsetResetOptions.Strategy.TIMESTAMP, true);
+        options.setTimestamp(1_000L);
+        OffsetResetPlan plan = plan(List.of(ORDERS_0, ORDERS_1), options, Map.of(ORDERS_0, 60L, ORDERS_1, -1L));
+        List<OffsetResetPlan.PartitionReset> resets = plan.getGroup("billing").getPartitions();
+        assertEquals(60L, resets.get(0).getTargetOffset());
+        assertEquals(50L, resets.get(1).getTargetOffset());
+    }
+
+    @Test
+    public void testShiftIsClampedToTheLogAndSkipsUncommittedPartitions() {
+        OffsetResetOptions back = OffsetResetOptions.of(OffsetResetOptions.Strategy.SHIFT, true);
+        back.setShiftBy(-35);
+        OffsetResetPlan plan = plan(List.of(), back, Map.of());
+        List<OffsetResetPlan.PartitionReset> billing = plan.getGroup("billing").getPartitions();
+        assertEquals(10L, billing.get(0).getTargetOffset());
+        assertEquals(5L, billing.get(1).getTargetOffset());
+        assertEquals(0L, plan.getGroup("shipping").getPartitions().get(0).getTargetOffset());
+
+        OffsetResetOptions forward = OffsetResetOptions.of(OffsetResetOptions.Strategy.SHIFT, true);
+        forward.setShiftBy(5);
+        OffsetResetPlan shifted = plan(List.of(ORDERS_0, ORDERS_1), forward, Map.of());
+        // billing has nothing committed on orders-1, so there is nothing to shift there
+        assertEquals(1, shifted.getGroup("billing").getPartitions().size());
+        assertEquals(45L, shifted.getGroup("billing").getPartitions().get(0).getTargetOffset());
+    }
+
+    @Test
+    public void testPartitionsOfDeletedTopicsAreLeftOut() {
+        TopicPartition deleted = new TopicPartition("old-topic", 0);
+        OffsetResetPlan plan = OffsetResetPlan.build(List.of("legacy"), List.of(),
+            OffsetResetOptions.of(OffsetResetOptions.Strategy.EARLIEST, true),
+            Map.of("legacy", Map.of(deleted, 3L, ORDERS_0, 50L)), EARLIEST, LATEST, Map.of());
+        assertEquals(1, plan.getGroup("legacy").getPartitions().size());
+        assertTrue(plan.isDryRun());
+        assertEquals(0, plan.getFailedGroups());
+    }
+
+    private static OffsetResetPlan plan(List<TopicPartition> partitions, OffsetResetOptions options,
+                                        Map<TopicPartition, Long> timestampOffsets) {
+        return OffsetResetPlan.build(List.of("billing", "shipping"), partitions, options, COMMITTED,
+            EARLIEST, LATEST, timestampOffsets);
+    }
+}
@@ -0,0 +1,41 @@
+package com.kafkatool.util.offsets;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for parsing the timestamps and durations an offset reset can target
+ */
+public class OffsetResetTimeTest {
+
+    @Test
+    public void testDurations() {
+        assertEquals(Duration.ofMinutes(15), OffsetResetTime.parseDuration("-15m"));
+        assertEquals(Duration.ofMinutes(90), OffsetResetTime.parseDuration("1h30m"));
+        assertEquals(Duration.ofDays(2), OffsetResetTime.parseDuration("2d"));
+        assertEquals(Duration.ofMillis(500), OffsetResetTime.parseDuration("500ms"));
+        assertEquals(Duration.ofHours(2), OffsetResetTime.parseDuration("-PT2H"));
+        assertEquals(1_000_000L - 60_000L, OffsetResetTime.before(1_000_000L, "1m"));
+
+        assertThrows(IllegalArgumentException.class, () -> OffsetResetTime.parseDuration("15"));
+        assertThrows(IllegalArgumentException.class, () -> OffsetResetTime.parseDuration("15m garbage"));
+        assertThrows(IllegalArgumentException.class, () -> OffsetResetTime.parseDuration(""));
+    }
+
+    @Test
+    public void testTimestamps() {
+        assertEquals(1_700_000_000_000L, OffsetResetTime.parseTimestamp("1700000000000"));
+        assertEquals(1_700_000_000_000L, OffsetResetTime.parseTimestamp("2023-11-14T22:13:20Z"));
+        assertEquals(1_700_000_000_000L, OffsetResetTime.parseTimestamp("2023-11-15T00:13:20+02:00"));
+        long local = LocalDateTime.of(2024, 1, 2, 3, 4, 5).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals(local, OffsetResetTime.parseTimestamp("2024-01-02 03:04:05"));
+        assertEquals(local, OffsetResetTime.parseTimestamp("2024-01-02T03:04:05"));
+
+        assertThrows(IllegalArgumentException.class, () -> OffsetResetTime.parseTimestamp("yesterday"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.kafkatool.util.replay;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the byte-level replay engine
+ */
+public class ReplayEngineTest {
+
+    private static final TopicPartition SOURCE = new TopicPartition("source", 2);
+
+    @Test
+    public void testReplaysRangeWithKeysHeadersAndMapping() throws Exception {
+        MockConsumer<byte[], byte[]> consumer = consumerWithRecords(20);
+        MockProducer<byte[], byte[]> producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+        ReplayOptions options = new ReplayOptions();
+        options.setPartitionMapping(Map.of(2, 0));
+        List<ReplayProgress> reports = new ArrayList<>();
+        options.setProgressListener(reports::add);
+
+        ReplayProgress result = new ReplayEngine(consumer, producer, options).replay("source", 2, 5, 14, "target");
+
+        assertEquals(10, result.getTotal());
+        assertEquals(10, result.getReplayed());
+        assertEquals(0, result.getFailed());
+        // Keys k5-k9 and values value-5 to value-9 are one byte shorter than the rest
+        assertEquals(5 * (2 + 7) + 5 * (3 + 8), result.getBytes());
+        assertFalse(reports.isEmpty());
+
+        ProducerRecord<byte[], byte[]> first = producer.history().get(0);
+        assertEquals("target", first.topic());
+        assertEquals(0, first.partition());
+        assertEquals("k5", new String(first.key(), StandardCharsets.UTF_8));
+        assertEquals("value-5", new String(first.value(), StandardCharsets.UTF_8));
+        assertEquals("5", new String(first.headers().lastHeader("seq").value(), StandardCharsets.UTF_8));
+        assertEquals("k14", new String(producer.history().get(9).key(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnmappedPartitionIsLeftToPartitioner() throws Exception {
+        MockConsumer<byte[], byte[]> consumer = consumerWithRecords(3);
+        MockProducer<byte[], byte[]> producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+
+        ReplayProgress result = new ReplayEngine(consumer, producer, null).replay("source", 2, 0, Long.MAX_VALUE, "target");
+
+        assertEquals(3, result.getReplayed());
+        assertNull(producer.history().get(0).partition());
+    }
+
+    @Test
+    public void testProgressReportsRateAndEta() {
+        ReplayProgress progress = new ReplayProgress(500, 0, 50_000, 2000, 1000, null);
+        assertEquals(500, progress.getMessagesPerSecond(), 0.001);
+        assertEquals(50_000, progress.getBytesPerSecond(), 0.001);
+        assertEquals(3, progress.getEtaSeconds());
+        assertEquals(-1, new ReplayProgress(0, 0, 0, 10, 0, null).getEtaSeconds());
+    }
+
+    private static MockConsumer<byte[], byte[]> consumerWithRecords(int count) {
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updateBeginningOffsets(Map.of(SOURCE, 0L));
+        consumer.updateEndOffsets(Map.of(SOURCE, (long) count));
+        consumer.schedulePollTask(() -> {
+            for (int offset = 0; offset < count; offset++) {
+                RecordHeaders headers = new RecordHeaders();
+                headers.add("seq", String.valueOf(offset).getBytes(StandardCharsets.UTF_8));
+                byte[] key = ("k" + offset).getBytes(StandardCharsets.UTF_8);
+                byte[] value = ("value-" + offset).getBytes(StandardCharsets.UTF_8);
+                consumer.addRecord(new ConsumerRecord<>(SOURCE.topic(), SOURCE.partition(), offset, 0L,
+                    TimestampType.CREATE_TIME, key.length, value.length, key, value, headers, Optional.empty()));
+            }
+        });
+        return consumer;
+    }
+}
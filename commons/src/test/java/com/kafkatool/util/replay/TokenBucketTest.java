@@ -0,0 +1,49 @@
+package com.kafkatool.util.replay;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the token bucket rate limiter
+ */
+public class TokenBucketTest {
+
+    @Test
+    public void testBurstThenWaitForRefill() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(100, 100, clock::get);
+
+        assertEquals(0, bucket.reserve(100));
+        // One more token needs a hundredth of a second at 100 per second
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), bucket.reserve(1));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(510));
+        assertEquals(0, bucket.reserve(50));
+    }
+
+    @Test
+    public void testRefillIsCappedAtCapacity() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+        assertEquals(0, bucket.reserve(5));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(0, bucket.reserve(5));
+        assertTrue(bucket.reserve(1) > 0);
+    }
+
+    @Test
+    public void testOversizedRequestGoesIntoDebt() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(1000, 1000, clock::get);
+
+        // 3000 bytes against a 1000 byte bucket: wait for the 2000 byte shortfall
+        assertEquals(TimeUnit.SECONDS.toNanos(2), bucket.reserve(3000));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, bucket.reserve(0));
+    }
+}
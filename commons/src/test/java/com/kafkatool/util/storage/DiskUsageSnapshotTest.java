@@ -0,0 +1,110 @@
+package com.kafkatool.util.storage;
+
+import org.apache.kafka.clients.admin.LogDirDescription;
+import org.apache.kafka.clients.admin.ReplicaInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.KafkaStorageException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for aggregating describeLogDirs results into disk usage per topic and broker
+ */
+public class DiskUsageSnapshotTest {
+
+    private static final TopicPartition ORDERS_0 = new TopicPartition("orders", 0);
+    private static final TopicPartition ORDERS_1 = new TopicPartition("orders", 1);
+    private static final TopicPartition EVENTS_0 = new TopicPartition("events", 0);
+
+    @Test
+    public void testAggregatesReplicasPerPartitionTopicAndBroker() {
+        DiskUsageSnapshot snapshot = DiskUsageSnapshot.build(1000, Map.of(
+            1, Map.of("/data/a", dir(Map.of(ORDERS_0, 100L, ORDERS_1, 50L), 1000, 400)),
+            2, Map.of("/data/a", dir(Map.of(ORDERS_0, 90L, EVENTS_0, 10L), 2000, 1500))), null);
+
+        DiskUsageSnapshot.PartitionUsage partition = snapshot.getPartitions().get(ORDERS_0);
+        assertEquals(2, partition.getReplicaCount());
+        assertEquals(100, partition.getSizeBytes());
+        assertEquals(190, partition.getTotalBytes());
+
+        DiskUsageSnapshot.TopicUsage orders = snapshot.getTopic("orders");
+        assertEquals(2, orders.getPartitionCount());
+        assertEquals(3, orders.getReplicaCount());
+        assertEquals(150, orders.getSizeBytes());
+        assertEquals(240, orders.getTotalBytes());
+        assertEquals(0, orders.getGrowthBytesPerSec());
+
+        DiskUsageSnapshot.BrokerUsage broker = snapshot.getBroker(1);
+        assertEquals(150, broker.getReplicaBytes());
+        assertEquals(2, broker.getReplicaCount());
+        assertEquals(60.0, broker.getUsedPercent(), 1e-9);
+        assertEquals(250, snapshot.getTotalBytes());
+        assertEquals(2, snapshot.getLogDirs().size());
+    }
+
+    @Test
+    public void testGrowthComparesWithPreviousSnapshot() {
+        DiskUsageSnapshot first = DiskUsageSnapshot.build(0, Map.of(
+            1, Map.of("/data", dir(Map.of(ORDERS_0, 1000L, EVENTS_0, 500L), 10_000, 5_000))), null);
+        DiskUsageSnapshot second = DiskUsageSnapshot.build(10_000, Map.of(
+            1, Map.of("/data", dir(Map.of(ORDERS_0, 6000L, EVENTS_0, 400L), 10_000, 5_000))), first);
+
+        assertEquals(500, second.getTopic("orders").getGrowthBytesPerSec(), 1e-9);
+        assertEquals(-10, second.getTopic("events").getGrowthBytesPerSec(), 1e-9);
+        assertEquals(490, second.getBroker(1).getGrowthBytesPerSec(), 1e-9);
+    }
+
+    @Test
+    public void testSortsTopicsBySizeAndGrowth() {
+        DiskUsageSnapshot first = DiskUsageSnapshot.build(0, Map.of(
+            1, Map.of("/data", dir(Map.of(ORDERS_0, 1000L, ORDERS_1, 1000L, EVENTS_0, 10L), 0, 0))), null);
+        DiskUsageSnapshot second = DiskUsageSnapshot.build(1000, Map.of(
+            1, Map.of("/data", dir(Map.of(ORDERS_0, 1000L, ORDERS_1, 1000L, EVENTS_0, 510L), 0, 0))), first);
+
+        assertEquals(List.of("orders", "events"), names(second.getTopics(DiskUsageSnapshot.SortOrder.SIZE, 0)));
+        assertEquals(List.of("events"), names(second.getTopics(DiskUsageSnapshot.SortOrder.GROWTH, 1)));
+        assertEquals(DiskUsageSnapshot.SortOrder.GROWTH, DiskUsageSnapshot.SortOrder.fromString("growth"));
+        assertEquals(DiskUsageSnapshot.SortOrder.SIZE, DiskUsageSnapshot.SortOrder.fromString(null));
+    }
+
+    @Test
+    public void testOfflineDirsAndUnknownCapacity() {
+        DiskUsageSnapshot snapshot = DiskUsageSnapshot.build(0, Map.of(
+            1, Map.of(
+                "/data/a", new LogDirDescription(null, Map.of(ORDERS_0, new ReplicaInfo(10, 0, false))),
+                "/data/b", new LogDirDescription(new KafkaStorageException("disk failed"), Map.of()))), null);
+
+        DiskUsageSnapshot.BrokerUsage broker = snapshot.getBroker(1);
+        assertEquals(1, broker.getOfflineLogDirs());
+        assertEquals(-1, broker.getCapacityBytes());
+        assertEquals(-1, broker.getUsedPercent());
+        assertEquals(10, broker.getReplicaBytes());
+    }
+
+    @Test
+    public void testFutureReplicaCountsOnDiskButNotInPartitionSize() {
+        DiskUsageSnapshot snapshot = DiskUsageSnapshot.build(0, Map.of(
+            1, Map.of(
+                "/data/a", dir(Map.of(ORDERS_0, 100L), 1000, 500),
+                "/data/b", new LogDirDescription(null, Map.of(ORDERS_0, new ReplicaInfo(40, 0, true)), 1000, 900))), null);
+
+        assertEquals(100, snapshot.getPartitions().get(ORDERS_0).getSizeBytes());
+        assertEquals(140, snapshot.getTopic("orders").getTotalBytes());
+        assertEquals(30.0, snapshot.getBroker(1).getUsedPercent(), 1e-9);
+    }
+
+    private static LogDirDescription dir(Map<TopicPartition, Long> sizes, long totalBytes, long usableBytes) {
+        Map<TopicPartition, ReplicaInfo> replicas = new HashMap<>();
+        sizes.forEach((partition, size) -> replicas.put(partition, new ReplicaInfo(size, 0, false)));
+        return new LogDirDescription(null, replicas, totalBytes, usableBytes);
+    }
+
+    private static List<String> names(List<DiskUsageSnapshot.TopicUsage> topics) {
+        return topics.stream().map(DiskUsageSnapshot.TopicUsage::getTopic).toList();
+    }
+}
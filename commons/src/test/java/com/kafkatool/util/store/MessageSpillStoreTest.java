@@ -0,0 +1,121 @@
+package com.kafkatool.util.store;
+
+import com.kafkatool.model.KafkaMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped message spill store
+ */
+public class MessageSpillStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRoundTripPreservesAllFields() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+        KafkaMessage original = new KafkaMessage("orders", 42, 3, "key-1", "{\"id\":1}",
+            timestamp, Map.of("trace", "abc", "empty", ""));
+
+        try (MessageSpillStore store = new MessageSpillStore(tempDir, 1024)) {
+            store.append(original);
+            store.append(new KafkaMessage("orders", 43, 3, null, null, null, Map.of()));
+
+            KafkaMessage restored = store.get(0);
+            assertEquals("orders", restored.getTopic());
+            assertEquals(42, restored.getOffset());
+            assertEquals(3, restored.getPartition());
+            assertEquals("key-1", restored.getKey());
+            assertEquals("{\"id\":1}", restored.getValue());
+            assertEquals(timestamp, restored.getTimestamp());
+            assertEquals(Map.of("trace", "abc", "empty", ""), restored.getHeaders());
+
+            KafkaMessage empty = store.get(1);
+            assertNull(empty.getKey());
+            assertNull(empty.getValue());
+            assertNull(empty.getTimestamp());
+        }
+    }
+
+    @Test
+    public void testRecordsSpanMultipleSegments() throws Exception {
+        try (MessageSpillStore store = new MessageSpillStore(tempDir, 256)) {
+            for (long offset = 0; offset < 500; offset++) {
+                store.append(new KafkaMessage("t", 0, offset, "k" + offset, "value-" + offset));
+            }
+            // A record larger than the segment size still fits in its own segment
+            store.append(new KafkaMessage("t", 0, 500, "big", "x".repeat(1000)));
+
+            assertEquals(501, store.size());
+            assertEquals("value-250", store.get(250).getValue());
+            assertEquals(1000, store.get(500).getValue().length());
+
+            List<KafkaMessage> view = store.asList();
+            assertEquals(501, view.size());
+            assertEquals(499, view.get(499).getOffset());
+        }
+    }
+
+    @Test
+    public void testIndexOfOffsetUsesBinarySearch() throws Exception {
+        try (MessageSpillStore store = new MessageSpillStore(tempDir, 4096)) {
+            for (long offset = 100; offset < 200; offset += 2) {
+                store.append(new KafkaMessage("t", 0, offset, null, "v"));
+            }
+
+            assertEquals(0, store.indexOfOffset(100));
+            assertEquals(10, store.indexOfOffset(120));
+            assertTrue(store.indexOfOffset(121) < 0);
+            assertTrue(store.indexOfOffset(50) < 0);
+        }
+    }
+
+    @Test
+    public void testFilterWritesMatchesToNewStore() throws Exception {
+        try (MessageSpillStore store = new MessageSpillStore(tempDir, 4096)) {
+            for (long offset = 0; offset < 100; offset++) {
+                store.append(new KafkaMessage("t", 0, offset, null, offset % 10 == 0 ? "match" : "other"));
+            }
+
+            try (MessageSpillStore filtered = store.filter(message -> "match".equals(message.getValue()))) {
+                assertEquals(10, filtered.size());
+                assertEquals(90, filtered.get(9).getOffset());
+            }
+        }
+    }
+
+    @Test
+    public void testCloseDeletesBackingFiles() throws Exception {
+        MessageSpillStore store = new MessageSpillStore(tempDir, 4096);
+        store.append(new KafkaMessage("t", 0, 0, "k", "v"));
+        assertTrue(Files.list(tempDir).findAny().isPresent());
+
+        store.close();
+
+        assertFalse(Files.list(tempDir).findAny().isPresent());
+        assertThrows(IllegalStateException.class, () -> store.get(0));
+    }
+
+    @Test
+    public void testRetainedStoreStaysOpenUntilLastClose() throws Exception {
+        MessageSpillStore store = new MessageSpillStore(tempDir, 4096);
+        store.append(new KafkaMessage("t", 0, 0, "k", "v"));
+        assertTrue(store.retain());
+
+        store.close();
+        assertEquals("v", store.get(0).getValue());
+
+        store.close();
+        assertFalse(Files.list(tempDir).findAny().isPresent());
+        assertFalse(store.retain());
+    }
+}
@@ -0,0 +1,78 @@
+package com.kafkatool.util.throughput;
+
+import com.kafkatool.util.timeseries.Resolution;
+import com.kafkatool.util.timeseries.TimeSeriesStore;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for produce rates derived from end offset deltas
+ */
+public class ThroughputTrackerTest {
+
+    private static final TopicPartition ORDERS_0 = new TopicPartition("orders", 0);
+    private static final TopicPartition ORDERS_1 = new TopicPartition("orders", 1);
+    private static final TopicPartition PAYMENTS_0 = new TopicPartition("payments", 0);
+
+    @Test
+    public void testFirstSampleHasNoRates() {
+        ThroughputSnapshot snapshot = new ThroughputTracker().update(0, Map.of(ORDERS_0, 100L));
+        assertTrue(snapshot.getPartitions().isEmpty());
+        assertEquals(0, snapshot.getCluster().getCurrent());
+        assertSame(ThroughputSnapshot.Rate.ZERO, snapshot.getTopic("orders"));
+    }
+
+    @Test
+    public void testRatesAreSummedPerTopicAndCluster() {
+        ThroughputTracker tracker = new ThroughputTracker();
+        tracker.update(0, Map.of(ORDERS_0, 0L, ORDERS_1, 0L, PAYMENTS_0, 0L));
+        ThroughputSnapshot snapshot = tracker.update(10_000, Map.of(ORDERS_0, 1000L, ORDERS_1, 500L, PAYMENTS_0, 20L));
+
+        assertEquals(100, snapshot.getPartitions().get(ORDERS_0).getCurrent(), 1e-9);
+        assertEquals(150, snapshot.getTopic("orders").getCurrent(), 1e-9);
+        assertEquals(2, snapshot.getTopic("payments").getCurrent(), 1e-9);
+        assertEquals(152, snapshot.getCluster().getCurrent(), 1e-9);
+        // The first rate of a partition seeds its average
+        assertEquals(152, snapshot.getCluster().getSmoothed(), 1e-9);
+    }
+
+    @Test
+    public void testAverageMovesHalfwayAfterOneHalfLife() {
+        ThroughputTracker tracker = new ThroughputTracker(10_000);
+        tracker.update(0, Map.of(ORDERS_0, 0L));
+        tracker.update(10_000, Map.of(ORDERS_0, 1000L));
+        ThroughputSnapshot snapshot = tracker.update(20_000, Map.of(ORDERS_0, 1000L));
+
+        assertEquals(0, snapshot.getTopic("orders").getCurrent(), 1e-9);
+        assertEquals(50, snapshot.getTopic("orders").getSmoothed(), 1e-9);
+    }
+
+    @Test
+    public void testRecreatedTopicRestartsItsAverage() {
+        ThroughputTracker tracker = new ThroughputTracker();
+        tracker.update(0, Map.of(ORDERS_0, 5000L));
+        tracker.update(1000, Map.of(ORDERS_0, 6000L));
+        ThroughputSnapshot reset = tracker.update(2000, Map.of(ORDERS_0, 10L));
+        assertFalse(reset.getPartitions().containsKey(ORDERS_0));
+
+        ThroughputSnapshot next = tracker.update(3000, Map.of(ORDERS_0, 20L));
+        assertEquals(10, next.getTopic("orders").getSmoothed(), 1e-9);
+    }
+
+    @Test
+    public void testRecorderWritesSmoothedRates() {
+        TimeSeriesStore store = new TimeSeriesStore();
+        ThroughputHistoryRecorder recorder = new ThroughputHistoryRecorder(store);
+        ThroughputTracker tracker = new ThroughputTracker();
+        recorder.accept(tracker.update(1_000, Map.of(ORDERS_0, 0L)));
+        recorder.accept(tracker.update(2_000, Map.of(ORDERS_0, 40L)));
+
+        assertEquals(1, store.query(ThroughputHistoryRecorder.CLUSTER_RATE_SERIES, 0, 10_000, Resolution.RAW).size());
+        assertEquals(40, store.query(ThroughputHistoryRecorder.topicRateSeries("orders"), 0, 10_000, Resolution.RAW)
+            .get(0).getValue(), 1e-9);
+    }
+}
@@ -0,0 +1,88 @@
+package com.kafkatool.util.timeline;
+
+import com.kafkatool.model.KafkaMessage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the k-way timestamp merge across partitions
+ */
+public class TimelineMergerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    public void testMergesPartitionsInTimestampOrder() {
+        TimelineMerger merger = new TimelineMerger();
+        merger.register(0);
+        merger.register(1);
+
+        merger.offer(message(0, 0, 1));
+        merger.offer(message(0, 1, 4));
+        merger.offer(message(1, 0, 2));
+        merger.offer(message(1, 1, 3));
+        merger.finish(0);
+        merger.finish(1);
+
+        List<KafkaMessage> output = new ArrayList<>();
+        merger.drain(output::add, 100);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), seconds(output));
+        assertTrue(merger.isDone());
+    }
+
+    @Test
+    public void testWaitsForPartitionWithEmptyBuffer() {
+        TimelineMerger merger = new TimelineMerger();
+        merger.register(0);
+        merger.register(1);
+        merger.offer(message(0, 0, 5));
+
+        List<KafkaMessage> output = new ArrayList<>();
+        // Partition 1 may still deliver an earlier record, so nothing is safe to emit
+        assertEquals(0, merger.drain(output::add, 100));
+
+        merger.offer(message(1, 0, 2));
+        assertEquals(1, merger.drain(output::add, 100));
+        assertEquals(2, seconds(output).get(0));
+
+        // Partition 1 is empty again; finishing it releases partition 0
+        merger.finish(1);
+        assertEquals(1, merger.drain(output::add, 100));
+        assertEquals(List.of(2L, 5L), seconds(output));
+    }
+
+    @Test
+    public void testBufferCapacityAndLimit() {
+        TimelineMerger merger = new TimelineMerger(2);
+        merger.register(0);
+        merger.offer(message(0, 0, 1));
+        assertFalse(merger.isFull(0));
+        merger.offer(message(0, 1, 2));
+        assertTrue(merger.isFull(0));
+
+        List<KafkaMessage> output = new ArrayList<>();
+        assertEquals(1, merger.drain(output::add, 1));
+        assertFalse(merger.isFull(0));
+        assertEquals(1, merger.getBufferedCount());
+    }
+
+    private static KafkaMessage message(int partition, long offset, long second) {
+        return new KafkaMessage("events", offset, partition, null, "v", BASE.plusSeconds(second), Map.of());
+    }
+
+    private static List<Long> seconds(List<KafkaMessage> messages) {
+        List<Long> result = new ArrayList<>();
+        for (KafkaMessage message : messages) {
+            result.add(Duration.between(BASE, message.getTimestamp()).getSeconds());
+        }
+        return result;
+    }
+}
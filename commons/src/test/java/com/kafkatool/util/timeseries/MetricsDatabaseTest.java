@@ -0,0 +1,118 @@
+package com.kafkatool.util.timeseries;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for persisting metric history to the embedded database
+ */
+public class MetricsDatabaseTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testHistorySurvivesReopenWithRollups() throws Exception {
+        File file = tempDir.resolve("metrics").toFile();
+        long start = System.currentTimeMillis() - 3600_000;
+        start -= start % 300_000;
+        try (MetricsDatabase database = new MetricsDatabase(file, null)) {
+            TimeSeriesStore store = new TimeSeriesStore();
+            store.addSink(database.sinkFor("cluster-a"));
+            for (int i = 0; i < 30; i++) {
+                store.record("lag", start + i * 20_000L, i);
+            }
+            database.record("cluster-b", "lag", start, 99);
+        }
+
+        try (MetricsDatabase database = new MetricsDatabase(file, null)) {
+            List<DataPoint> raw = database.query("cluster-a", "lag", start, start + 600_000, Resolution.RAW);
+            assertEquals(30, raw.size());
+            assertEquals(start + 20_000, raw.get(1).getTimestamp());
+            assertEquals(29.0, raw.get(29).getValue());
+
+            List<DataPoint> minutes = database.query("cluster-a", "lag", start, start + 600_000, Resolution.ONE_MINUTE);
+            assertEquals(10, minutes.size());
+            assertEquals(1.0, minutes.get(0).getValue());
+            assertEquals(0.0, minutes.get(0).getMin());
+            assertEquals(2.0, minutes.get(0).getMax());
+
+            List<DataPoint> fiveMinutes = database.query("cluster-a", "lag", start, start + 600_000, Resolution.FIVE_MINUTES);
+            assertEquals(2, fiveMinutes.size());
+            assertEquals(7.0, fiveMinutes.get(0).getValue());
+            assertEquals(15.0, fiveMinutes.get(1).getMin());
+
+            List<DataPoint> hours = database.query("cluster-a", "lag", start - 3600_000, start + 3600_000, Resolution.ONE_HOUR);
+            assertEquals(30, hours.stream().mapToDouble(DataPoint::getMax).max().orElse(0) + 1);
+
+            assertEquals(99.0, database.query("cluster-b", "lag", start, start, Resolution.RAW).get(0).getValue());
+            assertTrue(database.query("cluster-a", "missing", start, start + 600_000, Resolution.RAW).isEmpty());
+        }
+    }
+
+    @Test
+    public void testRollupsAccumulateAcrossBatches() throws Exception {
+        long bucket = 1_700_000_000_000L - 1_700_000_000_000L % 60_000;
+        MetricsDatabaseOptions options = new MetricsDatabaseOptions();
+        options.setRawRetentionMillis(Long.MAX_VALUE / 4);
+        options.setMinuteRetentionMillis(Long.MAX_VALUE / 4);
+        options.setHourRetentionMillis(Long.MAX_VALUE / 4);
+        try (MetricsDatabase database = new MetricsDatabase(tempDir.resolve("metrics").toFile(), options)) {
+            database.record("c", "rate", bucket, 10);
+            database.flush();
+            database.record("c", "rate", bucket + 30_000, 30);
+            database.flush();
+
+            List<DataPoint> minutes = database.query("c", "rate", bucket, bucket, Resolution.ONE_MINUTE);
+            assertEquals(1, minutes.size());
+            assertEquals(20.0, minutes.get(0).getValue());
+            assertEquals(10.0, minutes.get(0).getMin());
+            assertEquals(30.0, minutes.get(0).getMax());
+        }
+    }
+
+    @Test
+    public void testDuplicateSamplesAreNotRolledUpTwice() throws Exception {
+        long bucket = 1_700_000_000_000L - 1_700_000_000_000L % 60_000;
+        MetricsDatabaseOptions options = new MetricsDatabaseOptions();
+        options.setRawRetentionMillis(Long.MAX_VALUE / 4);
+        options.setMinuteRetentionMillis(Long.MAX_VALUE / 4);
+        options.setHourRetentionMillis(Long.MAX_VALUE / 4);
+        try (MetricsDatabase database = new MetricsDatabase(tempDir.resolve("metrics").toFile(), options)) {
+            database.record("c", "rate", bucket, 10);
+            database.record("c", "rate", bucket, 10);
+            database.flush();
+            database.record("c", "rate", bucket, 10);
+            database.record("c", "rate", bucket + 30_000, 30);
+            database.flush();
+
+            assertEquals(2, database.query("c", "rate", bucket, bucket + 60_000, Resolution.RAW).size());
+            List<DataPoint> minutes = database.query("c", "rate", bucket, bucket, Resolution.ONE_MINUTE);
+            assertEquals(1, minutes.size());
+            assertEquals(20.0, minutes.get(0).getValue());
+        }
+    }
+
+    @Test
+    public void testRetentionDeletesOldSamplesButKeepsRollups() throws Exception {
+        long now = System.currentTimeMillis();
+        long old = now - 10L * 24 * 3600_000;
+        try (MetricsDatabase database = new MetricsDatabase(tempDir.resolve("metrics").toFile(), null)) {
+            database.record("c", "lag", old, 5);
+            database.record("c", "lag", now, 7);
+            // The first flush also applies retention
+            database.flush();
+
+            List<DataPoint> raw = database.query("c", "lag", old - 1, now + 1, Resolution.RAW);
+            assertEquals(1, raw.size());
+            assertEquals(7.0, raw.get(0).getValue());
+            assertEquals(2, database.query("c", "lag", old - 3600_000, now + 1, Resolution.ONE_HOUR).size());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.kafkatool.util.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the compressed in-memory time-series store
+ */
+public class TimeSeriesStoreTest {
+
+    @Test
+    public void testChunkRoundTripsIrregularPoints() {
+        long[] timestamps = {0L, 10_000L, 20_000L, 20_001L, 19_000_000L, 19_000_000L + (1L << 40), Long.MAX_VALUE / 2};
+        double[] values = {0.0, -1.5, Double.NaN, 1e300, Double.MIN_VALUE, Double.NEGATIVE_INFINITY, 42.0};
+        GorillaChunk chunk = new GorillaChunk(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            chunk.append(timestamps[i], values[i]);
+        }
+        chunk.seal();
+
+        List<Long> decodedTimestamps = new ArrayList<>();
+        List<Double> decodedValues = new ArrayList<>();
+        chunk.forEach((timestamp, value) -> {
+            decodedTimestamps.add(timestamp);
+            decodedValues.add(value);
+        });
+        assertEquals(timestamps.length, decodedTimestamps.size());
+        for (int i = 0; i < timestamps.length; i++) {
+            assertEquals(timestamps[i], decodedTimestamps.get(i));
+            assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(decodedValues.get(i)));
+        }
+    }
+
+    @Test
+    public void testRandomValuesRoundTrip() {
+        Random random = new Random(7);
+        GorillaChunk chunk = new GorillaChunk(1000);
+        long[] timestamps = new long[1000];
+        double[] values = new double[1000];
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < 1000; i++) {
+            timestamp += 9_000 + random.nextInt(2_000);
+            timestamps[i] = timestamp;
+            values[i] = random.nextBoolean() ? random.nextGaussian() * 1e6 : random.nextInt(100);
+            chunk.append(timestamps[i], values[i]);
+        }
+        int[] index = {0};
+        chunk.forEach((decodedTimestamp, value) -> {
+            assertEquals(timestamps[index[0]], decodedTimestamp);
+            assertEquals(values[index[0]], value);
+            index[0]++;
+        });
+        assertEquals(1000, index[0]);
+    }
+
+    @Test
+    public void testRegularLagSamplesCompressWell() {
+        TimeSeries series = new TimeSeries();
+        long start = 1_700_000_000_000L;
+        // Six hours of a slowly changing lag sampled every ten seconds
+        int samples = 6 * 360;
+        for (int i = 0; i < samples; i++) {
+            series.record(start + i * 10_000L, 1000 + (i / 60));
+        }
+        assertEquals(samples, series.getRawPointCount());
+        // Uncompressed this would be 16 bytes per point plus the rollups
+        assertTrue(series.sizeInBytes() < samples * 3, "size " + series.sizeInBytes());
+
+        List<DataPoint> points = series.query(start, start + samples * 10_000L, Resolution.RAW);
+        assertEquals(samples, points.size());
+        assertEquals(1000 + (samples - 1) / 60, points.get(samples - 1).getValue());
+    }
+
+    @Test
+    public void testRollupsAggregateBuckets() {
+        TimeSeriesStore store = new TimeSeriesStore();
+        long start = 1_700_000_040_000L - 1_700_000_040_000L % 300_000;
+        for (int i = 0; i < 30; i++) {
+            store.record("lag", start + i * 20_000L, i);
+        }
+
+        List<DataPoint> minutes = store.query("lag", start, start + 600_000, Resolution.ONE_MINUTE);
+        assertEquals(10, minutes.size());
+        assertEquals(start, minutes.get(0).getTimestamp());
+        assertEquals(1.0, minutes.get(0).getValue());
+        assertEquals(0.0, minutes.get(0).getMin());
+        assertEquals(2.0, minutes.get(0).getMax());
+        // The bucket still being filled is included
+        assertEquals(28.0, minutes.get(9).getValue());
+
+        List<DataPoint> fiveMinutes = store.query("lag", start, start + 600_000, Resolution.FIVE_MINUTES);
+        assertEquals(2, fiveMinutes.size());
+        assertEquals(7.0, fiveMinutes.get(0).getValue());
+        assertEquals(14.0, fiveMinutes.get(0).getMax());
+        assertEquals(15.0, fiveMinutes.get(1).getMin());
+
+        assertTrue(store.query("missing", start, start + 600_000, Resolution.RAW).isEmpty());
+        assertEquals(List.of("lag"), store.getSeriesNames());
+    }
+
+    @Test
+    public void testRawRetentionDropsOldChunksAndIgnoresOutOfOrderPoints() {
+        TimeSeries series = new TimeSeries();
+        long interval = 10_000L;
+        // Twelve hours of samples: twice the raw retention
+        int samples = 12 * 360;
+        for (int i = 0; i < samples; i++) {
+            series.record(i * interval, i);
+        }
+        series.record(5 * interval, -1);
+
+        int kept = series.getRawPointCount();
+        assertTrue(kept < samples);
+        assertTrue(kept >= 6 * 360, "kept " + kept);
+        List<DataPoint> raw = series.query(0, samples * interval, Resolution.RAW);
+        assertEquals(samples - 1, raw.get(raw.size() - 1).getValue());
+        assertTrue(raw.get(0).getTimestamp() > 0);
+
+        // Rollups keep the full range
+        assertEquals(12, series.query(0, samples * interval, Resolution.ONE_HOUR).size());
+    }
+
+    @Test
+    public void testIdleSeriesAreEvictedPastLongestRetention() {
+        TimeSeriesStore store = new TimeSeriesStore();
+        long now = System.currentTimeMillis();
+        store.record("topic.deleted.size", now, 1);
+        store.record("topic.orders.size", now, 1);
+
+        // A month later only the topic that still reports survives the sweep
+        store.record("topic.orders.size", now + 31L * 24 * 3600_000, 2);
+
+        assertEquals(List.of("topic.orders.size"), store.getSeriesNames());
+        assertEquals(0, store.evictIdle(now));
+    }
+
+    @Test
+    public void testResolutionForRange() {
+        assertEquals(Resolution.RAW, Resolution.forRange(3600_000));
+        assertEquals(Resolution.ONE_MINUTE, Resolution.forRange(6 * 3600_000));
+        assertEquals(Resolution.FIVE_MINUTES, Resolution.forRange(48L * 3600_000));
+        assertEquals(Resolution.ONE_HOUR, Resolution.forRange(10L * 24 * 3600_000));
+        assertEquals(Resolution.FIVE_MINUTES, Resolution.fromString("5m"));
+        assertEquals(Resolution.ONE_HOUR, Resolution.fromString("one_hour"));
+    }
+}
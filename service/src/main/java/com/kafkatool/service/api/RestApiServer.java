@@ -4,10 +4,16 @@ import io.javalin.Javalin;
 import io.javalin.http.Context;
 import com.kafkatool.service.*;
 import com.kafkatool.model.*;
+import com.kafkatool.util.offsets.OffsetResetOptions;
+import com.kafkatool.util.offsets.OffsetResetTime;
+import com.kafkatool.util.storage.DiskUsageSnapshot;
+import com.kafkatool.util.timeseries.Resolution;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -68,6 +74,7 @@ public class RestApiServer {
         app.get("/api/clusters/{cluster}/consumer-groups/{group}", this::getConsumerGroupDetails);
         app.get("/api/clusters/{cluster}/consumer-groups/{group}/offsets", this::getConsumerGroupOffsets);
         app.post("/api/clusters/{cluster}/consumer-groups/{group}/reset-offsets", this::resetConsumerGroupOffsets);
+        app.post("/api/clusters/{cluster}/consumer-groups/reset-offsets", this::bulkResetConsumerGroupOffsets);
         app.delete("/api/clusters/{cluster}/consumer-groups/{group}", this::deleteConsumerGroup);
         
         // Broker operations
@@ -84,6 +91,9 @@ public class RestApiServer {
         app.get("/api/clusters/{cluster}/metrics", this::getClusterMetrics);
         app.get("/api/clusters/{cluster}/topics/{topic}/metrics", this::getTopicMetrics);
         app.get("/api/clusters/{cluster}/consumer-groups/{group}/lag", this::getConsumerGroupLag);
+        app.get("/api/clusters/{cluster}/lag", this::getClusterLag);
+        app.get("/api/clusters/{cluster}/metrics/history", this::getMetricHistory);
+        app.get("/api/clusters/{cluster}/disk-usage", this::getDiskUsage);
         
         // Schema Registry operations
         app.get("/api/schema-registry/{url}/subjects", this::getSchemaSubjects);
@@ -222,13 +232,213 @@ public class RestApiServer {
             });
     }
     
+    private void getConsumerGroupOffsets(Context ctx) {
+        String cluster = ctx.pathParam("cluster");
+        String group = ctx.pathParam("group");
+        
+        kafkaService.getConsumerGroupOffsetsAsync(cluster, group)
+            .thenAccept(offsets -> ctx.json(offsets))
+            .exceptionally(throwable -> {
+                ctx.status(500).json(Map.of("error", throwable.getMessage()));
+                return null;
+            });
+    }
+    
+    private void getConsumerGroupLag(Context ctx) {
+        String cluster = ctx.pathParam("cluster");
+        String group = ctx.pathParam("group");
+        
+        // Served from the cluster's lag monitor snapshot rather than querying the cluster per request
+        kafkaService.getLagSnapshotAsync(cluster)
+            .thenAccept(snapshot -> {
+                if (snapshot.getGroup(group) == null) {
+                    ctx.status(404).json(Map.of("error", "No committed offsets for group " + group));
+                } else {
+                    ctx.json(Map.of("timestamp", snapshot.getTimestamp(), "lag", snapshot.getGroup(group)));
+                }
+            })
+            .exceptionally(throwable -> {
+                ctx.status(500).json(Map.of("error", throwable.getMessage()));
+                return null;
+            });
+    }
+    
+    private void getClusterLag(Context ctx) {
+        String cluster = ctx.pathParam("cluster");
+        
+        kafkaService.getLagSnapshotAsync(cluster)
+            .thenAccept(snapshot -> ctx.json(snapshot))
+            .exceptionally(throwable -> {
+                ctx.status(500).json(Map.of("error", throwable.getMessage()));
+                return null;
+            });
+    }
+    
+    private void resetConsumerGroupOffsets(Context ctx) {
+        String cluster = ctx.pathParam("cluster");
+        String group = ctx.pathParam("group");
+        Map<String, Object> request = ctx.bodyAsClass(Map.class);
+        
+        resetOffsets(ctx, cluster, List.of(group), request);
+    }
+    
+    private void bulkResetConsumerGroupOffsets(Context ctx) {
+        String cluster = ctx.pathParam("cluster");
+        Map<String, Object> request = ctx.bodyAsClass(Map.class);
+        
+        List<String> groups;
+        try {
+            groups = stringList(request.get("groups"), "groups");
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", e.getMessage()));
+            return;
+        }
+        resetOffsets(ctx, cluster, groups, request);
+    }
+    
+    /**
+     * Body: topics (or topic), strategy (earliest, latest, timestamp, duration, shift), timestamp
+     * (epoch millis or datetime), duration (e.g. "-15m"), shiftBy and dryRun, which defaults to
+     * true so a plan is only applied when asked for
+     */
+    private void resetOffsets(Context ctx, String cluster, List<String> groups, Map<String, Object> request) {
+        List<String> topics;
+        OffsetResetOptions options = new OffsetResetOptions();
+        try {
+            topics = request.containsKey("topic") 
+                ? stringList(Collections.singletonList(request.get("topic")), "topic") : stringList(request.get("topics"), "topics");
+            String strategy = String.valueOf(request.getOrDefault("strategy", "earliest")).toUpperCase();
+            if (strategy.equals("DURATION") || request.containsKey("duration")) {
+                // A duration is a timestamp relative to now
+                options.setStrategy(OffsetResetOptions.Strategy.TIMESTAMP);
+                options.setTimestamp(OffsetResetTime.before(System.currentTimeMillis(), String.valueOf(request.get("duration"))));
+            } else {
+                options.setStrategy(OffsetResetOptions.Strategy.valueOf(strategy));
+                Object timestamp = request.getOrDefault("timestamp", -1);
+                options.setTimestamp(timestamp instanceof Number 
+                    ? ((Number) timestamp).longValue() : OffsetResetTime.parseTimestamp(timestamp.toString()));
+            }
+            Object shiftBy = request.getOrDefault("shiftBy", 0);
+            options.setShiftBy(shiftBy instanceof Number 
+                ? ((Number) shiftBy).longValue() : Long.parseLong(shiftBy.toString().trim()));
+            options.setDryRun(flag(request.getOrDefault("dryRun", true), "dryRun"));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", e.getMessage()));
+            return;
+        }
+        
+        kafkaService.resetConsumerGroupOffsetsAsync(cluster, groups, topics, options)
+            .thenAccept(plan -> ctx.json(plan))
+            .exceptionally(throwable -> {
+                ctx.status(500).json(Map.of("error", throwable.getMessage()));
+                return null;
+            });
+    }
+    
+    /**
+     * A JSON array of strings, or an empty list when absent
+     */
+    private static List<String> stringList(Object value, String field) {
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException(field + " must be a list of names");
+        }
+        List<String> names = new ArrayList<>();
+        for (Object name : (List<?>) value) {
+            if (!(name instanceof String) || ((String) name).isBlank()) {
+                throw new IllegalArgumentException(field + " must be a list of names");
+            }
+            names.add((String) name);
+        }
+        return names;
+    }
+    
+    private static boolean flag(Object value, String field) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if ("true".equalsIgnoreCase(String.valueOf(value)) || "false".equalsIgnoreCase(String.valueOf(value))) {
+            return Boolean.parseBoolean(String.valueOf(value));
+        }
+        throw new IllegalArgumentException(field + " must be true or false");
+    }
+    
+    private void getMetricHistory(Context ctx) {
+        String cluster = ctx.pathParam("cluster");
+        String series = ctx.queryParam("series");
+        if (series == null) {
+            // Without a series name, list what has been recorded so far
+            ctx.json(Map.of("series", kafkaService.getMetricsStore(cluster).getSeriesNames(),
+                "memoryBytes", kafkaService.getMetricsStore(cluster).getMemoryBytes()));
+            return;
+        }
+        long from;
+        long to;
+        Resolution resolution;
+        try {
+            to = ctx.queryParam("to") != null ? Long.parseLong(ctx.queryParam("to")) : System.currentTimeMillis();
+            from = ctx.queryParam("from") != null ? Long.parseLong(ctx.queryParam("from")) : to - 3600_000;
+            resolution = ctx.queryParam("resolution") != null ? Resolution.fromString(ctx.queryParam("resolution")) : null;
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", 
+                "from and to must be epoch milliseconds and resolution one of raw, 1m, 5m or 1h"));
+            return;
+        }
+        if (from > to) {
+            ctx.status(400).json(Map.of("error", "from must not be after to"));
+            return;
+        }
+        
+        kafkaService.getMetricHistoryAsync(cluster, series, from, to, resolution)
+            .thenAccept(points -> ctx.json(Map.of("series", series, "points", points)))
+            .exceptionally(throwable -> {
+                ctx.status(500).json(Map.of("error", throwable.getMessage()));
+                return null;
+            });
+    }
+    
+    private void getDiskUsage(Context ctx) {
+        String cluster = ctx.pathParam("cluster");
+        DiskUsageSnapshot.SortOrder order;
+        try {
+            order = DiskUsageSnapshot.SortOrder.fromString(ctx.queryParam("sort"));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", "sort must be size, growth or name"));
+            return;
+        }
+        int limit;
+        try {
+            limit = ctx.queryParam("limit") != null ? Integer.parseInt(ctx.queryParam("limit")) : 100;
+        } catch (NumberFormatException e) {
+            limit = -1;
+        }
+        if (limit <= 0) {
+            ctx.status(400).json(Map.of("error", "limit must be a positive integer"));
+            return;
+        }
+        int topicLimit = limit;
+        
+        kafkaService.getDiskUsageAsync(cluster)
+            .thenAccept(usage -> ctx.json(Map.of(
+                "timestamp", usage.getTimestamp(),
+                "totalBytes", usage.getTotalBytes(),
+                "topicCount", usage.getTopics().size(),
+                "brokers", usage.getBrokers().values(),
+                "logDirs", usage.getLogDirs(),
+                "topics", usage.getTopics(order, topicLimit))))
+            .exceptionally(throwable -> {
+                ctx.status(500).json(Map.of("error", throwable.getMessage()));
+                return null;
+            });
+    }
+    
     // Placeholder implementations for other endpoints
     private void exportMessages(Context ctx) { ctx.json(Map.of("message", "Export not implemented")); }
     private void importMessages(Context ctx) { ctx.json(Map.of("message", "Import not implemented")); }
     private void getConsumerGroups(Context ctx) { ctx.json(Map.of("message", "Consumer groups not implemented")); }
     private void getConsumerGroupDetails(Context ctx) { ctx.json(Map.of("message", "Consumer group details not implemented")); }
-    private void getConsumerGroupOffsets(Context ctx) { ctx.json(Map.of("message", "Consumer group offsets not implemented")); }
-    private void resetConsumerGroupOffsets(Context ctx) { ctx.json(Map.of("message", "Reset offsets not implemented")); }
     private void deleteConsumerGroup(Context ctx) { ctx.json(Map.of("message", "Delete consumer group not implemented")); }
     private void getBrokers(Context ctx) { ctx.json(Map.of("message", "Brokers not implemented")); }
     private void getBrokerConfig(Context ctx) { ctx.json(Map.of("message", "Broker config not implemented")); }
@@ -238,7 +448,6 @@ public class RestApiServer {
     private void deleteAcl(Context ctx) { ctx.json(Map.of("message", "Delete ACL not implemented")); }
     private void getClusterMetrics(Context ctx) { ctx.json(Map.of("message", "Cluster metrics not implemented")); }
     private void getTopicMetrics(Context ctx) { ctx.json(Map.of("message", "Topic metrics not implemented")); }
-    private void getConsumerGroupLag(Context ctx) { ctx.json(Map.of("message", "Consumer group lag not implemented")); }
     private void getSchemaSubjects(Context ctx) { ctx.json(Map.of("message", "Schema subjects not implemented")); }
     private void getSubjectVersions(Context ctx) { ctx.json(Map.of("message", "Subject versions not implemented")); }
     private void getSchema(Context ctx) { ctx.json(Map.of("message", "Schema not implemented")); }
@@ -6,9 +6,16 @@ import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import com.kafkatool.service.*;
 import com.kafkatool.model.*;
+import com.kafkatool.util.export.ExportFormat;
+import com.kafkatool.util.export.ExportManifest;
+import com.kafkatool.util.lag.LagSnapshot;
+import com.kafkatool.util.offsets.OffsetResetOptions;
+import com.kafkatool.util.offsets.OffsetResetPlan;
+import com.kafkatool.util.offsets.OffsetResetTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -22,6 +29,7 @@ import java.util.concurrent.Callable;
     subcommands = {
         KafkaUICliTool.TopicCommands.class,
         KafkaUICliTool.MessageCommands.class,
+        KafkaUICliTool.ExportCommands.class,
         KafkaUICliTool.ConsumerGroupCommands.class,
         KafkaUICliTool.SchemaCommands.class,
         KafkaUICliTool.ConnectCommands.class,
@@ -168,9 +176,81 @@ public class KafkaUICliTool implements Callable<Integer> {
         }
     }
     
-    @Command(name = "consumer-group", description = "Consumer group management")
+    @Command(name = "export", description = "Export operations", 
+             subcommands = {ExportCommands.ExportTopic.class})
+    static class ExportCommands implements Callable<Integer> {
+        
+        @Command(name = "topic", description = "Export all partitions of a topic, resuming an interrupted export in the same directory")
+        static class ExportTopic implements Callable<Integer> {
+            @Parameters(index = "0", description = "Broker URLs") String brokers;
+            @Parameters(index = "1", description = "Topic name") String topicName;
+            @Parameters(index = "2", description = "Output directory") File outputDirectory;
+            @Option(names = {"-f", "--format"}, defaultValue = "ndjson", description = "Export format: ndjson, csv, avro or json") String format;
+            @Option(names = {"-w", "--workers"}, defaultValue = "4", description = "Partitions exported in parallel") int workers;
+            
+            @Override
+            public Integer call() throws Exception {
+                ExportFormat exportFormat = ExportFormat.fromString(format);
+                EnhancedKafkaService service = new EnhancedKafkaServiceImpl();
+                // A JSON array document cannot be appended to, so it is always written in one go
+                ExportManifest manifest = exportFormat.isResumable()
+                    ? service.exportTopicResumableAsync(brokers, topicName, outputDirectory, exportFormat, workers).get()
+                    : service.exportTopicAsync(brokers, topicName, outputDirectory, exportFormat, workers).get();
+                System.out.printf("Exported %d messages (%d bytes) from %d partitions of '%s' to %s%n", 
+                    manifest.getTotalRecords(), manifest.getTotalBytes(), manifest.getPartitions().size(), 
+                    topicName, outputDirectory.getAbsolutePath());
+                return 0;
+            }
+        }
+        
+        @Override
+        public Integer call() throws Exception {
+            System.out.println("Export operations. Use --help for more info.");
+            return 0;
+        }
+    }
+    
+    @Command(name = "consumer-group", description = "Consumer group management",
+             subcommands = {ConsumerGroupCommands.ConsumerGroupLag.class, ConsumerGroupCommands.ResetOffsets.class})
     static class ConsumerGroupCommands implements Callable<Integer> {
         
+        @Command(name = "lag", description = "Show per-partition lag of one or all consumer groups")
+        static class ConsumerGroupLag implements Callable<Integer> {
+            @Parameters(index = "0", description = "Broker URLs") String brokers;
+            @Parameters(index = "1", arity = "0..1", description = "Consumer group ID (all groups if omitted)") String groupId;
+            
+            @Override
+            public Integer call() throws Exception {
+                EnhancedKafkaService service = new EnhancedKafkaServiceImpl();
+                try {
+                    LagSnapshot snapshot = service.getLagSnapshotAsync(brokers).get();
+                    for (LagSnapshot.GroupLag group : snapshot.getGroups().values()) {
+                        if (groupId != null && !groupId.equals(group.getGroupId())) {
+                            continue;
+                        }
+                        System.out.printf("%s (total lag %d, max time lag %s)%n", group.getGroupId(), 
+                            group.getTotalLag(), formatTimeLag(group.getMaxTimeLagMillis()));
+                        for (LagSnapshot.PartitionLag partition : group.getPartitions()) {
+                            System.out.printf("  %s-%d  committed=%d  end=%d  lag=%d  time-lag=%s%n", partition.getTopic(), 
+                                partition.getPartition(), partition.getCommittedOffset(), partition.getEndOffset(), 
+                                partition.getLag(), formatTimeLag(partition.getTimeLagMillis()));
+                        }
+                    }
+                    if (groupId != null && snapshot.getGroup(groupId) == null) {
+                        System.out.println("No committed offsets for group " + groupId);
+                        return 1;
+                    }
+                    return 0;
+                } finally {
+                    service.closeLagMonitors();
+                }
+            }
+            
+            private static String formatTimeLag(long millis) {
+                return millis < 0 ? "unknown" : String.format("%.1fs", millis / 1000.0);
+            }
+        }
+        
         @Command(name = "list", description = "List all consumer groups")
         static class ListConsumerGroups implements Callable<Integer> {
             @Parameters(index = "0", description = "Broker URLs") String brokers;
@@ -196,21 +276,52 @@ public class KafkaUICliTool implements Callable<Integer> {
             }
         }
         
-        @Command(name = "reset-offsets", description = "Reset consumer group offsets")
+        @Command(name = "reset-offsets", description = "Reset offsets of one or more consumer groups; prints the plan and only applies it with --execute")
         static class ResetOffsets implements Callable<Integer> {
             @Parameters(index = "0", description = "Broker URLs") String brokers;
-            @Parameters(index = "1", description = "Consumer group ID") String groupId;
-            @Parameters(index = "2", description = "Topic name") String topicName;
+            @Option(names = {"-g", "--group"}, required = true, split = ",", description = "Consumer group IDs") List<String> groups;
+            @Option(names = {"-t", "--topic"}, split = ",", description = "Topics (default: every topic the group has committed offsets for)") List<String> topics;
             @Option(names = {"--to-earliest"}, description = "Reset to earliest offset") boolean toEarliest;
             @Option(names = {"--to-latest"}, description = "Reset to latest offset") boolean toLatest;
-            @Option(names = {"--to-offset"}, description = "Reset to specific offset") Long toOffset;
+            @Option(names = {"--to-datetime"}, description = "Reset to the first offset at or after this time (yyyy-MM-dd HH:mm:ss, ISO-8601 or epoch millis)") String toDatetime;
+            @Option(names = {"--by-duration"}, description = "Reset to where the group was this long ago, e.g. -15m, 1h30m or 2d") String byDuration;
+            @Option(names = {"--shift-by"}, description = "Move the committed offsets by this many records (negative to re-read)") Long shiftBy;
+            @Option(names = {"--execute"}, description = "Apply the plan instead of only printing it") boolean execute;
             
             @Override
             public Integer call() throws Exception {
-                System.out.printf("Resetting offsets for group '%s' topic '%s' from: %s%n", 
-                    groupId, topicName, brokers);
-                // TODO: Implement offset reset
-                return 0;
+                OffsetResetOptions options = new OffsetResetOptions();
+                if (toLatest) {
+                    options.setStrategy(OffsetResetOptions.Strategy.LATEST);
+                } else if (toDatetime != null) {
+                    options.setStrategy(OffsetResetOptions.Strategy.TIMESTAMP);
+                    options.setTimestamp(OffsetResetTime.parseTimestamp(toDatetime));
+                } else if (byDuration != null) {
+                    options.setStrategy(OffsetResetOptions.Strategy.TIMESTAMP);
+                    options.setTimestamp(OffsetResetTime.before(System.currentTimeMillis(), byDuration));
+                } else if (shiftBy != null) {
+                    options.setStrategy(OffsetResetOptions.Strategy.SHIFT);
+                    options.setShiftBy(shiftBy);
+                } else {
+                    options.setStrategy(OffsetResetOptions.Strategy.EARLIEST);
+                }
+                options.setDryRun(!execute);
+                
+                EnhancedKafkaService service = new EnhancedKafkaServiceImpl();
+                OffsetResetPlan plan = service.resetConsumerGroupOffsetsAsync(brokers, groups, 
+                    topics != null ? topics : List.of(), options).get();
+                for (OffsetResetPlan.GroupReset group : plan.getGroups()) {
+                    System.out.printf("%s  %s%s%n", group.getGroupId(), group.getStatus(), 
+                        group.getError() != null ? " (" + group.getError() + ")" : "");
+                    for (OffsetResetPlan.PartitionReset partition : group.getPartitions()) {
+                        System.out.printf("  %s-%d  %d -> %d%n", partition.getTopic(), partition.getPartition(), 
+                            partition.getCurrentOffset(), partition.getTargetOffset());
+                    }
+                }
+                if (plan.isDryRun()) {
+                    System.out.println("Dry run: no offsets were changed. Re-run with --execute to apply.");
+                }
+                return plan.getFailedGroups() > 0 ? 1 : 0;
             }
         }
         
@@ -0,0 +1,190 @@
+package com.kafkatool.ui;
+
+import com.kafkatool.model.KafkaMessage;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-only list over a partition offset range that only materializes the pages
+ * around what the table is currently showing. Index {@code i} maps to offset
+ * {@code fromOffset + i}; rows whose page is not loaded yet (or whose offset no longer
+ * exists, e.g. after compaction) are {@code null}. Pages are fetched on demand,
+ * neighbours are prefetched and pages farthest from the viewport are evicted. A page
+ * that failed to load is not requested again until its backoff, doubling with every
+ * failure, has passed, so a table repainting empty rows does not hammer the cluster.
+ */
+public class VirtualMessageList extends ObservableListBase<KafkaMessage> {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualMessageList.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int DEFAULT_MAX_PAGES = 12;
+    private static final long RETRY_BACKOFF_MS = 1_000;
+    private static final long MAX_RETRY_BACKOFF_MS = 60_000;
+
+    /**
+     * Fetches messages for an inclusive offset range
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+        CompletableFuture<List<KafkaMessage>> load(long fromOffset, long toOffset);
+    }
+
+    private final long fromOffset;
+    private final int size;
+    private final int pageSize;
+    private final int maxPages;
+    private final PageLoader loader;
+    private final Executor uiExecutor;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Long, KafkaMessage[]> pages;
+    private final Set<Long> pending = new HashSet<>();
+    private final Map<Long, FailedPage> failed = new HashMap<>();
+    private boolean disposed;
+
+    public VirtualMessageList(long fromOffset, long toOffset, PageLoader loader) {
+        this(fromOffset, toOffset, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES, loader, Platform::runLater);
+    }
+
+    public VirtualMessageList(long fromOffset, long toOffset, int pageSize, int maxPages,
+                              PageLoader loader, Executor uiExecutor) {
+        this(fromOffset, toOffset, pageSize, maxPages, loader, uiExecutor, System::currentTimeMillis);
+    }
+
+    public VirtualMessageList(long fromOffset, long toOffset, int pageSize, int maxPages,
+                              PageLoader loader, Executor uiExecutor, LongSupplier clock) {
+        if (toOffset < fromOffset) {
+            throw new IllegalArgumentException("toOffset must not be before fromOffset");
+        }
+        if (toOffset - fromOffset + 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Offset range too large");
+        }
+        this.fromOffset = fromOffset;
+        this.size = (int) (toOffset - fromOffset + 1);
+        this.pageSize = pageSize;
+        this.maxPages = Math.max(3, maxPages);
+        this.loader = loader;
+        this.uiExecutor = uiExecutor;
+        this.clock = clock;
+        this.pages = new LinkedHashMap<>();
+    }
+
+    @Override
+    public KafkaMessage get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        long pageIndex = index / pageSize;
+        KafkaMessage[] page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+        }
+        // Prefetch neighbours so scrolling in either direction rarely shows empty rows
+        if (pageIndex > 0 && !pages.containsKey(pageIndex - 1)) {
+            requestPage(pageIndex - 1);
+        }
+        if ((pageIndex + 1) * pageSize < size && !pages.containsKey(pageIndex + 1)) {
+            requestPage(pageIndex + 1);
+        }
+        return page != null ? page[index % pageSize] : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public long getFromOffset() {
+        return fromOffset;
+    }
+
+    public int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Stop accepting page results, e.g. once the table has moved on to another range
+     */
+    public void dispose() {
+        disposed = true;
+        pages.clear();
+        pending.clear();
+        failed.clear();
+    }
+
+    private void requestPage(long pageIndex) {
+        FailedPage failure = failed.get(pageIndex);
+        if (disposed || (failure != null && clock.getAsLong() < failure.retryAt) || !pending.add(pageIndex)) {
+            return;
+        }
+
+        long pageStart = fromOffset + pageIndex * pageSize;
+        long pageEnd = Math.min(pageStart + pageSize, fromOffset + size) - 1;
+        loader.load(pageStart, pageEnd).whenComplete((messages, throwable) ->
+            uiExecutor.execute(() -> {
+                pending.remove(pageIndex);
+                if (disposed) {
+                    return;
+                }
+                if (throwable != null) {
+                    FailedPage previous = failed.get(pageIndex);
+                    int attempts = previous != null ? previous.attempts + 1 : 1;
+                    long backoff = Math.min(MAX_RETRY_BACKOFF_MS, RETRY_BACKOFF_MS << Math.min(attempts - 1, 16));
+                    failed.put(pageIndex, new FailedPage(attempts, clock.getAsLong() + backoff));
+                    logger.error("Failed to load offsets {}-{} (attempt {}, retrying in {} ms): {}", 
+                        pageStart, pageEnd, attempts, backoff, throwable.getMessage());
+                    return;
+                }
+                failed.remove(pageIndex);
+                installPage(pageIndex, pageStart, pageEnd, messages);
+            }));
+    }
+
+    private void installPage(long pageIndex, long pageStart, long pageEnd, List<KafkaMessage> messages) {
+        KafkaMessage[] page = new KafkaMessage[(int) (pageEnd - pageStart + 1)];
+        for (KafkaMessage message : messages) {
+            long offset = message.getOffset();
+            if (offset >= pageStart && offset <= pageEnd) {
+                page[(int) (offset - pageStart)] = message;
+            }
+        }
+        pages.put(pageIndex, page);
+        evictDistantPages(pageIndex);
+
+        int firstIndex = (int) (pageIndex * pageSize);
+        beginChange();
+        for (int i = 0; i < page.length; i++) {
+            nextSet(firstIndex + i, null);
+        }
+        endChange();
+    }
+
+    private void evictDistantPages(long current) {
+        while (pages.size() > maxPages) {
+            // Evict the page farthest from the one just loaded
+            Long farthest = null;
+            for (Long pageIndex : pages.keySet()) {
+                if (farthest == null || Math.abs(pageIndex - current) > Math.abs(farthest - current)) {
+                    farthest = pageIndex;
+                }
+            }
+            pages.remove(farthest);
+        }
+    }
+
+    private record FailedPage(int attempts, long retryAt) {
+    }
+}
@@ -3,17 +3,32 @@ package com.kafkatool.ui.controller;
 import com.kafkatool.model.*;
 import com.kafkatool.service.EnhancedKafkaService;
 import com.kafkatool.service.EnhancedKafkaServiceImpl;
+import com.kafkatool.service.LiveTailSession;
 import com.kafkatool.service.SchemaRegistryService;
 import com.kafkatool.service.SchemaRegistryServiceImpl;
 import com.kafkatool.ui.DialogHelper;
+import com.kafkatool.ui.VirtualMessageList;
 import com.kafkatool.util.JsonFormatter;
 import com.kafkatool.util.SettingsManager;
+import com.kafkatool.util.diff.ListingDiffs;
+import com.kafkatool.util.diff.SnapshotDiff;
+import com.kafkatool.util.export.MessageExportImportUtil;
+import com.kafkatool.util.offsets.OffsetResetOptions;
+import com.kafkatool.util.offsets.OffsetResetPlan;
+import com.kafkatool.util.offsets.OffsetResetTime;
+import com.kafkatool.util.storage.DiskUsageSnapshot;
+import com.kafkatool.util.store.MessageSpillStore;
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -21,17 +36,25 @@ import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -41,9 +64,15 @@ public class MainController implements Initializable {
     
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int LIVE_TAIL_BACKLOG = 100;
+    private static final int LIVE_TAIL_MAX_ROWS = 5000;
+    private static final int LIVE_TAIL_MAX_PER_FRAME = 500;
+    private static final int VIRTUAL_TABLE_THRESHOLD = 5000;
+    private static final int TIMELINE_LIMIT = 5000;
+    private static final int TIMELINE_BATCH_SIZE = 250;
     
     // Services
-    private final EnhancedKafkaService kafkaService = new EnhancedKafkaServiceImpl();
+    private final EnhancedKafkaService kafkaService = EnhancedKafkaServiceImpl.createInstrumented();
     private final SettingsManager settingsManager = new SettingsManager();
     private final ExecutorService executorService = Executors.newCachedThreadPool();
     
@@ -56,6 +85,12 @@ public class MainController implements Initializable {
     // Current state
     private ClusterInfo currentCluster;
     private TopicInfo currentTopic;
+    private LiveTailSession liveTailSession;
+    private AnimationTimer liveTailTimer;
+    private AtomicBoolean timelineCancelled;
+    private VirtualMessageList virtualMessages;
+    private Timeline autoRefreshTimeline;
+    private final AtomicBoolean topicsRefreshing = new AtomicBoolean();
     
     // FXML Menu Items
     @FXML private MenuItem addClusterMenuItem;
@@ -68,6 +103,7 @@ public class MainController implements Initializable {
     @FXML private MenuItem searchMessagesMenuItem;
     @FXML private MenuItem consumerGroupsMenuItem;
     @FXML private MenuItem brokersMenuItem;
+    @FXML private MenuItem diskUsageMenuItem;
     @FXML private MenuItem clusterConfigMenuItem;
     @FXML private MenuItem brokerConfigMenuItem;
     @FXML private MenuItem aclManagementMenuItem;
@@ -113,6 +149,9 @@ public class MainController implements Initializable {
     @FXML private Button loadMessagesButton;
     @FXML private Button loadLatestButton;
     @FXML private Button searchMessagesButton;
+    @FXML private Button timelineButton;
+    @FXML private ToggleButton liveTailToggle;
+    @FXML private ToggleButton pauseLiveTailToggle;
     
     @FXML private TableView<KafkaMessage> messagesTableView;
     @FXML private TableColumn<KafkaMessage, Long> offsetColumn;
@@ -133,6 +172,7 @@ public class MainController implements Initializable {
     @FXML private Label statusLabel;
     @FXML private Label connectionStatusLabel;
     @FXML private Label messageCountLabel;
+    @FXML private Label liveTailStatusLabel;
     @FXML private ProgressIndicator loadingIndicator;
     
     @Override
@@ -185,6 +225,10 @@ public class MainController implements Initializable {
         // Handle cluster selection
         clustersListView.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldSelection, newSelection) -> {
+                if (oldSelection != null && oldSelection != newSelection) {
+                    // Monitors of the cluster left behind restart if it is selected again
+                    kafkaService.closeLagMonitors(oldSelection.getBrokerUrls());
+                }
                 currentCluster = newSelection;
                 updateClusterButtons();
                 if (newSelection != null && "Connected".equals(newSelection.getStatus())) {
@@ -225,11 +269,14 @@ public class MainController implements Initializable {
         topicsListView.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldSelection, newSelection) -> {
                 currentTopic = newSelection;
+                stopLiveTail();
+                stopTimeline();
                 updateTopicButtons();
                 if (newSelection != null) {
                     loadTopicPartitions();
                 } else {
                     partitionComboBox.getItems().clear();
+                    showMessageList(messages);
                     messages.clear();
                 }
             }
@@ -282,6 +329,7 @@ public class MainController implements Initializable {
         // Configure partition combo box
         partitionComboBox.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldSelection, newSelection) -> {
+                stopLiveTail();
                 if (newSelection != null) {
                     loadPartitionOffsets(newSelection);
                 }
@@ -355,6 +403,11 @@ public class MainController implements Initializable {
                 .or(Bindings.notEqual(clustersListView.getSelectionModel().selectedItemProperty().asString(), "Connected"))
         );
         
+        diskUsageMenuItem.disableProperty().bind(
+            Bindings.isNull(clustersListView.getSelectionModel().selectedItemProperty())
+                .or(Bindings.notEqual(clustersListView.getSelectionModel().selectedItemProperty().asString(), "Connected"))
+        );
+        
         clusterConfigMenuItem.disableProperty().bind(
             Bindings.isNull(clustersListView.getSelectionModel().selectedItemProperty())
                 .or(Bindings.notEqual(clustersListView.getSelectionModel().selectedItemProperty().asString(), "Connected"))
@@ -441,6 +494,14 @@ public class MainController implements Initializable {
             List<ClusterInfo> savedClusters = settingsManager.loadClusters();
             clusters.addAll(savedClusters);
             
+            SettingsManager.ApplicationSettings appSettings = settingsManager.loadSettings();
+            if (appSettings.isPersistMetrics()) {
+                kafkaService.enableMetricsPersistence(new File(settingsManager.getSettingsDirectoryPath(), "metrics"));
+            }
+            if (appSettings.isEnableAutoRefresh()) {
+                startAutoRefresh(appSettings.getAutoRefreshInterval());
+            }
+            
             // Auto-connect to default cluster if any
             Optional<ClusterInfo> defaultCluster = savedClusters.stream()
                 .filter(ClusterInfo::isConnectByDefault)
@@ -560,11 +621,15 @@ public class MainController implements Initializable {
     }
     
     private void disconnectFromCluster(ClusterInfo cluster) {
+        stopLiveTail();
+        stopTimeline();
+        kafkaService.closeLagMonitors(cluster.getBrokerUrls());
         cluster.setStatus("Disconnected");
         updateConnectionStatus("Not Connected", false);
         updateStatus("Disconnected from cluster: " + cluster.getName());
         clustersListView.refresh();
         topics.clear();
+        showMessageList(messages);
         messages.clear();
         updateClusterButtons();
     }
@@ -637,16 +702,39 @@ public class MainController implements Initializable {
     }
     
     private void refreshTopics() {
+        refreshTopics(false);
+    }
+    
+    /**
+     * Reload the topic list and apply only the added, removed and changed topics, so the
+     * selection and scroll position survive. A quiet refresh (auto-refresh) shows no loading
+     * indicator or error dialog and is skipped while another refresh is in flight.
+     */
+    private void refreshTopics(boolean quiet) {
         if (currentCluster != null && "Connected".equals(currentCluster.getStatus())) {
-            showLoading(true);
-            updateStatus("Refreshing topics");
+            if (!topicsRefreshing.compareAndSet(false, true) && quiet) {
+                return;
+            }
+            if (!quiet) {
+                showLoading(true);
+                updateStatus("Refreshing topics");
+            }
             
             kafkaService.getTopicsAsync(currentCluster.getBrokerUrls())
                 .whenComplete((topicList, throwable) -> {
                     Platform.runLater(() -> {
+                        topicsRefreshing.set(false);
+                        if (quiet) {
+                            if (throwable == null) {
+                                ListingDiffs.topics(topics, topicList).applyTo(topics);
+                            } else {
+                                logger.warn("Auto-refresh of topics failed: {}", throwable.getMessage());
+                            }
+                            return;
+                        }
                         showLoading(false);
                         if (throwable == null) {
-                            topics.setAll(topicList);
+                            ListingDiffs.topics(topics, topicList).applyTo(topics);
                             updateStatus("Topics refreshed: " + topicList.size() + " topics found");
                         } else {
                             updateStatus("Failed to refresh topics: " + throwable.getMessage());
@@ -658,6 +746,17 @@ public class MainController implements Initializable {
         }
     }
     
+    /**
+     * Periodically refresh the topic list of the connected cluster
+     */
+    private void startAutoRefresh(int intervalSeconds) {
+        autoRefreshTimeline = new Timeline(new KeyFrame(
+            javafx.util.Duration.seconds(Math.max(5, intervalSeconds)), e -> refreshTopics(true)));
+        autoRefreshTimeline.setCycleCount(Timeline.INDEFINITE);
+        autoRefreshTimeline.play();
+        logger.info("Auto-refresh enabled every {} seconds", Math.max(5, intervalSeconds));
+    }
+    
     @FXML
     private void onConfigTopic() {
         if (currentTopic != null && currentCluster != null) {
@@ -976,11 +1075,18 @@ public class MainController implements Initializable {
     @FXML
     private void onLoadMessages() {
         if (currentTopic != null && currentCluster != null && partitionComboBox.getValue() != null) {
+            stopLiveTail();
+            stopTimeline();
             try {
                 long fromOffset = Long.parseLong(fromOffsetField.getText().trim());
                 long toOffset = Long.parseLong(toOffsetField.getText().trim());
                 int partition = partitionComboBox.getValue();
                 
+                if (toOffset - fromOffset + 1 > VIRTUAL_TABLE_THRESHOLD) {
+                    browseOffsetRange(partition, fromOffset, toOffset);
+                    return;
+                }
+                
                 showLoading(true);
                 updateStatus("Loading messages");
                 
@@ -994,6 +1100,7 @@ public class MainController implements Initializable {
                     Platform.runLater(() -> {
                         showLoading(false);
                         if (throwable == null) {
+                            showMessageList(messages);
                             messages.setAll(messageList);
                             updateStatus("Loaded " + messageList.size() + " messages");
                         } else {
@@ -1011,9 +1118,45 @@ public class MainController implements Initializable {
         }
     }
     
+    /**
+     * Show a large offset range through a virtual list that only loads the pages being viewed
+     */
+    private void browseOffsetRange(int partition, long fromOffset, long toOffset) {
+        if (toOffset < fromOffset || toOffset - fromOffset + 1 > Integer.MAX_VALUE) {
+            DialogHelper.showErrorDialog("Invalid Input",
+                "Invalid offset values", "The offset range is empty or too large to browse");
+            return;
+        }
+        
+        String brokerUrls = currentCluster.getBrokerUrls();
+        String topicName = currentTopic.getName();
+        VirtualMessageList virtualList = new VirtualMessageList(fromOffset, toOffset,
+            (pageFrom, pageTo) -> kafkaService.getMessagesBetweenOffsetsAsync(
+                brokerUrls, topicName, partition, pageFrom, pageTo));
+        
+        messages.clear();
+        showMessageList(virtualList);
+        virtualMessages = virtualList;
+        messagesTableView.scrollTo(0);
+        updateStatus("Browsing offsets " + fromOffset + "-" + toOffset + " (pages load on demand)");
+    }
+    
+    private void showMessageList(ObservableList<KafkaMessage> items) {
+        if (virtualMessages != null && virtualMessages != items) {
+            virtualMessages.dispose();
+            virtualMessages = null;
+        }
+        if (messagesTableView.getItems() != items) {
+            messagesTableView.setItems(items);
+            messageCountLabel.textProperty().bind(Bindings.size(items).asString("Messages: %d"));
+        }
+    }
+    
     @FXML
     private void onLoadLatest() {
         if (currentTopic != null && currentCluster != null && partitionComboBox.getValue() != null) {
+            stopLiveTail();
+            stopTimeline();
             int partition = partitionComboBox.getValue();
             
             showLoading(true);
@@ -1028,6 +1171,7 @@ public class MainController implements Initializable {
                 Platform.runLater(() -> {
                     showLoading(false);
                     if (throwable == null) {
+                        showMessageList(messages);
                         messages.setAll(messageList);
                         updateStatus("Loaded " + messageList.size() + " latest messages");
                     } else {
@@ -1040,6 +1184,175 @@ public class MainController implements Initializable {
         }
     }
     
+    @FXML
+    private void onShowTimeline() {
+        if (currentTopic == null || currentCluster == null) {
+            return;
+        }
+        
+        TextInputDialog windowDialog = new TextInputDialog("15");
+        windowDialog.setTitle("Topic Timeline - " + currentTopic.getName());
+        windowDialog.setHeaderText("Show messages from all partitions in timestamp order");
+        windowDialog.setContentText("Minutes back:");
+        windowDialog.showAndWait().ifPresent(input -> {
+            long minutes;
+            try {
+                minutes = Long.parseLong(input.trim());
+            } catch (NumberFormatException e) {
+                DialogHelper.showErrorDialog("Invalid Input", "Invalid time window", "Please enter a number of minutes");
+                return;
+            }
+            
+            stopLiveTail();
+            stopTimeline();
+            showMessageList(messages);
+            messages.clear();
+            showLoading(true);
+            updateStatus("Loading timeline for " + currentTopic.getName());
+            
+            // Merged records reach the table in small batches while the read is still running
+            AtomicBoolean cancelled = new AtomicBoolean();
+            timelineCancelled = cancelled;
+            List<KafkaMessage> batch = new ArrayList<>(TIMELINE_BATCH_SIZE);
+            long toTimestamp = System.currentTimeMillis();
+            long fromTimestamp = toTimestamp - minutes * 60_000L;
+            kafkaService.streamTopicTimelineAsync(currentCluster.getBrokerUrls(), currentTopic.getName(),
+                fromTimestamp, toTimestamp, TIMELINE_LIMIT, message -> {
+                    if (cancelled.get()) {
+                        throw new CancellationException("Timeline replaced");
+                    }
+                    batch.add(message);
+                    if (batch.size() >= TIMELINE_BATCH_SIZE) {
+                        List<KafkaMessage> chunk = new ArrayList<>(batch);
+                        batch.clear();
+                        Platform.runLater(() -> {
+                            if (!cancelled.get()) {
+                                messages.addAll(chunk);
+                            }
+                        });
+                    }
+                }, cancelled::get).whenComplete((count, throwable) -> {
+                    List<KafkaMessage> remainder = new ArrayList<>(batch);
+                    Platform.runLater(() -> {
+                        // A replaced stream must not touch the table or status of the one that replaced it
+                        if (cancelled.get()) {
+                            return;
+                        }
+                        timelineCancelled = null;
+                        showLoading(false);
+                        messages.addAll(remainder);
+                        if (throwable == null) {
+                            updateStatus("Loaded " + count + " messages across all partitions of " + currentTopic.getName());
+                        } else {
+                            updateStatus("Failed to load timeline: " + throwable.getMessage());
+                            DialogHelper.showErrorDialog("Timeline Error",
+                                "Failed to load topic timeline", throwable.getMessage());
+                        }
+                    });
+                });
+        });
+    }
+    
+    @FXML
+    private void onToggleLiveTail() {
+        if (!liveTailToggle.isSelected()) {
+            stopLiveTail();
+            updateStatus("Live tail stopped");
+            return;
+        }
+        if (currentTopic == null || currentCluster == null || partitionComboBox.getValue() == null) {
+            liveTailToggle.setSelected(false);
+            return;
+        }
+        
+        int partition = partitionComboBox.getValue();
+        stopTimeline();
+        showMessageList(messages);
+        messages.clear();
+        liveTailSession = kafkaService.createLiveTailSession(
+            currentCluster.getBrokerUrls(), currentTopic.getName(), partition);
+        liveTailSession.start(LIVE_TAIL_BACKLOG);
+        
+        // Drain the session once per frame so bursts reach the table as a single change
+        List<KafkaMessage> batch = new ArrayList<>(LIVE_TAIL_MAX_PER_FRAME);
+        liveTailTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                drainLiveTail(batch);
+            }
+        };
+        liveTailTimer.start();
+        
+        pauseLiveTailToggle.setSelected(false);
+        pauseLiveTailToggle.setDisable(false);
+        updateStatus("Live tail started on " + currentTopic.getName() + ":" + partition);
+    }
+    
+    @FXML
+    private void onTogglePauseLiveTail() {
+        if (liveTailSession == null) {
+            return;
+        }
+        if (pauseLiveTailToggle.isSelected()) {
+            liveTailSession.pause();
+            updateStatus("Live tail paused at offset " + liveTailSession.getPosition());
+        } else {
+            liveTailSession.resume();
+            updateStatus("Live tail resumed");
+        }
+    }
+    
+    private void drainLiveTail(List<KafkaMessage> batch) {
+        LiveTailSession session = liveTailSession;
+        if (session == null) {
+            return;
+        }
+        
+        batch.clear();
+        session.drainTo(batch, LIVE_TAIL_MAX_PER_FRAME);
+        if (!batch.isEmpty()) {
+            // Keep only the newest rows so the table stays bounded
+            int overflow = messages.size() + batch.size() - LIVE_TAIL_MAX_ROWS;
+            if (overflow > 0) {
+                messages.remove(0, overflow);
+            }
+            messages.addAll(batch);
+        }
+        
+        liveTailStatusLabel.setText(String.format("Live: %d received, %d dropped%s",
+            session.getReceivedCount(), session.getDroppedCount(),
+            session.isRunning() ? "" : " (stopped)"));
+    }
+    
+    /**
+     * Stop a running timeline read; its remaining records are discarded
+     */
+    private void stopTimeline() {
+        if (timelineCancelled != null) {
+            timelineCancelled.set(true);
+            timelineCancelled = null;
+            showLoading(false);
+        }
+    }
+    
+    private void stopLiveTail() {
+        if (liveTailTimer != null) {
+            liveTailTimer.stop();
+            liveTailTimer = null;
+        }
+        if (liveTailSession != null) {
+            LiveTailSession session = liveTailSession;
+            liveTailSession = null;
+            executorService.submit(session::stop);
+        }
+        if (liveTailToggle != null) {
+            liveTailToggle.setSelected(false);
+            pauseLiveTailToggle.setSelected(false);
+            pauseLiveTailToggle.setDisable(true);
+            liveTailStatusLabel.setText("");
+        }
+    }
+    
     @FXML
     private void onProduceMessage() {
         if (currentTopic != null && currentCluster != null) {
@@ -1124,6 +1437,16 @@ public class MainController implements Initializable {
         showSimpleBrokersDialog();
     }
     
+    @FXML
+    private void onDiskUsage() {
+        if (currentCluster == null || !"Connected".equals(currentCluster.getStatus())) {
+            DialogHelper.showErrorDialog("No Connected Cluster", "Connection Required", "Please connect to a cluster first.");
+            return;
+        }
+        
+        showDiskUsageDialog();
+    }
+    
     @FXML
     private void onClusterConfig() {
         if (currentCluster == null || !"Connected".equals(currentCluster.getStatus())) {
@@ -1224,13 +1547,34 @@ public class MainController implements Initializable {
             }
         });
         
-        // Load data
-        kafkaService.getConsumerGroupsAsync(currentCluster.getBrokerUrls())
-            .thenAccept(groups -> Platform.runLater(() -> table.getItems().setAll(groups)))
+        // Load data; later loads only touch the rows that changed
+        String brokerUrls = currentCluster.getBrokerUrls();
+        java.util.function.Consumer<Boolean> loadGroups = quiet -> kafkaService.getConsumerGroupsAsync(brokerUrls)
+            .thenAccept(groups -> Platform.runLater(() ->
+                ListingDiffs.consumerGroups(table.getItems(), groups).applyTo(table.getItems())))
             .exceptionally(ex -> {
-                Platform.runLater(() -> DialogHelper.showErrorDialog("Load Error", "Failed to load consumer groups", ex.getMessage()));
+                if (quiet) {
+                    logger.warn("Auto-refresh of consumer groups failed: {}", ex.getMessage());
+                } else {
+                    Platform.runLater(() -> DialogHelper.showErrorDialog("Load Error", "Failed to load consumer groups", ex.getMessage()));
+                }
                 return null;
             });
+        loadGroups.accept(false);
+        refreshBtn.setOnAction(e -> loadGroups.accept(false));
+        
+        try {
+            SettingsManager.ApplicationSettings appSettings = settingsManager.loadSettings();
+            if (appSettings.isEnableAutoRefresh()) {
+                Timeline groupsRefresh = new Timeline(new KeyFrame(
+                    javafx.util.Duration.seconds(Math.max(5, appSettings.getAutoRefreshInterval())), e -> loadGroups.accept(true)));
+                groupsRefresh.setCycleCount(Timeline.INDEFINITE);
+                groupsRefresh.play();
+                dialog.setOnHidden(e -> groupsRefresh.stop());
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to load settings for consumer group auto-refresh: {}", e.getMessage());
+        }
         
         // Button actions
         resetOffsetsBtn.setOnAction(e -> {
@@ -1347,6 +1691,138 @@ public class MainController implements Initializable {
         dialog.show();
     }
     
+    private static String formatBrokerDiskUsage(DiskUsageSnapshot.BrokerUsage usage) {
+        return String.format("- Replicas: %d\n- Replica data: %.1f GB\n- Volume used: %s\n- Growth: %.1f KB/s\n- Offline log dirs: %d",
+            usage.getReplicaCount(),
+            usage.getReplicaBytes() / (1024.0 * 1024 * 1024),
+            usage.getUsedPercent() >= 0 ? String.format("%.1f%%", usage.getUsedPercent()) : "Unknown",
+            usage.getGrowthBytesPerSec() / 1024,
+            usage.getOfflineLogDirs());
+    }
+    
+    /**
+     * Topics and brokers by disk usage; the topic table filters and sorts thousands of rows
+     * in place, and refreshes only touch the topics whose size changed
+     */
+    private void showDiskUsageDialog() {
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Disk Usage - " + currentCluster.getName());
+        dialog.setHeaderText("Disk usage by topic and broker");
+        
+        VBox content = new VBox(10);
+        content.setPadding(new Insets(10));
+        
+        HBox filterBar = new HBox(10);
+        filterBar.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        TextField searchField = new TextField();
+        searchField.setPromptText("Filter topics");
+        Button refreshBtn = new Button("Refresh");
+        Label summaryLabel = new Label();
+        filterBar.getChildren().addAll(new Label("Search:"), searchField, refreshBtn, summaryLabel);
+        
+        TableView<DiskUsageSnapshot.TopicUsage> topicTable = new TableView<>();
+        ObservableList<DiskUsageSnapshot.TopicUsage> topicUsage = FXCollections.observableArrayList();
+        FilteredList<DiskUsageSnapshot.TopicUsage> filteredUsage = new FilteredList<>(topicUsage);
+        SortedList<DiskUsageSnapshot.TopicUsage> sortedUsage = new SortedList<>(filteredUsage);
+        sortedUsage.comparatorProperty().bind(topicTable.comparatorProperty());
+        topicTable.setItems(sortedUsage);
+        searchField.textProperty().addListener((obs, oldText, newText) -> {
+            String filter = newText == null ? "" : newText.trim().toLowerCase();
+            filteredUsage.setPredicate(filter.isEmpty() ? null : usage -> usage.getTopic().toLowerCase().contains(filter));
+        });
+        
+        TableColumn<DiskUsageSnapshot.TopicUsage, String> topicCol = new TableColumn<>("Topic");
+        topicCol.setCellValueFactory(new PropertyValueFactory<>("topic"));
+        topicCol.setPrefWidth(220);
+        
+        TableColumn<DiskUsageSnapshot.TopicUsage, Integer> partitionsCol = new TableColumn<>("Partitions");
+        partitionsCol.setCellValueFactory(new PropertyValueFactory<>("partitionCount"));
+        partitionsCol.setPrefWidth(80);
+        
+        TableColumn<DiskUsageSnapshot.TopicUsage, Double> sizeCol = new TableColumn<>("Size (MB)");
+        sizeCol.setCellValueFactory(data -> new SimpleObjectProperty<>(toMb(data.getValue().getSizeBytes())));
+        sizeCol.setPrefWidth(100);
+        
+        TableColumn<DiskUsageSnapshot.TopicUsage, Double> diskCol = new TableColumn<>("On Disk (MB)");
+        diskCol.setCellValueFactory(data -> new SimpleObjectProperty<>(toMb(data.getValue().getTotalBytes())));
+        diskCol.setPrefWidth(100);
+        
+        TableColumn<DiskUsageSnapshot.TopicUsage, Double> growthCol = new TableColumn<>("Growth (KB/s)");
+        growthCol.setCellValueFactory(data -> new SimpleObjectProperty<>(
+            Math.round(data.getValue().getGrowthBytesPerSec() / 1024 * 10) / 10.0));
+        growthCol.setPrefWidth(100);
+        
+        topicTable.getColumns().addAll(topicCol, partitionsCol, sizeCol, diskCol, growthCol);
+        diskCol.setSortType(TableColumn.SortType.DESCENDING);
+        topicTable.getSortOrder().add(diskCol);
+        topicTable.setPrefHeight(320);
+        
+        TableView<DiskUsageSnapshot.BrokerUsage> brokerTable = new TableView<>();
+        
+        TableColumn<DiskUsageSnapshot.BrokerUsage, Integer> brokerCol = new TableColumn<>("Broker");
+        brokerCol.setCellValueFactory(new PropertyValueFactory<>("brokerId"));
+        brokerCol.setPrefWidth(70);
+        
+        TableColumn<DiskUsageSnapshot.BrokerUsage, Integer> replicasCol = new TableColumn<>("Replicas");
+        replicasCol.setCellValueFactory(new PropertyValueFactory<>("replicaCount"));
+        replicasCol.setPrefWidth(80);
+        
+        TableColumn<DiskUsageSnapshot.BrokerUsage, Double> brokerDataCol = new TableColumn<>("Replica Data (MB)");
+        brokerDataCol.setCellValueFactory(data -> new SimpleObjectProperty<>(toMb(data.getValue().getReplicaBytes())));
+        brokerDataCol.setPrefWidth(130);
+        
+        TableColumn<DiskUsageSnapshot.BrokerUsage, String> usedCol = new TableColumn<>("Volume Used");
+        usedCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getUsedPercent() >= 0
+            ? String.format("%.1f%%", data.getValue().getUsedPercent()) : "Unknown"));
+        usedCol.setPrefWidth(100);
+        
+        TableColumn<DiskUsageSnapshot.BrokerUsage, Double> brokerGrowthCol = new TableColumn<>("Growth (KB/s)");
+        brokerGrowthCol.setCellValueFactory(data -> new SimpleObjectProperty<>(
+            Math.round(data.getValue().getGrowthBytesPerSec() / 1024 * 10) / 10.0));
+        brokerGrowthCol.setPrefWidth(100);
+        
+        TableColumn<DiskUsageSnapshot.BrokerUsage, Integer> offlineCol = new TableColumn<>("Offline Dirs");
+        offlineCol.setCellValueFactory(new PropertyValueFactory<>("offlineLogDirs"));
+        offlineCol.setPrefWidth(90);
+        
+        brokerTable.getColumns().addAll(brokerCol, replicasCol, brokerDataCol, usedCol, brokerGrowthCol, offlineCol);
+        brokerTable.setPrefHeight(150);
+        
+        String brokerUrls = currentCluster.getBrokerUrls();
+        Runnable loadUsage = () -> kafkaService.getDiskUsageAsync(brokerUrls)
+            .thenAccept(usage -> Platform.runLater(() -> {
+                SnapshotDiff.compute(topicUsage, usage.getTopics().values(), DiskUsageSnapshot.TopicUsage::getTopic,
+                    (a, b) -> a.getTotalBytes() == b.getTotalBytes() && a.getSizeBytes() == b.getSizeBytes()
+                        && a.getGrowthBytesPerSec() == b.getGrowthBytesPerSec())
+                    .applyTo(topicUsage);
+                brokerTable.getItems().setAll(usage.getBrokers().values());
+                summaryLabel.setText(String.format("%d topics, %.1f GB on %d brokers", usage.getTopics().size(),
+                    usage.getTotalBytes() / (1024.0 * 1024 * 1024), usage.getBrokers().size()));
+            }))
+            .exceptionally(ex -> {
+                Platform.runLater(() -> DialogHelper.showErrorDialog("Load Error", "Failed to load disk usage", ex.getMessage()));
+                return null;
+            });
+        loadUsage.run();
+        refreshBtn.setOnAction(e -> loadUsage.run());
+        
+        content.getChildren().addAll(
+            filterBar,
+            topicTable,
+            new Label("Brokers:"),
+            brokerTable
+        );
+        
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().setPrefSize(760, 640);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialog.show();
+    }
+    
+    private static double toMb(long bytes) {
+        return Math.round(bytes / (1024.0 * 1024) * 10) / 10.0;
+    }
+    
     private void showSimpleBrokersDialog() {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("Brokers - " + currentCluster.getName());
@@ -1403,21 +1879,20 @@ public class MainController implements Initializable {
         detailsArea.setEditable(false);
         
         // Table selection handler
+        AtomicReference<DiskUsageSnapshot> diskUsage = new AtomicReference<>();
         table.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             if (newSelection != null) {
+                DiskUsageSnapshot usage = diskUsage.get();
+                DiskUsageSnapshot.BrokerUsage brokerUsage = usage != null ? usage.getBroker(newSelection.getId()) : null;
                 String details = String.format(
-                    "Broker ID: %d\nHost: %s:%d\nController: %s\nRack: %s\nVersion: %s\n\nAdditional Info:\n- Leader partitions: %d\n- Replica partitions: %d\n- Disk usage: %s\n- Network throughput: %s",
+                    "Broker ID: %d\nHost: %s:%d\nController: %s\nRack: %s\nVersion: %s\n\nDisk Usage:\n%s",
                     newSelection.getId(),
                     newSelection.getHost(),
                     newSelection.getPort(),
                     newSelection.isController() ? "Yes" : "No",
                     newSelection.getRack() != null ? newSelection.getRack() : "Unknown",
                     newSelection.getVersion() != null ? newSelection.getVersion() : "Unknown",
-                    // Mock additional data for demonstration
-                    (int)(Math.random() * 100),
-                    (int)(Math.random() * 500),
-                    String.format("%.1f GB", Math.random() * 100),
-                    String.format("%.1f MB/s", Math.random() * 50)
+                    brokerUsage != null ? formatBrokerDiskUsage(brokerUsage) : "- Not available"
                 );
                 detailsArea.setText(details);
             }
@@ -1430,6 +1905,12 @@ public class MainController implements Initializable {
                 Platform.runLater(() -> DialogHelper.showErrorDialog("Load Error", "Failed to load brokers", ex.getMessage()));
                 return null;
             });
+        kafkaService.getDiskUsageAsync(currentCluster.getBrokerUrls())
+            .thenAccept(diskUsage::set)
+            .exceptionally(ex -> {
+                logger.warn("Failed to load disk usage: {}", ex.getMessage());
+                return null;
+            });
         
         // Button actions
         viewConfigBtn.setOnAction(e -> {
@@ -2207,101 +2688,75 @@ public class MainController implements Initializable {
             showLoading(true);
             updateStatus("Searching messages in " + currentTopic.getName());
             
+            // Every partition's matches stream into one off-heap session store
+            MessageSpillStore results;
+            try {
+                results = new MessageSpillStore();
+            } catch (IOException e) {
+                showLoading(false);
+                DialogHelper.showErrorDialog("Search Error", "Failed to create result store", e.getMessage());
+                return;
+            }
+            
             // Get selected partition or search all if none selected
             Integer selectedPartition = partitionComboBox.getValue();
-            List<CompletableFuture<List<KafkaMessage>>> searchTasks = new ArrayList<>();
+            List<CompletableFuture<Long>> searchTasks = new ArrayList<>();
+            AtomicInteger failedPartitions = new AtomicInteger();
             
             if (selectedPartition != null) {
                 // Search in selected partition only
-                CompletableFuture<List<KafkaMessage>> searchTask = createSearchTask(
-                    criteria, selectedPartition, criteria.getMaxResults());
-                searchTasks.add(searchTask);
+                searchTasks.add(createSearchTask(criteria, selectedPartition, criteria.getMaxResults(), results,
+                    failedPartitions));
             } else {
                 // Search in all partitions
                 for (int i = 0; i < currentTopic.getPartitions(); i++) {
-                    final int partition = i;
-                    CompletableFuture<List<KafkaMessage>> searchTask = createSearchTask(
-                        criteria, partition, Math.min(criteria.getMaxResults() / currentTopic.getPartitions(), 100));
-                    searchTasks.add(searchTask);
+                    searchTasks.add(createSearchTask(criteria, i, 
+                        Math.min(criteria.getMaxResults() / currentTopic.getPartitions(), 100), results,
+                        failedPartitions));
                 }
             }
             
-            // Combine all search results
             CompletableFuture.allOf(searchTasks.toArray(new CompletableFuture[0]))
-                .thenApply(v -> {
-                    List<KafkaMessage> allResults = new ArrayList<>();
-                    for (CompletableFuture<List<KafkaMessage>> task : searchTasks) {
-                        try {
-                            allResults.addAll(task.get());
-                        } catch (Exception e) {
-                            logger.warn("Failed to get search results from one partition: {}", e.getMessage());
-                        }
-                    }
-                    return allResults.stream()
-                        .limit(criteria.getMaxResults())
-                        .collect(Collectors.toList());
-                })
-                .whenComplete((results, throwable) -> {
+                .whenComplete((v, throwable) -> {
                     Platform.runLater(() -> {
                         showLoading(false);
-                        if (throwable == null) {
-                            updateStatus("Search completed: " + results.size() + " messages found");
-                            showSearchResults(results, criteria);
+                        int failed = failedPartitions.get();
+                        if (failed > 0) {
+                            updateStatus("Search incomplete: " + failed + " of " + searchTasks.size() 
+                                + " partitions failed, " + results.size() + " messages found");
                         } else {
-                            updateStatus("Search failed: " + throwable.getMessage());
-                            DialogHelper.showErrorDialog("Search Error", 
-                                "Failed to search messages", throwable.getMessage());
+                            updateStatus("Search completed: " + results.size() + " messages found");
                         }
+                        showSearchResults(results, criteria);
                     });
                 });
         });
     }
     
     /**
-     * Create appropriate search task based on criteria (with or without timestamp filtering)
+     * Create a search task that appends one partition's matches to the result store,
+     * with or without timestamp filtering. A failed partition is logged, counted and skipped.
      */
-    private CompletableFuture<List<KafkaMessage>> createSearchTask(DialogHelper.SearchCriteria criteria, 
-                                                                  int partition, int maxResults) {
-        String brokerUrls = currentCluster.getBrokerUrls();
-        String topicName = currentTopic.getName();
-        
-        if (criteria.isUseTimestampFilter()) {
-            // Use timestamp-based search
-            if (criteria.getSearchPattern() != null && !criteria.getSearchPattern().isEmpty()) {
-                // Search with both pattern and timestamp filtering
-                return kafkaService.searchMessagesByPatternAndTimestampAsync(
-                    brokerUrls, topicName, partition,
-                    criteria.getSearchPattern(),
-                    criteria.isSearchInKey(),
-                    criteria.isSearchInValue(),
-                    criteria.isSearchInHeaders(),
-                    criteria.getFromTimestamp(),
-                    criteria.getToTimestamp(),
-                    maxResults
-                );
-            } else {
-                // Search by timestamp only
-                return kafkaService.searchMessagesByTimestampAsync(
-                    brokerUrls, topicName, partition,
-                    criteria.getFromTimestamp(),
-                    criteria.getToTimestamp(),
-                    maxResults
-                );
-            }
-        } else {
-            // Use pattern-based search (original behavior)
-            return kafkaService.searchMessagesAsync(
-                brokerUrls, topicName, partition,
+    private CompletableFuture<Long> createSearchTask(DialogHelper.SearchCriteria criteria, int partition,
+                                                     int maxResults, MessageSpillStore results,
+                                                     AtomicInteger failedPartitions) {
+        long fromTimestamp = criteria.isUseTimestampFilter() ? criteria.getFromTimestamp() : -1;
+        long toTimestamp = criteria.isUseTimestampFilter() ? criteria.getToTimestamp() : Long.MAX_VALUE;
+        return kafkaService.searchMessagesToSpillStoreAsync(
+                currentCluster.getBrokerUrls(), currentTopic.getName(), partition,
                 criteria.getSearchPattern(),
                 criteria.isSearchInKey(),
                 criteria.isSearchInValue(),
                 criteria.isSearchInHeaders(),
-                maxResults
-            );
-        }
+                fromTimestamp, toTimestamp, maxResults, results)
+            .exceptionally(e -> {
+                logger.warn("Failed to get search results from partition {}: {}", partition, e.getMessage());
+                failedPartitions.incrementAndGet();
+                return 0L;
+            });
     }
     
-    private void showSearchResults(List<KafkaMessage> results, DialogHelper.SearchCriteria criteria) {
+    private void showSearchResults(MessageSpillStore results, DialogHelper.SearchCriteria criteria) {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("Search Results - " + currentTopic.getName());
         
@@ -2324,9 +2779,10 @@ public class MainController implements Initializable {
         content.setPrefWidth(800);
         content.setPrefHeight(600);
         
-        // Results table
+        // Results table reads straight from the spill store
         TableView<KafkaMessage> table = new TableView<>();
-        table.setItems(FXCollections.observableArrayList(results));
+        table.setItems(FXCollections.observableList(results.asList()));
+        AtomicReference<MessageSpillStore> filteredResults = new AtomicReference<>();
         
         TableColumn<KafkaMessage, Integer> partitionCol = new TableColumn<>("Partition");
         partitionCol.setCellValueFactory(new PropertyValueFactory<>("partition"));
@@ -2375,15 +2831,93 @@ public class MainController implements Initializable {
             }
         });
         
+        // Search within results writes matches to a second store instead of the heap
+        TextField filterField = new TextField();
+        filterField.setPromptText("Search within results");
+        HBox.setHgrow(filterField, Priority.ALWAYS);
+        Button filterButton = new Button("Filter");
+        filterButton.setOnAction(e -> {
+            String text = filterField.getText().trim();
+            // The filter reads the results on a worker, so hold them open until it is done
+            if (!results.retain()) {
+                return;
+            }
+            executorService.submit(() -> {
+                try {
+                    MessageSpillStore filtered = text.isEmpty() ? null : results.filter(message ->
+                        (message.getKey() != null && message.getKey().contains(text)) ||
+                        (message.getValue() != null && message.getValue().contains(text)));
+                    Platform.runLater(() -> {
+                        if (!dialog.isShowing()) {
+                            // Closed while filtering, so nothing else will ever release this store
+                            if (filtered != null) {
+                                filtered.close();
+                            }
+                            return;
+                        }
+                        MessageSpillStore previous = filteredResults.getAndSet(filtered);
+                        MessageSpillStore shown = filtered != null ? filtered : results;
+                        table.setItems(FXCollections.observableList(shown.asList()));
+                        if (previous != null) {
+                            previous.close();
+                        }
+                        updateStatus("Showing " + shown.size() + " of " + results.size() + " search results");
+                    });
+                } catch (IOException ex) {
+                    Platform.runLater(() -> DialogHelper.showErrorDialog("Search Error",
+                        "Failed to filter search results", ex.getMessage()));
+                } finally {
+                    results.close();
+                }
+            });
+        });
+        
+        Button exportButton = new Button("Export CSV");
+        exportButton.setOnAction(e -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Export Search Results");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+            File file = fileChooser.showSaveDialog(dialog.getOwner());
+            if (file != null) {
+                MessageSpillStore current = filteredResults.get() != null ? filteredResults.get() : results;
+                // A new filter or closing the dialog only drops its own reference, not the export's
+                if (!current.retain()) {
+                    return;
+                }
+                executorService.submit(() -> {
+                    try {
+                        MessageExportImportUtil.exportToCsv(current.asList(), file);
+                        long exported = current.size();
+                        Platform.runLater(() -> updateStatus("Exported " + exported + " messages to " + file.getName()));
+                    } catch (IOException ex) {
+                        Platform.runLater(() -> DialogHelper.showErrorDialog("Export Error",
+                            "Failed to export search results", ex.getMessage()));
+                    } finally {
+                        current.close();
+                    }
+                });
+            }
+        });
+        
+        HBox filterRow = new HBox(10, filterField, filterButton);
         HBox buttonRow = new HBox(10);
         if (criteria.isEnablePreview()) {
             buttonRow.getChildren().add(previewButton);
         }
+        buttonRow.getChildren().add(exportButton);
         
-        content.getChildren().addAll(table, buttonRow);
+        content.getChildren().addAll(filterRow, table, buttonRow);
         
         dialog.getDialogPane().setContent(content);
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialog.setOnHidden(e -> {
+            table.setItems(FXCollections.observableArrayList());
+            MessageSpillStore filtered = filteredResults.getAndSet(null);
+            if (filtered != null) {
+                filtered.close();
+            }
+            results.close();
+        });
         dialog.show();
     }
     
@@ -2801,6 +3335,12 @@ public class MainController implements Initializable {
             return;
         }
         
+        if (strategy.contains("Duration") && (value == null || value.trim().isEmpty())) {
+            DialogHelper.showErrorDialog("Missing Value", "Duration Required", 
+                "Please enter a duration such as 15m or 1h.");
+            return;
+        }
+        
         String operationType = dryRun ? "Preview" : "Execute";
         boolean confirmed = DialogHelper.showConfirmDialog(
             operationType + " Offset Reset",
@@ -2814,20 +3354,17 @@ public class MainController implements Initializable {
         showLoading(true);
         updateStatus(operationType + " offset reset");
         
-        CompletableFuture<Void> resetFuture;
+        CompletableFuture<String> resetFuture;
         
-        if (strategy.equals("Reset to Latest")) {
-            resetFuture = kafkaService.resetConsumerGroupOffsetsToLatestAsync(
-                currentCluster.getBrokerUrls(), groupId, targetTopic.equals("All Topics") ? null : targetTopic);
-        } else if (strategy.equals("Reset to Earliest")) {
-            resetFuture = kafkaService.resetConsumerGroupOffsetsToEarliestAsync(
-                currentCluster.getBrokerUrls(), groupId, targetTopic.equals("All Topics") ? null : targetTopic);
-        } else if (strategy.equals("Reset to Specific Offset")) {
+        if (strategy.equals("Reset to Specific Offset")) {
             try {
                 long offset = Long.parseLong(value.trim());
                 // For now, we'll use partition 0 - this could be enhanced to support all partitions
-                resetFuture = kafkaService.resetConsumerGroupOffsetsToOffsetAsync(
-                    currentCluster.getBrokerUrls(), groupId, targetTopic, 0, offset);
+                resetFuture = dryRun
+                    ? CompletableFuture.completedFuture("Partition 0 would be reset to offset " + offset + ".")
+                    : kafkaService.resetConsumerGroupOffsetsToOffsetAsync(
+                        currentCluster.getBrokerUrls(), groupId, targetTopic, 0, offset)
+                        .thenApply(ignored -> "Partition 0 was reset to offset " + offset + ".");
             } catch (NumberFormatException ex) {
                 showLoading(false);
                 DialogHelper.showErrorDialog("Invalid Offset", "Invalid Number", 
@@ -2835,18 +3372,50 @@ public class MainController implements Initializable {
                 return;
             }
         } else {
-            // For timestamp and duration strategies, we'll fall back to latest for now
-            resetFuture = kafkaService.resetConsumerGroupOffsetsToLatestAsync(
-                currentCluster.getBrokerUrls(), groupId, targetTopic.equals("All Topics") ? null : targetTopic);
+            OffsetResetOptions options = new OffsetResetOptions();
+            options.setDryRun(dryRun);
+            try {
+                if (strategy.equals("Reset to Earliest")) {
+                    options.setStrategy(OffsetResetOptions.Strategy.EARLIEST);
+                } else if (strategy.equals("Reset to Timestamp")) {
+                    options.setStrategy(OffsetResetOptions.Strategy.TIMESTAMP);
+                    options.setTimestamp(OffsetResetTime.parseTimestamp(value));
+                } else if (strategy.equals("Reset by Duration")) {
+                    options.setStrategy(OffsetResetOptions.Strategy.TIMESTAMP);
+                    options.setTimestamp(OffsetResetTime.before(System.currentTimeMillis(), value));
+                } else {
+                    options.setStrategy(OffsetResetOptions.Strategy.LATEST);
+                }
+            } catch (IllegalArgumentException ex) {
+                showLoading(false);
+                DialogHelper.showErrorDialog("Invalid Value", "Invalid Timestamp or Duration", ex.getMessage());
+                return;
+            }
+            List<String> topicsToReset = targetTopic.equals("All Topics") ? List.of() : List.of(targetTopic);
+            resetFuture = kafkaService.resetConsumerGroupOffsetsAsync(
+                currentCluster.getBrokerUrls(), List.of(groupId), topicsToReset, options)
+                .thenApply(plan -> {
+                    OffsetResetPlan.GroupReset group = plan.getGroup(groupId);
+                    if (group.getStatus() == OffsetResetPlan.Status.FAILED) {
+                        throw new RuntimeException(group.getError());
+                    }
+                    String reset = String.format("%d partitions %s", group.getPartitions().size(),
+                        dryRun ? "would be reset" : "were reset");
+                    if (group.getTotalDelta() == 0) {
+                        return reset + ", leaving the group's position unchanged.";
+                    }
+                    return String.format("%s, moving %d messages %s.", reset, Math.abs(group.getTotalDelta()),
+                        group.getTotalDelta() < 0 ? "back" : "forward");
+                });
         }
         
-        resetFuture.whenComplete((result, throwable) -> {
+        resetFuture.whenComplete((summary, throwable) -> {
             Platform.runLater(() -> {
                 showLoading(false);
                 if (throwable == null) {
                     updateStatus("Offset reset " + (dryRun ? "preview" : "execution") + " completed successfully");
                     DialogHelper.showInfoDialog(operationType + " Completed", 
-                        "Consumer group offset reset " + (dryRun ? "preview" : "execution") + " completed successfully.");
+                        "Consumer group offset reset " + (dryRun ? "preview" : "execution") + " completed successfully.\n" + summary);
                     dialog.close();
                 } else {
                     updateStatus("Failed to " + operationType.toLowerCase() + " offset reset: " + throwable.getMessage());
@@ -3215,7 +3784,14 @@ public class MainController implements Initializable {
     
     public void shutdown() {
         logger.info("Shutting down MainController");
+        stopLiveTail();
+        stopTimeline();
+        if (autoRefreshTimeline != null) {
+            autoRefreshTimeline.stop();
+        }
         saveSettings();
+        kafkaService.closeLagMonitors();
+        kafkaService.closeMetricsPersistence();
         executorService.shutdown();
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.kafkatool.ui.controller.enhanced;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
@@ -8,10 +9,18 @@ import javafx.collections.ObservableList;
 import javafx.scene.chart.*;
 import com.kafkatool.model.*;
 import com.kafkatool.service.*;
+import com.kafkatool.util.lag.LagHistoryRecorder;
+import com.kafkatool.util.throughput.ThroughputHistoryRecorder;
+import com.kafkatool.util.timeseries.DataPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for monitoring and metrics dashboard
@@ -19,6 +28,7 @@ import java.time.format.DateTimeFormatter;
 public class MetricsDashboardController {
     
     private static final Logger logger = LoggerFactory.getLogger(MetricsDashboardController.class);
+    private static final long HISTORY_MILLIS = 3600_000;
     
     @FXML private TextField brokerUrlsField;
     @FXML private Button connectButton;
@@ -142,8 +152,8 @@ public class MetricsDashboardController {
         topicThroughputSeries.setName("Topic Messages/sec");
         topicSizeSeries.setName("Topic Size (MB)");
         lagSeries.setName("Consumer Lag");
-        cpuSeries.setName("CPU Usage (%)");
-        memorySeries.setName("Memory Usage (MB)");
+        cpuSeries.setName("Request Latency (ms)");
+        memorySeries.setName("Disk Usage (%)");
         
         // Add series to charts
         clusterThroughputChart.getData().add(throughputSeries);
@@ -160,8 +170,8 @@ public class MetricsDashboardController {
         configureChart(topicThroughputChart, "Topic Throughput");
         configureChart(topicSizeChart, "Topic Size");
         configureChart(consumerLagChart, "Consumer Lag");
-        configureChart(brokerCpuChart, "Broker CPU");
-        configureChart(brokerMemoryChart, "Broker Memory");
+        configureChart(brokerCpuChart, "Broker Request Latency");
+        configureChart(brokerMemoryChart, "Broker Disk Usage");
     }
     
     private void configureChart(LineChart<String, Number> chart, String title) {
@@ -253,18 +263,6 @@ public class MetricsDashboardController {
                 // Update charts with latest data
                 String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
                 
-                // Find specific metrics for charts
-                metrics.stream()
-                    .filter(m -> "messages_per_sec".equals(m.getMetricName()))
-                    .findFirst()
-                    .ifPresent(m -> {
-                        throughputSeries.getData().add(new XYChart.Data<>(timestamp, m.getValue()));
-                        // Keep only last 20 data points
-                        if (throughputSeries.getData().size() > 20) {
-                            throughputSeries.getData().remove(0);
-                        }
-                    });
-                
                 metrics.stream()
                     .filter(m -> "avg_latency_ms".equals(m.getMetricName()))
                     .findFirst()
@@ -275,6 +273,7 @@ public class MetricsDashboardController {
                         }
                     });
             })
+            .thenCompose(ignored -> loadHistory(brokerUrls, ThroughputHistoryRecorder.CLUSTER_RATE_SERIES, throughputSeries))
             .exceptionally(throwable -> {
                 logger.error("Failed to load cluster metrics", throwable);
                 return null;
@@ -295,16 +294,6 @@ public class MetricsDashboardController {
                 // Update topic charts
                 String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
                 
-                metrics.stream()
-                    .filter(m -> "topic_messages_per_sec".equals(m.getMetricName()))
-                    .findFirst()
-                    .ifPresent(m -> {
-                        topicThroughputSeries.getData().add(new XYChart.Data<>(timestamp, m.getValue()));
-                        if (topicThroughputSeries.getData().size() > 20) {
-                            topicThroughputSeries.getData().remove(0);
-                        }
-                    });
-                
                 metrics.stream()
                     .filter(m -> "topic_size_mb".equals(m.getMetricName()))
                     .findFirst()
@@ -315,6 +304,8 @@ public class MetricsDashboardController {
                         }
                     });
             })
+            .thenCompose(ignored -> loadHistory(brokerUrls, ThroughputHistoryRecorder.topicRateSeries(selectedTopic), 
+                topicThroughputSeries))
             .exceptionally(throwable -> {
                 logger.error("Failed to load topic metrics", throwable);
                 return null;
@@ -331,20 +322,8 @@ public class MetricsDashboardController {
             .thenAccept(metrics -> {
                 consumerMetrics.clear();
                 consumerMetrics.addAll(metrics);
-                
-                // Update consumer lag chart
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-                
-                double totalLag = metrics.stream()
-                    .filter(m -> "consumer_lag".equals(m.getMetricName()))
-                    .mapToDouble(MetricsInfo::getValue)
-                    .sum();
-                
-                lagSeries.getData().add(new XYChart.Data<>(timestamp, totalLag));
-                if (lagSeries.getData().size() > 20) {
-                    lagSeries.getData().remove(0);
-                }
             })
+            .thenCompose(ignored -> loadHistory(brokerUrls, LagHistoryRecorder.groupLagSeries(selectedGroup), lagSeries))
             .exceptionally(throwable -> {
                 logger.error("Failed to load consumer group metrics", throwable);
                 return null;
@@ -366,7 +345,7 @@ public class MetricsDashboardController {
                 String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
                 
                 metrics.stream()
-                    .filter(m -> "cpu_usage_percent".equals(m.getMetricName()))
+                    .filter(m -> "request_latency_avg_ms".equals(m.getMetricName()))
                     .findFirst()
                     .ifPresent(m -> {
                         cpuSeries.getData().add(new XYChart.Data<>(timestamp, m.getValue()));
@@ -376,7 +355,7 @@ public class MetricsDashboardController {
                     });
                 
                 metrics.stream()
-                    .filter(m -> "memory_usage_mb".equals(m.getMetricName()))
+                    .filter(m -> "disk_usage_percent".equals(m.getMetricName()))
                     .findFirst()
                     .ifPresent(m -> {
                         memorySeries.getData().add(new XYChart.Data<>(timestamp, m.getValue()));
@@ -391,6 +370,25 @@ public class MetricsDashboardController {
             });
     }
     
+    /**
+     * Redraw a chart from the recorded history rather than the last few refreshes
+     */
+    private CompletableFuture<Void> loadHistory(String brokerUrls, String series,
+                                                XYChart.Series<String, Number> chartSeries) {
+        long now = System.currentTimeMillis();
+        return kafkaService.getMetricHistoryAsync(brokerUrls, series, now - HISTORY_MILLIS, now, null)
+            .thenAccept(points -> {
+                DateTimeFormatter format = DateTimeFormatter.ofPattern("HH:mm:ss");
+                List<XYChart.Data<String, Number>> data = new ArrayList<>();
+                for (DataPoint point : points) {
+                    String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(point.getTimestamp()),
+                        ZoneId.systemDefault()).format(format);
+                    data.add(new XYChart.Data<>(timestamp, point.getValue()));
+                }
+                Platform.runLater(() -> chartSeries.getData().setAll(data));
+            });
+    }
+    
     public void setKafkaService(EnhancedKafkaService service) {
         this.kafkaService = service;
     }
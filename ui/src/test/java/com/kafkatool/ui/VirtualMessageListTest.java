@@ -0,0 +1,119 @@
+package com.kafkatool.ui;
+
+import com.kafkatool.model.KafkaMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the offset-windowed virtual message list
+ */
+public class VirtualMessageListTest {
+
+    @Test
+    public void testSizeCoversWholeRangeWithoutLoading() {
+        List<long[]> requests = new ArrayList<>();
+        VirtualMessageList list = new VirtualMessageList(1_000, 1_000_999, 100, 5,
+            (from, to) -> {
+                requests.add(new long[]{from, to});
+                return new CompletableFuture<>();
+            }, Runnable::run);
+
+        assertEquals(1_000_000, list.size());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void testGetLoadsPageAndPrefetchesNeighbours() {
+        List<long[]> requests = new ArrayList<>();
+        VirtualMessageList list = new VirtualMessageList(0, 999, 100, 5,
+            (from, to) -> {
+                requests.add(new long[]{from, to});
+                return CompletableFuture.completedFuture(messages(from, to));
+            }, Runnable::run);
+
+        assertNull(list.get(250));
+        assertEquals(3, requests.size());
+        assertEquals(3, list.getLoadedPageCount());
+
+        KafkaMessage message = list.get(250);
+        assertNotNull(message);
+        assertEquals(250, message.getOffset());
+        assertEquals(199, list.get(199).getOffset());
+        assertEquals(300, list.get(300).getOffset());
+    }
+
+    @Test
+    public void testDistantPagesAreEvicted() {
+        VirtualMessageList list = new VirtualMessageList(0, 99_999, 100, 4,
+            (from, to) -> CompletableFuture.completedFuture(messages(from, to)), Runnable::run);
+
+        for (int index = 0; index < 100_000; index += 100) {
+            list.get(index);
+            assertTrue(list.getLoadedPageCount() <= 4);
+        }
+        assertEquals(99_999, list.get(99_999).getOffset());
+    }
+
+    @Test
+    public void testMissingOffsetsStayEmpty() {
+        VirtualMessageList list = new VirtualMessageList(0, 9, 10, 3,
+            (from, to) -> {
+                List<KafkaMessage> compacted = messages(from, to);
+                compacted.removeIf(message -> message.getOffset() % 2 == 1);
+                return CompletableFuture.completedFuture(compacted);
+            }, Runnable::run);
+
+        list.get(0);
+        assertNotNull(list.get(4));
+        assertNull(list.get(5));
+    }
+
+    @Test
+    public void testFailedPageIsRetriedOnlyAfterBackoff() {
+        AtomicLong now = new AtomicLong();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        List<long[]> requests = new ArrayList<>();
+        VirtualMessageList list = new VirtualMessageList(0, 9, 10, 3,
+            (from, to) -> {
+                requests.add(new long[]{from, to});
+                return failing.get() ? CompletableFuture.failedFuture(new RuntimeException("broker down"))
+                    : CompletableFuture.completedFuture(messages(from, to));
+            }, Runnable::run, now::get);
+
+        assertNull(list.get(0));
+        // Every repaint of the empty rows within the backoff is served without a fetch
+        for (int i = 0; i < 10; i++) {
+            assertNull(list.get(i));
+        }
+        assertEquals(1, requests.size());
+
+        now.addAndGet(1_000);
+        list.get(0);
+        assertEquals(2, requests.size());
+        // The second failure doubles the wait
+        now.addAndGet(1_000);
+        list.get(0);
+        assertEquals(2, requests.size());
+
+        failing.set(false);
+        now.addAndGet(1_000);
+        list.get(0);
+        assertEquals(3, requests.size());
+        assertEquals(5, list.get(5).getOffset());
+    }
+
+    private static List<KafkaMessage> messages(long from, long to) {
+        List<KafkaMessage> result = new ArrayList<>();
+        for (long offset = from; offset <= to; offset++) {
+            result.add(new KafkaMessage("orders", 0, offset, "key-" + offset, "value-" + offset));
+        }
+        return result;
+    }
+}